@@ -9,7 +9,7 @@ import javax.transaction.TransactionManager;
 
 import org.hibernate.cache.CacheException;
 import org.hibernate.cache.RegionFactory;
-import org.hibernate.cache.TimestampsRegion;
+import org.hibernate.cache.BulkTimestampsRegion;
 import org.hibernate.cache.infinispan.impl.BaseGeneralDataRegion;
 import org.hibernate.cache.infinispan.util.CacheAdapter;
 import org.hibernate.cache.infinispan.util.CacheHelper;
@@ -29,7 +29,7 @@ import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
  * @since 3.5
  */
 @Listener
-public class TimestampsRegionImpl extends BaseGeneralDataRegion implements TimestampsRegion {
+public class TimestampsRegionImpl extends BaseGeneralDataRegion implements BulkTimestampsRegion {
 
    private Map localCache = new ConcurrentHashMap();
 
@@ -79,6 +79,20 @@ public class TimestampsRegionImpl extends BaseGeneralDataRegion implements Times
       }
    }
 
+   public void putAll(Map timestamps) throws CacheException {
+      // Don't hold the JBC node lock throughout the tx, as that
+      // prevents reads and other updates
+      Transaction tx = suspend();
+      try {
+         // A single replicated command, with ASYNC semantics (JBCACHE-1175)
+         cacheAdapter.withFlags(FlagAdapter.FORCE_ASYNCHRONOUS).putAll(timestamps);
+      } catch (Exception e) {
+         throw new CacheException(e);
+      } finally {
+         resume(tx);
+      }
+   }
+
    @Override
    public void destroy() throws CacheException {
       localCache.clear();
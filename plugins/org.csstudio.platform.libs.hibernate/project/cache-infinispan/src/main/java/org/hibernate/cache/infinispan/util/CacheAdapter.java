@@ -123,6 +123,14 @@ public interface CacheAdapter {
     */
    Object putAllowingTimeout(Object key, Object value) throws CacheException;
 
+   /**
+    * Performs a <code>putAll(Map)</code> on the cache, wrapping any exception in a {@link CacheException}.
+    * 
+    * @param map entries to store in the cache
+    * @throws CacheException
+    */
+   void putAll(Map map) throws CacheException;
+
    /**
     * See {@link Cache#putForExternalRead(Object, Object)} for detailed documentation.
     * 
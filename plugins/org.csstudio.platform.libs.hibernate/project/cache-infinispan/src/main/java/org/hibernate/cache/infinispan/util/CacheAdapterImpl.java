@@ -110,6 +110,14 @@ public class CacheAdapterImpl implements CacheAdapter {
       }
    }
 
+   public void putAll(Map map) throws CacheException {
+      try {
+         cache.putAll(map);
+      } catch (Exception e) {
+         throw new CacheException(e);
+      }
+   }
+
    public void putForExternalRead(Object key, Object value) throws CacheException {
       try {
          cache.putForExternalRead(key, value);
@@ -24,6 +24,7 @@
 
 package org.hibernate.cache.jbc.timestamp;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -32,7 +33,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import javax.transaction.Transaction;
 
 import org.hibernate.cache.CacheException;
-import org.hibernate.cache.TimestampsRegion;
+import org.hibernate.cache.BulkTimestampsRegion;
 import org.hibernate.cache.jbc.TransactionalDataRegionAdapter;
 import org.hibernate.cache.jbc.util.CacheHelper;
 import org.jboss.cache.Cache;
@@ -58,7 +59,7 @@ import org.jboss.cache.notifications.event.NodeRemovedEvent;
  * @version $Revision: 17023 $
  */
 @CacheListener
-public class TimestampsRegionImpl extends TransactionalDataRegionAdapter implements TimestampsRegion {
+public class TimestampsRegionImpl extends TransactionalDataRegionAdapter implements BulkTimestampsRegion {
 
     public static final String TYPE = "TS";
 
@@ -141,6 +142,28 @@ public class TimestampsRegionImpl extends TransactionalDataRegionAdapter impleme
         }
     }
 
+    public void putAll(Map timestamps) throws CacheException {
+       
+        ensureRegionRootExists();
+
+        // Suspend once for the whole batch; JBC has no bulk put across nodes
+        Transaction tx = suspend();
+        try {
+            Iterator entries = timestamps.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry entry = (Map.Entry) entries.next();
+                Option opt = getNonLockingDataVersionOption(false);
+                // We ensure ASYNC semantics (JBCACHE-1175)
+                opt.setForceAsynchronous(true);
+                CacheHelper.put(getCacheInstance(), getRegionFqn(), entry.getKey(), entry.getValue(), opt);
+            }
+        } catch (Exception e) {
+            throw new CacheException(e);
+        } finally {
+            resume(tx);
+        }
+    }
+
     @Override
     public void destroy() throws CacheException {
         localCache.clear();
@@ -0,0 +1,91 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Loads multiple instances of an entity by identifier in as few round trips
+ * as possible.  Identifiers are resolved against the persistence context
+ * first, then against the second-level cache, and those still unresolved are
+ * read from the database using <tt>in</tt> restrictions sized to the number
+ * of remaining identifiers (but never larger than the batch size, nor than the
+ * {@link org.hibernate.dialect.Dialect#getInExpressionCountLimit() limit}
+ * of the database).
+ * <p/>
+ * Obtained from {@link Session#byMultipleIds(Class)}.
+ *
+ * @see Session#get(Class, java.io.Serializable)
+ */
+public interface MultiIdentifierLoadAccess {
+
+	/**
+	 * Specify the maximum number of identifiers to read from the database
+	 * with a single statement.
+	 *
+	 * @param batchSize The maximum batch size
+	 * @return <tt>this</tt>, for method chaining
+	 */
+	public MultiIdentifierLoadAccess withBatchSize(int batchSize);
+
+	/**
+	 * Should instances already associated with the session be returned
+	 * without consulting the second-level cache or the database?  Enabled by
+	 * default.
+	 *
+	 * @param enabled <tt>true</tt> to check the persistence context first
+	 * @return <tt>this</tt>, for method chaining
+	 */
+	public MultiIdentifierLoadAccess enableSessionCheck(boolean enabled);
+
+	/**
+	 * Return the persistent instances with the given identifiers.  The
+	 * result has one element per identifier, in the same order; the element
+	 * is null if there is no such persistent instance.  As for
+	 * {@link Session#get(Class, java.io.Serializable)}, the returned
+	 * instances are never uninitialized proxies.
+	 *
+	 * @param ids The identifiers
+	 * @return The persistent instances, in the order of the identifiers
+	 * @throws HibernateException
+	 */
+	public List multiLoad(List ids) throws HibernateException;
+
+	/**
+	 * Return the persistent instances with the given identifiers, resolved
+	 * one chunk at a time.  Each element returned by the iterator is the
+	 * {@link #multiLoad(List) result} for the next <tt>chunkSize</tt>
+	 * identifiers, so that very large identifier lists may be processed
+	 * (and the session cleared) incrementally.  Chunks are loaded lazily, as
+	 * the iterator advances.
+	 *
+	 * @param ids The identifiers
+	 * @param chunkSize The number of identifiers per chunk
+	 * @return An iterator over the chunks, each a <tt>List</tt>
+	 * @throws HibernateException
+	 */
+	public Iterator multiLoad(List ids, int chunkSize) throws HibernateException;
+
+}
@@ -132,6 +132,22 @@ public interface Query {
 	 * @throws HibernateException
 	 */
 	public ScrollableResults scroll(ScrollMode scrollMode) throws HibernateException;
+	/**
+	 * Pass the query results, one at a time, to the given handler. The rows are
+	 * read and hydrated in chunks of <tt>chunkSize</tt> rows, and each chunk is
+	 * handed over as soon as its entities are initialized, so that only the
+	 * state of a single chunk is held in memory at any time.<br>
+	 * <br>
+	 * If <tt>evict</tt> is set, the entities loaded by a chunk are evicted from
+	 * the session once the chunk was handled. The query cache is not used, and
+	 * queries which fetch collections cannot be streamed.
+	 *
+	 * @param handler The handler receiving each result
+	 * @param chunkSize The number of rows hydrated at once
+	 * @param evict Should the entities loaded by each chunk be evicted once handled?
+	 * @throws HibernateException
+	 */
+	public void stream(ResultHandler handler, int chunkSize, boolean evict) throws HibernateException;
 	/**
 	 * Return the query results as a <tt>List</tt>. If the query contains
 	 * multiple results pre row, the results are returned in an instance
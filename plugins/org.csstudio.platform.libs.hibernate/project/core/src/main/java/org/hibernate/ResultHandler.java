@@ -0,0 +1,42 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate;
+
+/**
+ * Callback receiving the results of a query one at a time, as they are read
+ * from the JDBC result set.
+ *
+ * @see Query#stream(ResultHandler, int, boolean)
+ */
+public interface ResultHandler {
+	/**
+	 * Handle a single query result.  If the query contains multiple results
+	 * per row, the result is an instance of <tt>Object[]</tt>.
+	 *
+	 * @param result The query result
+	 * @throws HibernateException Indicates a problem handling the result; the
+	 * query is aborted.
+	 */
+	public void handleResult(Object result) throws HibernateException;
+}
@@ -838,6 +838,24 @@ public interface Session extends Serializable {
 	 */
 	public Object get(String entityName, Serializable id, LockOptions lockOptions) throws HibernateException;
 
+	/**
+	 * Create a {@link MultiIdentifierLoadAccess} for loading many instances of
+	 * the given entity class by identifier.
+	 *
+	 * @param entityClass a persistent class
+	 * @return MultiIdentifierLoadAccess
+	 */
+	public MultiIdentifierLoadAccess byMultipleIds(Class entityClass);
+
+	/**
+	 * Create a {@link MultiIdentifierLoadAccess} for loading many instances of
+	 * the given named entity by identifier.
+	 *
+	 * @param entityName the entity name
+	 * @return MultiIdentifierLoadAccess
+	 */
+	public MultiIdentifierLoadAccess byMultipleIds(String entityName);
+
 	/**
 	 * Return the entity name for a persistent entity
 	 *   
@@ -875,6 +893,41 @@ public interface Session extends Serializable {
 	 */
 	public SessionStatistics getStatistics();
 
+	/**
+	 * Bound the number of entities managed by this session, or their estimated
+	 * size in bytes, for batch processing without explicit calls to
+	 * {@link #clear()}.
+	 * <p/>
+	 * Whenever an operation leaves the session above the limit, the session is
+	 * flushed (if the flush mode is {@link FlushMode#AUTO auto} or
+	 * {@link FlushMode#ALWAYS always}) and the least recently used entities
+	 * without pending changes are evicted until the session holds three quarters
+	 * of the limit.  Entities which are dirty, own a dirty collection or are
+	 * referenced by a queued insertion, update or deletion are kept, as are all
+	 * entities returned or used by the operation which just ended.  The limit is
+	 * only checked at the end of top-level operations, never while cascading,
+	 * flushing or loading.  Evicted entities are detached: changes made to them
+	 * afterwards are not persisted unless they are reattached.  The number of
+	 * evictions and flushes is reported by {@link #getStatistics()}.
+	 * <p/>
+	 * The limit is not retained when the session is serialized.
+	 *
+	 * @param maxEntities The maximum number of managed entities, or 0 for no limit
+	 * @param maxEstimatedBytes The maximum estimated size of the managed entities
+	 * in bytes, or 0 for no limit
+	 */
+	public void setManagedEntityLimit(int maxEntities, long maxEstimatedBytes);
+
+	/**
+	 * Flush and evict entities without pending changes if the session is above the
+	 * limit set by {@link #setManagedEntityLimit(int, long)}, as done at the end of
+	 * every operation.  Does nothing if the session has no limit.
+	 *
+	 * @throws HibernateException Indicates problems flushing or checking the entities
+	 * for changes
+	 */
+	public void enforceManagedEntityLimit() throws HibernateException;
+
 	/**
 	 * Is the specified entity or proxy read-only?
 	 *
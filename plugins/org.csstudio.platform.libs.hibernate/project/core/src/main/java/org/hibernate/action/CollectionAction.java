@@ -105,6 +105,15 @@ public abstract class CollectionAction implements Executable, Serializable, Comp
 		return persister.getCollectionSpaces();
 	}
 
+	/**
+	 * The role of the collection affected by this action.
+	 *
+	 * @return The collection role
+	 */
+	public String getCollectionRole() {
+		return collectionRole;
+	}
+
 	protected final CollectionPersister getPersister() {
 		return persister;
 	}
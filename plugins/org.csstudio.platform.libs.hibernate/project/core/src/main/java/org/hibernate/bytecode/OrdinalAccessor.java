@@ -0,0 +1,203 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.bytecode;
+
+import org.hibernate.InstantiationException;
+import org.hibernate.PropertyAccessException;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.property.Getter;
+import org.hibernate.property.Setter;
+
+/**
+ * Access to the properties of an entity class by their index, through a class
+ * generated for that entity class.  Properties that generated code cannot
+ * reach, such as private members, are handled by their {@link Getter} and
+ * {@link Setter} instead.
+ * <p/>
+ * Exceptions raised by the entity class are reported as they are by the
+ * getters, setters and instantiators based on reflection.
+ */
+public abstract class OrdinalAccessor implements ReflectionOptimizer.InstantiationOptimizer {
+
+	public static final String PROPERTY_GET_EXCEPTION =
+		"exception getting property value with generated accessor (set hibernate.bytecode.use_ordinal_accessors=false for more info)";
+
+	public static final String PROPERTY_SET_EXCEPTION =
+		"exception setting property value with generated accessor (set hibernate.bytecode.use_ordinal_accessors=false for more info)";
+
+	private Class mappedClass;
+	private String[] propertyNames;
+	private Getter[] getters;
+	private Setter[] setters;
+	private boolean[] generated;
+	private SessionFactoryImplementor factory;
+
+	/**
+	 * Called by the generating factory once the accessor is instantiated.
+	 *
+	 * @param mappedClass The entity class
+	 * @param propertyNames The names of all the properties
+	 * @param getters The getters of all the properties
+	 * @param setters The setters of all the properties
+	 * @param generated Which properties the generated code accesses directly
+	 * @param factory The session factory, passed to the setters
+	 */
+	public final void initialize(
+			Class mappedClass,
+			String[] propertyNames,
+			Getter[] getters,
+			Setter[] setters,
+			boolean[] generated,
+			SessionFactoryImplementor factory) {
+		this.mappedClass = mappedClass;
+		this.propertyNames = propertyNames;
+		this.getters = getters;
+		this.setters = setters;
+		this.generated = generated;
+		this.factory = factory;
+	}
+
+	/**
+	 * Get the value of a property.
+	 *
+	 * @param entity The entity instance
+	 * @param index The index of the property
+	 * @return The property value
+	 */
+	public final Object get(Object entity, int index) {
+		if ( !generated[index] ) {
+			return getters[index].get( entity );
+		}
+		try {
+			return getGenerated( entity, index );
+		}
+		catch ( Throwable t ) {
+			throw new PropertyAccessException(
+					t,
+					PROPERTY_GET_EXCEPTION,
+					false,
+					mappedClass,
+					propertyNames[index]
+			);
+		}
+	}
+
+	/**
+	 * Set the value of a property.
+	 *
+	 * @param entity The entity instance
+	 * @param index The index of the property
+	 * @param value The property value
+	 */
+	public final void set(Object entity, int index, Object value) {
+		if ( !generated[index] ) {
+			setters[index].set( entity, value, factory );
+			return;
+		}
+		try {
+			setGenerated( entity, index, value );
+		}
+		catch ( PropertyAccessException e ) {
+			// a null for a primitive property, reported by its setter
+			throw e;
+		}
+		catch ( Throwable t ) {
+			throw new PropertyAccessException(
+					t,
+					PROPERTY_SET_EXCEPTION,
+					true,
+					mappedClass,
+					propertyNames[index]
+			);
+		}
+	}
+
+	/**
+	 * Get the value of a property accessed by the generated code.
+	 */
+	protected abstract Object getGenerated(Object entity, int index);
+
+	/**
+	 * Set the value of a property accessed by the generated code.
+	 */
+	protected abstract void setGenerated(Object entity, int index, Object value);
+
+	/**
+	 * Does the generated code access the given property directly?
+	 *
+	 * @param index The index of the property
+	 * @return True unless the property is handled by its getter and setter
+	 */
+	public final boolean isGenerated(int index) {
+		return generated[index];
+	}
+
+	/**
+	 * Can {@link #newInstance()} be used?  False when the entity class is abstract
+	 * or its default constructor cannot be called from generated code.
+	 *
+	 * @return True if instances can be created
+	 */
+	public abstract boolean isInstantiable();
+
+	/**
+	 * Create an instance of the entity class through its default constructor.
+	 *
+	 * @return The new instance, or null if the accessor is not {@link #isInstantiable() instantiable}
+	 */
+	public final Object newInstance() {
+		if ( !isInstantiable() ) {
+			return null;
+		}
+		try {
+			return instantiate();
+		}
+		catch ( Throwable t ) {
+			throw new InstantiationException( "Could not instantiate entity with generated accessor: ", mappedClass, t );
+		}
+	}
+
+	/**
+	 * Call the default constructor of the entity class, from the generated code.
+	 */
+	protected abstract Object instantiate();
+
+	public final Object[] getPropertyValues(Object entity) {
+		final Object[] result = new Object[getters.length];
+		for ( int i = 0; i < result.length; i++ ) {
+			result[i] = get( entity, i );
+		}
+		return result;
+	}
+
+	public final void setPropertyValues(Object entity, Object[] values) {
+		for ( int i = 0; i < values.length; i++ ) {
+			set( entity, i, values[i] );
+		}
+	}
+
+	protected final void setReflectively(Object entity, int index, Object value) {
+		setters[index].set( entity, value, factory );
+	}
+}
@@ -105,10 +105,15 @@ class BulkAccessorFactory {
 		return cl.getProtectionDomain();
 	}
 
+	// accessors may be created concurrently by a parallel session factory bootstrap
+	private static synchronized int nextCounter() {
+		return counter++;
+	}
+
 	private ClassFile make(Method[] getters, Method[] setters) throws CannotCompileException {
 		String className = targetBean.getName();
 		// set the name of bulk accessor.
-		className = className + "_$$_bulkaccess_" + counter++;
+		className = className + "_$$_bulkaccess_" + nextCounter();
 		if ( className.startsWith( "java." ) ) {
 			className = "org.javassist.tmp." + className;
 		}
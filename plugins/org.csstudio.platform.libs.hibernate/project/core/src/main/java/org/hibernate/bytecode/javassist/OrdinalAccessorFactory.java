@@ -0,0 +1,280 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.bytecode.javassist;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import org.hibernate.bytecode.OrdinalAccessor;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.property.BasicPropertyAccessor;
+import org.hibernate.property.DirectPropertyAccessor;
+import org.hibernate.property.Getter;
+import org.hibernate.property.Setter;
+import org.hibernate.util.StringHelper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates an {@link OrdinalAccessor} for an entity class: one class, defined
+ * in the package and class loader of the entity class, switching over the
+ * property indexes.  Properties accessed through public or package visible
+ * methods and fields, including inherited ones, are accessed directly; any other
+ * property is left to its getter and setter.  Nothing is run at generation time,
+ * so only members and types that the access rules make reachable from the
+ * package of the entity class are used by the generated code.
+ */
+public final class OrdinalAccessorFactory {
+	private static final Logger log = LoggerFactory.getLogger( OrdinalAccessorFactory.class );
+
+	private static int counter = 0;
+
+	private OrdinalAccessorFactory() {
+	}
+
+	// accessors may be created concurrently by a parallel session factory bootstrap
+	private static synchronized int nextCounter() {
+		return counter++;
+	}
+
+	/**
+	 * Generate the accessor of an entity class.
+	 *
+	 * @param mappedClass The entity class
+	 * @param propertyNames The names of the entity properties
+	 * @param getters The getters of the entity properties
+	 * @param setters The setters of the entity properties
+	 * @param factory The session factory
+	 * @return The accessor, or null if none could be generated
+	 */
+	public static OrdinalAccessor create(
+			Class mappedClass,
+			String[] propertyNames,
+			Getter[] getters,
+			Setter[] setters,
+			SessionFactoryImplementor factory) {
+		if ( mappedClass.isInterface() || mappedClass.isArray() || mappedClass.getName().startsWith( "java." )
+				|| !isVisible( mappedClass, mappedClass ) ) {
+			return null;
+		}
+		final boolean[] generated = new boolean[getters.length];
+		final String entity = typeName( mappedClass );
+		final StringBuffer get = new StringBuffer( "protected Object getGenerated(Object entity, int index) {" )
+				.append( entity ).append( " e = (" ).append( entity ).append( ") $1; switch ($2) {" );
+		final StringBuffer set = new StringBuffer( "protected void setGenerated(Object entity, int index, Object value) {" )
+				.append( entity ).append( " e = (" ).append( entity ).append( ") $1; switch ($2) {" );
+		for ( int i = 0; i < getters.length; i++ ) {
+			final String read = readExpression( mappedClass, getters[i] );
+			final String write = writeStatement( mappedClass, getters[i], setters[i] );
+			if ( read == null || write == null ) {
+				continue;
+			}
+			generated[i] = true;
+			get.append( "case " ).append( i ).append( ": return ($w) " ).append( read ).append( ";" );
+			set.append( "case " ).append( i ).append( ": " ).append( write ).append( " return;" );
+		}
+		// the accessor only calls the generated methods for the generated cases
+		get.append( "default: throw new IllegalArgumentException(String.valueOf($2)); } }" );
+		set.append( "default: throw new IllegalArgumentException(String.valueOf($2)); } }" );
+
+		final boolean instantiable = isInstantiable( mappedClass );
+		try {
+			ClassPool pool = new ClassPool( true );
+			pool.appendClassPath( new ClassClassPath( OrdinalAccessor.class ) );
+			pool.appendClassPath( new LoaderClassPath( mappedClass.getClassLoader() ) );
+			CtClass accessorClass = pool.makeClass(
+					mappedClass.getName() + "_$$_ordinalaccess_" + nextCounter(),
+					pool.get( OrdinalAccessor.class.getName() )
+			);
+			accessorClass.addMethod( CtNewMethod.make( get.toString(), accessorClass ) );
+			accessorClass.addMethod( CtNewMethod.make( set.toString(), accessorClass ) );
+			accessorClass.addMethod(
+					CtNewMethod.make( "public boolean isInstantiable() { return " + instantiable + "; }", accessorClass )
+			);
+			accessorClass.addMethod(
+					CtNewMethod.make(
+							"protected Object instantiate() { return " + ( instantiable ? "new " + entity + "()" : "null" ) + "; }",
+							accessorClass
+					)
+			);
+			// defined next to the entity class, so that package visible members can be accessed
+			Class generatedClass = accessorClass.toClass( mappedClass.getClassLoader(), mappedClass.getProtectionDomain() );
+			OrdinalAccessor accessor = ( OrdinalAccessor ) generatedClass.newInstance();
+			accessor.initialize( mappedClass, propertyNames, getters, setters, generated, factory );
+			return accessor;
+		}
+		catch ( Throwable t ) {
+			log.debug(
+					"ordinal accessor disabled for: " + mappedClass.getName() + " [" +
+							StringHelper.unqualify( t.getClass().getName() ) + ": " + t.getMessage() + "]"
+			);
+			return null;
+		}
+	}
+
+	private static String readExpression(Class mappedClass, Getter getter) {
+		if ( getter instanceof BasicPropertyAccessor.BasicGetter ) {
+			final Method method = getter.getMethod();
+			if ( isAccessible( method, mappedClass ) ) {
+				return "e." + method.getName() + "()";
+			}
+		}
+		else if ( getter instanceof DirectPropertyAccessor.DirectGetter ) {
+			final Field field = ( Field ) getter.getMember();
+			if ( isAccessible( field, mappedClass ) ) {
+				return "((" + typeName( field.getDeclaringClass() ) + ") e)." + field.getName();
+			}
+		}
+		return null;
+	}
+
+	private static String writeStatement(Class mappedClass, Getter getter, Setter setter) {
+		final Class type;
+		final String target;
+		if ( setter instanceof BasicPropertyAccessor.BasicSetter ) {
+			final Method method = setter.getMethod();
+			if ( !isAccessible( method, mappedClass ) ) {
+				return null;
+			}
+			type = method.getParameterTypes()[0];
+			if ( !isVisible( type, mappedClass ) ) {
+				return null;
+			}
+			target = "e." + method.getName() + "(";
+		}
+		else if ( setter instanceof DirectPropertyAccessor.DirectSetter
+				&& getter instanceof DirectPropertyAccessor.DirectGetter ) {
+			final Field field = ( Field ) getter.getMember();
+			if ( !isAccessible( field, mappedClass ) || Modifier.isFinal( field.getModifiers() )
+					|| !isVisible( field.getType(), mappedClass ) ) {
+				return null;
+			}
+			type = field.getType();
+			target = "((" + typeName( field.getDeclaringClass() ) + ") e)." + field.getName() + " = (";
+		}
+		else {
+			return null;
+		}
+		if ( type.isPrimitive() ) {
+			// leave nulls to the setter, which reports them
+			return "if ($3 == null) { setReflectively($1, $2, $3); } else { "
+					+ target + "((" + wrapperName( type ) + ") $3)." + type.getName() + "Value()); }";
+		}
+		return target + "(" + typeName( type ) + ") $3);";
+	}
+
+	private static boolean isAccessible(Member member, Class mappedClass) {
+		final int modifiers = member.getModifiers();
+		if ( Modifier.isPrivate( modifiers ) || Modifier.isStatic( modifiers ) ) {
+			return false;
+		}
+		final Class declaringClass = member.getDeclaringClass();
+		// public members, or package visible and protected members of a class of the same runtime package
+		return isVisible( declaringClass, mappedClass )
+				&& ( Modifier.isPublic( modifiers ) || isSamePackage( declaringClass, mappedClass ) );
+	}
+
+	/**
+	 * Can code in the package of the entity class name the given type, in a cast?
+	 */
+	private static boolean isVisible(Class type, Class mappedClass) {
+		while ( type.isArray() ) {
+			type = type.getComponentType();
+		}
+		if ( type.isPrimitive() ) {
+			return true;
+		}
+		for ( Class current = type; current != null; current = current.getDeclaringClass() ) {
+			final int modifiers = current.getModifiers();
+			if ( Modifier.isPrivate( modifiers ) ) {
+				return false;
+			}
+			if ( !Modifier.isPublic( modifiers ) && !isSamePackage( current, mappedClass ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isSamePackage(Class type, Class mappedClass) {
+		return type.getClassLoader() == mappedClass.getClassLoader()
+				&& StringHelper.qualifier( type.getName() ).equals( StringHelper.qualifier( mappedClass.getName() ) );
+	}
+
+	private static boolean isInstantiable(Class mappedClass) {
+		if ( Modifier.isAbstract( mappedClass.getModifiers() ) ) {
+			return false;
+		}
+		try {
+			Constructor constructor = mappedClass.getDeclaredConstructor( new Class[0] );
+			return !Modifier.isPrivate( constructor.getModifiers() );
+		}
+		catch ( NoSuchMethodException e ) {
+			return false;
+		}
+	}
+
+	private static String typeName(Class type) {
+		return type.isArray() ? typeName( type.getComponentType() ) + "[]" : type.getName();
+	}
+
+	private static String wrapperName(Class primitive) {
+		final Class wrapper;
+		if ( primitive == Integer.TYPE ) {
+			wrapper = Integer.class;
+		}
+		else if ( primitive == Long.TYPE ) {
+			wrapper = Long.class;
+		}
+		else if ( primitive == Boolean.TYPE ) {
+			wrapper = Boolean.class;
+		}
+		else if ( primitive == Double.TYPE ) {
+			wrapper = Double.class;
+		}
+		else if ( primitive == Float.TYPE ) {
+			wrapper = Float.class;
+		}
+		else if ( primitive == Short.TYPE ) {
+			wrapper = Short.class;
+		}
+		else if ( primitive == Byte.TYPE ) {
+			wrapper = Byte.class;
+		}
+		else {
+			wrapper = Character.class;
+		}
+		return wrapper.getName();
+	}
+}
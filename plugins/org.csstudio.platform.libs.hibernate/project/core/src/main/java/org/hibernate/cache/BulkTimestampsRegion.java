@@ -0,0 +1,45 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.cache;
+
+import java.util.Map;
+
+/**
+ * Optional contract for a {@link TimestampsRegion} which can store the timestamps
+ * of several query spaces at once more efficiently than one
+ * {@link GeneralDataRegion#put put} per space, typically by replicating them in
+ * a single remote call.  Regions which do not implement it are written one space
+ * at a time by {@link UpdateTimestampsCache}.
+ */
+public interface BulkTimestampsRegion extends TimestampsRegion {
+
+	/**
+	 * Put the timestamps of several query spaces into the cache at once.
+	 *
+	 * @param timestamps The timestamps (<tt>Long</tt>), keyed by query space
+	 * @throws CacheException Indicates a problem accessing the region.
+	 */
+	public void putAll(Map timestamps) throws CacheException;
+}
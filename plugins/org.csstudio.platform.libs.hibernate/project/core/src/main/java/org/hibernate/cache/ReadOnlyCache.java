@@ -54,7 +54,7 @@ public class ReadOnlyCache implements CacheConcurrencyStrategy {
 		return cache.getRegionName();
 	}
 	
-	public synchronized Object get(Object key, long timestamp) throws CacheException {
+	public Object get(Object key, long timestamp) throws CacheException {
 		Object result = cache.get(key);
 		if ( result!=null && log.isDebugEnabled() ) log.debug("Cache hit: " + key);
 		return result;
@@ -68,7 +68,7 @@ public class ReadOnlyCache implements CacheConcurrencyStrategy {
 		throw new UnsupportedOperationException("Can't write to a readonly object");
 	}
 	
-	public synchronized boolean put(
+	public boolean put(
 			Object key, 
 			Object value, 
 			long timestamp, 
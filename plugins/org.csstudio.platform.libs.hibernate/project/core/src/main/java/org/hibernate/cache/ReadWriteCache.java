@@ -26,6 +26,7 @@ package org.hibernate.cache;
 
 import java.io.Serializable;
 import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,7 +44,11 @@ import org.hibernate.cache.access.SoftLock;
  * must support distributed hard locks (which are held only momentarily). This
  * strategy also assumes that the underlying cache implementation does not do
  * asynchronous replication and that state has been fully replicated as soon
- * as the lock is released.
+ * as the lock is released.<br>
+ * <br>
+ * Reads do not lock at all. Transitions of an item between cached, soft-locked
+ * and released states are serialized per key by a fixed set of lock stripes, so
+ * that transactions writing different keys do not contend with each other.
  *
  * @see NonstrictReadWriteCache for a faster algorithm
  * @see CacheConcurrencyStrategy
@@ -52,10 +57,17 @@ public class ReadWriteCache implements CacheConcurrencyStrategy {
 
 	private static final Logger log = LoggerFactory.getLogger(ReadWriteCache.class);
 
+	private static final int LOCK_STRIPES = 64;
+
 	private Cache cache;
-	private int nextLockId;
+	private final AtomicInteger nextLockId = new AtomicInteger();
+	private final Object[] stripes = new Object[LOCK_STRIPES];
 
-	public ReadWriteCache() {}
+	public ReadWriteCache() {
+		for ( int i = 0; i < stripes.length; i++ ) {
+			stripes[i] = new Object();
+		}
+	}
 
 	public void setCache(Cache cache) {
 		this.cache=cache;
@@ -71,12 +83,21 @@ public class ReadWriteCache implements CacheConcurrencyStrategy {
 	
 	/**
 	 * Generate an id for a new lock. Uniqueness per cache instance is very
-	 * desirable but not absolutely critical. Must be called from one of the
-	 * synchronized methods of this class.
+	 * desirable but not absolutely critical; the counter simply wraps around.
 	 */
 	private int nextLockId() {
-		if (nextLockId==Integer.MAX_VALUE) nextLockId = Integer.MIN_VALUE;
-		return nextLockId++;
+		return nextLockId.getAndIncrement();
+	}
+
+	/**
+	 * The monitor guarding state transitions of the item cached under the
+	 * given key.
+	 */
+	private Object stripeFor(Object key) {
+		int h = key.hashCode();
+		h ^= ( h >>> 20 ) ^ ( h >>> 12 );
+		h ^= ( h >>> 7 ) ^ ( h >>> 4 );
+		return stripes[h & ( LOCK_STRIPES - 1 )];
 	}
 
 	/**
@@ -93,9 +114,12 @@ public class ReadWriteCache implements CacheConcurrencyStrategy {
 	 * to overwrite changes made and committed by another transaction
 	 * after the current transaction read the item from the cache. This
 	 * problem would be caught by the update-time version-checking, if
-	 * the data is versioned or timestamped.
+	 * the data is versioned or timestamped.<br>
+	 * <br>
+	 * Lookups take no lock: cached items are immutable and locks are never
+	 * gettable, whatever their current state.
 	 */
-	public synchronized Object get(Object key, long txTimestamp) throws CacheException {
+	public Object get(Object key, long txTimestamp) throws CacheException {
 
 		if ( log.isTraceEnabled() ) log.trace("Cache lookup: " + key);
 
@@ -134,22 +158,24 @@ public class ReadWriteCache implements CacheConcurrencyStrategy {
 	 * locks of transactions which simultaneously attempt to write to an
 	 * item.
 	 */
-	public synchronized SoftLock lock(Object key, Object version) throws CacheException {
+	public SoftLock lock(Object key, Object version) throws CacheException {
 		if ( log.isTraceEnabled() ) log.trace("Invalidating: " + key);
 
-		try {
-			cache.lock(key);
-
-			Lockable lockable = (Lockable) cache.get(key);
-			long timeout = cache.nextTimestamp() + cache.getTimeout();
-			final Lock lock = (lockable==null) ?
-				new Lock( timeout, nextLockId(), version ) :
-				lockable.lock( timeout, nextLockId() );
-			cache.update(key, lock);
-			return lock;
-		}
-		finally {
-			cache.unlock(key);
+		synchronized ( stripeFor( key ) ) {
+			try {
+				cache.lock(key);
+
+				Lockable lockable = (Lockable) cache.get(key);
+				long timeout = cache.nextTimestamp() + cache.getTimeout();
+				final Lock lock = (lockable==null) ?
+					new Lock( timeout, nextLockId(), version ) :
+					lockable.lock( timeout, nextLockId() );
+				cache.update(key, lock);
+				return lock;
+			}
+			finally {
+				cache.unlock(key);
+			}
 		}
 
 	}
@@ -162,7 +188,7 @@ public class ReadWriteCache implements CacheConcurrencyStrategy {
 	 * For versioned data, don't add the item unless it is the later
 	 * version.
 	 */
-	public synchronized boolean put(
+	public boolean put(
 			Object key, 
 			Object value, 
 			long txTimestamp, 
@@ -172,33 +198,35 @@ public class ReadWriteCache implements CacheConcurrencyStrategy {
 	throws CacheException {
 		if ( log.isTraceEnabled() ) log.trace("Caching: " + key);
 
-		try {
-			cache.lock(key);
+		synchronized ( stripeFor( key ) ) {
+			try {
+				cache.lock(key);
 
-			Lockable lockable = (Lockable) cache.get(key);
+				Lockable lockable = (Lockable) cache.get(key);
 
-			boolean puttable = lockable==null || 
-				lockable.isPuttable(txTimestamp, version, versionComparator);
+				boolean puttable = lockable==null || 
+					lockable.isPuttable(txTimestamp, version, versionComparator);
 
-			if (puttable) {
-				cache.put( key, new Item( value, version, cache.nextTimestamp() ) );
-				if ( log.isTraceEnabled() ) log.trace("Cached: " + key);
-				return true;
-			}
-			else {
-				if ( log.isTraceEnabled() ) {
-					if ( lockable.isLock() ) {
-						log.trace("Item was locked: " + key);
-					}
-					else {
-						log.trace("Item was already cached: " + key);
+				if (puttable) {
+					cache.put( key, new Item( value, version, cache.nextTimestamp() ) );
+					if ( log.isTraceEnabled() ) log.trace("Cached: " + key);
+					return true;
+				}
+				else {
+					if ( log.isTraceEnabled() ) {
+						if ( lockable.isLock() ) {
+							log.trace("Item was locked: " + key);
+						}
+						else {
+							log.trace("Item was already cached: " + key);
+						}
 					}
+					return false;
 				}
-				return false;
 			}
-		}
-		finally {
-			cache.unlock(key);
+			finally {
+				cache.unlock(key);
+			}
 		}
 	}
 
@@ -216,23 +244,25 @@ public class ReadWriteCache implements CacheConcurrencyStrategy {
 	 * re-cache the item (assuming that no other transaction holds a
 	 * simultaneous lock).
 	 */
-	public synchronized void release(Object key, SoftLock clientLock) throws CacheException {
+	public void release(Object key, SoftLock clientLock) throws CacheException {
 		if ( log.isTraceEnabled() ) log.trace("Releasing: " + key);
 
-		try {
-			cache.lock(key);
+		synchronized ( stripeFor( key ) ) {
+			try {
+				cache.lock(key);
 
-			Lockable lockable = (Lockable) cache.get(key);
-			if ( isUnlockable(clientLock, lockable) ) {
-				decrementLock(key, (Lock) lockable);
+				Lockable lockable = (Lockable) cache.get(key);
+				if ( isUnlockable(clientLock, lockable) ) {
+					decrementLock(key, (Lock) lockable);
+				}
+				else {
+					handleLockExpiry(key);
+				}
 			}
-			else {
-				handleLockExpiry(key);
+			finally {
+				cache.unlock(key);
 			}
 		}
-		finally {
-			cache.unlock(key);
-		}
 	}
 
 	void handleLockExpiry(Object key) throws CacheException {
@@ -265,38 +295,40 @@ public class ReadWriteCache implements CacheConcurrencyStrategy {
 	 * Re-cache the updated state, if and only if there there are
 	 * no other concurrent soft locks. Release our lock.
 	 */
-	public synchronized boolean afterUpdate(Object key, Object value, Object version, SoftLock clientLock) 
+	public boolean afterUpdate(Object key, Object value, Object version, SoftLock clientLock) 
 	throws CacheException {
 		
 		if ( log.isTraceEnabled() ) log.trace("Updating: " + key);
 
-		try {
-			cache.lock(key);
-
-			Lockable lockable = (Lockable) cache.get(key);
-			if ( isUnlockable(clientLock, lockable) ) {
-				Lock lock = (Lock) lockable;
-				if ( lock.wasLockedConcurrently() ) {
-					// just decrement the lock, don't recache
-					// (we don't know which transaction won)
-					decrementLock(key, lock);
-					return false;
+		synchronized ( stripeFor( key ) ) {
+			try {
+				cache.lock(key);
+
+				Lockable lockable = (Lockable) cache.get(key);
+				if ( isUnlockable(clientLock, lockable) ) {
+					Lock lock = (Lock) lockable;
+					if ( lock.wasLockedConcurrently() ) {
+						// just decrement the lock, don't recache
+						// (we don't know which transaction won)
+						decrementLock(key, lock);
+						return false;
+					}
+					else {
+						//recache the updated state
+						cache.update( key, new Item( value, version, cache.nextTimestamp() ) );
+						if ( log.isTraceEnabled() ) log.trace("Updated: " + key);
+						return true;
+					}
 				}
 				else {
-					//recache the updated state
-					cache.update( key, new Item( value, version, cache.nextTimestamp() ) );
-					if ( log.isTraceEnabled() ) log.trace("Updated: " + key);
-					return true;
+					handleLockExpiry(key);
+					return false;
 				}
+
 			}
-			else {
-				handleLockExpiry(key);
-				return false;
+			finally {
+				cache.unlock(key);
 			}
-
-		}
-		finally {
-			cache.unlock(key);
 		}
 	}
 
@@ -304,26 +336,28 @@ public class ReadWriteCache implements CacheConcurrencyStrategy {
 	 * Add the new item to the cache, checking that no other transaction has
 	 * accessed the item.
 	 */
-	public synchronized boolean afterInsert(Object key, Object value, Object version) 
+	public boolean afterInsert(Object key, Object value, Object version) 
 	throws CacheException {
 	
 		if ( log.isTraceEnabled() ) log.trace("Inserting: " + key);
-		try {
-			cache.lock(key);
+		synchronized ( stripeFor( key ) ) {
+			try {
+				cache.lock(key);
 
-			Lockable lockable = (Lockable) cache.get(key);
-			if (lockable==null) {
-				cache.update( key, new Item( value, version, cache.nextTimestamp() ) );
-				if ( log.isTraceEnabled() ) log.trace("Inserted: " + key);
-				return true;
+				Lockable lockable = (Lockable) cache.get(key);
+				if (lockable==null) {
+					cache.update( key, new Item( value, version, cache.nextTimestamp() ) );
+					if ( log.isTraceEnabled() ) log.trace("Inserted: " + key);
+					return true;
+				}
+				else {
+					return false;
+				}
 			}
-			else {
-				return false;
+			finally {
+				cache.unlock(key);
 			}
 		}
-		finally {
-			cache.unlock(key);
-		}
 	}
 
 	/**
@@ -26,17 +26,27 @@ package org.hibernate.cache;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.hibernate.EntityMode;
 import org.hibernate.HibernateException;
 import org.hibernate.UnresolvableObjectException;
 import org.hibernate.cfg.Settings;
+import org.hibernate.engine.BatchFetchQueue;
+import org.hibernate.engine.EntityKey;
+import org.hibernate.engine.SessionFactoryImplementor;
 import org.hibernate.engine.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
 import org.hibernate.type.Type;
 import org.hibernate.type.TypeFactory;
 
@@ -140,6 +150,21 @@ public class StandardQueryCache implements QueryCache {
 		}
 
 		log.debug( "returning cached query results" );
+		try {
+			return assemble( key, cacheable, returnTypes, isNaturalKeyLookup, session );
+		}
+		finally {
+			session.getPersistenceContext().getBatchFetchQueue().clearPrefetchedCacheEntries();
+		}
+	}
+
+	private List assemble(
+			QueryKey key,
+			List cacheable,
+			Type[] returnTypes,
+			boolean isNaturalKeyLookup,
+			SessionImplementor session) {
+		prefetchEntities( cacheable, returnTypes, session );
 		for ( int i = 1; i < cacheable.size(); i++ ) {
 			if ( returnTypes.length == 1 ) {
 				returnTypes[0].beforeAssemble( ( Serializable ) cacheable.get( i ), session );
@@ -182,6 +207,102 @@ public class StandardQueryCache implements QueryCache {
 		return result;
 	}
 
+	/**
+	 * Resolve the entities referenced by cached query results ahead of
+	 * assembling the rows, one entity name at a time rather than one row at a
+	 * time.  The second-level cache is consulted once for every entity not yet
+	 * associated with the session; entities missing from the cache are queued
+	 * for batch fetching, so that the batching entity loader reads them in
+	 * chunks of the configured batch size instead of one by one.  The outcome
+	 * of each cache lookup is handed over to the subsequent loads through the
+	 * {@link BatchFetchQueue}.
+	 *
+	 * @param cacheable The cached results; the first element is the timestamp
+	 * @param returnTypes The query return types
+	 * @param session The session
+	 */
+	protected void prefetchEntities(List cacheable, Type[] returnTypes, SessionImplementor session) {
+		if ( session.getEntityMode() != EntityMode.POJO || cacheable.size() <= 2 ) {
+			return;
+		}
+		Map keysByEntityName = null;
+		for ( int column = 0; column < returnTypes.length; column++ ) {
+			if ( !returnTypes[column].isEntityType() ) {
+				continue;
+			}
+			EntityType type = ( EntityType ) returnTypes[column];
+			if ( !type.isEager() || !type.isReferenceToPrimaryKey() ) {
+				continue;
+			}
+			EntityPersister persister = session.getFactory().getEntityPersister( type.getAssociatedEntityName() );
+			Type idType = persister.getIdentifierType();
+			Set keys = null;
+			for ( int i = 1; i < cacheable.size(); i++ ) {
+				Serializable cached = returnTypes.length == 1
+						? ( Serializable ) cacheable.get( i )
+						: ( ( Serializable[] ) cacheable.get( i ) )[column];
+				if ( cached == null ) {
+					continue;
+				}
+				Serializable id = ( Serializable ) idType.assemble( cached, session, null );
+				EntityKey entityKey = new EntityKey( id, persister, session.getEntityMode() );
+				if ( !session.getPersistenceContext().containsEntity( entityKey ) ) {
+					if ( keys == null ) {
+						if ( keysByEntityName == null ) {
+							keysByEntityName = new LinkedHashMap();
+						}
+						keys = ( Set ) keysByEntityName.get( persister.getEntityName() );
+						if ( keys == null ) {
+							keys = new LinkedHashSet();
+							keysByEntityName.put( persister.getEntityName(), keys );
+						}
+					}
+					keys.add( entityKey );
+				}
+			}
+		}
+		if ( keysByEntityName == null ) {
+			return;
+		}
+
+		SessionFactoryImplementor factory = session.getFactory();
+		BatchFetchQueue queue = session.getPersistenceContext().getBatchFetchQueue();
+		Iterator entries = keysByEntityName.entrySet().iterator();
+		while ( entries.hasNext() ) {
+			Map.Entry entry = ( Map.Entry ) entries.next();
+			EntityPersister persister = factory.getEntityPersister( ( String ) entry.getKey() );
+			boolean useCache = persister.hasCache() && session.getCacheMode().isGetEnabled();
+			Iterator keys = ( ( Set ) entry.getValue() ).iterator();
+			while ( keys.hasNext() ) {
+				EntityKey entityKey = ( EntityKey ) keys.next();
+				Object cached = null;
+				if ( useCache ) {
+					CacheKey cacheKey = new CacheKey(
+							entityKey.getIdentifier(),
+							persister.getIdentifierType(),
+							persister.getRootEntityName(),
+							session.getEntityMode(),
+							factory
+					);
+					cached = persister.getCacheAccessStrategy().get( cacheKey, session.getTimestamp() );
+					if ( factory.getStatistics().isStatisticsEnabled() ) {
+						String regionName = persister.getCacheAccessStrategy().getRegion().getName();
+						if ( cached == null ) {
+							factory.getStatisticsImplementor().secondLevelCacheMiss( regionName );
+						}
+						else {
+							factory.getStatisticsImplementor().secondLevelCacheHit( regionName );
+						}
+					}
+					queue.addPrefetchedCacheEntry( entityKey, cached == null ? BatchFetchQueue.CACHE_MISS : cached );
+				}
+				if ( cached == null ) {
+					queue.addBatchLoadableEntityKey( entityKey );
+				}
+			}
+		}
+	}
+
 	protected boolean isUpToDate(Set spaces, Long timestamp) {
 		if ( log.isDebugEnabled() ) {
 			log.debug( "Checking query spaces for up-to-dateness: " + spaces );
@@ -25,9 +25,18 @@
 package org.hibernate.cache;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +50,14 @@ import org.hibernate.cfg.Settings;
  * to a higher value than the timeouts of any of the query caches. In fact, we
  * recommend that the the underlying cache not be configured for expiry at all.
  * Note, in particular, that an LRU cache expiry policy is never appropriate.
+ * <p/>
+ * If {@link Settings#isAsyncTimestampsInvalidationEnabled() asynchronous invalidation}
+ * is enabled, the timestamps written after transaction completion are written by a
+ * background thread.  Until then the tables remain pre-invalidated, so that cached
+ * query results depending on them are not used; an invalidation never replaces the
+ * timestamp of a table which has been pre-invalidated again in the meantime.  The
+ * background thread holds no lock while writing, so transactions completing
+ * concurrently never wait for it.
  *
  * @author Gavin King
  * @author Mikheil Kapanadze
@@ -49,44 +66,130 @@ public class UpdateTimestampsCache {
 	public static final String REGION_NAME = UpdateTimestampsCache.class.getName();
 	private static final Logger log = LoggerFactory.getLogger( UpdateTimestampsCache.class );
 
+	/**
+	 * How long (in seconds) {@link #destroy()} waits for pending asynchronous invalidations
+	 */
+	private static final long SHUTDOWN_TIMEOUT = 10;
+
 	private final TimestampsRegion region;
+	private final ThreadPoolExecutor invalidator;
+	// the latest pre-invalidation of each space, only maintained for asynchronous invalidation
+	private final ConcurrentMap preinvalidations = new ConcurrentHashMap();
+	private final AtomicLong sequence = new AtomicLong();
 
 	public UpdateTimestampsCache(Settings settings, Properties props) throws HibernateException {
 		String prefix = settings.getCacheRegionPrefix();
-		String regionName = prefix == null ? REGION_NAME : prefix + '.' + REGION_NAME;
+		final String regionName = prefix == null ? REGION_NAME : prefix + '.' + REGION_NAME;
 		log.info( "starting update timestamps cache at region: " + regionName );
 		this.region = settings.getRegionFactory().buildTimestampsRegion( regionName, props );
+		if ( settings.isAsyncTimestampsInvalidationEnabled() ) {
+			// a single thread, so that invalidations are applied in order
+			invalidator = new ThreadPoolExecutor(
+					1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue(),
+					new ThreadFactory() {
+						public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread( runnable, "Hibernate update timestamps invalidation [" + regionName + "]" );
+							thread.setDaemon( true );
+							return thread;
+						}
+					}
+			);
+		}
+		else {
+			invalidator = null;
+		}
 	}
 
 	public synchronized void preinvalidate(Serializable[] spaces) throws CacheException {
 		//TODO: to handle concurrent writes correctly, this should return a Lock to the client
 		Long ts = new Long( region.nextTimestamp() + region.getTimeout() );
-		for ( int i=0; i<spaces.length; i++ ) {
-			if ( log.isDebugEnabled() ) {
-				log.debug( "Pre-invalidating space [" + spaces[i] + "]" );
+		if ( invalidator != null ) {
+			Preinvalidation preinvalidation = new Preinvalidation( sequence.incrementAndGet(), ts );
+			for ( int i=0; i<spaces.length; i++ ) {
+				recordPreinvalidation( spaces[i], preinvalidation );
 			}
-			//put() has nowait semantics, is this really appropriate?
-			//note that it needs to be async replication, never local or sync
-			region.put( spaces[i], ts );
 		}
+		//put() has nowait semantics, is this really appropriate?
+		//note that it needs to be async replication, never local or sync
+		putAll( toTimestamps( spaces, ts, "Pre-invalidating", -1 ) );
 		//TODO: return new Lock(ts);
 	}
 
-	 public synchronized void invalidate(Serializable[] spaces) throws CacheException {
+	public synchronized void invalidate(Serializable[] spaces) throws CacheException {
+		if ( spaces.length == 0 ) {
+			return;
+		}
 	 	//TODO: to handle concurrent writes correctly, the client should pass in a Lock
 		Long ts = new Long( region.nextTimestamp() );
-		//TODO: if lock.getTimestamp().equals(ts)
+		if ( invalidator != null ) {
+			invalidator.execute( new Invalidation( spaces, ts, sequence.get() ) );
+		}
+		else {
+			//TODO: if lock.getTimestamp().equals(ts)
+			putAll( toTimestamps( spaces, ts, "Invalidating", -1 ) );
+		}
+	}
+
+	/**
+	 * Record the pre-invalidation of a space, unless a later one has been recorded
+	 * concurrently.
+	 */
+	private void recordPreinvalidation(Serializable space, Preinvalidation preinvalidation) {
+		while ( true ) {
+			Preinvalidation current = ( Preinvalidation ) preinvalidations.putIfAbsent( space, preinvalidation );
+			if ( current == null || current.sequence > preinvalidation.sequence
+					|| preinvalidations.replace( space, current, preinvalidation ) ) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Build the timestamps to write for the given spaces.
+	 *
+	 * @param sequence for an asynchronous invalidation, the sequence number of the
+	 * latest pre-invalidation when it was requested; spaces pre-invalidated since are
+	 * skipped.  <tt>-1</tt> otherwise.
+	 */
+	private Map toTimestamps(Serializable[] spaces, Long ts, String action, long sequence) {
+		Map timestamps = new HashMap();
 		for ( int i=0; i<spaces.length; i++ ) {
+			if ( sequence >= 0 ) {
+				Preinvalidation preinvalidation = ( Preinvalidation ) preinvalidations.get( spaces[i] );
+				if ( preinvalidation != null && preinvalidation.sequence > sequence ) {
+					if ( log.isDebugEnabled() ) {
+						log.debug( "Skipping invalidation of space [" + spaces[i] + "], pre-invalidated since" );
+					}
+					continue;
+				}
+			}
 			if ( log.isDebugEnabled() ) {
-				log.debug( "Invalidating space [" + spaces[i] + "], timestamp: " + ts);
+				log.debug( action + " space [" + spaces[i] + "], timestamp: " + ts );
 			}
-			//put() has nowait semantics, is this really appropriate?
-			//note that it needs to be async replication, never local or sync
-			region.put( spaces[i], ts );
+			timestamps.put( spaces[i], ts );
 		}
+		return timestamps;
 	}
 
-	public synchronized boolean isUpToDate(Set spaces, Long timestamp) throws HibernateException {
+	/**
+	 * Write the given timestamps in bulk if the region supports it, one space at a
+	 * time otherwise.
+	 */
+	private void putAll(Map timestamps) {
+		if ( region instanceof BulkTimestampsRegion ) {
+			( ( BulkTimestampsRegion ) region ).putAll( timestamps );
+		}
+		else {
+			Iterator entries = timestamps.entrySet().iterator();
+			while ( entries.hasNext() ) {
+				Map.Entry entry = ( Map.Entry ) entries.next();
+				region.put( entry.getKey(), entry.getValue() );
+			}
+		}
+	}
+
+	public boolean isUpToDate(Set spaces, Long timestamp) throws HibernateException {
+		// no monitor: the region is safe for concurrent access, and each space is read once
 		Iterator iter = spaces.iterator();
 		while ( iter.hasNext() ) {
 			Serializable space = (Serializable) iter.next();
@@ -114,6 +217,17 @@ public class UpdateTimestampsCache {
 	}
 
 	public void destroy() {
+		if ( invalidator != null ) {
+			invalidator.shutdown();
+			try {
+				if ( !invalidator.awaitTermination( SHUTDOWN_TIMEOUT, TimeUnit.SECONDS ) ) {
+					log.warn( "pending update timestamps invalidations were discarded" );
+				}
+			}
+			catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			}
+		}
 		try {
 			region.destroy();
 		}
@@ -130,4 +244,57 @@ public class UpdateTimestampsCache {
 		return "UpdateTimestampeCache";
 	}
 
+	private static final class Preinvalidation {
+		private final long sequence;
+		private final Long timestamp;
+
+		private Preinvalidation(long sequence, Long timestamp) {
+			this.sequence = sequence;
+			this.timestamp = timestamp;
+		}
+	}
+
+	/**
+	 * Writes the timestamps of a completed transaction.
+	 */
+	private class Invalidation implements Runnable {
+		private final Serializable[] spaces;
+		private final Long ts;
+		private final long sequence;
+
+		private Invalidation(Serializable[] spaces, Long ts, long sequence) {
+			this.spaces = spaces;
+			this.ts = ts;
+			this.sequence = sequence;
+		}
+
+		public void run() {
+			try {
+				Map timestamps = toTimestamps( spaces, ts, "Invalidating", sequence );
+				putAll( timestamps );
+				// a pre-invalidation may have slipped in between check and write, and
+				// been overwritten: write its timestamp again
+				Map preinvalidated = new HashMap();
+				Iterator written = timestamps.keySet().iterator();
+				while ( written.hasNext() ) {
+					Serializable space = ( Serializable ) written.next();
+					Preinvalidation preinvalidation = ( Preinvalidation ) preinvalidations.get( space );
+					if ( preinvalidation != null && preinvalidation.sequence > sequence ) {
+						preinvalidated.put( space, preinvalidation.timestamp );
+					}
+				}
+				if ( !preinvalidated.isEmpty() ) {
+					if ( log.isDebugEnabled() ) {
+						log.debug( "Restoring pre-invalidation of spaces " + preinvalidated.keySet() );
+					}
+					putAll( preinvalidated );
+				}
+			}
+			catch ( RuntimeException e ) {
+				// the spaces remain pre-invalidated until the timeout of the region
+				log.warn( "could not invalidate update timestamps", e );
+			}
+		}
+	}
+
 }
@@ -0,0 +1,630 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.entry;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import org.hibernate.AssertionFailure;
+import org.hibernate.cache.CacheException;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.intercept.LazyPropertyInitializer;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.ComponentType;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.NullableType;
+import org.hibernate.type.Type;
+import org.hibernate.util.ArrayHelper;
+import org.hibernate.util.SerializationHelper;
+
+/**
+ * A compact binary structure for cached entities, intended for regions which
+ * replicate or store their entries remotely.  The cached state is written to a
+ * <tt>byte[]</tt> according to the property types of the entity, rather than
+ * relying on Java serialization of the whole {@link CacheEntry}:
+ * <pre>
+ * format version   1 byte
+ * subclass id      varint, position of the entity name within its (sorted) hierarchy
+ * flags            1 byte, lazy properties unfetched and version state
+ * version          if present
+ * value states     2 bits per property: value, null, unfetched or serialized
+ * values           in property order, for the value and serialized states only
+ * </pre>
+ * Numeric values are written as (zigzag) varints, strings as UTF-8, components
+ * recursively and associations as the identifier of the associated entity.  Values
+ * which have no compact encoding (custom types, calendars, ...) fall back to Java
+ * serialization, individually.
+ *
+ * @see org.hibernate.cfg.Environment#USE_BINARY_CACHE
+ */
+public class BinaryCacheEntry implements CacheEntryStructure {
+
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int VALUE = 0;
+	private static final int NULL = 1;
+	private static final int UNFETCHED = 2;
+	private static final int SERIALIZED = 3;
+
+	private static final int LAZY_PROPERTIES_UNFETCHED = 1;
+	private static final int VERSION_STATE_SHIFT = 1;
+
+	private final EntityPersister persister;
+
+	// lazily built, as they require the whole SessionFactory
+	private volatile String[] hierarchyEntityNames;
+	private volatile Codec[] propertyCodecs;
+	private volatile Codec versionCodec;
+
+	public BinaryCacheEntry(EntityPersister persister) {
+		this.persister = persister;
+	}
+
+	public Object structure(Object item) {
+		CacheEntry entry = (CacheEntry) item;
+		BinaryCacheEntry structure = forSubclass( entry.getSubclass(), persister.getFactory() );
+		Serializable[] state = entry.getDisassembledState();
+		Output out = new Output( 16 + state.length * 8 );
+		out.writeByte( FORMAT_VERSION );
+		out.writeVarLong( subclassId( entry.getSubclass() ) );
+		Object version = entry.getVersion();
+		Codec versionCodec = structure.getVersionCodec();
+		int versionState = stateOf( version, versionCodec );
+		out.writeByte(
+				( entry.areLazyPropertiesUnfetched() ? LAZY_PROPERTIES_UNFETCHED : 0 )
+						| versionState << VERSION_STATE_SHIFT
+		);
+		writeValue( versionState, version, versionCodec, out );
+		writeValues( state, structure.getPropertyCodecs(), out );
+		return out.toByteArray();
+	}
+
+	public Object destructure(Object item, SessionFactoryImplementor factory) {
+		Input in = new Input( (byte[]) item );
+		int format = in.readByte();
+		if ( format != FORMAT_VERSION ) {
+			throw new CacheException( "Unsupported binary cache entry format: " + format );
+		}
+		String subclass = getHierarchyEntityNames()[ (int) in.readVarLong() ];
+		BinaryCacheEntry structure = forSubclass( subclass, factory );
+		int flags = in.readByte();
+		Object version = readValue( ( flags >> VERSION_STATE_SHIFT ) & 3, structure.getVersionCodec(), in );
+		Codec[] codecs = structure.getPropertyCodecs();
+		Serializable[] state = new Serializable[codecs.length];
+		readValues( state, codecs, in );
+		return new CacheEntry( state, subclass, ( flags & LAZY_PROPERTIES_UNFETCHED ) != 0, version );
+	}
+
+	private BinaryCacheEntry forSubclass(String entityName, SessionFactoryImplementor factory) {
+		if ( persister.getEntityName().equals( entityName ) ) {
+			return this;
+		}
+		CacheEntryStructure structure = factory.getEntityPersister( entityName ).getCacheEntryStructure();
+		return structure instanceof BinaryCacheEntry
+				? (BinaryCacheEntry) structure
+				: new BinaryCacheEntry( factory.getEntityPersister( entityName ) );
+	}
+
+	private int subclassId(String entityName) {
+		int id = Arrays.binarySearch( getHierarchyEntityNames(), entityName );
+		if ( id < 0 ) {
+			throw new AssertionFailure( "Entity " + entityName + " is not part of the hierarchy of " + persister.getEntityName() );
+		}
+		return id;
+	}
+
+	/**
+	 * Entity names are identified by their position within the sorted names of the
+	 * hierarchy sharing the region, which is stable across nodes using the same mappings.
+	 */
+	private String[] getHierarchyEntityNames() {
+		String[] names = hierarchyEntityNames;
+		if ( names == null ) {
+			SessionFactoryImplementor factory = persister.getFactory();
+			List hierarchy = new ArrayList();
+			Iterator itr = factory.getAllClassMetadata().keySet().iterator();
+			while ( itr.hasNext() ) {
+				String entityName = (String) itr.next();
+				if ( persister.getRootEntityName().equals( factory.getEntityPersister( entityName ).getRootEntityName() ) ) {
+					hierarchy.add( entityName );
+				}
+			}
+			names = ArrayHelper.toStringArray( hierarchy );
+			Arrays.sort( names );
+			hierarchyEntityNames = names;
+		}
+		return names;
+	}
+
+	private Codec[] getPropertyCodecs() {
+		Codec[] codecs = propertyCodecs;
+		if ( codecs == null ) {
+			codecs = codecsFor( persister.getPropertyTypes(), persister.getFactory() );
+			propertyCodecs = codecs;
+		}
+		return codecs;
+	}
+
+	private Codec getVersionCodec() {
+		Codec codec = versionCodec;
+		if ( codec == null && persister.isVersioned() ) {
+			codec = codecFor( persister.getVersionType(), persister.getFactory() );
+			versionCodec = codec;
+		}
+		return codec;
+	}
+
+	private static int stateOf(Object value, Codec codec) {
+		if ( value == null ) {
+			return NULL;
+		}
+		else if ( value == LazyPropertyInitializer.UNFETCHED_PROPERTY ) {
+			return UNFETCHED;
+		}
+		else if ( codec != null && codec.accepts( value ) ) {
+			return VALUE;
+		}
+		else {
+			return SERIALIZED;
+		}
+	}
+
+	private static void writeValues(Object[] values, Codec[] codecs, Output out) {
+		int bits = 0;
+		for ( int i = 0; i < values.length; i++ ) {
+			bits |= stateOf( values[i], codecs[i] ) << ( ( i & 3 ) << 1 );
+			if ( ( i & 3 ) == 3 || i == values.length - 1 ) {
+				out.writeByte( bits );
+				bits = 0;
+			}
+		}
+		for ( int i = 0; i < values.length; i++ ) {
+			writeValue( stateOf( values[i], codecs[i] ), values[i], codecs[i], out );
+		}
+	}
+
+	private static void writeValue(int state, Object value, Codec codec, Output out) {
+		if ( state == VALUE ) {
+			codec.write( value, out );
+		}
+		else if ( state == SERIALIZED ) {
+			out.writeBytes( SerializationHelper.serialize( (Serializable) value ) );
+		}
+	}
+
+	private static void readValues(Object[] values, Codec[] codecs, Input in) {
+		int statesStart = in.position;
+		in.position += ( values.length + 3 ) >> 2;
+		for ( int i = 0; i < values.length; i++ ) {
+			int state = ( in.buffer[ statesStart + ( i >> 2 ) ] >> ( ( i & 3 ) << 1 ) ) & 3;
+			values[i] = readValue( state, codecs[i], in );
+		}
+	}
+
+	private static Serializable readValue(int state, Codec codec, Input in) {
+		switch ( state ) {
+			case VALUE:
+				return codec.read( in );
+			case UNFETCHED:
+				return LazyPropertyInitializer.UNFETCHED_PROPERTY;
+			case SERIALIZED:
+				return (Serializable) SerializationHelper.deserialize( in.readBytes() );
+			default:
+				return null;
+		}
+	}
+
+	private static Codec[] codecsFor(Type[] types, SessionFactoryImplementor factory) {
+		Codec[] codecs = new Codec[types.length];
+		for ( int i = 0; i < types.length; i++ ) {
+			codecs[i] = codecFor( types[i], factory );
+		}
+		return codecs;
+	}
+
+	/**
+	 * Determine the encoding of the disassembled values of the given type.
+	 *
+	 * @return the codec, or null if values of this type are always serialized
+	 */
+	private static Codec codecFor(Type type, SessionFactoryImplementor factory) {
+		if ( type.isEntityType() ) {
+			// associations are disassembled to the identifier of the associated entity
+			return codecFor( factory.getIdentifierType( ( (EntityType) type ).getAssociatedEntityName() ), factory );
+		}
+		else if ( type.isCollectionType() ) {
+			// collections are disassembled to the collection key
+			return codecFor( factory.getCollectionPersister( ( (CollectionType) type ).getRole() ).getKeyType(), factory );
+		}
+		else if ( type instanceof ComponentType ) {
+			return new ComponentCodec( codecsFor( ( (ComponentType) type ).getSubtypes(), factory ) );
+		}
+		else if ( type instanceof NullableType ) {
+			return ScalarCodec.forClass( type.getReturnedClass() );
+		}
+		return null;
+	}
+
+	private static abstract class Codec {
+		/**
+		 * Can the given (non null) disassembled value be written by this codec?
+		 */
+		abstract boolean accepts(Object value);
+
+		abstract void write(Object value, Output out);
+
+		abstract Serializable read(Input in);
+	}
+
+	private static final class ScalarCodec extends Codec {
+		private static final int INTEGER = 0;
+		private static final int LONG = 1;
+		private static final int SHORT = 2;
+		private static final int BYTE = 3;
+		private static final int BOOLEAN = 4;
+		private static final int CHARACTER = 5;
+		private static final int STRING = 6;
+		private static final int DOUBLE = 7;
+		private static final int FLOAT = 8;
+		private static final int BIG_DECIMAL = 9;
+		private static final int BIG_INTEGER = 10;
+		private static final int DATE = 11;
+
+		private static final ScalarCodec[] CODECS = new ScalarCodec[] {
+				new ScalarCodec( INTEGER, Integer.class ),
+				new ScalarCodec( LONG, Long.class ),
+				new ScalarCodec( SHORT, Short.class ),
+				new ScalarCodec( BYTE, Byte.class ),
+				new ScalarCodec( BOOLEAN, Boolean.class ),
+				new ScalarCodec( CHARACTER, Character.class ),
+				new ScalarCodec( STRING, String.class ),
+				new ScalarCodec( DOUBLE, Double.class ),
+				new ScalarCodec( FLOAT, Float.class ),
+				new ScalarCodec( BIG_DECIMAL, BigDecimal.class ),
+				new ScalarCodec( BIG_INTEGER, BigInteger.class ),
+				new ScalarCodec( DATE, Date.class ),
+		};
+
+		// the java.util.Date flavors, identified by their position
+		private static final Class[] DATE_CLASSES = new Class[] {
+				Date.class, java.sql.Date.class, Time.class, Timestamp.class
+		};
+
+		private final int kind;
+		private final Class valueClass;
+
+		private ScalarCodec(int kind, Class valueClass) {
+			this.kind = kind;
+			this.valueClass = valueClass;
+		}
+
+		static ScalarCodec forClass(Class returnedClass) {
+			for ( int i = 0; i < CODECS.length; i++ ) {
+				if ( CODECS[i].valueClass.isAssignableFrom( returnedClass ) ) {
+					return CODECS[i];
+				}
+			}
+			return null;
+		}
+
+		boolean accepts(Object value) {
+			if ( kind == DATE ) {
+				return dateClassId( value.getClass() ) >= 0;
+			}
+			// exact class only: subclasses could not be restored
+			return value.getClass() == valueClass;
+		}
+
+		void write(Object value, Output out) {
+			switch ( kind ) {
+				case INTEGER:
+					out.writeZigZag( ( (Integer) value ).intValue() );
+					break;
+				case LONG:
+					out.writeZigZag( ( (Long) value ).longValue() );
+					break;
+				case SHORT:
+					out.writeZigZag( ( (Short) value ).shortValue() );
+					break;
+				case BYTE:
+					out.writeByte( ( (Byte) value ).byteValue() );
+					break;
+				case BOOLEAN:
+					out.writeByte( ( (Boolean) value ).booleanValue() ? 1 : 0 );
+					break;
+				case CHARACTER:
+					out.writeVarLong( ( (Character) value ).charValue() );
+					break;
+				case STRING:
+					out.writeString( (String) value );
+					break;
+				case DOUBLE:
+					out.writeFixedLong( Double.doubleToLongBits( ( (Double) value ).doubleValue() ) );
+					break;
+				case FLOAT:
+					out.writeFixedInt( Float.floatToIntBits( ( (Float) value ).floatValue() ) );
+					break;
+				case BIG_DECIMAL:
+					BigDecimal decimal = (BigDecimal) value;
+					out.writeZigZag( decimal.scale() );
+					out.writeBytes( decimal.unscaledValue().toByteArray() );
+					break;
+				case BIG_INTEGER:
+					out.writeBytes( ( (BigInteger) value ).toByteArray() );
+					break;
+				case DATE:
+					int dateClassId = dateClassId( value.getClass() );
+					out.writeByte( dateClassId );
+					out.writeZigZag( ( (Date) value ).getTime() );
+					if ( value instanceof Timestamp ) {
+						out.writeVarLong( ( (Timestamp) value ).getNanos() );
+					}
+					break;
+				default:
+					throw new AssertionFailure( "unknown codec" );
+			}
+		}
+
+		Serializable read(Input in) {
+			switch ( kind ) {
+				case INTEGER:
+					return new Integer( (int) in.readZigZag() );
+				case LONG:
+					return new Long( in.readZigZag() );
+				case SHORT:
+					return new Short( (short) in.readZigZag() );
+				case BYTE:
+					return new Byte( (byte) in.readByte() );
+				case BOOLEAN:
+					return in.readByte() == 0 ? Boolean.FALSE : Boolean.TRUE;
+				case CHARACTER:
+					return new Character( (char) in.readVarLong() );
+				case STRING:
+					return in.readString();
+				case DOUBLE:
+					return new Double( Double.longBitsToDouble( in.readFixedLong() ) );
+				case FLOAT:
+					return new Float( Float.intBitsToFloat( in.readFixedInt() ) );
+				case BIG_DECIMAL:
+					int scale = (int) in.readZigZag();
+					return new BigDecimal( new BigInteger( in.readBytes() ), scale );
+				case BIG_INTEGER:
+					return new BigInteger( in.readBytes() );
+				case DATE:
+					Class dateClass = DATE_CLASSES[ in.readByte() ];
+					long time = in.readZigZag();
+					if ( dateClass == Timestamp.class ) {
+						Timestamp timestamp = new Timestamp( time );
+						timestamp.setNanos( (int) in.readVarLong() );
+						return timestamp;
+					}
+					else if ( dateClass == Time.class ) {
+						return new Time( time );
+					}
+					else if ( dateClass == java.sql.Date.class ) {
+						return new java.sql.Date( time );
+					}
+					return new Date( time );
+				default:
+					throw new AssertionFailure( "unknown codec" );
+			}
+		}
+
+		private static int dateClassId(Class dateClass) {
+			for ( int i = 0; i < DATE_CLASSES.length; i++ ) {
+				if ( DATE_CLASSES[i] == dateClass ) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * Components are disassembled to an array of their disassembled property values
+	 */
+	private static final class ComponentCodec extends Codec {
+		private final Codec[] codecs;
+
+		ComponentCodec(Codec[] codecs) {
+			this.codecs = codecs;
+		}
+
+		boolean accepts(Object value) {
+			return value.getClass() == Object[].class && ( (Object[]) value ).length == codecs.length;
+		}
+
+		void write(Object value, Output out) {
+			writeValues( (Object[]) value, codecs, out );
+		}
+
+		Serializable read(Input in) {
+			Object[] values = new Object[codecs.length];
+			readValues( values, codecs, in );
+			return values;
+		}
+	}
+
+	private static final class Output {
+		private byte[] buffer;
+		private int position;
+
+		Output(int initialSize) {
+			buffer = new byte[initialSize];
+		}
+
+		private void ensureCapacity(int length) {
+			if ( position + length > buffer.length ) {
+				byte[] larger = new byte[ Math.max( buffer.length << 1, position + length ) ];
+				System.arraycopy( buffer, 0, larger, 0, position );
+				buffer = larger;
+			}
+		}
+
+		void writeByte(int value) {
+			ensureCapacity( 1 );
+			buffer[position++] = (byte) value;
+		}
+
+		void writeVarLong(long value) {
+			ensureCapacity( 10 );
+			while ( ( value & ~0x7FL ) != 0 ) {
+				buffer[position++] = (byte) ( ( value & 0x7F ) | 0x80 );
+				value >>>= 7;
+			}
+			buffer[position++] = (byte) value;
+		}
+
+		void writeZigZag(long value) {
+			writeVarLong( ( value << 1 ) ^ ( value >> 63 ) );
+		}
+
+		void writeFixedLong(long value) {
+			ensureCapacity( 8 );
+			for ( int shift = 56; shift >= 0; shift -= 8 ) {
+				buffer[position++] = (byte) ( value >>> shift );
+			}
+		}
+
+		void writeFixedInt(int value) {
+			ensureCapacity( 4 );
+			for ( int shift = 24; shift >= 0; shift -= 8 ) {
+				buffer[position++] = (byte) ( value >>> shift );
+			}
+		}
+
+		void writeBytes(byte[] bytes) {
+			writeVarLong( bytes.length );
+			ensureCapacity( bytes.length );
+			System.arraycopy( bytes, 0, buffer, position, bytes.length );
+			position += bytes.length;
+		}
+
+		void writeString(String value) {
+			final int length = value.length();
+			writeVarLong( length );
+			ensureCapacity( length * 3 );
+			for ( int i = 0; i < length; i++ ) {
+				char c = value.charAt( i );
+				if ( c < 0x80 ) {
+					buffer[position++] = (byte) c;
+				}
+				else if ( c < 0x800 ) {
+					buffer[position++] = (byte) ( 0xC0 | c >> 6 );
+					buffer[position++] = (byte) ( 0x80 | ( c & 0x3F ) );
+				}
+				else {
+					buffer[position++] = (byte) ( 0xE0 | c >> 12 );
+					buffer[position++] = (byte) ( 0x80 | ( ( c >> 6 ) & 0x3F ) );
+					buffer[position++] = (byte) ( 0x80 | ( c & 0x3F ) );
+				}
+			}
+		}
+
+		byte[] toByteArray() {
+			byte[] result = new byte[position];
+			System.arraycopy( buffer, 0, result, 0, position );
+			return result;
+		}
+	}
+
+	private static final class Input {
+		private final byte[] buffer;
+		private int position;
+
+		Input(byte[] buffer) {
+			this.buffer = buffer;
+		}
+
+		int readByte() {
+			return buffer[position++];
+		}
+
+		long readVarLong() {
+			long value = 0;
+			for ( int shift = 0; ; shift += 7 ) {
+				byte b = buffer[position++];
+				value |= (long) ( b & 0x7F ) << shift;
+				if ( b >= 0 ) {
+					return value;
+				}
+			}
+		}
+
+		long readZigZag() {
+			long value = readVarLong();
+			return ( value >>> 1 ) ^ -( value & 1 );
+		}
+
+		long readFixedLong() {
+			long value = 0;
+			for ( int i = 0; i < 8; i++ ) {
+				value = value << 8 | ( buffer[position++] & 0xFF );
+			}
+			return value;
+		}
+
+		int readFixedInt() {
+			int value = 0;
+			for ( int i = 0; i < 4; i++ ) {
+				value = value << 8 | ( buffer[position++] & 0xFF );
+			}
+			return value;
+		}
+
+		byte[] readBytes() {
+			byte[] bytes = new byte[ (int) readVarLong() ];
+			System.arraycopy( buffer, position, bytes, 0, bytes.length );
+			position += bytes.length;
+			return bytes;
+		}
+
+		String readString() {
+			char[] chars = new char[ (int) readVarLong() ];
+			for ( int i = 0; i < chars.length; i++ ) {
+				int b = buffer[position++] & 0xFF;
+				if ( b < 0x80 ) {
+					chars[i] = (char) b;
+				}
+				else if ( b < 0xE0 ) {
+					chars[i] = (char) ( ( b & 0x1F ) << 6 | ( buffer[position++] & 0x3F ) );
+				}
+				else {
+					int b2 = buffer[position++] & 0x3F;
+					chars[i] = (char) ( ( b & 0x0F ) << 12 | b2 << 6 | ( buffer[position++] & 0x3F ) );
+				}
+			}
+			return new String( chars );
+		}
+	}
+}
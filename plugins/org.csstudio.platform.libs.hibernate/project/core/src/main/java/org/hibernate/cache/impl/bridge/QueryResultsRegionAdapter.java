@@ -34,7 +34,7 @@ import org.hibernate.cfg.Settings;
 * @author Steve Ebersole
  */
 public class QueryResultsRegionAdapter extends BaseGeneralDataRegionAdapter implements QueryResultsRegion {
-	protected QueryResultsRegionAdapter(Cache underlyingCache, Settings settings) {
+	public QueryResultsRegionAdapter(Cache underlyingCache, Settings settings) {
 		super( underlyingCache, settings );
 	}
 }
@@ -34,7 +34,7 @@ import org.hibernate.cfg.Settings;
 * @author Steve Ebersole
  */
 public class TimestampsRegionAdapter extends BaseGeneralDataRegionAdapter implements TimestampsRegion {
-	protected TimestampsRegionAdapter(Cache underlyingCache, Settings settings) {
+	public TimestampsRegionAdapter(Cache underlyingCache, Settings settings) {
 		super( underlyingCache, settings );
 	}
 }
@@ -0,0 +1,118 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.impl.local;
+
+/**
+ * A probabilistic, 4-bit count-min sketch estimating the popularity of keys
+ * within a recent window of accesses, used as the TinyLFU admission filter of
+ * {@link LocalCache}.  Each key maps to 4 counters (one per hash function);
+ * its estimated frequency is the smallest of them.  Once the number of recorded
+ * accesses reaches a sample size proportional to the table, all counters are
+ * halved so that the sketch ages out past popularity.
+ * <p/>
+ * Not thread safe: callers must guard it with the lock of their segment.
+ */
+final class FrequencySketch {
+	private static final long[] SEEDS = new long[] {
+			0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+	};
+	private static final long RESET_MASK = 0x7777777777777777L;
+	private static final int MAX_TABLE_SIZE = 1 << 16;
+
+	private long[] table;
+	private int tableMask;
+	private int sampleSize;
+	private int size;
+
+	FrequencySketch() {
+		resize( 16 );
+	}
+
+	/**
+	 * Grow the sketch so that it can distinguish the given number of entries.
+	 * Growing discards the recorded frequencies.
+	 *
+	 * @param entries the number of entries the cache holds
+	 */
+	void ensureCapacity(int entries) {
+		if ( entries > table.length && table.length < MAX_TABLE_SIZE ) {
+			int length = table.length;
+			while ( length < entries && length < MAX_TABLE_SIZE ) {
+				length <<= 1;
+			}
+			resize( length );
+		}
+	}
+
+	private void resize(int length) {
+		table = new long[length];
+		tableMask = length - 1;
+		sampleSize = length * 10;
+		size = 0;
+	}
+
+	void increment(int hash) {
+		int start = ( hash & 3 ) << 2;
+		boolean added = false;
+		for ( int i = 0; i < 4; i++ ) {
+			added |= incrementAt( indexOf( hash, i ), start + i );
+		}
+		if ( added && ++size == sampleSize ) {
+			reset();
+		}
+	}
+
+	int frequency(int hash) {
+		int start = ( hash & 3 ) << 2;
+		int frequency = Integer.MAX_VALUE;
+		for ( int i = 0; i < 4; i++ ) {
+			int count = (int) ( ( table[indexOf( hash, i )] >>> ( ( start + i ) << 2 ) ) & 0xfL );
+			frequency = Math.min( frequency, count );
+		}
+		return frequency;
+	}
+
+	private boolean incrementAt(int index, int counter) {
+		int offset = counter << 2;
+		long mask = 0xfL << offset;
+		if ( ( table[index] & mask ) != mask ) {
+			table[index] += 1L << offset;
+			return true;
+		}
+		return false;
+	}
+
+	private int indexOf(int hash, int i) {
+		long h = ( hash + SEEDS[i] ) * SEEDS[i];
+		h += h >>> 32;
+		return ( (int) h ) & tableMask;
+	}
+
+	private void reset() {
+		for ( int i = 0; i < table.length; i++ ) {
+			table[i] = ( table[i] >>> 1 ) & RESET_MASK;
+		}
+		size = size >>> 1;
+	}
+}
@@ -0,0 +1,552 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.impl.local;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.hibernate.cache.Cache;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.Timestamper;
+
+/**
+ * An in-process {@link Cache} bounded by an estimated byte budget.
+ * <p/>
+ * Entries live in a {@link ConcurrentHashMap}, so reads never block.  Writes
+ * and eviction bookkeeping are partitioned over a number of segments, each
+ * guarded by its own lock and owning a share of the budget.  Every segment
+ * applies the W-TinyLFU policy: new entries enter a small LRU admission
+ * window; entries leaving the window only displace the least recently used
+ * entry of the main space if a {@link FrequencySketch} estimates them to be
+ * more popular.  The main space is a segmented LRU whose protected part holds
+ * the entries that were hit again after admission.  Access bookkeeping done by
+ * reads is best effort: it is skipped when the segment is busy.
+ * <p/>
+ * Entries may additionally expire after a fixed time to live and/or after a
+ * period of inactivity.  Expired entries are discarded lazily by reads and
+ * swept opportunistically by writes.
+ */
+public class LocalCache implements Cache {
+	private static final int WINDOW = 0;
+	private static final int PROBATION = 1;
+	private static final int PROTECTED = 2;
+
+	private static final int MAX_SEGMENTS = 64;
+	private static final long MIN_SEGMENT_WEIGHT = 64 * 1024;
+	private static final int EXPIRY_SWEEP_LIMIT = 8;
+
+	private final String regionName;
+	private final ConcurrentHashMap map;
+	private final Segment[] segments;
+	private final int segmentMask;
+	private final long maxWeight;
+	private final long timeToLive;
+	private final long timeToIdle;
+
+	/**
+	 * Constructs a cache.
+	 *
+	 * @param regionName The name of the region backed by this cache
+	 * @param maxWeight The estimated number of bytes the cache may retain; a negative value means unbounded
+	 * @param timeToLive Milliseconds after which an entry expires once written; zero or less means never
+	 * @param timeToIdle Milliseconds after which an entry expires once last read; zero or less means never
+	 */
+	public LocalCache(String regionName, long maxWeight, long timeToLive, long timeToIdle) {
+		this.regionName = regionName;
+		this.maxWeight = maxWeight < 0 ? Long.MAX_VALUE : maxWeight;
+		this.timeToLive = timeToLive > 0 ? timeToLive : 0;
+		this.timeToIdle = timeToIdle > 0 ? timeToIdle : 0;
+
+		int segmentCount = 1;
+		int wanted = Math.min( MAX_SEGMENTS, Runtime.getRuntime().availableProcessors() * 2 );
+		while ( segmentCount < wanted && this.maxWeight / ( segmentCount << 1 ) >= MIN_SEGMENT_WEIGHT ) {
+			segmentCount <<= 1;
+		}
+		this.segments = new Segment[segmentCount];
+		this.segmentMask = segmentCount - 1;
+		long segmentWeight = this.maxWeight == Long.MAX_VALUE ? Long.MAX_VALUE : this.maxWeight / segmentCount;
+		for ( int i = 0; i < segmentCount; i++ ) {
+			segments[i] = new Segment( segmentWeight );
+		}
+		this.map = new ConcurrentHashMap( 16, 0.75f, segmentCount );
+	}
+
+	public String getRegionName() {
+		return regionName;
+	}
+
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	public Object read(Object key) throws CacheException {
+		return get( key );
+	}
+
+	public Object get(Object key) throws CacheException {
+		if ( key == null ) {
+			return null;
+		}
+		int hash = spread( key.hashCode() );
+		Segment segment = segmentFor( hash );
+		Node node = (Node) map.get( key );
+		if ( node == null ) {
+			segment.recordMiss( hash );
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		if ( isExpired( node, now ) ) {
+			segment.expire( node );
+			return null;
+		}
+		if ( timeToIdle > 0 ) {
+			node.accessTime = now;
+		}
+		segment.recordHit( node );
+		return node.value;
+	}
+
+	public void update(Object key, Object value) throws CacheException {
+		put( key, value );
+	}
+
+	public void put(Object key, Object value) throws CacheException {
+		if ( key == null || value == null ) {
+			throw new CacheException( "LocalCache does not allow null keys or values" );
+		}
+		int hash = spread( key.hashCode() );
+		segmentFor( hash ).put( key, hash, value, SizeEstimator.weigh( key, value ) );
+	}
+
+	public void remove(Object key) throws CacheException {
+		if ( key == null ) {
+			return;
+		}
+		Node node = (Node) map.get( key );
+		if ( node != null ) {
+			segmentFor( node.hash ).remove( node );
+		}
+	}
+
+	public void clear() throws CacheException {
+		for ( int i = 0; i < segments.length; i++ ) {
+			segments[i].clear();
+		}
+	}
+
+	public void destroy() throws CacheException {
+		clear();
+	}
+
+	public void lock(Object key) throws CacheException {
+		// local cache, so we use synchronization
+	}
+
+	public void unlock(Object key) throws CacheException {
+		// local cache, so we use synchronization
+	}
+
+	public long nextTimestamp() {
+		return Timestamper.next();
+	}
+
+	public int getTimeout() {
+		return Timestamper.ONE_MS * 60000; //ie. 60 seconds
+	}
+
+	/**
+	 * The estimated number of bytes retained by the cached keys and values.
+	 */
+	public long getSizeInMemory() {
+		long weight = 0;
+		for ( int i = 0; i < segments.length; i++ ) {
+			weight += segments[i].weight;
+		}
+		return weight;
+	}
+
+	public long getElementCountInMemory() {
+		return map.size();
+	}
+
+	public long getElementCountOnDisk() {
+		return 0;
+	}
+
+	/**
+	 * The number of entries discarded to stay within the byte budget.
+	 */
+	public long getEvictionCount() {
+		long count = 0;
+		for ( int i = 0; i < segments.length; i++ ) {
+			count += segments[i].evictionCount;
+		}
+		return count;
+	}
+
+	/**
+	 * The number of entries discarded because they expired.
+	 */
+	public long getExpirationCount() {
+		long count = 0;
+		for ( int i = 0; i < segments.length; i++ ) {
+			count += segments[i].expirationCount;
+		}
+		return count;
+	}
+
+	public Map toMap() {
+		Map result = new HashMap();
+		long now = System.currentTimeMillis();
+		Iterator itr = map.values().iterator();
+		while ( itr.hasNext() ) {
+			Node node = (Node) itr.next();
+			if ( !isExpired( node, now ) ) {
+				result.put( node.key, node.value );
+			}
+		}
+		return result;
+	}
+
+	public String toString() {
+		return "LocalCache(" + regionName + ')';
+	}
+
+	private boolean isExpired(Node node, long now) {
+		return ( timeToLive > 0 && now - node.writeTime >= timeToLive )
+				|| ( timeToIdle > 0 && now - node.accessTime >= timeToIdle );
+	}
+
+	private Segment segmentFor(int hash) {
+		return segments[( hash >>> 16 ) & segmentMask];
+	}
+
+	private static int spread(int h) {
+		h ^= ( h >>> 20 ) ^ ( h >>> 12 );
+		return h ^ ( h >>> 7 ) ^ ( h >>> 4 );
+	}
+
+	private static final class Node {
+		final Object key;
+		final int hash;
+		volatile Object value;
+		volatile long writeTime;
+		volatile long accessTime;
+
+		// guarded by the segment lock
+		int weight;
+		int queue;
+		Node prev;
+		Node next;
+
+		Node(Object key, int hash) {
+			this.key = key;
+			this.hash = hash;
+		}
+
+		Node() {
+			this( null, 0 );
+			prev = this;
+			next = this;
+		}
+	}
+
+	private final class Segment extends ReentrantLock {
+		private final long maxWeight;
+		private final long windowMaxWeight;
+		private final long protectedMaxWeight;
+		private final FrequencySketch sketch = new FrequencySketch();
+
+		private final Node window = new Node();
+		private final Node probation = new Node();
+		private final Node protectedSpace = new Node();
+		private long windowWeight;
+		private long protectedWeight;
+		private int count;
+
+		volatile long weight;
+		volatile long evictionCount;
+		volatile long expirationCount;
+
+		Segment(long maxWeight) {
+			this.maxWeight = maxWeight;
+			this.windowMaxWeight = maxWeight == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max( 1, maxWeight / 100 );
+			this.protectedMaxWeight = maxWeight == Long.MAX_VALUE
+					? Long.MAX_VALUE
+					: ( maxWeight - windowMaxWeight ) / 5 * 4;
+		}
+
+		void recordHit(Node node) {
+			if ( tryLock() ) {
+				try {
+					sketch.increment( node.hash );
+					// the node may have been removed by a concurrent writer
+					if ( node.prev != null ) {
+						onAccess( node );
+					}
+				}
+				finally {
+					unlock();
+				}
+			}
+		}
+
+		void recordMiss(int hash) {
+			if ( tryLock() ) {
+				try {
+					sketch.increment( hash );
+				}
+				finally {
+					unlock();
+				}
+			}
+		}
+
+		void put(Object key, int hash, Object value, int nodeWeight) {
+			lock();
+			try {
+				long now = System.currentTimeMillis();
+				Node node = (Node) map.get( key );
+				if ( nodeWeight > maxWeight ) {
+					// never going to fit; just make sure no stale value remains
+					if ( node != null ) {
+						discard( node );
+					}
+					return;
+				}
+				sketch.increment( hash );
+				if ( node != null ) {
+					node.value = value;
+					node.writeTime = now;
+					node.accessTime = now;
+					changeWeight( node, nodeWeight );
+					onAccess( node );
+				}
+				else {
+					node = new Node( key, hash );
+					node.value = value;
+					node.writeTime = now;
+					node.accessTime = now;
+					node.weight = nodeWeight;
+					node.queue = WINDOW;
+					link( window, node );
+					windowWeight += nodeWeight;
+					weight += nodeWeight;
+					count++;
+					map.put( key, node );
+					sketch.ensureCapacity( count );
+				}
+				sweepExpired( now );
+				evict();
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		void remove(Node node) {
+			lock();
+			try {
+				if ( node.prev != null ) {
+					discard( node );
+				}
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		void expire(Node node) {
+			lock();
+			try {
+				if ( node.prev != null && isExpired( node, System.currentTimeMillis() ) ) {
+					discard( node );
+					expirationCount++;
+				}
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		void clear() {
+			lock();
+			try {
+				clear( window );
+				clear( probation );
+				clear( protectedSpace );
+				windowWeight = 0;
+				protectedWeight = 0;
+				weight = 0;
+				count = 0;
+			}
+			finally {
+				unlock();
+			}
+		}
+
+		private void clear(Node sentinel) {
+			Node node = sentinel.next;
+			while ( node != sentinel ) {
+				Node next = node.next;
+				map.remove( node.key, node );
+				node.prev = null;
+				node.next = null;
+				node = next;
+			}
+			sentinel.prev = sentinel;
+			sentinel.next = sentinel;
+		}
+
+		private void onAccess(Node node) {
+			if ( node.queue == PROBATION ) {
+				// promote; demote the least recently used protected entries if needed
+				unlink( node );
+				node.queue = PROTECTED;
+				link( protectedSpace, node );
+				protectedWeight += node.weight;
+				while ( protectedWeight > protectedMaxWeight && protectedSpace.next != node ) {
+					Node demoted = protectedSpace.next;
+					unlink( demoted );
+					protectedWeight -= demoted.weight;
+					demoted.queue = PROBATION;
+					link( probation, demoted );
+				}
+			}
+			else {
+				unlink( node );
+				link( node.queue == WINDOW ? window : protectedSpace, node );
+			}
+		}
+
+		private void changeWeight(Node node, int nodeWeight) {
+			int delta = nodeWeight - node.weight;
+			node.weight = nodeWeight;
+			weight += delta;
+			if ( node.queue == WINDOW ) {
+				windowWeight += delta;
+			}
+			else if ( node.queue == PROTECTED ) {
+				protectedWeight += delta;
+			}
+		}
+
+		private void evict() {
+			// entries overflowing the window become candidates for admission into the main space
+			Node candidate = null;
+			while ( windowWeight > windowMaxWeight && window.next != window ) {
+				Node node = window.next;
+				unlink( node );
+				windowWeight -= node.weight;
+				node.queue = PROBATION;
+				link( probation, node );
+				if ( candidate == null ) {
+					candidate = node;
+				}
+			}
+
+			while ( weight > maxWeight ) {
+				Node victim = probation.next;
+				if ( victim == probation ) {
+					victim = protectedSpace.next != protectedSpace ? protectedSpace.next : window.next;
+					if ( victim == window ) {
+						break;
+					}
+				}
+				else if ( candidate != null && candidate != victim ) {
+					// TinyLFU admission: keep whichever of the two is the more popular
+					if ( sketch.frequency( candidate.hash ) > sketch.frequency( victim.hash ) ) {
+						evict( victim );
+					}
+					else {
+						Node next = candidate.next;
+						evict( candidate );
+						candidate = next == probation ? null : next;
+					}
+					continue;
+				}
+				else if ( candidate == victim ) {
+					candidate = victim.next == probation ? null : victim.next;
+				}
+				evict( victim );
+			}
+		}
+
+		private void evict(Node node) {
+			discard( node );
+			evictionCount++;
+		}
+
+		private void sweepExpired(long now) {
+			if ( timeToLive == 0 && timeToIdle == 0 ) {
+				return;
+			}
+			sweepExpired( window, now );
+			sweepExpired( probation, now );
+			sweepExpired( protectedSpace, now );
+		}
+
+		private void sweepExpired(Node sentinel, long now) {
+			Node node = sentinel.next;
+			for ( int i = 0; i < EXPIRY_SWEEP_LIMIT && node != sentinel; i++ ) {
+				Node next = node.next;
+				if ( isExpired( node, now ) ) {
+					discard( node );
+					expirationCount++;
+				}
+				node = next;
+			}
+		}
+
+		private void discard(Node node) {
+			map.remove( node.key, node );
+			unlink( node );
+			if ( node.queue == WINDOW ) {
+				windowWeight -= node.weight;
+			}
+			else if ( node.queue == PROTECTED ) {
+				protectedWeight -= node.weight;
+			}
+			weight -= node.weight;
+			count--;
+		}
+
+		private void link(Node sentinel, Node node) {
+			node.prev = sentinel.prev;
+			node.next = sentinel;
+			sentinel.prev.next = node;
+			sentinel.prev = node;
+		}
+
+		private void unlink(Node node) {
+			node.prev.next = node.next;
+			node.next.prev = node.prev;
+			node.prev = null;
+			node.next = null;
+		}
+	}
+}
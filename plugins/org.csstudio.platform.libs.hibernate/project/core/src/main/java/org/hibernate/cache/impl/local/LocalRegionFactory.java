@@ -0,0 +1,165 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.impl.local;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.hibernate.cache.CacheDataDescription;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.CollectionRegion;
+import org.hibernate.cache.EntityRegion;
+import org.hibernate.cache.QueryResultsRegion;
+import org.hibernate.cache.RegionFactory;
+import org.hibernate.cache.Timestamper;
+import org.hibernate.cache.TimestampsRegion;
+import org.hibernate.cache.access.AccessType;
+import org.hibernate.cache.impl.bridge.CollectionRegionAdapter;
+import org.hibernate.cache.impl.bridge.EntityRegionAdapter;
+import org.hibernate.cache.impl.bridge.QueryResultsRegionAdapter;
+import org.hibernate.cache.impl.bridge.TimestampsRegionAdapter;
+import org.hibernate.cfg.Settings;
+import org.hibernate.util.PropertiesHelper;
+
+/**
+ * A {@link RegionFactory} keeping all regions in the local heap, backed by
+ * {@link LocalCache}.  It requires no third-party caching library.
+ * <p/>
+ * Each entity, collection and query results region is bounded by an estimated
+ * number of bytes ({@link #MAX_SIZE}) and may expire entries after a time to
+ * live ({@link #TIME_TO_LIVE}) or a period of inactivity ({@link #TIME_TO_IDLE}).
+ * All three settings may be overridden for an individual region by inserting
+ * the region name into the property name, e.g.
+ * <tt>hibernate.cache.local.org.hibernate.Item.max_size</tt>.  The timestamps
+ * region is never bounded nor expired, as the query cache relies on it for
+ * correctness.
+ */
+public class LocalRegionFactory implements RegionFactory {
+	private static final Logger log = LoggerFactory.getLogger( LocalRegionFactory.class );
+
+	public static final String PREFIX = "hibernate.cache.local.";
+
+	/**
+	 * The estimated number of bytes a region may retain.  Negative means unbounded.
+	 */
+	public static final String MAX_SIZE = "max_size";
+
+	/**
+	 * Seconds after which a cached entry expires once written.  Zero means never.
+	 */
+	public static final String TIME_TO_LIVE = "time_to_live";
+
+	/**
+	 * Seconds after which a cached entry expires once last read.  Zero means never.
+	 */
+	public static final String TIME_TO_IDLE = "time_to_idle";
+
+	public static final long DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+
+	private final List caches = new ArrayList();
+	private Settings settings;
+
+	public LocalRegionFactory(Properties properties) {
+	}
+
+	public void start(Settings settings, Properties properties) throws CacheException {
+		this.settings = settings;
+	}
+
+	public synchronized void stop() {
+		Iterator itr = caches.iterator();
+		while ( itr.hasNext() ) {
+			( (LocalCache) itr.next() ).destroy();
+		}
+		caches.clear();
+	}
+
+	public boolean isMinimalPutsEnabledByDefault() {
+		return false;
+	}
+
+	public AccessType getDefaultAccessType() {
+		return AccessType.READ_WRITE;
+	}
+
+	public long nextTimestamp() {
+		return Timestamper.next();
+	}
+
+	public EntityRegion buildEntityRegion(
+			String regionName,
+			Properties properties,
+			CacheDataDescription metadata) throws CacheException {
+		return new EntityRegionAdapter( buildCache( regionName, properties ), settings, metadata );
+	}
+
+	public CollectionRegion buildCollectionRegion(
+			String regionName,
+			Properties properties,
+			CacheDataDescription metadata) throws CacheException {
+		return new CollectionRegionAdapter( buildCache( regionName, properties ), settings, metadata );
+	}
+
+	public QueryResultsRegion buildQueryResultsRegion(String regionName, Properties properties) throws CacheException {
+		return new QueryResultsRegionAdapter( buildCache( regionName, properties ), settings );
+	}
+
+	public TimestampsRegion buildTimestampsRegion(String regionName, Properties properties) throws CacheException {
+		LocalCache cache = new LocalCache( regionName, -1, 0, 0 );
+		register( cache );
+		return new TimestampsRegionAdapter( cache, settings );
+	}
+
+	private LocalCache buildCache(String regionName, Properties properties) {
+		long maxSize = getLong( regionName, MAX_SIZE, properties, DEFAULT_MAX_SIZE );
+		long timeToLive = getLong( regionName, TIME_TO_LIVE, properties, 0 );
+		long timeToIdle = getLong( regionName, TIME_TO_IDLE, properties, 0 );
+		log.debug(
+				"building local cache region [" + regionName + "]; max size: " + maxSize
+						+ ", time to live: " + timeToLive + "s, time to idle: " + timeToIdle + 's'
+		);
+		LocalCache cache = new LocalCache( regionName, maxSize, timeToLive * 1000, timeToIdle * 1000 );
+		register( cache );
+		return cache;
+	}
+
+	private synchronized void register(LocalCache cache) {
+		caches.add( cache );
+	}
+
+	private static long getLong(String regionName, String name, Properties properties, long defaultValue) {
+		try {
+			long value = PropertiesHelper.getLong( PREFIX + name, properties, defaultValue );
+			return PropertiesHelper.getLong( PREFIX + regionName + '.' + name, properties, value );
+		}
+		catch ( NumberFormatException e ) {
+			throw new CacheException( "invalid value for " + PREFIX + name + " in region [" + regionName + "]", e );
+		}
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cache.impl.local;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.hibernate.cache.CacheKey;
+import org.hibernate.cache.ReadWriteCache;
+import org.hibernate.cache.entry.CacheEntry;
+import org.hibernate.cache.entry.CollectionCacheEntry;
+
+/**
+ * Cheap, approximate estimation of the heap footprint of the keys and values
+ * Hibernate puts into second-level cache regions.  The estimate is only used to
+ * enforce the byte budget of a {@link LocalCache}, so it favours speed over
+ * precision: it understands the structures Hibernate itself caches (cache
+ * keys, disassembled entity and collection state, query result lists and the
+ * common scalar types) and charges a flat amount for anything else.
+ * <p/>
+ * The estimate is also used to weigh the state of the entities managed by a
+ * size-limited persistence context.
+ *
+ * @see org.hibernate.engine.ManagedEntityLimit
+ */
+public final class SizeEstimator {
+	static final int OBJECT_HEADER = 16;
+	static final int REFERENCE = 8;
+	static final int UNKNOWN = 64;
+
+	private static final int MAX_DEPTH = 4;
+	private static final int MAX_SAMPLED_ELEMENTS = 32;
+
+	private SizeEstimator() {
+	}
+
+	/**
+	 * Estimate the number of bytes retained by a cache entry.
+	 *
+	 * @param key The cache key
+	 * @param value The cached value
+	 * @return The estimated weight, always positive
+	 */
+	static int weigh(Object key, Object value) {
+		long weight = estimate( key, 0 ) + estimate( value, 0 );
+		return weight > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) Math.max( weight, 1 );
+	}
+
+	/**
+	 * Estimate the number of bytes retained by the given value.
+	 *
+	 * @param value The value, may be null
+	 * @return The estimated number of bytes
+	 */
+	public static long estimate(Object value) {
+		return estimate( value, 0 );
+	}
+
+	static long estimate(Object value, int depth) {
+		if ( value == null ) {
+			return 0;
+		}
+		if ( depth > MAX_DEPTH ) {
+			return UNKNOWN;
+		}
+		if ( value instanceof String ) {
+			return align( OBJECT_HEADER + 24 + 2L * ( (String) value ).length() );
+		}
+		if ( value instanceof Integer || value instanceof Short || value instanceof Byte
+				|| value instanceof Character || value instanceof Boolean || value instanceof Float ) {
+			return OBJECT_HEADER;
+		}
+		if ( value instanceof Long || value instanceof Double || value instanceof Date ) {
+			return OBJECT_HEADER + 8;
+		}
+		if ( value instanceof BigInteger ) {
+			return align( OBJECT_HEADER + 32 + ( ( (BigInteger) value ).bitLength() >> 3 ) );
+		}
+		if ( value instanceof BigDecimal ) {
+			return align( OBJECT_HEADER + 32 + ( ( (BigDecimal) value ).unscaledValue().bitLength() >> 3 ) );
+		}
+		if ( value instanceof byte[] ) {
+			return align( OBJECT_HEADER + ( (byte[]) value ).length );
+		}
+		if ( value instanceof char[] ) {
+			return align( OBJECT_HEADER + 2L * ( (char[]) value ).length );
+		}
+		if ( value instanceof Object[] ) {
+			return estimateArray( (Object[]) value, depth );
+		}
+		if ( value instanceof CacheKey ) {
+			return OBJECT_HEADER + 4 * REFERENCE + estimate( ( (CacheKey) value ).getKey(), depth + 1 );
+		}
+		if ( value instanceof CacheEntry ) {
+			CacheEntry entry = (CacheEntry) value;
+			return OBJECT_HEADER + 4 * REFERENCE
+					+ estimateArray( entry.getDisassembledState(), depth + 1 )
+					+ estimate( entry.getVersion(), depth + 1 );
+		}
+		if ( value instanceof CollectionCacheEntry ) {
+			return OBJECT_HEADER + REFERENCE
+					+ estimateArray( ( (CollectionCacheEntry) value ).getState(), depth + 1 );
+		}
+		if ( value instanceof ReadWriteCache.Item ) {
+			return OBJECT_HEADER + 3 * REFERENCE
+					+ estimate( ( (ReadWriteCache.Item) value ).getValue(), depth + 1 );
+		}
+		if ( value instanceof Collection ) {
+			return estimateCollection( (Collection) value, depth );
+		}
+		if ( value instanceof Map ) {
+			Map map = (Map) value;
+			return (long) ( OBJECT_HEADER + 3 * REFERENCE ) * map.size()
+					+ estimateCollection( map.keySet(), depth )
+					+ estimateCollection( map.values(), depth );
+		}
+		return UNKNOWN;
+	}
+
+	private static long estimateArray(Object[] array, int depth) {
+		if ( array == null ) {
+			return 0;
+		}
+		long weight = align( OBJECT_HEADER + (long) REFERENCE * array.length );
+		for ( int i = 0; i < array.length; i++ ) {
+			weight += estimate( array[i], depth + 1 );
+		}
+		return weight;
+	}
+
+	private static long estimateCollection(Collection collection, int depth) {
+		int size = collection.size();
+		long weight = OBJECT_HEADER + align( OBJECT_HEADER + (long) REFERENCE * size );
+		if ( size == 0 ) {
+			return weight;
+		}
+		// estimate from a sample of the leading elements and extrapolate
+		long sampled = 0;
+		int count = 0;
+		Iterator itr = collection.iterator();
+		while ( count < MAX_SAMPLED_ELEMENTS && itr.hasNext() ) {
+			sampled += estimate( itr.next(), depth + 1 );
+			count++;
+		}
+		return weight + sampled * size / count;
+	}
+
+	private static long align(long size) {
+		return ( size + 7 ) & ~7L;
+	}
+}
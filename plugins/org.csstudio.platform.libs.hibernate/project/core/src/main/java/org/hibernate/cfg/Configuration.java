@@ -505,6 +505,70 @@ public class Configuration implements Serializable {
 		return this;
 	}
 
+	/**
+	 * Write the mappings added so far, fully bound, to a binary snapshot that a later
+	 * {@link #addMappingSnapshot} can read instead of processing the mapping sources
+	 * again.  A snapshot which cannot be written is logged and otherwise ignored.
+	 *
+	 * @param snapshotFile The snapshot file to (over)write
+	 * @param sourceChecksum A checksum of the mapping sources, see {@link MappingSnapshot#checksum}
+	 * @return this (for method chaining purposes)
+	 * @throws MappingException Indicates problems binding the mappings
+	 */
+	public Configuration writeMappingSnapshot(File snapshotFile, String sourceChecksum) throws MappingException {
+		secondPassCompile();
+		MappingSnapshot.write(
+				snapshotFile,
+				sourceChecksum,
+				new Object[] {
+						classes, imports, collections, tables, auxiliaryDatabaseObjects,
+						namedQueries, namedSqlQueries, sqlResultSetMappings,
+						typeDefs, filterDefinitions, fetchProfiles,
+						tableNameBinding, columnNameBindingPerTable,
+						propertyReferences, mappedSuperclasses
+				}
+		);
+		return this;
+	}
+
+	/**
+	 * Add the mappings of a snapshot written by {@link #writeMappingSnapshot}, provided
+	 * it was written by this version of Hibernate for mapping sources with the same
+	 * checksum.  This must be done before any other mapping is added; further mappings
+	 * may be added afterwards.
+	 *
+	 * @param snapshotFile The snapshot file
+	 * @param sourceChecksum A checksum of the mapping sources, see {@link MappingSnapshot#checksum}
+	 * @return true if the mappings were read from the snapshot; false if the snapshot is
+	 * missing, stale or unreadable, in which case the mappings must be added from their sources
+	 * @throws MappingException If mappings were already added
+	 */
+	public boolean addMappingSnapshot(File snapshotFile, String sourceChecksum) throws MappingException {
+		if ( !classes.isEmpty() || !tables.isEmpty() ) {
+			throw new MappingException( "A mapping snapshot must be added before any other mapping" );
+		}
+		Object[] state = ( Object[] ) MappingSnapshot.read( snapshotFile, sourceChecksum );
+		if ( state == null ) {
+			return false;
+		}
+		classes = ( Map ) state[0];
+		imports = ( Map ) state[1];
+		collections = ( Map ) state[2];
+		tables = ( Map ) state[3];
+		auxiliaryDatabaseObjects = ( List ) state[4];
+		namedQueries = ( Map ) state[5];
+		namedSqlQueries = ( Map ) state[6];
+		sqlResultSetMappings = ( Map ) state[7];
+		typeDefs = ( Map ) state[8];
+		filterDefinitions = ( Map ) state[9];
+		fetchProfiles = ( Map ) state[10];
+		tableNameBinding = ( Map ) state[11];
+		columnNameBindingPerTable = ( Map ) state[12];
+		propertyReferences = ( List ) state[13];
+		mappedSuperclasses = ( Map ) state[14];
+		return true;
+	}
+
 	/**
 	 * Add a cacheable mapping file.
 	 *
@@ -208,6 +208,43 @@ public final class Environment {
 	 * Maximum number of inactive connections for Hibernate's connection pool
 	 */
 	public static final String POOL_SIZE ="hibernate.connection.pool_size";
+	/**
+	 * Minimum number of connections kept open by {@link org.hibernate.connection.PooledConnectionProvider}
+	 */
+	public static final String POOL_MIN_SIZE = "hibernate.pool.min_size";
+	/**
+	 * Maximum time (in milliseconds) to wait for a connection from
+	 * {@link org.hibernate.connection.PooledConnectionProvider}
+	 */
+	public static final String POOL_MAX_WAIT = "hibernate.pool.max_wait";
+	/**
+	 * Should threads waiting for a pooled connection be served in FIFO order?
+	 */
+	public static final String POOL_FAIR = "hibernate.pool.fair";
+	/**
+	 * Time (in milliseconds) after which an idle pooled connection above the minimum size is closed
+	 */
+	public static final String POOL_IDLE_TIMEOUT = "hibernate.pool.idle_timeout";
+	/**
+	 * Time (in milliseconds) after which an idle pooled connection is validated again
+	 */
+	public static final String POOL_VALIDATION_INTERVAL = "hibernate.pool.validation_interval";
+	/**
+	 * SQL used to validate pooled connections; if not set only <tt>Connection.isClosed()</tt> is checked
+	 */
+	public static final String POOL_VALIDATION_QUERY = "hibernate.pool.validation_query";
+	/**
+	 * Time (in milliseconds) a connection may stay checked out before it is reported as a possible leak
+	 */
+	public static final String POOL_LEAK_DETECTION_THRESHOLD = "hibernate.pool.leak_detection_threshold";
+	/**
+	 * Period (in milliseconds) of the pool's background validation and eviction task
+	 */
+	public static final String POOL_HOUSEKEEPING_PERIOD = "hibernate.pool.housekeeping_period";
+	/**
+	 * Name under which the pool registers itself, used in log messages and by the JMX service
+	 */
+	public static final String POOL_NAME = "hibernate.pool.name";
 	/**
 	 * <tt>java.sql.Datasource</tt> JNDI name
 	 */
@@ -294,6 +331,14 @@ public final class Environment {
 	 * when more rows are needed. If <tt>0</tt>, JDBC driver default settings will be used.
 	 */
 	public static final String STATEMENT_FETCH_SIZE = "hibernate.jdbc.fetch_size";
+	/**
+	 * Maximum number of <tt>PreparedStatement</tt>s kept open per physical JDBC connection
+	 * for reuse. <tt>0</tt> (the default) disables statement caching.  Only supported by
+	 * connection providers implementing
+	 * {@link org.hibernate.connection.StatementCachingConnectionProvider}, which close the
+	 * cached statements together with their connection.
+	 */
+	public static final String STATEMENT_CACHE_SIZE = "hibernate.jdbc.statement_cache_size";
 	/**
 	 * Maximum JDBC batch size. A nonzero value enables batch updates.
 	 */
@@ -415,6 +460,12 @@ public final class Environment {
 	 * The <tt>QueryCacheFactory</tt> implementation class.
 	 */
 	public static final String QUERY_CACHE_FACTORY = "hibernate.cache.query_cache_factory";
+	/**
+	 * Write the update timestamps of the tables affected by a transaction on a
+	 * background thread once it has completed, rather than on the committing thread
+	 * (the tables are still pre-invalidated synchronously)
+	 */
+	public static final String ASYNC_TIMESTAMPS_INVALIDATION = "hibernate.cache.async_timestamps_invalidation";
 	/**
 	 * Enable the second-level cache (enabled by default)
 	 */
@@ -431,12 +482,31 @@ public final class Environment {
 	 * Enable use of structured second-level cache entries
 	 */
 	public static final String USE_STRUCTURED_CACHE = "hibernate.cache.use_structured_entries";
+	/**
+	 * Enable use of compact binary second-level cache entries for entities
+	 * (takes precedence over structured entries)
+	 */
+	public static final String USE_BINARY_CACHE = "hibernate.cache.use_binary_entries";
 
 	/**
 	 * Enable statistics collection
 	 */
 	public static final String GENERATE_STATISTICS = "hibernate.generate_statistics";
 
+	/**
+	 * The maximum number of distinct query strings for which per-query statistics are
+	 * kept; executions of further queries are only counted globally.
+	 */
+	public static final String QUERY_STATISTICS_MAX_SIZE = "hibernate.statistics.query_max_size";
+
+	/**
+	 * Keep per-query statistics for query strings with their literals replaced by <tt>?</tt>,
+	 * so that queries differing only in literals share one entry.  Query strings passed to
+	 * <tt>Statistics.getQueryStatistics()</tt> are then normalized as well, and
+	 * <tt>Statistics.getQueries()</tt> returns the normalized strings.  Disabled by default.
+	 */
+	public static final String QUERY_STATISTICS_NORMALIZE_LITERALS = "hibernate.statistics.query_normalize_literals";
+
 	public static final String USE_IDENTIFIER_ROLLBACK = "hibernate.use_identifier_rollback";
 
 	/**
@@ -444,6 +514,14 @@ public final class Environment {
 	 */
 	public static final String USE_REFLECTION_OPTIMIZER = "hibernate.bytecode.use_reflection_optimizer";
 
+	/**
+	 * Access the properties of POJO entities through a generated class switching over the
+	 * property indexes, when the reflection optimizer is not used or cannot be built for an
+	 * entity class.  Enabled by default;
+	 * a global setting, like {@link #USE_REFLECTION_OPTIMIZER}.
+	 */
+	public static final String USE_ORDINAL_ACCESSORS = "hibernate.bytecode.use_ordinal_accessors";
+
 	/**
 	 * The classname of the HQL query parser factory
 	 */
@@ -462,12 +540,50 @@ public final class Environment {
 	 */
 	public static final String QUERY_STARTUP_CHECKING = "hibernate.query.startup_check";
 
+	/**
+	 * Should the literals compared against in HQL <tt>where</tt> clauses be lifted into
+	 * parameters, so that queries differing only in those literals share one cached
+	 * query plan (the default is disabled).
+	 */
+	public static final String QUERY_PLAN_NORMALIZE_LITERALS = "hibernate.query.plan_normalize_literals";
+
+	/**
+	 * Should the temporary id tables of bulk HQL updates and deletes spanning several
+	 * tables be created once and reused, where the dialect supports it, instead of
+	 * being created and dropped around each execution (the default is disabled).
+	 */
+	public static final String BULK_ID_TABLE_REUSE = "hibernate.query.bulk_id_table_reuse";
+
+	/**
+	 * The number of threads building the persisters, generating their loaders and
+	 * checking the named queries while a session factory is built (the default,
+	 * <tt>1</tt>, does everything on the calling thread)
+	 */
+	public static final String BOOTSTRAP_PARALLELISM = "hibernate.bootstrap.parallelism";
+
+	/**
+	 * A file recording which entity loaders were used; when it exists they are
+	 * created while the session factory is built, and it is rewritten when the
+	 * session factory is closed. Other entity loaders are created on first use.
+	 */
+	public static final String LOADER_USAGE_PROFILE = "hibernate.loader.usage_profile";
+
 	/**
 	 * Auto export/update schema using hbm2ddl tool. Valid values are <tt>update</tt>,
 	 * <tt>create</tt>, <tt>create-drop</tt> and <tt>validate</tt>.
 	 */
 	public static final String HBM2DDL_AUTO = "hibernate.hbm2ddl.auto";
 
+	/**
+	 * Should the schema update and validation tools read the tables and columns of a
+	 * whole schema with one metadata call each, instead of one call per table
+	 * (the default is disabled).  Tables without a schema, given by their mapping or
+	 * by {@link #DEFAULT_SCHEMA}, are searched in the current schema of the
+	 * connection if the dialect can tell it (the user's schema on Oracle), and
+	 * read per table otherwise.
+	 */
+	public static final String HBM2DDL_BULK_METADATA = "hibernate.hbm2ddl.bulk_metadata";
+
 	/**
 	 * The {@link org.hibernate.exception.SQLExceptionConverter} to use for converting SQLExceptions
 	 * to Hibernate's JDBCException hierarchy.  The default is to use the configured
@@ -491,6 +607,13 @@ public final class Environment {
 	 */
 	public static final String ORDER_INSERTS = "hibernate.order_inserts";
 
+	/**
+	 * Enable dependency-aware grouping of all statements executed during flush
+	 * (inserts, updates, deletes and collection actions) for the purpose of more
+	 * efficient JDBC batching.
+	 */
+	public static final String ORDER_FLUSH = "hibernate.order_flush";
+
 	/**
 	 * The EntityMode in which set the Session opened from the SessionFactory.
 	 */
@@ -528,6 +651,7 @@ public final class Environment {
 	private static final BytecodeProvider BYTECODE_PROVIDER_INSTANCE;
 	private static final boolean ENABLE_BINARY_STREAMS;
 	private static final boolean ENABLE_REFLECTION_OPTIMIZER;
+	private static final boolean ENABLE_ORDINAL_ACCESSORS;
 	private static final boolean JVM_SUPPORTS_LINKED_HASH_COLLECTIONS;
 	private static final boolean JVM_HAS_TIMESTAMP_BUG;
 	private static final boolean JVM_HAS_JDK14_TIMESTAMP;
@@ -614,6 +738,7 @@ public final class Environment {
 
 		ENABLE_BINARY_STREAMS = PropertiesHelper.getBoolean(USE_STREAMS_FOR_BINARY, GLOBAL_PROPERTIES);
 		ENABLE_REFLECTION_OPTIMIZER = PropertiesHelper.getBoolean(USE_REFLECTION_OPTIMIZER, GLOBAL_PROPERTIES);
+		ENABLE_ORDINAL_ACCESSORS = PropertiesHelper.getBoolean(USE_ORDINAL_ACCESSORS, GLOBAL_PROPERTIES, true);
 
 		if (ENABLE_BINARY_STREAMS) {
 			log.info("using java.io streams to persist binary types");
@@ -747,6 +872,18 @@ public final class Environment {
 		return ENABLE_REFLECTION_OPTIMIZER;
 	}
 
+	/**
+	 * Should we generate ordinal property accessors for POJO entities?
+	 *
+	 * @return True if ordinal accessors should be generated; false otherwise.
+	 *
+	 * @see #USE_ORDINAL_ACCESSORS
+	 * @see org.hibernate.bytecode.OrdinalAccessor
+	 */
+	public static boolean useOrdinalAccessors() {
+		return ENABLE_ORDINAL_ACCESSORS;
+	}
+
 	/**
 	 * Disallow instantiation
 	 */
@@ -0,0 +1,171 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.cfg;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Version;
+import org.hibernate.util.SerializationHelper;
+
+/**
+ * Reads and writes the binary snapshot of the bound mapping metadata of a
+ * {@link Configuration}.  The snapshot carries the Hibernate version it was
+ * written by and a checksum of the mapping sources, and is only read back
+ * when both still match.
+ *
+ * @see Configuration#writeMappingSnapshot(File, String)
+ * @see Configuration#addMappingSnapshot(File, String)
+ */
+public final class MappingSnapshot {
+
+	private static final Logger log = LoggerFactory.getLogger( MappingSnapshot.class );
+
+	private static final int MAGIC = 0x48424D53;
+	private static final int FORMAT_VERSION = 1;
+
+	private MappingSnapshot() {
+	}
+
+	/**
+	 * Compute a checksum over the contents of the given mapping sources, such
+	 * as <tt>hbm.xml</tt> files or the jars holding annotated classes.
+	 *
+	 * @param sources The mapping sources, in a stable order
+	 * @return The checksum
+	 * @throws HibernateException If a source cannot be read
+	 */
+	public static String checksum(File[] sources) throws HibernateException {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance( "SHA-1" );
+		}
+		catch ( NoSuchAlgorithmException e ) {
+			throw new HibernateException( "SHA-1 not available", e );
+		}
+		final byte[] buffer = new byte[8192];
+		for ( int i = 0; i < sources.length; i++ ) {
+			try {
+				InputStream in = new FileInputStream( sources[i] );
+				try {
+					int read;
+					while ( ( read = in.read( buffer ) ) != -1 ) {
+						digest.update( buffer, 0, read );
+					}
+				}
+				finally {
+					in.close();
+				}
+			}
+			catch ( IOException e ) {
+				throw new HibernateException( "could not read mapping source: " + sources[i], e );
+			}
+		}
+		final byte[] hash = digest.digest();
+		final StringBuffer buf = new StringBuffer( hash.length * 2 );
+		for ( int i = 0; i < hash.length; i++ ) {
+			buf.append( Character.forDigit( ( hash[i] >> 4 ) & 0xF, 16 ) )
+					.append( Character.forDigit( hash[i] & 0xF, 16 ) );
+		}
+		return buf.toString();
+	}
+
+	static void write(File file, String sourceChecksum, Serializable state) {
+		try {
+			DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file ) ) );
+			try {
+				out.writeInt( MAGIC );
+				out.writeInt( FORMAT_VERSION );
+				out.writeUTF( Version.getVersionString() );
+				out.writeUTF( sourceChecksum );
+				SerializationHelper.serialize( state, out );
+			}
+			finally {
+				out.close();
+			}
+		}
+		catch ( IOException e ) {
+			log.warn( "could not write mapping snapshot: " + file, e );
+		}
+		catch ( HibernateException e ) {
+			log.warn( "could not write mapping snapshot: " + file, e );
+		}
+	}
+
+	/**
+	 * Read the state written by {@link #write}.
+	 *
+	 * @return The state, or null if the snapshot is missing, stale or unreadable
+	 */
+	static Object read(File file, String sourceChecksum) {
+		if ( !file.exists() ) {
+			log.info( "no mapping snapshot found at: " + file );
+			return null;
+		}
+		try {
+			DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) );
+			try {
+				if ( in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION ) {
+					log.info( "ignoring mapping snapshot of an unknown format: " + file );
+					return null;
+				}
+				if ( !Version.getVersionString().equals( in.readUTF() ) ) {
+					log.info( "ignoring mapping snapshot written by another Hibernate version: " + file );
+					return null;
+				}
+				if ( !sourceChecksum.equals( in.readUTF() ) ) {
+					log.info( "ignoring mapping snapshot of changed mapping sources: " + file );
+					return null;
+				}
+				log.info( "Reading mappings from snapshot: " + file );
+				return SerializationHelper.deserialize( in );
+			}
+			finally {
+				in.close();
+			}
+		}
+		catch ( IOException e ) {
+			log.warn( "could not read mapping snapshot: " + file, e );
+			return null;
+		}
+		catch ( HibernateException e ) {
+			log.warn( "could not read mapping snapshot: " + file, e );
+			return null;
+		}
+	}
+}
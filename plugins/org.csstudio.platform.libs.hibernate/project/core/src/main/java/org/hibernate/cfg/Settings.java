@@ -62,18 +62,24 @@ public final class Settings {
 	private String defaultSchemaName;
 	private String defaultCatalogName;
 	private Integer jdbcFetchSize;
+	private int jdbcStatementCacheSize;
 	private String sessionFactoryName;
 	private boolean autoCreateSchema;
 	private boolean autoDropSchema;
 	private boolean autoUpdateSchema;
 	private boolean autoValidateSchema;
+	private boolean bulkSchemaMetadataEnabled;
 	private boolean queryCacheEnabled;
+	private boolean asyncTimestampsInvalidationEnabled;
 	private boolean structuredCacheEntriesEnabled;
+	private boolean binaryCacheEntriesEnabled;
 	private boolean secondLevelCacheEnabled;
 	private String cacheRegionPrefix;
 	private boolean minimalPutsEnabled;
 	private boolean commentsEnabled;
 	private boolean statisticsEnabled;
+	private int queryStatisticsMaxSize;
+	private boolean queryStatisticsLiteralNormalizationEnabled;
 	private boolean jdbcBatchVersionedData;
 	private boolean identifierRollbackEnabled;
 	private boolean flushBeforeCompletionEnabled;
@@ -90,11 +96,16 @@ public final class Settings {
 	private boolean wrapResultSetsEnabled;
 	private boolean orderUpdatesEnabled;
 	private boolean orderInsertsEnabled;
+	private boolean orderFlushEnabled;
 	private EntityMode defaultEntityMode;
 	private boolean dataDefinitionImplicitCommit;
 	private boolean dataDefinitionInTransactionSupported;
 	private boolean strictJPAQLCompliance;
 	private boolean namedQueryStartupCheckingEnabled;
+	private boolean queryLiteralNormalizationEnabled;
+	private boolean bulkIdTableReuseEnabled;
+	private int bootstrapParallelism;
+	private String loaderUsageProfile;
 	private EntityTuplizerFactory entityTuplizerFactory;
 	private boolean checkNullability;
 //	private ComponentTuplizerFactory componentTuplizerFactory; todo : HHH-3517 and HHH-1907
@@ -165,6 +176,10 @@ public final class Settings {
 		return jdbcFetchSize;
 	}
 
+	public int getJdbcStatementCacheSize() {
+		return jdbcStatementCacheSize;
+	}
+
 	public ConnectionProvider getConnectionProvider() {
 		return connectionProvider;
 	}
@@ -205,6 +220,10 @@ public final class Settings {
 		return queryCacheEnabled;
 	}
 
+	public boolean isAsyncTimestampsInvalidationEnabled() {
+		return asyncTimestampsInvalidationEnabled;
+	}
+
 	public boolean isCommentsEnabled() {
 		return commentsEnabled;
 	}
@@ -225,6 +244,14 @@ public final class Settings {
 		return statisticsEnabled;
 	}
 
+	public int getQueryStatisticsMaxSize() {
+		return queryStatisticsMaxSize;
+	}
+
+	public boolean isQueryStatisticsLiteralNormalizationEnabled() {
+		return queryStatisticsLiteralNormalizationEnabled;
+	}
+
 	public boolean isJdbcBatchVersionedData() {
 		return jdbcBatchVersionedData;
 	}
@@ -265,10 +292,18 @@ public final class Settings {
 		return orderInsertsEnabled;
 	}
 
+	public boolean isOrderFlushEnabled() {
+		return orderFlushEnabled;
+	}
+
 	public boolean isStructuredCacheEntriesEnabled() {
 		return structuredCacheEntriesEnabled;
 	}
 
+	public boolean isBinaryCacheEntriesEnabled() {
+		return binaryCacheEntriesEnabled;
+	}
+
 	public EntityMode getDefaultEntityMode() {
 		return defaultEntityMode;
 	}
@@ -277,6 +312,10 @@ public final class Settings {
 		return autoValidateSchema;
 	}
 
+	public boolean isBulkSchemaMetadataEnabled() {
+		return bulkSchemaMetadataEnabled;
+	}
+
 	public boolean isDataDefinitionImplicitCommit() {
 		return dataDefinitionImplicitCommit;
 	}
@@ -293,6 +332,22 @@ public final class Settings {
 		return namedQueryStartupCheckingEnabled;
 	}
 
+	public boolean isQueryLiteralNormalizationEnabled() {
+		return queryLiteralNormalizationEnabled;
+	}
+
+	public boolean isBulkIdTableReuseEnabled() {
+		return bulkIdTableReuseEnabled;
+	}
+
+	public int getBootstrapParallelism() {
+		return bootstrapParallelism;
+	}
+
+	public String getLoaderUsageProfile() {
+		return loaderUsageProfile;
+	}
+
 	public EntityTuplizerFactory getEntityTuplizerFactory() {
 		return entityTuplizerFactory;
 	}
@@ -364,6 +419,10 @@ public final class Settings {
 		jdbcFetchSize = integer;
 	}
 
+	void setJdbcStatementCacheSize(int jdbcStatementCacheSize) {
+		this.jdbcStatementCacheSize = jdbcStatementCacheSize;
+	}
+
 	void setConnectionProvider(ConnectionProvider provider) {
 		connectionProvider = provider;
 	}
@@ -404,6 +463,10 @@ public final class Settings {
 		queryCacheEnabled = b;
 	}
 
+	void setAsyncTimestampsInvalidationEnabled(boolean asyncTimestampsInvalidationEnabled) {
+		this.asyncTimestampsInvalidationEnabled = asyncTimestampsInvalidationEnabled;
+	}
+
 	void setCommentsEnabled(boolean commentsEnabled) {
 		this.commentsEnabled = commentsEnabled;
 	}
@@ -424,6 +487,14 @@ public final class Settings {
 		this.statisticsEnabled = statisticsEnabled;
 	}
 
+	void setQueryStatisticsMaxSize(int queryStatisticsMaxSize) {
+		this.queryStatisticsMaxSize = queryStatisticsMaxSize;
+	}
+
+	void setQueryStatisticsLiteralNormalizationEnabled(boolean queryStatisticsLiteralNormalizationEnabled) {
+		this.queryStatisticsLiteralNormalizationEnabled = queryStatisticsLiteralNormalizationEnabled;
+	}
+
 	void setJdbcBatchVersionedData(boolean jdbcBatchVersionedData) {
 		this.jdbcBatchVersionedData = jdbcBatchVersionedData;
 	}
@@ -464,10 +535,18 @@ public final class Settings {
 		this.orderInsertsEnabled = orderInsertsEnabled;
 	}
 
+	void setOrderFlushEnabled(boolean orderFlushEnabled) {
+		this.orderFlushEnabled = orderFlushEnabled;
+	}
+
 	void setStructuredCacheEntriesEnabled(boolean structuredCacheEntriesEnabled) {
 		this.structuredCacheEntriesEnabled = structuredCacheEntriesEnabled;
 	}
 
+	void setBinaryCacheEntriesEnabled(boolean binaryCacheEntriesEnabled) {
+		this.binaryCacheEntriesEnabled = binaryCacheEntriesEnabled;
+	}
+
 	void setDefaultEntityMode(EntityMode defaultEntityMode) {
 		this.defaultEntityMode = defaultEntityMode;
 	}
@@ -476,6 +555,10 @@ public final class Settings {
 		this.autoValidateSchema = autoValidateSchema;
 	}
 
+	void setBulkSchemaMetadataEnabled(boolean bulkSchemaMetadataEnabled) {
+		this.bulkSchemaMetadataEnabled = bulkSchemaMetadataEnabled;
+	}
+
 	void setDataDefinitionImplicitCommit(boolean dataDefinitionImplicitCommit) {
 		this.dataDefinitionImplicitCommit = dataDefinitionImplicitCommit;
 	}
@@ -492,6 +575,22 @@ public final class Settings {
 		this.namedQueryStartupCheckingEnabled = namedQueryStartupCheckingEnabled;
 	}
 
+	void setQueryLiteralNormalizationEnabled(boolean queryLiteralNormalizationEnabled) {
+		this.queryLiteralNormalizationEnabled = queryLiteralNormalizationEnabled;
+	}
+
+	void setBulkIdTableReuseEnabled(boolean bulkIdTableReuseEnabled) {
+		this.bulkIdTableReuseEnabled = bulkIdTableReuseEnabled;
+	}
+
+	void setBootstrapParallelism(int bootstrapParallelism) {
+		this.bootstrapParallelism = bootstrapParallelism;
+	}
+
+	void setLoaderUsageProfile(String loaderUsageProfile) {
+		this.loaderUsageProfile = loaderUsageProfile;
+	}
+
 	void setEntityTuplizerFactory(EntityTuplizerFactory entityTuplizerFactory) {
 		this.entityTuplizerFactory = entityTuplizerFactory;
 	}
@@ -47,6 +47,7 @@ import org.hibernate.cache.impl.NoCachingRegionFactory;
 import org.hibernate.cache.impl.bridge.RegionFactoryCacheProviderBridge;
 import org.hibernate.connection.ConnectionProvider;
 import org.hibernate.connection.ConnectionProviderFactory;
+import org.hibernate.connection.StatementCachingConnectionProvider;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.dialect.resolver.DialectFactory;
 import org.hibernate.exception.SQLExceptionConverter;
@@ -56,6 +57,7 @@ import org.hibernate.jdbc.BatcherFactory;
 import org.hibernate.jdbc.BatchingBatcherFactory;
 import org.hibernate.jdbc.NonBatchingBatcherFactory;
 import org.hibernate.jdbc.util.SQLStatementLogger;
+import org.hibernate.stat.ConcurrentStatisticsImpl;
 import org.hibernate.transaction.TransactionFactory;
 import org.hibernate.transaction.TransactionFactoryFactory;
 import org.hibernate.transaction.TransactionManagerLookup;
@@ -200,6 +202,14 @@ public class SettingsFactory implements Serializable {
 		if (statementFetchSize!=null) log.info("JDBC result set fetch size: " + statementFetchSize);
 		settings.setJdbcFetchSize(statementFetchSize);
 
+		int statementCacheSize = PropertiesHelper.getInt(Environment.STATEMENT_CACHE_SIZE, properties, 0);
+		if ( statementCacheSize>0 && !(connections instanceof StatementCachingConnectionProvider) ) {
+			log.warn("JDBC statement cache disabled, connection provider does not cache statements: " + connections.getClass().getName());
+			statementCacheSize = 0;
+		}
+		if (statementCacheSize>0) log.info("JDBC statement cache size (per connection): " + statementCacheSize);
+		settings.setJdbcStatementCacheSize(statementCacheSize);
+
 		String releaseModeName = PropertiesHelper.getString( Environment.RELEASE_CONNECTIONS, properties, "auto" );
 		log.info( "Connection release mode: " + releaseModeName );
 		ConnectionReleaseMode releaseMode;
@@ -243,6 +253,10 @@ public class SettingsFactory implements Serializable {
 		log.info( "Order SQL inserts for batching: " + enabledDisabled( orderInserts ) );
 		settings.setOrderInsertsEnabled( orderInserts );
 
+		boolean orderFlush = PropertiesHelper.getBoolean(Environment.ORDER_FLUSH, properties);
+		log.info( "Order SQL flush statements for batching: " + enabledDisabled( orderFlush ) );
+		settings.setOrderFlushEnabled( orderFlush );
+
 		//Query parser settings:
 
 		settings.setQueryTranslatorFactory( createQueryTranslatorFactory(properties) );
@@ -284,8 +298,18 @@ public class SettingsFactory implements Serializable {
 		log.info( "Structured second-level cache entries: " + enabledDisabled(useStructuredCacheEntries) );
 		settings.setStructuredCacheEntriesEnabled(useStructuredCacheEntries);
 
+		boolean useBinaryCacheEntries = PropertiesHelper.getBoolean(Environment.USE_BINARY_CACHE, properties, false);
+		log.info( "Binary second-level cache entries: " + enabledDisabled(useBinaryCacheEntries) );
+		settings.setBinaryCacheEntriesEnabled(useBinaryCacheEntries);
+
 		if (useQueryCache) settings.setQueryCacheFactory( createQueryCacheFactory(properties) );
 
+		if (useQueryCache) {
+			boolean asyncInvalidation = PropertiesHelper.getBoolean(Environment.ASYNC_TIMESTAMPS_INVALIDATION, properties, false);
+			log.info( "Asynchronous update timestamps invalidation: " + enabledDisabled(asyncInvalidation) );
+			settings.setAsyncTimestampsInvalidationEnabled(asyncInvalidation);
+		}
+
 		//SQL Exception converter:
 
 		SQLExceptionConverter sqlExceptionConverter;
@@ -313,6 +337,16 @@ public class SettingsFactory implements Serializable {
 		log.info( "Statistics: " + enabledDisabled(useStatistics) );
 		settings.setStatisticsEnabled(useStatistics);
 
+		int queryStatisticsMaxSize = PropertiesHelper.getInt(
+				Environment.QUERY_STATISTICS_MAX_SIZE, properties, ConcurrentStatisticsImpl.DEFAULT_QUERY_STATISTICS_MAX_SIZE
+		);
+		if (useStatistics) log.info( "Query statistics max size: " + queryStatisticsMaxSize );
+		settings.setQueryStatisticsMaxSize(queryStatisticsMaxSize);
+
+		boolean normalizeStatisticsLiterals = PropertiesHelper.getBoolean(Environment.QUERY_STATISTICS_NORMALIZE_LITERALS, properties);
+		if (useStatistics) log.info( "Query statistics literal normalization: " + enabledDisabled(normalizeStatisticsLiterals) );
+		settings.setQueryStatisticsLiteralNormalizationEnabled(normalizeStatisticsLiterals);
+
 		boolean useIdentifierRollback = PropertiesHelper.getBoolean(Environment.USE_IDENTIFIER_ROLLBACK, properties);
 		log.info( "Deleted entity synthetic identifier rollback: " + enabledDisabled(useIdentifierRollback) );
 		settings.setIdentifierRollbackEnabled(useIdentifierRollback);
@@ -327,6 +361,11 @@ public class SettingsFactory implements Serializable {
 			settings.setAutoCreateSchema(true);
 			settings.setAutoDropSchema(true);
 		}
+		if ( autoSchemaExport != null ) {
+			boolean bulkSchemaMetadata = PropertiesHelper.getBoolean( Environment.HBM2DDL_BULK_METADATA, properties );
+			log.info( "Bulk schema metadata: " + enabledDisabled( bulkSchemaMetadata ) );
+			settings.setBulkSchemaMetadataEnabled( bulkSchemaMetadata );
+		}
 
 		EntityMode defaultEntityMode = EntityMode.parse( properties.getProperty( Environment.DEFAULT_ENTITY_MODE ) );
 		log.info( "Default entity-mode: " + defaultEntityMode );
@@ -336,6 +375,24 @@ public class SettingsFactory implements Serializable {
 		log.info( "Named query checking : " + enabledDisabled( namedQueryChecking ) );
 		settings.setNamedQueryStartupCheckingEnabled( namedQueryChecking );
 
+		boolean normalizeLiterals = PropertiesHelper.getBoolean( Environment.QUERY_PLAN_NORMALIZE_LITERALS, properties );
+		log.info( "Query plan literal normalization: " + enabledDisabled( normalizeLiterals ) );
+		settings.setQueryLiteralNormalizationEnabled( normalizeLiterals );
+
+		boolean bulkIdTableReuse = PropertiesHelper.getBoolean( Environment.BULK_ID_TABLE_REUSE, properties );
+		log.info( "Bulk id table reuse: " + enabledDisabled( bulkIdTableReuse ) );
+		settings.setBulkIdTableReuseEnabled( bulkIdTableReuse );
+
+		int bootstrapParallelism = PropertiesHelper.getInt( Environment.BOOTSTRAP_PARALLELISM, properties, 1 );
+		log.info( "Bootstrap parallelism: " + bootstrapParallelism );
+		settings.setBootstrapParallelism( bootstrapParallelism );
+
+		String loaderUsageProfile = PropertiesHelper.getString( Environment.LOADER_USAGE_PROFILE, properties, null );
+		if ( loaderUsageProfile != null ) {
+			log.info( "Loader usage profile: " + loaderUsageProfile );
+		}
+		settings.setLoaderUsageProfile( loaderUsageProfile );
+
 		boolean checkNullability = PropertiesHelper.getBoolean(Environment.CHECK_NULLABILITY, properties, true);
 		log.info( "Check Nullability in Core (should be disabled when Bean Validation is on): " + enabledDisabled(checkNullability) );
 		settings.setCheckNullability(checkNullability);
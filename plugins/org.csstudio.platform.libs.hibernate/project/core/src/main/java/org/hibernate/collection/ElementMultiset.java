@@ -0,0 +1,167 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.collection;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.hibernate.EntityMode;
+import org.hibernate.type.ComponentType;
+import org.hibernate.type.Type;
+
+/**
+ * A multiset of collection elements, used to diff a bag against its snapshot
+ * in linear time.  Elements are hashed consistently with {@link Type#isSame},
+ * which is only called for elements in the same bucket: associations are
+ * hashed by identity, components by their property values and any other
+ * value by {@link Type#getHashCode}.  In particular, hashing never initializes
+ * a proxy.
+ */
+final class ElementMultiset {
+
+	private final Type elementType;
+	private final EntityMode entityMode;
+	private Entry[] table;
+	private int distinct;
+
+	ElementMultiset(Type elementType, EntityMode entityMode, int expectedSize) {
+		this.elementType = elementType;
+		this.entityMode = entityMode;
+		int capacity = 16;
+		while ( capacity < expectedSize + ( expectedSize >> 1 ) ) {
+			capacity <<= 1;
+		}
+		this.table = new Entry[capacity];
+	}
+
+	ElementMultiset(Type elementType, EntityMode entityMode, Collection elements) {
+		this( elementType, entityMode, elements.size() );
+		Iterator itr = elements.iterator();
+		while ( itr.hasNext() ) {
+			add( itr.next() );
+		}
+	}
+
+	void add(Object element) {
+		final int hash = hash( elementType, element, entityMode );
+		Entry entry = find( element, hash );
+		if ( entry != null ) {
+			entry.count++;
+			return;
+		}
+		if ( distinct >= table.length - ( table.length >> 2 ) ) {
+			resize();
+		}
+		final int index = hash & ( table.length - 1 );
+		table[index] = new Entry( element, hash, table[index] );
+		distinct++;
+	}
+
+	/**
+	 * Remove one occurrence of the given element.
+	 *
+	 * @return false if the element did not occur
+	 */
+	boolean remove(Object element) {
+		Entry entry = find( element, hash( elementType, element, entityMode ) );
+		if ( entry == null || entry.count == 0 ) {
+			return false;
+		}
+		// emptied entries are left in place, the multiset only ever shrinks
+		// while diffing and is then discarded
+		entry.count--;
+		return true;
+	}
+
+	boolean contains(Object element) {
+		Entry entry = find( element, hash( elementType, element, entityMode ) );
+		return entry != null && entry.count > 0;
+	}
+
+	private Entry find(Object element, int hash) {
+		Entry entry = table[hash & ( table.length - 1 )];
+		while ( entry != null ) {
+			if ( entry.hash == hash && elementType.isSame( entry.element, element, entityMode ) ) {
+				return entry;
+			}
+			entry = entry.next;
+		}
+		return null;
+	}
+
+	private void resize() {
+		Entry[] newTable = new Entry[table.length << 1];
+		for ( int i = 0; i < table.length; i++ ) {
+			Entry entry = table[i];
+			while ( entry != null ) {
+				Entry next = entry.next;
+				int index = entry.hash & ( newTable.length - 1 );
+				entry.next = newTable[index];
+				newTable[index] = entry;
+				entry = next;
+			}
+		}
+		table = newTable;
+	}
+
+	private static int hash(Type type, Object value, EntityMode entityMode) {
+		if ( value == null ) {
+			return 0;
+		}
+		final int hash;
+		if ( type.isAssociationType() ) {
+			// associations are compared by identity
+			hash = System.identityHashCode( value );
+		}
+		else if ( type instanceof ComponentType ) {
+			// components are compared property by property
+			ComponentType componentType = ( ComponentType ) type;
+			Type[] subtypes = componentType.getSubtypes();
+			Object[] values = componentType.getPropertyValues( value, entityMode );
+			int result = 17;
+			for ( int i = 0; i < subtypes.length; i++ ) {
+				result = 37 * result + hash( subtypes[i], values[i], entityMode );
+			}
+			hash = result;
+		}
+		else {
+			hash = type.getHashCode( value, entityMode );
+		}
+		// spread the bits, the table size is a power of two
+		return hash ^ ( hash >>> 16 );
+	}
+
+	private static final class Entry {
+		private final Object element;
+		private final int hash;
+		private Entry next;
+		private int count = 1;
+
+		private Entry(Object element, int hash, Entry next) {
+			this.element = element;
+			this.hash = hash;
+			this.next = next;
+		}
+	}
+}
@@ -52,6 +52,10 @@ public class PersistentBag extends AbstractPersistentCollection implements List
 
 	protected List bag;
 
+	// the elements of the snapshot, hashed for needsInserting()
+	private transient ElementMultiset snapshotElements;
+	private transient List snapshotElementsSource;
+
 	public PersistentBag(SessionImplementor session) {
 		super(session);
 	}
@@ -103,12 +107,21 @@ public class PersistentBag extends AbstractPersistentCollection implements List
 		EntityMode entityMode = getSession().getEntityMode();
 		List sn = (List) getSnapshot();
 		if ( sn.size()!=bag.size() ) return false;
+		// a shortcut for the elements whose location didn't change
 		Iterator iter = bag.iterator();
+		int i = 0;
 		while ( iter.hasNext() ) {
 			Object elt = iter.next();
-			final boolean unequal = countOccurrences(elt, bag, elementType, entityMode) !=
-				countOccurrences(elt, sn, elementType, entityMode);
-			if ( unequal ) return false;
+			if ( !elementType.isSame( elt, sn.get(i), entityMode ) ) {
+				// compare the rest as multisets
+				ElementMultiset remaining = new ElementMultiset( elementType, entityMode, sn.subList( i, sn.size() ) );
+				if ( !remaining.remove( elt ) ) return false;
+				while ( iter.hasNext() ) {
+					if ( !remaining.remove( iter.next() ) ) return false;
+				}
+				return true;
+			}
+			i++;
 		}
 		return true;
 	}
@@ -117,16 +130,6 @@ public class PersistentBag extends AbstractPersistentCollection implements List
 		return ( (Collection) snapshot ).isEmpty();
 	}
 
-	private int countOccurrences(Object element, List list, Type elementType, EntityMode entityMode)
-	throws HibernateException {
-		Iterator iter = list.iterator();
-		int result=0;
-		while ( iter.hasNext() ) {
-			if ( elementType.isSame( element, iter.next(), entityMode ) ) result++;
-		}
-		return result;
-	}
-
 	public Serializable getSnapshot(CollectionPersister persister)
 	throws HibernateException {
 		EntityMode entityMode = getSession().getEntityMode();
@@ -188,11 +191,11 @@ public class PersistentBag extends AbstractPersistentCollection implements List
 		ArrayList deletes = new ArrayList();
 		List sn = (List) getSnapshot();
 		Iterator olditer = sn.iterator();
+		ElementMultiset current = null;
 		int i=0;
 		while ( olditer.hasNext() ) {
 			Object old = olditer.next();
-			Iterator newiter = bag.iterator();
-			boolean found = false;
+			boolean found;
 			if ( bag.size()>i && elementType.isSame( old, bag.get(i++), entityMode ) ) {
 			//a shortcut if its location didn't change!
 				found = true;
@@ -200,12 +203,10 @@ public class PersistentBag extends AbstractPersistentCollection implements List
 			else {
 				//search for it
 				//note that this code is incorrect for other than one-to-many
-				while ( newiter.hasNext() ) {
-					if ( elementType.isSame( old, newiter.next(), entityMode ) ) {
-						found = true;
-						break;
-					}
+				if ( current==null ) {
+					current = new ElementMultiset( elementType, entityMode, bag );
 				}
+				found = current.contains( old );
 			}
 			if (!found) deletes.add(old);
 		}
@@ -223,15 +224,20 @@ public class PersistentBag extends AbstractPersistentCollection implements List
 		else {
 			//search for it
 			//note that this code is incorrect for other than one-to-many
-			Iterator olditer = sn.iterator();
-			while ( olditer.hasNext() ) {
-				Object old = olditer.next();
-				if ( elemType.isSame( old, entry, entityMode ) ) return false;
+			if ( snapshotElementsSource!=sn ) {
+				snapshotElements = new ElementMultiset( elemType, entityMode, sn );
+				snapshotElementsSource = sn;
 			}
-			return true;
+			return !snapshotElements.contains( entry );
 		}
 	}
 
+	public void postAction() {
+		super.postAction();
+		snapshotElements = null;
+		snapshotElementsSource = null;
+	}
+
 	public boolean isRowUpdatePossible() {
 		return false;
 	}
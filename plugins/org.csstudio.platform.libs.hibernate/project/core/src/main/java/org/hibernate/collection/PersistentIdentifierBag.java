@@ -30,10 +30,12 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Set;
 
 import org.hibernate.EntityMode;
 import org.hibernate.HibernateException;
@@ -240,9 +242,15 @@ public class PersistentIdentifierBag extends AbstractPersistentCollection implem
 
 	public Iterator getDeletes(CollectionPersister persister, boolean indexIsFormula) throws HibernateException {
 		Map snap = (Map) getSnapshot();
-		List deletes = new ArrayList( snap.keySet() );
+		Set current = new HashSet();
 		for ( int i=0; i<values.size(); i++ ) {
-			if ( values.get(i)!=null ) deletes.remove( identifiers.get( new Integer(i) ) );
+			if ( values.get(i)!=null ) current.add( identifiers.get( new Integer(i) ) );
+		}
+		List deletes = new ArrayList();
+		Iterator iter = snap.keySet().iterator();
+		while ( iter.hasNext() ) {
+			Object id = iter.next();
+			if ( !current.contains( id ) ) deletes.add( id );
 		}
 		return deletes.iterator();
 	}
@@ -0,0 +1,262 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.connection;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.jdbc.PreparedStatementCache;
+
+/**
+ * The set of physical connections owned by a {@link PooledConnectionProvider}.
+ * <p/>
+ * Borrowing never takes a lock: every {@link Entry} carries an atomic state which callers claim
+ * using compare-and-set.  A borrower first looks at the few connections it returned most recently
+ * (thread affinity keeps a connection, and the driver-side state cached on it, with the thread that
+ * used it last) and only then scans the shared list.  The shared list is copy-on-write, since it
+ * only changes when a physical connection is opened or closed.
+ */
+final class ConnectionBag {
+	static final int REMOVED = -1;
+	static final int NOT_IN_USE = 0;
+	static final int IN_USE = 1;
+	static final int RESERVED = 2;
+
+	private static final int AFFINITY_SIZE = 4;
+
+	private final List shared = new CopyOnWriteArrayList();
+	private final ConcurrentMap entriesByConnection = new ConcurrentHashMap();
+	private final ThreadLocal affinity = new ThreadLocal() {
+		protected Object initialValue() {
+			return new ArrayList( AFFINITY_SIZE );
+		}
+	};
+
+	/**
+	 * Register a newly opened physical connection.
+	 *
+	 * @param connection The connection
+	 * @param statementCache The statement cache of the connection, or null
+	 * @param state The initial state of the entry, either {@link #IN_USE} or {@link #NOT_IN_USE}
+	 *
+	 * @return The new entry
+	 */
+	Entry add(Connection connection, PreparedStatementCache statementCache, int state) {
+		Entry entry = new Entry( connection, statementCache, state );
+		entriesByConnection.put( connection, entry );
+		shared.add( entry );
+		return entry;
+	}
+
+	/**
+	 * Try to claim one of the connections recently returned by the calling thread.
+	 *
+	 * @return The claimed entry, or null.
+	 */
+	Entry borrowFromThread() {
+		List recent = (List) affinity.get();
+		for ( int i = recent.size() - 1; i >= 0; i-- ) {
+			Entry entry = (Entry) ( (WeakReference) recent.remove( i ) ).get();
+			if ( entry != null && entry.compareAndSetState( NOT_IN_USE, IN_USE ) ) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Try to claim any idle connection.
+	 *
+	 * @return The claimed entry, or null.
+	 */
+	Entry borrowShared() {
+		Iterator entries = shared.iterator();
+		while ( entries.hasNext() ) {
+			Entry entry = (Entry) entries.next();
+			if ( entry.compareAndSetState( NOT_IN_USE, IN_USE ) ) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Hand a borrowed entry back, remembering it as a preferred candidate for the calling thread.
+	 *
+	 * @param entry The entry being returned
+	 */
+	void requite(Entry entry) {
+		List recent = (List) affinity.get();
+		if ( recent.size() == AFFINITY_SIZE ) {
+			recent.remove( 0 );
+		}
+		recent.add( new WeakReference( entry ) );
+		entry.setState( NOT_IN_USE );
+	}
+
+	/**
+	 * Release an entry reserved by {@link Entry#reserve()}.
+	 *
+	 * @param entry The reserved entry
+	 */
+	void unreserve(Entry entry) {
+		entry.compareAndSetState( RESERVED, NOT_IN_USE );
+	}
+
+	/**
+	 * Forget about an entry, whose connection is about to be physically closed.
+	 *
+	 * @param entry The entry to remove
+	 */
+	void remove(Entry entry) {
+		entry.setState( REMOVED );
+		shared.remove( entry );
+		entriesByConnection.remove( entry.getConnection() );
+	}
+
+	Entry getEntry(Connection connection) {
+		return (Entry) entriesByConnection.get( connection );
+	}
+
+	/**
+	 * @return A weakly consistent iterator over all entries; never throws
+	 * {@link java.util.ConcurrentModificationException}.
+	 */
+	Iterator iterator() {
+		return shared.iterator();
+	}
+
+	int count(int state) {
+		int count = 0;
+		Iterator entries = shared.iterator();
+		while ( entries.hasNext() ) {
+			if ( ( (Entry) entries.next() ).getState() == state ) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * A physical connection together with its pooling state.
+	 */
+	static final class Entry {
+		private final Connection connection;
+		private final PreparedStatementCache statementCache;
+		private final AtomicInteger state;
+		private final long creationTime;
+		private volatile long lastAccessTime;
+		private volatile long lastValidationTime;
+		private volatile long borrowTime;
+		private volatile Throwable borrowSite;
+		private volatile boolean leakReported;
+
+		Entry(Connection connection, PreparedStatementCache statementCache, int state) {
+			this.connection = connection;
+			this.statementCache = statementCache;
+			this.state = new AtomicInteger( state );
+			this.creationTime = System.currentTimeMillis();
+			this.lastAccessTime = creationTime;
+			this.lastValidationTime = creationTime;
+		}
+
+		Connection getConnection() {
+			return connection;
+		}
+
+		PreparedStatementCache getStatementCache() {
+			return statementCache;
+		}
+
+		int getState() {
+			return state.get();
+		}
+
+		void setState(int newState) {
+			state.set( newState );
+		}
+
+		boolean compareAndSetState(int expected, int newState) {
+			return state.compareAndSet( expected, newState );
+		}
+
+		/**
+		 * Take an idle entry out of circulation for housekeeping.
+		 *
+		 * @return true if the entry was idle and is now reserved by the caller
+		 */
+		boolean reserve() {
+			return state.compareAndSet( NOT_IN_USE, RESERVED );
+		}
+
+		long getCreationTime() {
+			return creationTime;
+		}
+
+		long getLastAccessTime() {
+			return lastAccessTime;
+		}
+
+		void setLastAccessTime(long lastAccessTime) {
+			this.lastAccessTime = lastAccessTime;
+		}
+
+		long getLastValidationTime() {
+			return lastValidationTime;
+		}
+
+		void setLastValidationTime(long lastValidationTime) {
+			this.lastValidationTime = lastValidationTime;
+		}
+
+		long getBorrowTime() {
+			return borrowTime;
+		}
+
+		Throwable getBorrowSite() {
+			return borrowSite;
+		}
+
+		void borrowed(long time, Throwable site) {
+			this.borrowTime = time;
+			this.borrowSite = site;
+			this.leakReported = false;
+		}
+
+		boolean isLeakReported() {
+			return leakReported;
+		}
+
+		void setLeakReported(boolean leakReported) {
+			this.leakReported = leakReported;
+		}
+	}
+}
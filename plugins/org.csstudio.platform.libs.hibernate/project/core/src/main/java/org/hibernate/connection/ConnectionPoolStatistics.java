@@ -0,0 +1,116 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.connection;
+
+import java.io.Serializable;
+
+/**
+ * Runtime metrics of a {@link PooledConnectionProvider}.
+ * <p/>
+ * Counters are cumulative since the pool was configured (or last {@link #clear() cleared});
+ * the gauges ({@link #getActiveCount()}, {@link #getIdleCount()}, ...) reflect the pool state at
+ * the moment they are read.
+ */
+public interface ConnectionPoolStatistics extends Serializable {
+
+	/**
+	 * @return The number of connections currently checked out of the pool
+	 */
+	public int getActiveCount();
+
+	/**
+	 * @return The number of open connections currently sitting idle in the pool
+	 */
+	public int getIdleCount();
+
+	/**
+	 * @return The total number of open physical connections owned by the pool
+	 */
+	public int getTotalCount();
+
+	/**
+	 * @return The number of threads currently waiting for a connection
+	 */
+	public int getWaitingCount();
+
+	/**
+	 * @return The configured maximum pool size
+	 */
+	public int getMaxSize();
+
+	/**
+	 * @return The configured minimum pool size
+	 */
+	public int getMinSize();
+
+	/**
+	 * @return The number of successful {@link ConnectionProvider#getConnection()} calls
+	 */
+	public long getBorrowCount();
+
+	/**
+	 * @return The number of borrows served from the calling thread's recently used connections
+	 */
+	public long getThreadLocalHitCount();
+
+	/**
+	 * @return The number of borrows which timed out waiting for a connection
+	 */
+	public long getTimeoutCount();
+
+	/**
+	 * @return The number of physical connections opened
+	 */
+	public long getCreatedCount();
+
+	/**
+	 * @return The number of physical connections closed (evicted, failed validation or on shutdown)
+	 */
+	public long getDestroyedCount();
+
+	/**
+	 * @return The number of connections which failed validation
+	 */
+	public long getValidationFailureCount();
+
+	/**
+	 * @return The number of connections reported as possible leaks
+	 */
+	public long getLeakCount();
+
+	/**
+	 * @return The longest time (in milliseconds) a caller waited for a connection
+	 */
+	public long getMaxWaitTime();
+
+	/**
+	 * @return The average time (in milliseconds) a caller waited for a connection
+	 */
+	public long getAverageWaitTime();
+
+	/**
+	 * Reset the cumulative counters.
+	 */
+	public void clear();
+}
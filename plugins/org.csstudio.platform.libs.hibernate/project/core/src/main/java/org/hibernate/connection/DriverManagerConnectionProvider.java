@@ -28,23 +28,27 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Properties;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.hibernate.HibernateException;
 import org.hibernate.cfg.Environment;
+import org.hibernate.jdbc.PreparedStatementCache;
 import org.hibernate.util.PropertiesHelper;
 import org.hibernate.util.ReflectHelper;
 
 /**
  * A connection provider that uses <tt>java.sql.DriverManager</tt>. This provider
- * also implements a very rudimentary connection pool.
+ * also implements a very rudimentary connection pool, and caches prepared statements
+ * per connection if <tt>hibernate.jdbc.statement_cache_size</tt> is set.
  * @see ConnectionProvider
  * @author Gavin King
  */
-public class DriverManagerConnectionProvider implements ConnectionProvider {
+public class DriverManagerConnectionProvider implements StatementCachingConnectionProvider {
 
 	private String url;
 	private Properties connectionProps;
@@ -53,6 +57,9 @@ public class DriverManagerConnectionProvider implements ConnectionProvider {
 	private int poolSize;
 	private int checkedOut = 0;
 	private boolean autocommit;
+	private int statementCacheSize;
+	// the statement caches of the open connections, guarded by the pool lock
+	private final Map statementCaches = new IdentityHashMap();
 
 	private static final Logger log = LoggerFactory.getLogger(DriverManagerConnectionProvider.class);
 
@@ -67,6 +74,8 @@ public class DriverManagerConnectionProvider implements ConnectionProvider {
 		autocommit = PropertiesHelper.getBoolean(Environment.AUTOCOMMIT, props);
 		log.info("autocommit mode: " + autocommit);
 
+		statementCacheSize = PropertiesHelper.getInt(Environment.STATEMENT_CACHE_SIZE, props, 0);
+
 		isolation = PropertiesHelper.getInteger(Environment.ISOLATION, props);
 		if (isolation!=null)
 		log.info( "JDBC isolation level: " + Environment.isolationLevelToString( isolation.intValue() ) );
@@ -139,6 +148,11 @@ public class DriverManagerConnectionProvider implements ConnectionProvider {
 		}
 		if ( log.isTraceEnabled() ) checkedOut++;
 
+		if ( statementCacheSize > 0 ) {
+			synchronized (pool) {
+				statementCaches.put( conn, new PreparedStatementCache(statementCacheSize) );
+			}
+		}
 		return conn;
 	}
 
@@ -157,6 +171,7 @@ public class DriverManagerConnectionProvider implements ConnectionProvider {
 
 		log.debug("closing JDBC connection");
 
+		releaseStatementCache( conn );
 		conn.close();
 
 	}
@@ -172,7 +187,9 @@ public class DriverManagerConnectionProvider implements ConnectionProvider {
 		Iterator iter = pool.iterator();
 		while ( iter.hasNext() ) {
 			try {
-				( (Connection) iter.next() ).close();
+				Connection conn = (Connection) iter.next();
+				releaseStatementCache( conn );
+				conn.close();
 			}
 			catch (SQLException sqle) {
 				log.warn("problem closing pooled connection", sqle);
@@ -182,6 +199,23 @@ public class DriverManagerConnectionProvider implements ConnectionProvider {
 
 	}
 
+	/**
+	 * @see StatementCachingConnectionProvider#getStatementCache(Connection)
+	 */
+	public PreparedStatementCache getStatementCache(Connection conn) {
+		synchronized (pool) {
+			return (PreparedStatementCache) statementCaches.get(conn);
+		}
+	}
+
+	private void releaseStatementCache(Connection conn) {
+		PreparedStatementCache cache;
+		synchronized (pool) {
+			cache = (PreparedStatementCache) statementCaches.remove(conn);
+		}
+		if ( cache != null ) cache.clear();
+	}
+
 	/**
 	 * @see ConnectionProvider#supportsAggressiveRelease()
 	 */
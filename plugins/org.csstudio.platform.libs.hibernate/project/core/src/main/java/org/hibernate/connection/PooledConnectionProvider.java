@@ -0,0 +1,624 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.connection;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.hibernate.HibernateException;
+import org.hibernate.cfg.Environment;
+import org.hibernate.jdbc.PreparedStatementCache;
+import org.hibernate.util.PropertiesHelper;
+import org.hibernate.util.ReflectHelper;
+
+/**
+ * A connection pool built on <tt>java.sql.DriverManager</tt>, intended as a production grade
+ * replacement of {@link DriverManagerConnectionProvider}.
+ * <p/>
+ * Borrowing and returning a connection is lock free in the common case (see {@link ConnectionBag}).
+ * The number of connections checked out is bounded by a semaphore, so callers wait at most
+ * <tt>hibernate.pool.max_wait</tt> milliseconds, optionally in FIFO order
+ * (<tt>hibernate.pool.fair</tt>).  A background task validates idle connections, closes
+ * connections idle for longer than <tt>hibernate.pool.idle_timeout</tt>, keeps at least
+ * <tt>hibernate.pool.min_size</tt> connections open and reports connections checked out for longer
+ * than <tt>hibernate.pool.leak_detection_threshold</tt>, together with the stack trace of the
+ * borrower.
+ * <p/>
+ * Physical connections are never wrapped, so state bound to a connection (such as the statements
+ * held in its {@link PreparedStatementCache}) survives being returned to and borrowed from the
+ * pool; the cached statements are released when the pool physically closes the connection.
+ * <p/>
+ * Pool metrics are available from {@link #getStatistics()}, and can be published through JMX
+ * using <tt>org.hibernate.jmx.ConnectionPoolService</tt>.
+ *
+ * @see ConnectionProvider
+ * @see ConnectionPoolStatistics
+ */
+public class PooledConnectionProvider implements StatementCachingConnectionProvider {
+	private static final Logger log = LoggerFactory.getLogger( PooledConnectionProvider.class );
+
+	private String name;
+	private String url;
+	private Properties connectionProps;
+	private Integer isolation;
+	private boolean autocommit;
+
+	private int minSize;
+	private int maxSize;
+	private long maxWait;
+	private long idleTimeout;
+	private long validationInterval;
+	private String validationQuery;
+	private long leakDetectionThreshold;
+	private int statementCacheSize;
+
+	private final ConnectionBag bag = new ConnectionBag();
+	private final AtomicInteger totalCount = new AtomicInteger();
+	private Semaphore permits;
+	private Timer housekeeper;
+	private volatile boolean closed;
+
+	private final PoolStatistics statistics = new PoolStatistics();
+
+	public void configure(Properties props) throws HibernateException {
+		String driverClass = props.getProperty( Environment.DRIVER );
+
+		url = props.getProperty( Environment.URL );
+		if ( url == null ) {
+			String msg = "JDBC URL was not specified by property " + Environment.URL;
+			log.error( msg );
+			throw new HibernateException( msg );
+		}
+		name = props.getProperty( Environment.POOL_NAME, url );
+
+		maxSize = PropertiesHelper.getInt( Environment.POOL_SIZE, props, 20 );
+		minSize = Math.min( PropertiesHelper.getInt( Environment.POOL_MIN_SIZE, props, 0 ), maxSize );
+		maxWait = PropertiesHelper.getLong( Environment.POOL_MAX_WAIT, props, 30000 );
+		idleTimeout = PropertiesHelper.getLong( Environment.POOL_IDLE_TIMEOUT, props, 600000 );
+		validationInterval = PropertiesHelper.getLong( Environment.POOL_VALIDATION_INTERVAL, props, 30000 );
+		validationQuery = props.getProperty( Environment.POOL_VALIDATION_QUERY );
+		leakDetectionThreshold = PropertiesHelper.getLong( Environment.POOL_LEAK_DETECTION_THRESHOLD, props, 0 );
+		long housekeepingPeriod = PropertiesHelper.getLong( Environment.POOL_HOUSEKEEPING_PERIOD, props, 30000 );
+		boolean fair = PropertiesHelper.getBoolean( Environment.POOL_FAIR, props );
+		statementCacheSize = PropertiesHelper.getInt( Environment.STATEMENT_CACHE_SIZE, props, 0 );
+		if ( maxSize < 1 ) {
+			throw new HibernateException( "Connection pool size must be positive: " + maxSize );
+		}
+
+		autocommit = PropertiesHelper.getBoolean( Environment.AUTOCOMMIT, props );
+		isolation = PropertiesHelper.getInteger( Environment.ISOLATION, props );
+
+		log.info( "Using pooled connection provider [" + name + "]" );
+		log.info( "connection pool size: " + minSize + " - " + maxSize + ", max wait: " + maxWait + "ms, fair: " + fair );
+		log.info( "idle timeout: " + idleTimeout + "ms, validation interval: " + validationInterval + "ms" );
+		if ( leakDetectionThreshold > 0 ) {
+			log.info( "connection leak detection threshold: " + leakDetectionThreshold + "ms" );
+		}
+		log.info( "autocommit mode: " + autocommit );
+		if ( isolation != null ) {
+			log.info( "JDBC isolation level: " + Environment.isolationLevelToString( isolation.intValue() ) );
+		}
+
+		loadDriver( driverClass );
+		connectionProps = ConnectionProviderFactory.getConnectionProperties( props );
+		log.info( "using driver: " + driverClass + " at URL: " + url );
+		if ( log.isDebugEnabled() ) {
+			log.info( "connection properties: " + connectionProps );
+		}
+		else if ( log.isInfoEnabled() ) {
+			log.info( "connection properties: " + PropertiesHelper.maskOut( connectionProps, "password" ) );
+		}
+
+		permits = new Semaphore( maxSize, fair );
+		fillToMinimum();
+		if ( housekeepingPeriod > 0 ) {
+			housekeeper = new Timer( "Hibernate connection pool housekeeper [" + name + "]", true );
+			housekeeper.schedule( new Housekeeping(), housekeepingPeriod, housekeepingPeriod );
+		}
+	}
+
+	private void loadDriver(String driverClass) {
+		if ( driverClass == null ) {
+			log.warn( "no JDBC Driver class was specified by property " + Environment.DRIVER );
+			return;
+		}
+		try {
+			// trying via forName() first to be as close to DriverManager's semantics
+			Class.forName( driverClass );
+		}
+		catch ( ClassNotFoundException cnfe ) {
+			try {
+				ReflectHelper.classForName( driverClass );
+			}
+			catch ( ClassNotFoundException e ) {
+				String msg = "JDBC Driver class not found: " + driverClass;
+				log.error( msg, e );
+				throw new HibernateException( msg, e );
+			}
+		}
+	}
+
+	public Connection getConnection() throws SQLException {
+		if ( closed ) {
+			throw new SQLException( "Connection pool [" + name + "] has been closed" );
+		}
+
+		final long start = System.currentTimeMillis();
+		final boolean acquired;
+		try {
+			acquired = permits.tryAcquire( maxWait, TimeUnit.MILLISECONDS );
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new SQLException( "Interrupted while waiting for a connection from pool [" + name + "]" );
+		}
+		if ( !acquired ) {
+			statistics.timeoutCount.incrementAndGet();
+			throw timeout();
+		}
+
+		try {
+			ConnectionBag.Entry entry = borrow( start );
+			final long now = System.currentTimeMillis();
+			entry.borrowed( now, leakDetectionThreshold > 0 ? new Exception( "connection checked out here" ) : null );
+			statistics.borrowed( now - start );
+			if ( log.isTraceEnabled() ) {
+				log.trace( "borrowed pooled JDBC connection, active connections: " + statistics.getActiveCount() );
+			}
+			return entry.getConnection();
+		}
+		catch ( SQLException e ) {
+			permits.release();
+			throw e;
+		}
+		catch ( RuntimeException e ) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Claim a connection; the caller already holds a permit, so either an idle connection exists or
+	 * a new one may be opened (unless the housekeeper has temporarily reserved the idle ones).
+	 */
+	private ConnectionBag.Entry borrow(long start) throws SQLException {
+		while ( true ) {
+			ConnectionBag.Entry entry = bag.borrowFromThread();
+			if ( entry != null ) {
+				statistics.threadLocalHitCount.incrementAndGet();
+			}
+			else {
+				entry = bag.borrowShared();
+			}
+
+			if ( entry == null ) {
+				entry = openIfBelowMaximum( ConnectionBag.IN_USE );
+				if ( entry != null ) {
+					return entry;
+				}
+				if ( System.currentTimeMillis() - start > maxWait ) {
+					statistics.timeoutCount.incrementAndGet();
+					throw timeout();
+				}
+				Thread.yield();
+				continue;
+			}
+
+			if ( requiresValidation( entry, System.currentTimeMillis() ) && !isValid( entry ) ) {
+				destroy( entry );
+				continue;
+			}
+			return entry;
+		}
+	}
+
+	private SQLException timeout() {
+		return new SQLException(
+				"Timed out after " + maxWait + "ms waiting for a connection from pool [" + name
+						+ "], active connections: " + statistics.getActiveCount() + "/" + maxSize
+		);
+	}
+
+	public void closeConnection(Connection conn) throws SQLException {
+		ConnectionBag.Entry entry = bag.getEntry( conn );
+		if ( entry == null || entry.getState() != ConnectionBag.IN_USE ) {
+			log.warn( "connection returned to pool [" + name + "] was not checked out from it; closing it" );
+			conn.close();
+			return;
+		}
+
+		try {
+			boolean reusable = !closed;
+			if ( reusable ) {
+				try {
+					if ( conn.isClosed() ) {
+						reusable = false;
+					}
+					else {
+						conn.clearWarnings();
+					}
+				}
+				catch ( SQLException e ) {
+					log.debug( "discarding pooled JDBC connection which failed on return", e );
+					reusable = false;
+				}
+			}
+
+			if ( reusable ) {
+				entry.setLastAccessTime( System.currentTimeMillis() );
+				entry.borrowed( 0, null );
+				bag.requite( entry );
+				if ( log.isTraceEnabled() ) {
+					log.trace( "returned JDBC connection to pool, active connections: " + statistics.getActiveCount() );
+				}
+			}
+			else {
+				destroy( entry );
+			}
+		}
+		finally {
+			permits.release();
+		}
+	}
+
+	public void close() {
+		log.info( "cleaning up connection pool [" + name + "]" );
+		closed = true;
+		if ( housekeeper != null ) {
+			housekeeper.cancel();
+			housekeeper = null;
+		}
+		// connections currently checked out are destroyed when they are returned
+		Iterator entries = bag.iterator();
+		while ( entries.hasNext() ) {
+			ConnectionBag.Entry entry = (ConnectionBag.Entry) entries.next();
+			if ( entry.reserve() ) {
+				destroy( entry );
+			}
+		}
+	}
+
+	/**
+	 * @see StatementCachingConnectionProvider#getStatementCache(Connection)
+	 */
+	public PreparedStatementCache getStatementCache(Connection conn) {
+		ConnectionBag.Entry entry = bag.getEntry( conn );
+		return entry == null ? null : entry.getStatementCache();
+	}
+
+	/**
+	 * @see ConnectionProvider#supportsAggressiveRelease()
+	 */
+	public boolean supportsAggressiveRelease() {
+		return false;
+	}
+
+	/**
+	 * Retrieve the runtime metrics of this pool.
+	 *
+	 * @return The pool statistics (a live view)
+	 */
+	public ConnectionPoolStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * @return The name of this pool (<tt>hibernate.pool.name</tt>, defaulting to the JDBC URL)
+	 */
+	public String getName() {
+		return name;
+	}
+
+	private ConnectionBag.Entry openIfBelowMaximum(int state) throws SQLException {
+		while ( true ) {
+			int total = totalCount.get();
+			if ( total >= maxSize ) {
+				return null;
+			}
+			if ( totalCount.compareAndSet( total, total + 1 ) ) {
+				break;
+			}
+		}
+
+		Connection conn;
+		try {
+			conn = openConnection();
+		}
+		catch ( SQLException e ) {
+			totalCount.decrementAndGet();
+			throw e;
+		}
+		catch ( RuntimeException e ) {
+			totalCount.decrementAndGet();
+			throw e;
+		}
+		return bag.add( conn, statementCacheSize > 0 ? new PreparedStatementCache( statementCacheSize ) : null, state );
+	}
+
+	private Connection openConnection() throws SQLException {
+		log.debug( "opening new JDBC connection" );
+		Connection conn = DriverManager.getConnection( url, connectionProps );
+		try {
+			if ( isolation != null ) {
+				conn.setTransactionIsolation( isolation.intValue() );
+			}
+			if ( conn.getAutoCommit() != autocommit ) {
+				conn.setAutoCommit( autocommit );
+			}
+		}
+		catch ( SQLException e ) {
+			closeQuietly( conn );
+			throw e;
+		}
+		statistics.createdCount.incrementAndGet();
+		if ( log.isDebugEnabled() ) {
+			log.debug( "created connection to: " + url + ", Isolation Level: " + conn.getTransactionIsolation() );
+		}
+		return conn;
+	}
+
+	private void destroy(ConnectionBag.Entry entry) {
+		bag.remove( entry );
+		totalCount.decrementAndGet();
+		statistics.destroyedCount.incrementAndGet();
+		if ( entry.getStatementCache() != null ) {
+			entry.getStatementCache().clear();
+		}
+		closeQuietly( entry.getConnection() );
+	}
+
+	private void closeQuietly(Connection conn) {
+		try {
+			conn.close();
+		}
+		catch ( SQLException e ) {
+			log.warn( "problem closing pooled connection", e );
+		}
+	}
+
+	private boolean requiresValidation(ConnectionBag.Entry entry, long now) {
+		return validationInterval > 0
+				&& now - Math.max( entry.getLastAccessTime(), entry.getLastValidationTime() ) > validationInterval;
+	}
+
+	private boolean isValid(ConnectionBag.Entry entry) {
+		Connection conn = entry.getConnection();
+		try {
+			if ( conn.isClosed() ) {
+				return false;
+			}
+			if ( validationQuery != null ) {
+				Statement statement = conn.createStatement();
+				try {
+					statement.execute( validationQuery );
+				}
+				finally {
+					statement.close();
+				}
+				if ( !conn.getAutoCommit() ) {
+					conn.rollback();
+				}
+			}
+			entry.setLastValidationTime( System.currentTimeMillis() );
+			return true;
+		}
+		catch ( SQLException e ) {
+			statistics.validationFailureCount.incrementAndGet();
+			log.warn( "pooled JDBC connection failed validation: " + e.getMessage() );
+			return false;
+		}
+	}
+
+	private void fillToMinimum() {
+		while ( !closed && totalCount.get() < minSize ) {
+			try {
+				ConnectionBag.Entry entry = openIfBelowMaximum( ConnectionBag.NOT_IN_USE );
+				if ( entry == null ) {
+					return;
+				}
+			}
+			catch ( SQLException e ) {
+				log.warn( "could not open connection to fill pool [" + name + "] to its minimum size", e );
+				return;
+			}
+		}
+	}
+
+	private void reportLeak(ConnectionBag.Entry entry, long now) {
+		entry.setLeakReported( true );
+		statistics.leakCount.incrementAndGet();
+		log.warn(
+				"connection checked out of pool [" + name + "] for " + ( now - entry.getBorrowTime() )
+						+ "ms, possible connection leak",
+				entry.getBorrowSite()
+		);
+	}
+
+	/**
+	 * Background validation, idle eviction, minimum size maintenance and leak detection.
+	 */
+	private class Housekeeping extends TimerTask {
+		public void run() {
+			try {
+				final long now = System.currentTimeMillis();
+				Iterator entries = bag.iterator();
+				while ( entries.hasNext() ) {
+					ConnectionBag.Entry entry = (ConnectionBag.Entry) entries.next();
+					if ( entry.getState() == ConnectionBag.IN_USE ) {
+						if ( leakDetectionThreshold > 0
+								&& !entry.isLeakReported()
+								&& entry.getBorrowSite() != null
+								&& now - entry.getBorrowTime() > leakDetectionThreshold ) {
+							reportLeak( entry, now );
+						}
+						continue;
+					}
+					if ( !entry.reserve() ) {
+						continue;
+					}
+					if ( idleTimeout > 0 && now - entry.getLastAccessTime() > idleTimeout && totalCount.get() > minSize ) {
+						log.debug( "closing idle pooled JDBC connection" );
+						destroy( entry );
+					}
+					else if ( requiresValidation( entry, now ) && !isValid( entry ) ) {
+						destroy( entry );
+					}
+					else {
+						bag.unreserve( entry );
+					}
+				}
+				fillToMinimum();
+			}
+			catch ( RuntimeException e ) {
+				log.error( "unexpected error during housekeeping of connection pool [" + name + "]", e );
+			}
+		}
+	}
+
+	private class PoolStatistics implements ConnectionPoolStatistics {
+		private final AtomicLong borrowCount = new AtomicLong();
+		private final AtomicLong threadLocalHitCount = new AtomicLong();
+		private final AtomicLong timeoutCount = new AtomicLong();
+		private final AtomicLong createdCount = new AtomicLong();
+		private final AtomicLong destroyedCount = new AtomicLong();
+		private final AtomicLong validationFailureCount = new AtomicLong();
+		private final AtomicLong leakCount = new AtomicLong();
+		private final AtomicLong totalWaitTime = new AtomicLong();
+		private final AtomicLong maxWaitTime = new AtomicLong();
+
+		void borrowed(long waitTime) {
+			borrowCount.incrementAndGet();
+			if ( waitTime > 0 ) {
+				totalWaitTime.addAndGet( waitTime );
+				for ( long old = maxWaitTime.get(); waitTime > old && !maxWaitTime.compareAndSet( old, waitTime ); old = maxWaitTime.get() ) {
+					// nothing to do here given the odd loop structure...
+				}
+			}
+		}
+
+		public int getActiveCount() {
+			return bag.count( ConnectionBag.IN_USE );
+		}
+
+		public int getIdleCount() {
+			return bag.count( ConnectionBag.NOT_IN_USE );
+		}
+
+		public int getTotalCount() {
+			return totalCount.get();
+		}
+
+		public int getWaitingCount() {
+			return permits == null ? 0 : permits.getQueueLength();
+		}
+
+		public int getMaxSize() {
+			return maxSize;
+		}
+
+		public int getMinSize() {
+			return minSize;
+		}
+
+		public long getBorrowCount() {
+			return borrowCount.get();
+		}
+
+		public long getThreadLocalHitCount() {
+			return threadLocalHitCount.get();
+		}
+
+		public long getTimeoutCount() {
+			return timeoutCount.get();
+		}
+
+		public long getCreatedCount() {
+			return createdCount.get();
+		}
+
+		public long getDestroyedCount() {
+			return destroyedCount.get();
+		}
+
+		public long getValidationFailureCount() {
+			return validationFailureCount.get();
+		}
+
+		public long getLeakCount() {
+			return leakCount.get();
+		}
+
+		public long getMaxWaitTime() {
+			return maxWaitTime.get();
+		}
+
+		public long getAverageWaitTime() {
+			long borrows = borrowCount.get();
+			return borrows == 0 ? 0 : totalWaitTime.get() / borrows;
+		}
+
+		public void clear() {
+			borrowCount.set( 0 );
+			threadLocalHitCount.set( 0 );
+			timeoutCount.set( 0 );
+			createdCount.set( 0 );
+			destroyedCount.set( 0 );
+			validationFailureCount.set( 0 );
+			leakCount.set( 0 );
+			totalWaitTime.set( 0 );
+			maxWaitTime.set( 0 );
+		}
+
+		public String toString() {
+			return new StringBuffer()
+					.append( "ConnectionPoolStatistics[" )
+					.append( "pool=" ).append( name )
+					.append( ",active=" ).append( getActiveCount() )
+					.append( ",idle=" ).append( getIdleCount() )
+					.append( ",total=" ).append( getTotalCount() )
+					.append( ",waiting=" ).append( getWaitingCount() )
+					.append( ",borrows=" ).append( getBorrowCount() )
+					.append( ",timeouts=" ).append( getTimeoutCount() )
+					.append( ",created=" ).append( getCreatedCount() )
+					.append( ",destroyed=" ).append( getDestroyedCount() )
+					.append( ",leaks=" ).append( getLeakCount() )
+					.append( ",maxWaitTime=" ).append( getMaxWaitTime() )
+					.append( ']' )
+					.toString();
+		}
+	}
+}
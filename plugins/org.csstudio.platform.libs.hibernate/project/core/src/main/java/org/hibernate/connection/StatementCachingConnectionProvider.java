@@ -0,0 +1,44 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.connection;
+
+import java.sql.Connection;
+
+import org.hibernate.jdbc.PreparedStatementCache;
+
+/**
+ * A {@link ConnectionProvider} keeping a {@link PreparedStatementCache} for each physical
+ * connection it opens, as configured by <tt>hibernate.jdbc.statement_cache_size</tt>.  The
+ * provider closes the cached statements when it physically closes their connection, so
+ * statements are only ever cached by providers implementing this interface.
+ */
+public interface StatementCachingConnectionProvider extends ConnectionProvider {
+	/**
+	 * Get the statement cache of a connection obtained from this provider.
+	 *
+	 * @param connection The connection, as returned by {@link #getConnection()}
+	 * @return The statement cache, or null if statements are not cached for this connection
+	 */
+	public PreparedStatementCache getStatementCache(Connection connection);
+}
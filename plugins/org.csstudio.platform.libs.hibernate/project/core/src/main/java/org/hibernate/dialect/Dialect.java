@@ -24,6 +24,7 @@
 package org.hibernate.dialect;
 
 import java.sql.CallableStatement;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
@@ -1283,6 +1284,17 @@ public abstract class Dialect {
 		return true;
 	}
 
+	/**
+	 * Can a temporary table, once created, be reused from any connection?  That is
+	 * the case of global temporary tables, whose definition lives on in the schema
+	 * while their rows are private to each session.
+	 *
+	 * @return True if temporary tables can be created once and reused.
+	 */
+	public boolean supportsTemporaryTableReuse() {
+		return false;
+	}
+
 
 	// callable statement support ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 
@@ -1491,6 +1503,17 @@ public abstract class Dialect {
 		return 10;
 	}
 
+	/**
+	 * What is the maximum number of values the database accepts in a single
+	 * <tt>in</tt> list, or the maximum number of parameters it accepts for a
+	 * single statement, whichever is the lower?
+	 *
+	 * @return The maximum number, or zero if the database imposes no limit.
+	 */
+	public int getInExpressionCountLimit() {
+		return 0;
+	}
+
 	/**
 	 * The SQL literal value to which this database maps boolean values.
 	 *
@@ -1742,6 +1765,20 @@ public abstract class Dialect {
 		return " cross join ";
 	}
 
+	/**
+	 * Get the schema in which the given connection resolves unqualified table
+	 * names, so that the schema tools can read its metadata in bulk when no
+	 * schema is configured.
+	 *
+	 * @param meta The metadata of the connection
+	 * @return The schema name as stored in the database, or null if unknown
+	 * @throws SQLException Indicates a problem reading the metadata
+	 * @see org.hibernate.tool.hbm2ddl.DatabaseMetadata
+	 */
+	public String getCurrentSchemaName(DatabaseMetaData meta) throws SQLException {
+		return null;
+	}
+
 
 	// Informational metadata ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 
@@ -502,6 +502,16 @@ public class HSQLDialect extends Dialect {
 		return true;
 	}
 
+	/**
+	 * Version 1.8 GLOBAL TEMPORARY tables can be reused, the LOCAL TEMPORARY
+	 * tables of 2.0 only last as long as the session declaring them.
+	 *
+	 * @return True if temporary tables can be created once and reused.
+	 */
+	public boolean supportsTemporaryTableReuse() {
+		return hsqldbVersion < 20;
+	}
+
 	// current timestamp support ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 
 	/**
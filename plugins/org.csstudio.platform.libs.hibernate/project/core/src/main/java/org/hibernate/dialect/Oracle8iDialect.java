@@ -24,6 +24,7 @@
  */
 package org.hibernate.dialect;
 
+import java.sql.DatabaseMetaData;
 import java.sql.Types;
 import java.sql.SQLException;
 import java.sql.ResultSet;
@@ -365,6 +366,14 @@ public class Oracle8iDialect extends Dialect {
 				+ "    and asq.sequence_owner = us.table_owner";
 	}
 
+	/**
+	 * The schema of an Oracle user is named after it, and holds the tables
+	 * its unqualified names resolve to, unless the session switched schema.
+	 */
+	public String getCurrentSchemaName(DatabaseMetaData meta) throws SQLException {
+		return meta.getUserName();
+	}
+
 	public String getSelectGUIDString() {
 		return "select rawtohex(sys_guid()) from dual";
 	}
@@ -476,6 +485,10 @@ public class Oracle8iDialect extends Dialect {
 		return false;
 	}
 
+	public boolean supportsTemporaryTableReuse() {
+		return true;
+	}
+
 	public boolean supportsCurrentTimestampSelection() {
 		return true;
 	}
@@ -495,4 +508,9 @@ public class Oracle8iDialect extends Dialect {
 		return false;
 	}
 
+	public int getInExpressionCountLimit() {
+		// ORA-01795: maximum number of expressions in a list is 1000
+		return 1000;
+	}
+
 }
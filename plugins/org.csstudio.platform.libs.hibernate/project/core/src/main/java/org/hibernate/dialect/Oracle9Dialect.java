@@ -25,6 +25,7 @@
 package org.hibernate.dialect;
 
 import java.sql.CallableStatement;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
@@ -265,6 +266,14 @@ public class Oracle9Dialect extends Dialect {
 		return "select sequence_name from user_sequences";
 	}
 
+	/**
+	 * The schema of an Oracle user is named after it, and holds the tables
+	 * its unqualified names resolve to, unless the session switched schema.
+	 */
+	public String getCurrentSchemaName(DatabaseMetaData meta) throws SQLException {
+		return meta.getUserName();
+	}
+
 	public String getSelectGUIDString() {
 		return "select rawtohex(sys_guid()) from dual";
 	}
@@ -370,4 +379,9 @@ public class Oracle9Dialect extends Dialect {
 	public boolean supportsExistsInSelect() {
 		return false;
 	}
+
+	public int getInExpressionCountLimit() {
+		// ORA-01795: maximum number of expressions in a list is 1000
+		return 1000;
+	}
 }
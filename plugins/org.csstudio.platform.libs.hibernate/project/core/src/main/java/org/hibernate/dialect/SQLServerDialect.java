@@ -168,4 +168,9 @@ public class SQLServerDialect extends AbstractTransactSQLDialect {
 	public boolean supportsTupleDistinctCounts() {
 		return false;
 	}
+
+	public int getInExpressionCountLimit() {
+		// a statement may carry at most 2100 parameters; leave room for filter parameters
+		return 2000;
+	}
 }
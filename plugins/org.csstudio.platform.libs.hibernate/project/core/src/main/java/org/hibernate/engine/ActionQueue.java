@@ -44,6 +44,7 @@ import org.hibernate.action.BulkOperationCleanupAction;
 import org.hibernate.action.CollectionRecreateAction;
 import org.hibernate.action.CollectionRemoveAction;
 import org.hibernate.action.CollectionUpdateAction;
+import org.hibernate.action.EntityAction;
 import org.hibernate.action.EntityDeleteAction;
 import org.hibernate.action.EntityIdentityInsertAction;
 import org.hibernate.action.EntityInsertAction;
@@ -337,9 +338,20 @@ public class ActionQueue {
 			java.util.Collections.sort( collectionUpdates );
 			java.util.Collections.sort( collectionRemovals );
 		}
+		else if ( session.getFactory().getSettings().isOrderFlushEnabled() ) {
+			//group the actions by role
+			FlushPlanner planner = new FlushPlanner( session.getFactory() );
+			planner.planCollectionActions( collectionCreations );
+			planner.planCollectionActions( collectionUpdates );
+			planner.planCollectionActions( collectionRemovals );
+		}
 	}
 
 	public void sortActions() {
+		if ( session.getFactory().getSettings().isOrderFlushEnabled() ) {
+			planActions();
+			return;
+		}
 		if ( session.getFactory().getSettings().isOrderUpdatesEnabled() ) {
 			//sort the updates by pk
 			java.util.Collections.sort( updates );
@@ -349,6 +361,25 @@ public class ActionQueue {
 		}
 	}
 
+	/**
+	 * Group the entity actions by entity so that each group executes as a single
+	 * JDBC batch, ordering the groups by the foreign-key dependencies between the
+	 * mapped entities.  Unlike {@link #sortInsertActions()}, this covers the
+	 * updates and deletions as well.
+	 */
+	private void planActions() {
+		FlushPlanner planner = new FlushPlanner( session.getFactory() );
+		planner.planInsertions( insertions );
+		if ( session.getFactory().getSettings().isOrderUpdatesEnabled() ) {
+			//sort the updates by pk, which groups them by entity as well
+			java.util.Collections.sort( updates );
+		}
+		else {
+			planner.planUpdates( updates );
+		}
+		planner.planDeletions( deletions );
+	}
+
 	/**
 	 * Order the {@link #insertions} queue such that we group inserts
 	 * against the same entity together (without violating constraints).  The
@@ -394,6 +425,25 @@ public class ActionQueue {
 				collectionCreations.size() > 0;
 	}
 
+	/**
+	 * Adds the entity instances referenced by queued insertions, updates and
+	 * deletions to the given set.  Collection actions are not considered, since
+	 * they are only ever queued while flushing.
+	 *
+	 * @param instances The set to add the instances to
+	 */
+	public void collectQueuedEntityInstances(Set instances) {
+		collectInstances( insertions, instances );
+		collectInstances( updates, instances );
+		collectInstances( deletions, instances );
+	}
+
+	private static void collectInstances(List actions, Set instances) {
+		for ( int i = 0; i < actions.size(); i++ ) {
+			instances.add( ( ( EntityAction ) actions.get( i ) ).getInstance() );
+		}
+	}
+
 	/**
 	 * Used by the owning session to explicitly control serialization of the
 	 * action queue
@@ -26,13 +26,12 @@ package org.hibernate.engine;
 
 import java.io.Serializable;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.hibernate.EntityMode;
 import org.hibernate.cache.CacheKey;
 import org.hibernate.collection.PersistentCollection;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
 import org.hibernate.persister.collection.CollectionPersister;
 import org.hibernate.persister.entity.EntityPersister;
 import org.hibernate.util.MarkerObject;
@@ -49,16 +48,25 @@ public class BatchFetchQueue {
 	public static final Object MARKER = new MarkerObject( "MARKER" );
 
 	/**
-	 * Defines a sequence of {@link EntityKey} elements that are currently
-	 * elegible for batch-fetching.
-	 * <p/>
-	 * Even though this is a map, we only use the keys.  A map was chosen in
-	 * order to utilize a {@link LinkedHashMap} to maintain sequencing
-	 * as well as uniqueness.
-	 * <p/>
-	 * TODO : this would be better as a SequencedReferenceSet, but no such beast exists!
+	 * Registered by {@link #addPrefetchedCacheEntry} for entities known to be
+	 * absent from the second-level cache.
+	 */
+	public static final Object CACHE_MISS = new MarkerObject( "CACHE_MISS" );
+
+	/**
+	 * The {@link EntityKey} elements that are currently elegible for batch-fetching,
+	 * indexed by entity name.  Each entity name maps to a {@link KeySequence} which
+	 * maintains sequencing as well as uniqueness, so that a batch can be picked
+	 * starting at any key without walking the keys of other entities.
 	 */
-	private final Map batchLoadableEntityKeys = new LinkedHashMap(8);
+	private final Map batchLoadableEntityKeys = new HashMap(8);
+
+	/**
+	 * The uninitialized collections that are currently elegible for batch-fetching,
+	 * indexed by collection role.  Each role maps to a {@link KeySequence} of
+	 * {@link CollectionKey} to the {@link CollectionEntry} of the collection.
+	 */
+	private final Map batchLoadableCollections = new HashMap(8);
 
 	/**
 	 * A map of {@link SubselectFetch subselect-fetch descriptors} keyed by the
@@ -66,6 +74,12 @@ public class BatchFetchQueue {
 	 */
 	private final Map subselectsByEntityKey = new HashMap(8);
 
+	/**
+	 * Second-level cache entries (or {@link #CACHE_MISS}) looked up ahead of
+	 * the entity loads which will consume them, keyed by {@link EntityKey}.
+	 */
+	private final Map prefetchedCacheEntries = new HashMap(8);
+
 	/**
 	 * The owning persistence context.
 	 */
@@ -85,7 +99,9 @@ public class BatchFetchQueue {
 	 */
 	public void clear() {
 		batchLoadableEntityKeys.clear();
+		batchLoadableCollections.clear();
 		subselectsByEntityKey.clear();
+		prefetchedCacheEntries.clear();
 	}
 
 	/**
@@ -140,7 +156,12 @@ public class BatchFetchQueue {
 	 */
 	public void addBatchLoadableEntityKey(EntityKey key) {
 		if ( key.isBatchLoadable() ) {
-			batchLoadableEntityKeys.put( key, MARKER );
+			KeySequence keys = (KeySequence) batchLoadableEntityKeys.get( key.getEntityName() );
+			if ( keys == null ) {
+				keys = new KeySequence();
+				batchLoadableEntityKeys.put( key.getEntityName(), keys );
+			}
+			keys.add( key, MARKER );
 		}
 	}
 
@@ -150,7 +171,91 @@ public class BatchFetchQueue {
 	 * if necessary
 	 */
 	public void removeBatchLoadableEntityKey(EntityKey key) {
-		if ( key.isBatchLoadable() ) batchLoadableEntityKeys.remove(key);
+		if ( key.isBatchLoadable() ) {
+			KeySequence keys = (KeySequence) batchLoadableEntityKeys.get( key.getEntityName() );
+			if ( keys != null ) {
+				keys.remove( key );
+			}
+		}
+	}
+
+	/**
+	 * Remember the outcome of a second-level cache lookup done ahead of loading
+	 * the entity, so that neither the load itself nor the selection of a batch
+	 * of identifiers to load has to query the cache again.
+	 *
+	 * @param key The key of the entity looked up
+	 * @param cacheEntry The cached entry, or {@link #CACHE_MISS}
+	 */
+	public void addPrefetchedCacheEntry(EntityKey key, Object cacheEntry) {
+		prefetchedCacheEntries.put( key, cacheEntry );
+	}
+
+	/**
+	 * Retrieve and forget the outcome of a second-level cache lookup done
+	 * ahead of loading the entity.
+	 *
+	 * @param key The key of the entity being loaded
+	 * @return The cached entry, {@link #CACHE_MISS}, or null if the cache was not consulted
+	 */
+	public Object removePrefetchedCacheEntry(EntityKey key) {
+		return prefetchedCacheEntries.isEmpty() ? null : prefetchedCacheEntries.remove( key );
+	}
+
+	/**
+	 * Forget any second-level cache lookups which were not consumed by a load.
+	 */
+	public void clearPrefetchedCacheEntries() {
+		prefetchedCacheEntries.clear();
+	}
+
+	/**
+	 * Add an uninitialized collection to the queue, making it elegible for
+	 * batch fetching.  Collections which are initialized, or no longer
+	 * associated with the persistence context, are dropped from the queue
+	 * when encountered by {@link #getCollectionBatch}.
+	 *
+	 * @param collection The uninitialized collection
+	 * @param ce The entry of the collection in the persistence context
+	 */
+	public void addBatchLoadableCollection(PersistentCollection collection, CollectionEntry ce) {
+		final CollectionPersister persister = ce.getLoadedPersister();
+		if ( persister == null || ce.getLoadedKey() == null || collection.wasInitialized() ) {
+			return;
+		}
+		if ( persister instanceof AbstractCollectionPersister
+				&& ( (AbstractCollectionPersister) persister ).getBatchSize() <= 1 ) {
+			return;
+		}
+		KeySequence collections = (KeySequence) batchLoadableCollections.get( persister.getRole() );
+		if ( collections == null ) {
+			collections = new KeySequence();
+			batchLoadableCollections.put( persister.getRole(), collections );
+		}
+		collections.add(
+				new CollectionKey( persister, ce.getLoadedKey(), context.getSession().getEntityMode() ),
+				ce
+		);
+	}
+
+	/**
+	 * After evicting a collection, we don't need to batch fetch it anymore,
+	 * remove it from the queue if necessary.
+	 *
+	 * @param ce The entry of the collection in the persistence context
+	 */
+	public void removeBatchLoadableCollection(CollectionEntry ce) {
+		final CollectionPersister persister = ce.getLoadedPersister();
+		if ( persister == null || ce.getLoadedKey() == null ) {
+			return;
+		}
+		KeySequence collections = (KeySequence) batchLoadableCollections.get( persister.getRole() );
+		if ( collections != null ) {
+			CollectionKey key = new CollectionKey( persister, ce.getLoadedKey(), context.getSession().getEntityMode() );
+			if ( collections.get( key ) == ce ) {
+				collections.remove( key );
+			}
+		}
 	}
 
 	/**
@@ -168,53 +273,46 @@ public class BatchFetchQueue {
 			final EntityMode entityMode) {
 		Serializable[] keys = new Serializable[batchSize];
 		keys[0] = id;
+		KeySequence collections = (KeySequence) batchLoadableCollections.get( collectionPersister.getRole() );
+		if ( collections == null ) {
+			return keys;
+		}
+		// the collection demanding load is initialized right away
+		Node start = collections.remove( new CollectionKey( collectionPersister, id, entityMode ) );
 		int i = 1;
-		//int count = 0;
-		int end = -1;
-		boolean checkForEnd = false;
-		// this only works because collection entries are kept in a sequenced
-		// map by persistence context (maybe we should do like entities and
-		// keep a separate sequences set...)
-		Iterator iter = context.getCollectionEntries().entrySet().iterator(); //TODO: calling entrySet on an IdentityMap is SLOW!!
-		while ( iter.hasNext() ) {
-			Map.Entry me = (Map.Entry) iter.next();
-
-			CollectionEntry ce = (CollectionEntry) me.getValue();
-			PersistentCollection collection = (PersistentCollection) me.getKey();
-			if ( !collection.wasInitialized() && ce.getLoadedPersister() == collectionPersister ) {
-
-				if ( checkForEnd && i == end ) {
-					return keys; //the first key found after the given key
-				}
-
-				//if ( end == -1 && count > batchSize*10 ) return keys; //try out ten batches, max
-
-				final boolean isEqual = collectionPersister.getKeyType().isEqual(
-						id,
-						ce.getLoadedKey(),
-						entityMode,
-						collectionPersister.getFactory()
-				);
-
-				if ( isEqual ) {
-					end = i;
-					//checkForEnd = false;
+		// prefer the collections registered immediately after the given
+		// one, then those registered immediately before it
+		for ( int direction = 0; direction < 2 && i < batchSize; direction++ ) {
+			Node node = start == null
+					? ( direction == 0 ? collections.head.next : collections.head )
+					: ( direction == 0 ? start.next : start.previous );
+			while ( i < batchSize && node != collections.head ) {
+				Node next = direction == 0 ? node.next : node.previous;
+				CollectionEntry ce = (CollectionEntry) node.value;
+				if ( !isBatchLoadable( (CollectionKey) node.key, ce ) ) {
+					collections.remove( node.key );
 				}
 				else if ( !isCached( ce.getLoadedKey(), collectionPersister, entityMode ) ) {
 					keys[i++] = ce.getLoadedKey();
-					//count++;
-				}
-
-				if ( i == batchSize ) {
-					i = 1; //end of array, start filling again from start
-					if ( end != -1 ) {
-						checkForEnd = true;
-					}
 				}
+				node = next;
+			}
+			if ( start == null ) {
+				break;
 			}
-
 		}
-		return keys; //we ran out of keys to try
+		return keys;
+	}
+
+	/**
+	 * Is the collection owning the given entry still uninitialized and
+	 * associated with the persistence context?
+	 */
+	private boolean isBatchLoadable(CollectionKey key, CollectionEntry ce) {
+		final PersistentCollection collection = context.getCollection( key );
+		return collection != null
+				&& !collection.wasInitialized()
+				&& context.getCollectionEntry( collection ) == ce;
 	}
 
 	/**
@@ -234,39 +332,40 @@ public class BatchFetchQueue {
 			final EntityMode entityMode) {
 		Serializable[] ids = new Serializable[batchSize];
 		ids[0] = id; //first element of array is reserved for the actual instance we are loading!
+		KeySequence keys = (KeySequence) batchLoadableEntityKeys.get( persister.getEntityName() ); //TODO: this needn't exclude subclasses...
+		if ( keys == null ) {
+			return ids;
+		}
+		Node start = keys.getNode( new EntityKey( id, persister, entityMode ) );
 		int i = 1;
-		int end = -1;
-		boolean checkForEnd = false;
-
-		Iterator iter = batchLoadableEntityKeys.keySet().iterator();
-		while ( iter.hasNext() ) {
-			EntityKey key = (EntityKey) iter.next();
-			if ( key.getEntityName().equals( persister.getEntityName() ) ) { //TODO: this needn't exclude subclasses...
-				if ( checkForEnd && i == end ) {
-					//the first id found after the given id
-					return ids;
-				}
-				if ( persister.getIdentifierType().isEqual( id, key.getIdentifier(), entityMode ) ) {
-					end = i;
-				}
-				else {
-					if ( !isCached( key, persister, entityMode ) ) {
-						ids[i++] = key.getIdentifier();
-					}
-				}
-				if ( i == batchSize ) {
-					i = 1; //end of array, start filling again from start
-					if (end!=-1) checkForEnd = true;
+		// prefer the keys registered immediately after the given
+		// one, then those registered immediately before it
+		for ( int direction = 0; direction < 2 && i < batchSize; direction++ ) {
+			Node node = start == null
+					? ( direction == 0 ? keys.head.next : keys.head )
+					: ( direction == 0 ? start.next : start.previous );
+			while ( i < batchSize && node != keys.head ) {
+				EntityKey key = (EntityKey) node.key;
+				if ( !isCached( key, persister, entityMode ) ) {
+					ids[i++] = key.getIdentifier();
 				}
+				node = direction == 0 ? node.next : node.previous;
+			}
+			if ( start == null ) {
+				break;
 			}
 		}
-		return ids; //we ran out of ids to try
+		return ids;
 	}
 
 	private boolean isCached(
 			EntityKey entityKey,
 			EntityPersister persister,
 			EntityMode entityMode) {
+		Object prefetched = prefetchedCacheEntries.get( entityKey );
+		if ( prefetched != null ) {
+			return prefetched != CACHE_MISS;
+		}
 		if ( persister.hasCache() ) {
 			CacheKey key = new CacheKey(
 					entityKey.getIdentifier(),
@@ -296,4 +395,69 @@ public class BatchFetchQueue {
 		}
 		return false;
 	}
+
+	/**
+	 * An insertion-ordered map from keys to values allowing to walk the keys in
+	 * both directions starting at any given key.  Adding a key which is already
+	 * present replaces its value but keeps its position.
+	 */
+	private static final class KeySequence {
+		private final Map nodes = new HashMap();
+		// sentinel of the circular list; head.next is the oldest node
+		private final Node head = new Node( null, null );
+
+		KeySequence() {
+			head.next = head;
+			head.previous = head;
+		}
+
+		void add(Object key, Object value) {
+			Node node = (Node) nodes.get( key );
+			if ( node != null ) {
+				node.value = value;
+			}
+			else {
+				node = new Node( key, value );
+				node.previous = head.previous;
+				node.next = head;
+				head.previous.next = node;
+				head.previous = node;
+				nodes.put( key, node );
+			}
+		}
+
+		Node getNode(Object key) {
+			return (Node) nodes.get( key );
+		}
+
+		Object get(Object key) {
+			Node node = (Node) nodes.get( key );
+			return node == null ? null : node.value;
+		}
+
+		/**
+		 * Removes the given key; the returned node keeps its links so that
+		 * a walk may still continue from it.
+		 */
+		Node remove(Object key) {
+			Node node = (Node) nodes.remove( key );
+			if ( node != null ) {
+				node.previous.next = node.next;
+				node.next.previous = node.previous;
+			}
+			return node;
+		}
+	}
+
+	private static final class Node {
+		private final Object key;
+		private Object value;
+		private Node previous;
+		private Node next;
+
+		Node(Object key, Object value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
 }
@@ -41,33 +41,72 @@ import java.io.ObjectInputStream;
  */
 public final class CollectionKey implements Serializable {
 
-	private final String role;
-	private final Serializable key;
-	private final Type keyType;
-	private final SessionFactoryImplementor factory;
-	private final int hashCode;
+	// not final, so that a probe can be reused; a key is never changed otherwise
+	private String role;
+	private Serializable key;
+	private Type keyType;
+	private SessionFactoryImplementor factory;
+	private int hashCode;
 	private EntityMode entityMode;
+	private boolean simpleKey;
 
 	public CollectionKey(CollectionPersister persister, Serializable key, EntityMode em) {
 		this( persister.getRole(), key, persister.getKeyType(), em, persister.getFactory() );
 	}
 
+	/**
+	 * Construct a probe, which must be {@link #reset reset} before each lookup.
+	 */
+	CollectionKey() {
+	}
+
 	private CollectionKey(
 			String role,
 	        Serializable key,
 	        Type keyType,
 	        EntityMode entityMode,
 	        SessionFactoryImplementor factory) {
+		initialize( role, key, keyType, entityMode, factory );
+	}
+
+	/**
+	 * Point a probe at another collection.  A probe is only ever passed to a lookup,
+	 * never stored in a map or handed out.
+	 *
+	 * @return This key
+	 */
+	CollectionKey reset(CollectionPersister persister, Serializable key, EntityMode em) {
+		initialize( persister.getRole(), key, persister.getKeyType(), em, persister.getFactory() );
+		return this;
+	}
+
+	/**
+	 * Release the key of a probe once the lookup is done.
+	 */
+	void clear() {
+		key = null;
+	}
+
+	private void initialize(
+			String role,
+	        Serializable key,
+	        Type keyType,
+	        EntityMode entityMode,
+	        SessionFactoryImplementor factory) {
 		this.role = role;
 		this.key = key;
 		this.keyType = keyType;
 		this.entityMode = entityMode;
 		this.factory = factory;
+		this.simpleKey = EntityKey.isSimpleType( keyType );
 		this.hashCode = generateHashCode(); //cache the hashcode
 	}
 
 	public boolean equals(Object other) {
 		CollectionKey that = (CollectionKey) other;
+		if ( simpleKey ) {
+			return that.role.equals(role) && that.key.equals(key);
+		}
 		return that.role.equals(role) &&
 		       keyType.isEqual(that.key, key, entityMode, factory);
 	}
@@ -75,7 +114,7 @@ public final class CollectionKey implements Serializable {
 	public int generateHashCode() {
 		int result = 17;
 		result = 37 * result + role.hashCode();
-		result = 37 * result + keyType.getHashCode(key, entityMode, factory);
+		result = 37 * result + ( simpleKey ? key.hashCode() : keyType.getHashCode(key, entityMode, factory) );
 		return result;
 	}
 
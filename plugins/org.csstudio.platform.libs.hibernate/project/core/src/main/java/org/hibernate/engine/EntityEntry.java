@@ -263,6 +263,25 @@ public final class EntityEntry implements Serializable {
 			);
 	}
 
+	/**
+	 * Can flushing this entry be skipped entirely?  This is the case for an
+	 * existing entity which cannot have been modified since it was last in sync
+	 * with the database (see {@link #requiresDirtyCheck}) and which has no
+	 * collections needing to be reached.  Instrumented entities without mutable
+	 * properties are tracked by their field interceptor, so that flush only needs
+	 * to visit those which were actually written.
+	 *
+	 * @param entity The entity instance
+	 * @return true, if the entity need not be visited during flush
+	 */
+	public boolean isFlushSkippable(Object entity) {
+		return ( status == Status.MANAGED || status == Status.READ_ONLY )
+				&& existsInDatabase
+				&& loadedState != null
+				&& !getPersister().hasCollections()
+				&& !requiresDirtyCheck( entity );
+	}
+
 	/**
 	 * Can the entity be modified?
 	 *
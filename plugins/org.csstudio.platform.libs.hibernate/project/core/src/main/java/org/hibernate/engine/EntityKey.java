@@ -33,6 +33,9 @@ import org.hibernate.AssertionFailure;
 import org.hibernate.EntityMode;
 import org.hibernate.persister.entity.EntityPersister;
 import org.hibernate.pretty.MessageHelper;
+import org.hibernate.type.IntegerType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.StringType;
 import org.hibernate.type.Type;
 
 /**
@@ -44,19 +47,49 @@ import org.hibernate.type.Type;
  * @author Gavin King
  */
 public final class EntityKey implements Serializable {
-	private final Serializable identifier;
-	private final String rootEntityName;
-	private final String entityName;
-	private final Type identifierType;
-	private final boolean isBatchLoadable;
-	private final SessionFactoryImplementor factory;
-	private final int hashCode;
-	private final EntityMode entityMode;
+	// not final, so that a probe can be reused; a key is never changed otherwise
+	private Serializable identifier;
+	private String rootEntityName;
+	private String entityName;
+	private Type identifierType;
+	private boolean isBatchLoadable;
+	private SessionFactoryImplementor factory;
+	private int hashCode;
+	private EntityMode entityMode;
+	private boolean simpleIdentifier;
 
 	/**
 	 * Construct a unique identifier for an entity class instance
 	 */
 	public EntityKey(Serializable id, EntityPersister persister, EntityMode entityMode) {
+		initialize( id, persister, entityMode );
+	}
+
+	/**
+	 * Construct a probe, which must be {@link #reset reset} before each lookup.
+	 */
+	EntityKey() {
+	}
+
+	/**
+	 * Point a probe at another entity.  A probe is only ever passed to a lookup,
+	 * never stored in a map or handed out.
+	 *
+	 * @return This key
+	 */
+	EntityKey reset(Serializable id, EntityPersister persister, EntityMode entityMode) {
+		initialize( id, persister, entityMode );
+		return this;
+	}
+
+	/**
+	 * Release the identifier of a probe once the lookup is done.
+	 */
+	void clear() {
+		identifier = null;
+	}
+
+	private void initialize(Serializable id, EntityPersister persister, EntityMode entityMode) {
 		if ( id == null ) {
 			throw new AssertionFailure( "null identifier" );
 		}
@@ -67,6 +100,7 @@ public final class EntityKey implements Serializable {
 		this.identifierType = persister.getIdentifierType();
 		this.isBatchLoadable = persister.isBatchLoadable();
 		this.factory = persister.getFactory();
+		this.simpleIdentifier = isSimpleType( identifierType );
 		hashCode = generateHashCode(); //cache the hashcode
 	}
 
@@ -96,6 +130,7 @@ public final class EntityKey implements Serializable {
 		this.isBatchLoadable = batchLoadable;
 		this.factory = factory;
 		this.entityMode = entityMode;
+		this.simpleIdentifier = isSimpleType( identifierType );
 		this.hashCode = generateHashCode();
 	}
 
@@ -116,6 +151,11 @@ public final class EntityKey implements Serializable {
 
 	public boolean equals(Object other) {
 		EntityKey otherKey = (EntityKey) other;
+		if ( simpleIdentifier ) {
+			// keys of the same root entity have the same identifier type
+			return otherKey.rootEntityName.equals( this.rootEntityName ) &&
+				otherKey.identifier.equals( this.identifier );
+		}
 		return otherKey.rootEntityName.equals(this.rootEntityName) && 
 			identifierType.isEqual(otherKey.identifier, this.identifier, entityMode, factory);
 	}
@@ -123,10 +163,29 @@ public final class EntityKey implements Serializable {
 	private int generateHashCode() {
 		int result = 17;
 		result = 37 * result + rootEntityName.hashCode();
-		result = 37 * result + identifierType.getHashCode( identifier, entityMode, factory );
+		result = 37 * result + ( simpleIdentifier
+				? identifier.hashCode()
+				: identifierType.getHashCode( identifier, entityMode, factory ) );
 		return result;
 	}
 
+	/**
+	 * Does the given identifier type compare and hash its values by their own
+	 * <tt>equals()</tt> and <tt>hashCode()</tt> in every entity mode?  For the most
+	 * common identifier types, keys then skip the dispatch through the type on each
+	 * probe of the persistence context.
+	 *
+	 * @param type The identifier or collection key type
+	 * @return True if the values can be compared directly
+	 */
+	static boolean isSimpleType(Type type) {
+		// exact classes, subclasses may redefine equality
+		final Class typeClass = type.getClass();
+		return typeClass == LongType.class
+				|| typeClass == IntegerType.class
+				|| typeClass == StringType.class;
+	}
+
 	public int hashCode() {
 		return hashCode;
 	}
@@ -0,0 +1,288 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.action.CollectionAction;
+import org.hibernate.action.EntityAction;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.AbstractComponentType;
+import org.hibernate.type.AssociationType;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.ForeignKeyDirection;
+import org.hibernate.type.Type;
+
+/**
+ * Plans the execution order of the actions queued in an {@link ActionQueue} so
+ * that statements with the same SQL are executed consecutively, and may therefore
+ * be grouped into a single JDBC batch, without violating foreign key order.
+ * <p/>
+ * Dependencies are derived from the mapping rather than from the instances being
+ * flushed: an entity depends on another entity when it maps a many-to-one or
+ * constrained one-to-one association (possibly nested in a component or composite
+ * identifier) to it, or when the other entity maps a one-to-many collection of it.
+ * This is conservative (it also covers foreign keys written through backrefs and
+ * nullified transient references), and only ever relaxes the original cascade
+ * order between actions which cannot reference each other.
+ * <p/>
+ * A planner is meant to be used for a single flush.
+ *
+ * @see org.hibernate.cfg.Environment#ORDER_FLUSH
+ */
+final class FlushPlanner {
+
+	private final SessionFactoryImplementor factory;
+
+	// entity name -> Set of entity names that name holds a foreign key to
+	private final Map references = new HashMap();
+	// dependent entity name -> ( target entity name -> Boolean )
+	private final Map dependencies = new HashMap();
+
+	FlushPlanner(SessionFactoryImplementor factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Reorders entity insertions so that inserts of the same entity are grouped,
+	 * keeping every insert after the inserts of the entities it may reference.
+	 *
+	 * @param insertions The list of {@link EntityAction}s, reordered in place.
+	 */
+	void planInsertions(List insertions) {
+		plan( insertions, false );
+	}
+
+	/**
+	 * Reorders entity deletions so that deletes of the same entity are grouped,
+	 * keeping every delete after the deletes of the entities which may reference it.
+	 *
+	 * @param deletions The list of {@link EntityAction}s, reordered in place.
+	 */
+	void planDeletions(List deletions) {
+		plan( deletions, true );
+	}
+
+	/**
+	 * Groups entity updates by entity name, preserving the original order within
+	 * each group.  Updates never need to be ordered by foreign key since they are
+	 * all executed after the insertions and before the deletions.
+	 *
+	 * @param updates The list of {@link EntityAction}s, reordered in place.
+	 */
+	void planUpdates(List updates) {
+		if ( updates.size() < 2 ) {
+			return;
+		}
+		Map groups = new LinkedHashMap();
+		for ( Iterator itr = updates.iterator(); itr.hasNext(); ) {
+			EntityAction action = ( EntityAction ) itr.next();
+			group( groups, action.getEntityName() ).add( action );
+		}
+		flatten( groups.values(), updates );
+	}
+
+	/**
+	 * Groups collection actions by role, preserving the original order within
+	 * each group.  Collection rows only reference rows which exist during the
+	 * whole collection phase of the flush, so any regrouping is safe.
+	 *
+	 * @param actions The list of {@link CollectionAction}s, reordered in place.
+	 */
+	void planCollectionActions(List actions) {
+		if ( actions.size() < 2 ) {
+			return;
+		}
+		Map groups = new LinkedHashMap();
+		for ( Iterator itr = actions.iterator(); itr.hasNext(); ) {
+			CollectionAction action = ( CollectionAction ) itr.next();
+			group( groups, action.getCollectionRole() ).add( action );
+		}
+		flatten( groups.values(), actions );
+	}
+
+	/**
+	 * Each action is appended to the latest batch of its entity unless an action
+	 * it must follow was placed in a later batch, in which case a new batch is
+	 * started.  Batches are then executed in creation order.
+	 */
+	private void plan(List actions, boolean reverse) {
+		if ( actions.size() < 2 ) {
+			return;
+		}
+		List batches = new ArrayList();
+		// entity name -> index of the latest batch of that entity
+		Map latestBatches = new LinkedHashMap();
+		for ( Iterator itr = actions.iterator(); itr.hasNext(); ) {
+			EntityAction action = ( EntityAction ) itr.next();
+			String entityName = action.getEntityName();
+			Integer latest = ( Integer ) latestBatches.get( entityName );
+			int required = -1;
+			for ( Iterator placed = latestBatches.entrySet().iterator(); placed.hasNext(); ) {
+				Map.Entry entry = ( Map.Entry ) placed.next();
+				String placedName = ( String ) entry.getKey();
+				boolean mustFollow = reverse
+						? dependsOn( placedName, entityName )
+						: dependsOn( entityName, placedName );
+				if ( mustFollow ) {
+					required = Math.max( required, ( ( Integer ) entry.getValue() ).intValue() );
+				}
+			}
+			List batch;
+			if ( latest != null && latest.intValue() >= required ) {
+				batch = ( List ) batches.get( latest.intValue() );
+			}
+			else {
+				batch = new ArrayList();
+				latestBatches.put( entityName, new Integer( batches.size() ) );
+				batches.add( batch );
+			}
+			batch.add( action );
+		}
+		if ( batches.size() < actions.size() ) {
+			flatten( batches, actions );
+		}
+	}
+
+	private static List group(Map groups, String key) {
+		List group = ( List ) groups.get( key );
+		if ( group == null ) {
+			group = new ArrayList();
+			groups.put( key, group );
+		}
+		return group;
+	}
+
+	private static void flatten(java.util.Collection groups, List target) {
+		target.clear();
+		for ( Iterator itr = groups.iterator(); itr.hasNext(); ) {
+			target.addAll( ( List ) itr.next() );
+		}
+	}
+
+	/**
+	 * May rows of the dependent entity hold a foreign key to rows of the target entity?
+	 */
+	boolean dependsOn(String dependent, String target) {
+		Map targets = ( Map ) dependencies.get( dependent );
+		if ( targets == null ) {
+			targets = new HashMap();
+			dependencies.put( dependent, targets );
+		}
+		Boolean result = ( Boolean ) targets.get( target );
+		if ( result == null ) {
+			result = computeDependsOn( dependent, target ) ? Boolean.TRUE : Boolean.FALSE;
+			targets.put( target, result );
+		}
+		return result.booleanValue();
+	}
+
+	private boolean computeDependsOn(String dependent, String target) {
+		Iterator itr = getReferences( dependent ).iterator();
+		while ( itr.hasNext() ) {
+			if ( isRelated( ( String ) itr.next(), target ) ) {
+				return true;
+			}
+		}
+		// the target may own a one-to-many collection of the dependent
+		// entity, in which case the foreign key lives in the dependent table
+		Set ownedElements = new HashSet();
+		collectOneToManyElements( factory.getEntityPersister( target ), ownedElements );
+		itr = ownedElements.iterator();
+		while ( itr.hasNext() ) {
+			if ( isRelated( ( String ) itr.next(), dependent ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isRelated(String entityName, String otherEntityName) {
+		return entityName.equals( otherEntityName )
+				|| factory.getEntityPersister( entityName ).isSubclassEntityName( otherEntityName )
+				|| factory.getEntityPersister( otherEntityName ).isSubclassEntityName( entityName );
+	}
+
+	private Set getReferences(String entityName) {
+		Set result = ( Set ) references.get( entityName );
+		if ( result == null ) {
+			result = new HashSet();
+			EntityPersister persister = factory.getEntityPersister( entityName );
+			collectReferences( persister.getIdentifierType(), result );
+			Type[] types = persister.getPropertyTypes();
+			for ( int i = 0; i < types.length; i++ ) {
+				collectReferences( types[i], result );
+			}
+			references.put( entityName, result );
+		}
+		return result;
+	}
+
+	private void collectReferences(Type type, Set result) {
+		if ( type.isComponentType() ) {
+			Type[] subtypes = ( ( AbstractComponentType ) type ).getSubtypes();
+			for ( int i = 0; i < subtypes.length; i++ ) {
+				collectReferences( subtypes[i], result );
+			}
+		}
+		else if ( type.isEntityType() ) {
+			AssociationType associationType = ( AssociationType ) type;
+			if ( associationType.getForeignKeyDirection() == ForeignKeyDirection.FOREIGN_KEY_FROM_PARENT ) {
+				result.add( ( ( EntityType ) type ).getAssociatedEntityName() );
+			}
+		}
+	}
+
+	private void collectOneToManyElements(EntityPersister persister, Set result) {
+		Type[] types = persister.getPropertyTypes();
+		for ( int i = 0; i < types.length; i++ ) {
+			collectOneToManyElements( types[i], result );
+		}
+	}
+
+	private void collectOneToManyElements(Type type, Set result) {
+		if ( type.isComponentType() ) {
+			Type[] subtypes = ( ( AbstractComponentType ) type ).getSubtypes();
+			for ( int i = 0; i < subtypes.length; i++ ) {
+				collectOneToManyElements( subtypes[i], result );
+			}
+		}
+		else if ( type.isCollectionType() ) {
+			CollectionPersister collectionPersister = factory.getCollectionPersister( ( ( CollectionType ) type ).getRole() );
+			if ( collectionPersister.isOneToMany() ) {
+				result.add( ( ( EntityType ) collectionPersister.getElementType() ).getAssociatedEntityName() );
+			}
+		}
+	}
+
+}
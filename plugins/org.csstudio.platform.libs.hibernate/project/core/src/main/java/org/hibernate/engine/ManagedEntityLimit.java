@@ -0,0 +1,326 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.engine;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.hibernate.FlushMode;
+import org.hibernate.cache.impl.local.SizeEstimator;
+import org.hibernate.collection.PersistentCollection;
+import org.hibernate.event.EventSource;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.hibernate.util.IdentitySet;
+
+/**
+ * Bounds the number of entities managed by a persistence context, or their
+ * estimated size in bytes, so that long running batch sessions need not
+ * {@link org.hibernate.Session#clear()} by hand.
+ * <p/>
+ * The limit is enforced by the session at the end of each top-level operation,
+ * never while cascading, flushing or loading.  Once the limit is exceeded the
+ * session is flushed, if its flush mode is {@link FlushMode#AUTO} or
+ * {@link FlushMode#ALWAYS}, and the least recently used entities are then evicted
+ * until the context is back to three quarters of the limit.  Only entities without
+ * pending changes are evicted: entities which are neither dirty nor own a dirty
+ * collection, and which are not referenced by a queued action.  Entities added or
+ * looked up by the operation which just ended are never evicted, so that nothing
+ * it returned to the application is detached.
+ * <p/>
+ * The estimated size of an entity is derived from its loaded state and never
+ * touches uninitialized associations, so it is a rough approximation only.
+ *
+ * @see org.hibernate.Session#setManagedEntityLimit(int, long)
+ */
+public final class ManagedEntityLimit {
+
+	private static final Logger log = LoggerFactory.getLogger( ManagedEntityLimit.class );
+
+	// the EntityEntry, the map entries referring to the entity and its key
+	private static final int ENTRY_OVERHEAD = 160;
+	private static final int REFERENCE = 8;
+	private static final int TARGET_PERCENT = 75;
+
+	private final int maxEntities;
+	private final long maxBytes;
+
+	// EntityKey -> long[2] holding the estimated size and the operation which last
+	// used the entity, in access order; the holder is updated in place so that
+	// estimation does not count as access
+	private final LinkedHashMap entities = new LinkedHashMap( 16, 0.75f, true );
+	private long operation;
+	private boolean enforcing;
+	private long estimatedBytes;
+	// keys and holders of the entities added since the last estimation
+	private final List pendingKeys = new ArrayList();
+	private final List pendingHolders = new ArrayList();
+
+	private long evictionCount;
+	private long flushCount;
+
+	/**
+	 * Constructs a limit.  A value of zero or less disables the corresponding bound,
+	 * but at least one of them must be enabled.
+	 *
+	 * @param maxEntities The maximum number of managed entities
+	 * @param maxBytes The maximum estimated size of the managed entities, in bytes
+	 */
+	public ManagedEntityLimit(int maxEntities, long maxBytes) {
+		if ( maxEntities <= 0 && maxBytes <= 0 ) {
+			throw new IllegalArgumentException( "either the entity count or the byte size must be limited" );
+		}
+		this.maxEntities = maxEntities;
+		this.maxBytes = maxBytes;
+	}
+
+	public int getMaxEntities() {
+		return maxEntities;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * The current estimated size of the managed entities, only maintained when
+	 * the byte size is limited.
+	 */
+	public long getEstimatedBytes() {
+		return estimatedBytes;
+	}
+
+	/**
+	 * The number of entities evicted to keep within this limit.
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * The number of flushes performed to keep within this limit.
+	 */
+	public long getFlushCount() {
+		return flushCount;
+	}
+
+	void added(EntityKey key) {
+		final long[] holder = new long[] { -1, operation };
+		discard( ( long[] ) entities.put( key, holder ) );
+		if ( maxBytes > 0 ) {
+			pendingKeys.add( key );
+			pendingHolders.add( holder );
+		}
+	}
+
+	void accessed(EntityKey key) {
+		final long[] holder = ( long[] ) entities.get( key );
+		if ( holder != null ) {
+			holder[1] = operation;
+		}
+	}
+
+	void removed(EntityKey key) {
+		discard( ( long[] ) entities.remove( key ) );
+	}
+
+	private void discard(long[] holder) {
+		if ( holder != null ) {
+			if ( holder[0] > 0 ) {
+				estimatedBytes -= holder[0];
+			}
+			// marks a pending holder as no longer needing estimation
+			holder[0] = 0;
+		}
+	}
+
+	void cleared() {
+		entities.clear();
+		pendingKeys.clear();
+		pendingHolders.clear();
+		estimatedBytes = 0;
+	}
+
+	/**
+	 * Flush and evict, if the limit is currently exceeded, and start a new operation.
+	 * Must only be called by the session at the end of a top-level operation, never
+	 * while cascading, flushing or loading.
+	 *
+	 * @param session The session owning the persistence context
+	 * @param flushed Whether the session has just been flushed, so that its managed
+	 * entities are known to be clean
+	 */
+	public void enforce(EventSource session, boolean flushed) {
+		if ( enforcing ) {
+			// reentered by the flush below
+			return;
+		}
+		enforcing = true;
+		try {
+			enforce( session.getPersistenceContext(), session, flushed );
+		}
+		finally {
+			enforcing = false;
+			operation++;
+		}
+	}
+
+	private void enforce(PersistenceContext persistenceContext, EventSource session, boolean flushed) {
+		if ( !pendingKeys.isEmpty() ) {
+			estimate( persistenceContext );
+		}
+		if ( !isAbove( maxEntities, maxBytes ) ) {
+			return;
+		}
+
+		if ( !flushed && !session.getFlushMode().lessThan( FlushMode.AUTO ) ) {
+			session.flush();
+			flushCount++;
+			flushed = true;
+			if ( !pendingKeys.isEmpty() ) {
+				estimate( persistenceContext );
+			}
+		}
+
+		final Set pinned = new IdentitySet();
+		session.getActionQueue().collectQueuedEntityInstances( pinned );
+		if ( !flushed ) {
+			collectDirtyCollectionOwners( persistenceContext, pinned );
+		}
+
+		final int targetEntities = maxEntities * TARGET_PERCENT / 100;
+		final long targetBytes = maxBytes * TARGET_PERCENT / 100;
+		final Map.Entry[] candidates = ( Map.Entry[] ) entities.entrySet().toArray( new Map.Entry[entities.size()] );
+		final Map entitiesByKey = persistenceContext.getEntitiesByKey();
+		int evicted = 0;
+		for ( int i = 0; i < candidates.length && isAbove( targetEntities, targetBytes ); i++ ) {
+			if ( ( ( long[] ) candidates[i].getValue() )[1] == operation ) {
+				// used by the operation which just ended
+				continue;
+			}
+			final Object entity = entitiesByKey.get( candidates[i].getKey() );
+			if ( entity == null || pinned.contains( entity ) ) {
+				continue;
+			}
+			final EntityEntry entry = persistenceContext.getEntry( entity );
+			if ( entry == null || !isEvictable( entity, entry, flushed, session ) ) {
+				continue;
+			}
+			// also removes the entity from this limit, and cascades to its collections
+			session.evict( entity );
+			evicted++;
+		}
+		evictionCount += evicted;
+
+		if ( log.isDebugEnabled() ) {
+			log.debug(
+					"evicted " + evicted + " entities to keep within the managed entity limit, "
+							+ entities.size() + " entities remain"
+			);
+		}
+	}
+
+	private boolean isAbove(int entityCount, long bytes) {
+		return ( maxEntities > 0 && entities.size() > entityCount )
+				|| ( maxBytes > 0 && estimatedBytes > bytes );
+	}
+
+	private static boolean isEvictable(Object entity, EntityEntry entry, boolean flushed, EventSource session) {
+		if ( entry.getStatus() == Status.READ_ONLY ) {
+			return true;
+		}
+		if ( entry.getStatus() != Status.MANAGED ) {
+			return false;
+		}
+		// after a flush every managed entity is clean
+		return flushed || !isDirty( entity, entry, session );
+	}
+
+	private static boolean isDirty(Object entity, EntityEntry entry, EventSource session) {
+		final Object[] loadedState = entry.getLoadedState();
+		if ( loadedState == null ) {
+			return true;
+		}
+		final EntityPersister persister = entry.getPersister();
+		final Object[] currentState = persister.getPropertyValues( entity, session.getEntityMode() );
+		return persister.findDirty( currentState, loadedState, entity, session ) != null;
+	}
+
+	/**
+	 * Evicting an entity also evicts its collections, so the owners of collections
+	 * with unflushed changes must be kept.
+	 */
+	private static void collectDirtyCollectionOwners(PersistenceContext persistenceContext, Set owners) {
+		final Iterator collections = persistenceContext.getCollectionEntries().keySet().iterator();
+		while ( collections.hasNext() ) {
+			final PersistentCollection collection = ( PersistentCollection ) collections.next();
+			if ( collection.isDirty() && collection.getOwner() != null ) {
+				owners.add( collection.getOwner() );
+			}
+		}
+	}
+
+	private void estimate(PersistenceContext persistenceContext) {
+		final Map entitiesByKey = persistenceContext.getEntitiesByKey();
+		for ( int i = 0; i < pendingKeys.size(); i++ ) {
+			final long[] holder = ( long[] ) pendingHolders.get( i );
+			if ( holder[0] < 0 ) {
+				final Object entity = entitiesByKey.get( pendingKeys.get( i ) );
+				final EntityEntry entry = entity == null ? null : persistenceContext.getEntry( entity );
+				holder[0] = ENTRY_OVERHEAD + ( entry == null ? 0 : estimate( entry ) );
+				estimatedBytes += holder[0];
+			}
+		}
+		pendingKeys.clear();
+		pendingHolders.clear();
+	}
+
+	private static long estimate(EntityEntry entry) {
+		final Object[] state = entry.getLoadedState();
+		if ( state == null ) {
+			return 0;
+		}
+		final Type[] types = entry.getPersister().getPropertyTypes();
+		long bytes = 0;
+		for ( int i = 0; i < state.length; i++ ) {
+			// associations and components are never traversed, that could
+			// initialize lazy collections
+			if ( types[i].isAssociationType() || types[i].isComponentType() ) {
+				bytes += REFERENCE;
+			}
+			else {
+				bytes += SizeEstimator.estimate( state[i] );
+			}
+		}
+		// the entity instance holds about as much as its loaded state
+		return 2 * bytes;
+	}
+}
@@ -71,11 +71,32 @@ public interface PersistenceContext {
 	 */
 	public PersistentCollection useUnownedCollection(CollectionKey key);
 
+	/**
+	 * Get and remove a collection whose owner is not yet loaded,
+	 * when its owner is being loaded, without allocating a key
+	 */
+	public PersistentCollection useUnownedCollection(CollectionPersister persister, Serializable key);
+
 	/**
 	 * Get the <tt>BatchFetchQueue</tt>, instantiating one if
 	 * necessary.
 	 */
 	public BatchFetchQueue getBatchFetchQueue();
+
+	/**
+	 * Get the limit on the entities managed by this persistence context, if any.
+	 *
+	 * @return The limit, or null if the context is unbounded
+	 */
+	public ManagedEntityLimit getManagedEntityLimit();
+
+	/**
+	 * Bound the entities managed by this persistence context.  The entities
+	 * already managed are tracked as if they had just been added.
+	 *
+	 * @param managedEntityLimit The limit, or null to remove it
+	 */
+	public void setManagedEntityLimit(ManagedEntityLimit managedEntityLimit);
 	
 	/**
 	 * Clear the state of the persistence context
@@ -125,6 +146,12 @@ public interface PersistenceContext {
 	 */
 	public Object getEntity(EntityKey key);
 
+	/**
+	 * Get the entity instance with the given identifier,
+	 * without allocating a key
+	 */
+	public Object getEntity(Serializable id, EntityPersister persister);
+
 	/**
 	 * Is there an entity with the given key in the persistence context
 	 */
@@ -328,6 +355,12 @@ public interface PersistenceContext {
 	 */
 	public PersistentCollection getCollection(CollectionKey collectionKey);
 
+	/**
+	 * Get the collection instance with the given key,
+	 * without allocating a key
+	 */
+	public PersistentCollection getCollection(CollectionPersister persister, Serializable key);
+
 	/**
 	 * Register a collection for non-lazy loading at the end of the
 	 * two-phase load
@@ -37,6 +37,7 @@ import org.slf4j.LoggerFactory;
 
 import org.hibernate.HibernateException;
 import org.hibernate.QueryException;
+import org.hibernate.ResultHandler;
 import org.hibernate.ScrollMode;
 import org.hibernate.LockOptions;
 import org.hibernate.impl.FilterImpl;
@@ -71,6 +72,9 @@ public final class QueryParameters {
 	private boolean callable = false;
 	private boolean autodiscovertypes = false;
 	private boolean isNaturalKeyLookup;
+	private ResultHandler resultHandler;
+	private int hydrationChunkSize;
+	private boolean evictHydratedChunks;
 
 	private final ResultTransformer resultTransformer; // why is all others non final ?
 
@@ -543,6 +547,30 @@ public final class QueryParameters {
 		this.autodiscovertypes = autodiscovertypes;
 	}
 
+	/**
+	 * The handler results are streamed to, if any.
+	 *
+	 * @return The result handler, or null if the results are to be returned as a list
+	 * @see org.hibernate.Query#stream
+	 */
+	public ResultHandler getResultHandler() {
+		return resultHandler;
+	}
+
+	public int getHydrationChunkSize() {
+		return hydrationChunkSize;
+	}
+
+	public boolean isEvictHydratedChunks() {
+		return evictHydratedChunks;
+	}
+
+	public void setResultHandler(ResultHandler resultHandler, int hydrationChunkSize, boolean evictHydratedChunks) {
+		this.resultHandler = resultHandler;
+		this.hydrationChunkSize = hydrationChunkSize;
+		this.evictHydratedChunks = evictHydratedChunks;
+	}
+
 	public QueryParameters createCopyUsing(RowSelection selection) {
 		QueryParameters copy = new QueryParameters(
 				this.positionalParameterTypes,
@@ -564,6 +592,7 @@ public final class QueryParameters {
 		copy.processedSQL = this.processedSQL;
 		copy.processedPositionalParameterTypes = this.processedPositionalParameterTypes;
 		copy.processedPositionalParameterValues = this.processedPositionalParameterValues;
+		copy.setResultHandler( this.resultHandler, this.hydrationChunkSize, this.evictHydratedChunks );
 		return copy;
 	}
 
@@ -56,6 +56,7 @@ import org.hibernate.proxy.HibernateProxy;
 import org.hibernate.proxy.LazyInitializer;
 import org.hibernate.tuple.ElementWrapper;
 import org.hibernate.util.IdentityMap;
+import org.hibernate.util.LinkedIdentityMap;
 import org.hibernate.util.MarkerObject;
 
 /**
@@ -87,7 +88,7 @@ public class StatefulPersistenceContext implements PersistenceContext {
 	private Map entitiesByUniqueKey;
 	
 	// Identity map of EntityEntry instances, by the entity instance
-	private Map entityEntries;
+	private LinkedIdentityMap entityEntries;
 	
 	// Entity proxies, by EntityKey
 	private Map proxiesByKey;
@@ -100,7 +101,7 @@ public class StatefulPersistenceContext implements PersistenceContext {
 	private Map arrayHolders;
 	
 	// Identity map of CollectionEntry instances, by the collection wrapper
-	private Map collectionEntries;
+	private LinkedIdentityMap collectionEntries;
 	
 	// Collection wrappers, by the CollectionKey
 	private Map collectionsByKey; //key=CollectionKey, value=PersistentCollection
@@ -121,7 +122,7 @@ public class StatefulPersistenceContext implements PersistenceContext {
 	
 	// Parent entities cache by their child for cascading
 	// May be empty or not contains all relation 
-	private Map parentsByChild;
+	private LinkedIdentityMap parentsByChild;
 	
 	private int cascading = 0;
 	private int loadCounter = 0;
@@ -132,7 +133,11 @@ public class StatefulPersistenceContext implements PersistenceContext {
 
 	private LoadContexts loadContexts;
 	private BatchFetchQueue batchFetchQueue;
+	private ManagedEntityLimit managedEntityLimit;
 
+	// reused by the lookups by identifier, so that they allocate no key
+	private final EntityKey entityKeyProbe = new EntityKey();
+	private final CollectionKey collectionKeyProbe = new CollectionKey();
 
 
 	/**
@@ -148,11 +153,11 @@ public class StatefulPersistenceContext implements PersistenceContext {
 		proxiesByKey = new ReferenceMap( ReferenceMap.HARD, ReferenceMap.WEAK );
 		entitySnapshotsByKey = new HashMap( INIT_COLL_SIZE );
 
-		entityEntries = IdentityMap.instantiateSequenced( INIT_COLL_SIZE );
-		collectionEntries = IdentityMap.instantiateSequenced( INIT_COLL_SIZE );
+		entityEntries = new LinkedIdentityMap( INIT_COLL_SIZE );
+		collectionEntries = new LinkedIdentityMap( INIT_COLL_SIZE );
 		collectionsByKey = new HashMap( INIT_COLL_SIZE );
 		arrayHolders = IdentityMap.instantiate( INIT_COLL_SIZE );
-		parentsByChild = IdentityMap.instantiateSequenced( INIT_COLL_SIZE );
+		parentsByChild = new LinkedIdentityMap( INIT_COLL_SIZE );
 		
 		nullifiableEntityKeys = new HashSet();
 
@@ -194,7 +199,33 @@ public class StatefulPersistenceContext implements PersistenceContext {
 			return (PersistentCollection) unownedCollections.remove(key);
 		}
 	}
+
+	public PersistentCollection useUnownedCollection(CollectionPersister persister, Serializable key) {
+		if (unownedCollections==null) {
+			return null;
+		}
+		try {
+			return useUnownedCollection( collectionKeyProbe.reset( persister, key, session.getEntityMode() ) );
+		}
+		finally {
+			collectionKeyProbe.clear();
+		}
+	}
 	
+	public ManagedEntityLimit getManagedEntityLimit() {
+		return managedEntityLimit;
+	}
+
+	public void setManagedEntityLimit(ManagedEntityLimit managedEntityLimit) {
+		this.managedEntityLimit = managedEntityLimit;
+		if ( managedEntityLimit != null ) {
+			Iterator itr = entitiesByKey.keySet().iterator();
+			while ( itr.hasNext() ) {
+				managedEntityLimit.added( ( EntityKey ) itr.next() );
+			}
+		}
+	}
+
 	/**
 	 * Get the <tt>BatchFetchQueue</tt>, instantiating one if
 	 * necessary.
@@ -212,12 +243,15 @@ public class StatefulPersistenceContext implements PersistenceContext {
 			final LazyInitializer li = ( ( HibernateProxy ) itr.next() ).getHibernateLazyInitializer();
 			li.unsetSession();
 		}
-		Map.Entry[] collectionEntryArray = IdentityMap.concurrentEntries( collectionEntries );
-		for ( int i = 0; i < collectionEntryArray.length; i++ ) {
-			( ( PersistentCollection ) collectionEntryArray[i].getKey() ).unsetSession( getSession() );
+		Iterator collections = collectionEntries.keyIterator();
+		while ( collections.hasNext() ) {
+			( ( PersistentCollection ) collections.next() ).unsetSession( getSession() );
 		}
 		arrayHolders.clear();
 		entitiesByKey.clear();
+		if ( managedEntityLimit != null ) {
+			managedEntityLimit.cleared();
+		}
 		entitiesByUniqueKey.clear();
 		entityEntries.clear();
 		parentsByChild.clear();
@@ -356,6 +390,9 @@ public class StatefulPersistenceContext implements PersistenceContext {
 
 	public void addEntity(EntityKey key, Object entity) {
 		entitiesByKey.put(key, entity);
+		if ( managedEntityLimit != null ) {
+			managedEntityLimit.added( key );
+		}
 		getBatchFetchQueue().removeBatchLoadableEntityKey(key);
 	}
 
@@ -364,9 +401,21 @@ public class StatefulPersistenceContext implements PersistenceContext {
 	 * <tt>EntityKey</tt>
 	 */
 	public Object getEntity(EntityKey key) {
+		if ( managedEntityLimit != null ) {
+			managedEntityLimit.accessed( key );
+		}
 		return entitiesByKey.get(key);
 	}
 
+	public Object getEntity(Serializable id, EntityPersister persister) {
+		try {
+			return getEntity( entityKeyProbe.reset( id, persister, session.getEntityMode() ) );
+		}
+		finally {
+			entityKeyProbe.clear();
+		}
+	}
+
 	public boolean containsEntity(EntityKey key) {
 		return entitiesByKey.containsKey(key);
 	}
@@ -378,6 +427,9 @@ public class StatefulPersistenceContext implements PersistenceContext {
 	 */
 	public Object removeEntity(EntityKey key) {
 		Object entity = entitiesByKey.remove(key);
+		if ( managedEntityLimit != null ) {
+			managedEntityLimit.removed( key );
+		}
 		Iterator iter = entitiesByUniqueKey.values().iterator();
 		while ( iter.hasNext() ) {
 			if ( iter.next()==entity ) iter.remove();
@@ -730,7 +782,7 @@ public class StatefulPersistenceContext implements PersistenceContext {
 	 * Get the entity that owns this persistent collection
 	 */
 	public Object getCollectionOwner(Serializable key, CollectionPersister collectionPersister) throws MappingException {
-		return getEntity( new EntityKey( key, collectionPersister.getOwnerEntityPersister(), session.getEntityMode() ) );
+		return getEntity( key, collectionPersister.getOwnerEntityPersister() );
 	}
 
 	/**
@@ -786,6 +838,7 @@ public class StatefulPersistenceContext implements PersistenceContext {
 	public void addUninitializedCollection(CollectionPersister persister, PersistentCollection collection, Serializable id) {
 		CollectionEntry ce = new CollectionEntry(collection, persister, id, flushing);
 		addCollection(collection, ce, id);
+		getBatchFetchQueue().addBatchLoadableCollection( collection, ce );
 	}
 
 	/**
@@ -794,6 +847,7 @@ public class StatefulPersistenceContext implements PersistenceContext {
 	public void addUninitializedDetachedCollection(CollectionPersister persister, PersistentCollection collection) {
 		CollectionEntry ce = new CollectionEntry( persister, collection.getKey() );
 		addCollection( collection, ce, collection.getKey() );
+		getBatchFetchQueue().addBatchLoadableCollection( collection, ce );
 	}
 
 	/**
@@ -873,6 +927,15 @@ public class StatefulPersistenceContext implements PersistenceContext {
 	public PersistentCollection getCollection(CollectionKey collectionKey) {
 		return (PersistentCollection) collectionsByKey.get(collectionKey);
 	}
+
+	public PersistentCollection getCollection(CollectionPersister persister, Serializable key) {
+		try {
+			return getCollection( collectionKeyProbe.reset( persister, key, session.getEntityMode() ) );
+		}
+		finally {
+			collectionKeyProbe.clear();
+		}
+	}
 	
 	/**
 	 * Register a collection for non-lazy loading at the end of the
@@ -951,7 +1014,7 @@ public class StatefulPersistenceContext implements PersistenceContext {
 			if ( coll == null ) {
 				//it might be an unwrapped collection reference!
 				//try to find a wrapper (slowish)
-				Iterator wrappers = IdentityMap.keyIterator(collectionEntries);
+				Iterator wrappers = collectionEntries.keyIterator();
 				while ( wrappers.hasNext() ) {
 					PersistentCollection pc = (PersistentCollection) wrappers.next();
 					if ( pc.isWrapper(collection) ) {
@@ -1151,7 +1214,7 @@ public class StatefulPersistenceContext implements PersistenceContext {
 		   }
 		}
 		// iterate all the entities currently associated with the persistence context.
-		Iterator entities = IdentityMap.entries(entityEntries).iterator();
+		Iterator entities = entityEntries.concurrentEntryIterator();
 		while ( entities.hasNext() ) {
 			final Map.Entry me = ( Map.Entry ) entities.next();
 			final EntityEntry entityEntry = ( EntityEntry ) me.getValue();
@@ -1272,7 +1335,7 @@ public class StatefulPersistenceContext implements PersistenceContext {
 			parentsByChild.remove(childEntity); // remove wrong entry
 		}
 		
-		Iterator entities = IdentityMap.entries(entityEntries).iterator();
+		Iterator entities = entityEntries.concurrentEntryIterator();
 		while ( entities.hasNext() ) {
 			Map.Entry me = (Map.Entry) entities.next();
 			EntityEntry ee = (EntityEntry) me.getValue();
@@ -1395,6 +1458,9 @@ public class StatefulPersistenceContext implements PersistenceContext {
 
 	public void replaceDelayedEntityIdentityInsertKeys(EntityKey oldKey, Serializable generatedId) {
 		Object entity = entitiesByKey.remove( oldKey );
+		if ( managedEntityLimit != null ) {
+			managedEntityLimit.removed( oldKey );
+		}
 		EntityEntry oldEntry = ( EntityEntry ) entityEntries.remove( entity );
 		parentsByChild.clear();
 
@@ -1564,7 +1630,7 @@ public class StatefulPersistenceContext implements PersistenceContext {
 
 			count = ois.readInt();
 			log.trace( "staring deserialization of [" + count + "] entityEntries entries" );
-			rtn.entityEntries = IdentityMap.instantiateSequenced( count < INIT_COLL_SIZE ? INIT_COLL_SIZE : count );
+			rtn.entityEntries = new LinkedIdentityMap( count < INIT_COLL_SIZE ? INIT_COLL_SIZE : count );
 			for ( int i = 0; i < count; i++ ) {
 				Object entity = ois.readObject();
 				EntityEntry entry = EntityEntry.deserialize( ois, session );
@@ -1580,12 +1646,15 @@ public class StatefulPersistenceContext implements PersistenceContext {
 
 			count = ois.readInt();
 			log.trace( "staring deserialization of [" + count + "] collectionEntries entries" );
-			rtn.collectionEntries = IdentityMap.instantiateSequenced( count < INIT_COLL_SIZE ? INIT_COLL_SIZE : count );
+			rtn.collectionEntries = new LinkedIdentityMap( count < INIT_COLL_SIZE ? INIT_COLL_SIZE : count );
 			for ( int i = 0; i < count; i++ ) {
 				final PersistentCollection pc = ( PersistentCollection ) ois.readObject();
 				final CollectionEntry ce = CollectionEntry.deserialize( ois, session );
 				pc.setCurrentSession( session );
 				rtn.collectionEntries.put( pc, ce );
+				if ( !pc.wasInitialized() ) {
+					rtn.getBatchFetchQueue().addBatchLoadableCollection( pc, ce );
+				}
 			}
 
 			count = ois.readInt();
@@ -134,6 +134,25 @@ public class HQLQueryPlan implements Serializable {
 		}
 	}
 
+	/**
+	 * Constructs a plan for the given query sharing the compiled translators of
+	 * another plan; used where two query strings are known to translate to the
+	 * same SQL.
+	 *
+	 * @param hql The query the plan is for
+	 * @param plan The plan whose translation to share
+	 */
+	protected HQLQueryPlan(String hql, HQLQueryPlan plan) {
+		this.sourceQuery = hql;
+		this.shallow = plan.shallow;
+		this.enabledFilterNames = plan.enabledFilterNames;
+		this.translators = plan.translators;
+		this.sqlStrings = plan.sqlStrings;
+		this.querySpaces = plan.querySpaces;
+		this.parameterMetadata = plan.parameterMetadata;
+		this.returnMetadata = plan.returnMetadata;
+	}
+
 	public String getSourceQuery() {
 		return sourceQuery;
 	}
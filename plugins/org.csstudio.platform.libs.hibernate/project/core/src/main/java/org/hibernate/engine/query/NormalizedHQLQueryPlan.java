@@ -0,0 +1,158 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.engine.query;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.HibernateException;
+import org.hibernate.ScrollableResults;
+import org.hibernate.engine.QueryParameters;
+import org.hibernate.engine.SessionImplementor;
+import org.hibernate.engine.TypedValue;
+import org.hibernate.event.EventSource;
+import org.hibernate.hql.ast.QueryLiteralNormalizer;
+import org.hibernate.type.Type;
+
+/**
+ * The plan for an HQL query whose literals were lifted into parameters by
+ * {@link QueryLiteralNormalizer}.  Shares the translation of the normalized
+ * query and binds the lifted literals alongside the parameters of the caller,
+ * which never sees the synthetic parameters.  Each literal is bound with the type
+ * the normalized query expects for its parameter, so only literals whose value
+ * that type accepts may be lifted; see {@link #toParameterValues}.
+ */
+class NormalizedHQLQueryPlan extends HQLQueryPlan {
+
+	private final QueryLiteralNormalizer.Result literals;
+	private final Type[] types;
+	private final Object[] values;
+	private final ParameterMetadata parameterMetadata;
+
+	/**
+	 * @param values The values to bind for the lifted literals, as returned by
+	 * {@link #toParameterValues}, none of them null
+	 */
+	NormalizedHQLQueryPlan(String hql, QueryLiteralNormalizer.Result literals, Object[] values, HQLQueryPlan plan) {
+		super( hql, plan );
+		this.literals = literals;
+		this.values = values;
+		this.types = new Type[ values.length ];
+		for ( int i = 0; i < types.length; i++ ) {
+			types[i] = plan.getParameterMetadata().getNamedParameterExpectedType( literals.getParameterName( i ) );
+		}
+		this.parameterMetadata = hideLiterals( plan.getParameterMetadata() );
+	}
+
+	/**
+	 * Determine the values to bind for the lifted literals of a query, given the
+	 * parameter metadata of the normalized query.  A literal may only be bound if
+	 * the type expected for its parameter is the type of the literal, or a type
+	 * mapping the Java class of its value; an integer literal may also be bound
+	 * as a long.  Anything else, such as a string compared to a timestamp or to an
+	 * enum, or a parameter of unknown type, would not be converted by the database
+	 * like the literal, and must stay in the query.
+	 *
+	 * @param literals The lifted literals
+	 * @param metadata The parameter metadata of the normalized query
+	 * @return The values, with null for each literal which must stay in the query
+	 */
+	static Object[] toParameterValues(QueryLiteralNormalizer.Result literals, ParameterMetadata metadata) {
+		Object[] values = new Object[ literals.getParameterCount() ];
+		for ( int i = 0; i < values.length; i++ ) {
+			NamedParameterDescriptor descriptor = metadata.getNamedParameterDescriptor( literals.getParameterName( i ) );
+			values[i] = toParameterValue( literals.getValue( i ), literals.getType( i ), descriptor.getExpectedType() );
+		}
+		return values;
+	}
+
+	private static Object toParameterValue(Object value, Type literalType, Type expectedType) {
+		if ( expectedType == null ) {
+			return null;
+		}
+		if ( expectedType == literalType || expectedType.getReturnedClass() == value.getClass() ) {
+			return value;
+		}
+		if ( value instanceof Integer && expectedType.getReturnedClass() == Long.class ) {
+			return new Long( ( ( Integer ) value ).longValue() );
+		}
+		return null;
+	}
+
+	private ParameterMetadata hideLiterals(ParameterMetadata metadata) {
+		OrdinalParameterDescriptor[] ordinals = new OrdinalParameterDescriptor[ metadata.getOrdinalParameterCount() ];
+		for ( int i = 0; i < ordinals.length; i++ ) {
+			ordinals[i] = metadata.getOrdinalParameterDescriptor( i + 1 );
+		}
+		Map named = new HashMap();
+		Iterator names = metadata.getNamedParameterNames().iterator();
+		while ( names.hasNext() ) {
+			String name = ( String ) names.next();
+			if ( !name.startsWith( QueryLiteralNormalizer.PARAMETER_PREFIX ) ) {
+				named.put( name, metadata.getNamedParameterDescriptor( name ) );
+			}
+		}
+		return new ParameterMetadata( ordinals, named );
+	}
+
+	public ParameterMetadata getParameterMetadata() {
+		return parameterMetadata;
+	}
+
+	private QueryParameters bindLiterals(QueryParameters queryParameters, SessionImplementor session) {
+		Map named = queryParameters.getNamedParameters() == null
+				? new HashMap()
+				: new HashMap( queryParameters.getNamedParameters() );
+		for ( int i = 0; i < literals.getParameterCount(); i++ ) {
+			named.put(
+					literals.getParameterName( i ),
+					new TypedValue( types[i], values[i], session.getEntityMode() )
+			);
+		}
+		queryParameters.setNamedParameters( named );
+		return queryParameters;
+	}
+
+	public List performList(QueryParameters queryParameters, SessionImplementor session)
+			throws HibernateException {
+		return super.performList( bindLiterals( queryParameters, session ), session );
+	}
+
+	public Iterator performIterate(QueryParameters queryParameters, EventSource session)
+			throws HibernateException {
+		return super.performIterate( bindLiterals( queryParameters, session ), session );
+	}
+
+	public ScrollableResults performScroll(QueryParameters queryParameters, SessionImplementor session)
+			throws HibernateException {
+		return super.performScroll( bindLiterals( queryParameters, session ), session );
+	}
+
+	public int performExecuteUpdate(QueryParameters queryParameters, SessionImplementor session)
+			throws HibernateException {
+		return super.performExecuteUpdate( bindLiterals( queryParameters, session ), session );
+	}
+}
@@ -27,11 +27,19 @@ package org.hibernate.engine.query;
 import org.hibernate.util.SimpleMRUCache;
 import org.hibernate.util.SoftLimitMRUCache;
 import org.hibernate.util.CollectionHelper;
+import org.hibernate.engine.LoadQueryInfluencers;
 import org.hibernate.engine.SessionFactoryImplementor;
 import org.hibernate.engine.query.sql.NativeSQLQuerySpecification;
+import org.hibernate.hql.ast.QueryLiteralNormalizer;
+import org.hibernate.LockOptions;
 import org.hibernate.QueryException;
 import org.hibernate.MappingException;
+import org.hibernate.impl.CriteriaImpl;
 import org.hibernate.impl.FilterImpl;
+import org.hibernate.loader.criteria.CriteriaFingerprint;
+import org.hibernate.loader.criteria.CriteriaLoader;
+import org.hibernate.loader.entity.EntityLoader;
+import org.hibernate.persister.entity.OuterJoinLoadable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,6 +96,43 @@ public class QueryPlanCache implements Serializable {
 
 	public HQLQueryPlan getHQLQueryPlan(String queryString, boolean shallow, Map enabledFilters)
 			throws QueryException, MappingException {
+		if ( factory.getSettings().isQueryLiteralNormalizationEnabled() ) {
+			HQLQueryPlan plan = getNormalizedHQLQueryPlan( queryString, shallow, enabledFilters );
+			if ( plan != null ) {
+				return plan;
+			}
+		}
+		return getCachedHQLQueryPlan( queryString, shallow, enabledFilters );
+	}
+
+	/**
+	 * Get the plan shared by every query differing from the given one only in its
+	 * literals, or null if no literal can be lifted.
+	 */
+	private HQLQueryPlan getNormalizedHQLQueryPlan(String queryString, boolean shallow, Map enabledFilters)
+			throws QueryException, MappingException {
+		QueryLiteralNormalizer.Result normalized = QueryLiteralNormalizer.normalize( queryString );
+		// a second attempt keeps the literals which cannot be bound as the type expected
+		// for their parameter in the query; the types of the others do not change
+		for ( int attempt = 0; normalized != null && attempt < 2; attempt++ ) {
+			HQLQueryPlan plan = getCachedHQLQueryPlan( normalized.getQuery(), shallow, enabledFilters );
+			Object[] values = NormalizedHQLQueryPlan.toParameterValues( normalized, plan.getParameterMetadata() );
+			boolean[] bindable = new boolean[ values.length ];
+			boolean all = true;
+			for ( int i = 0; i < values.length; i++ ) {
+				bindable[i] = values[i] != null;
+				all = all && bindable[i];
+			}
+			if ( all ) {
+				return new NormalizedHQLQueryPlan( queryString, normalized, values, plan );
+			}
+			normalized = normalized.retain( bindable );
+		}
+		return null;
+	}
+
+	private HQLQueryPlan getCachedHQLQueryPlan(String queryString, boolean shallow, Map enabledFilters)
+			throws QueryException, MappingException {
 		HQLQueryPlanKey key = new HQLQueryPlanKey( queryString, shallow, enabledFilters );
 		HQLQueryPlan plan = ( HQLQueryPlan ) planCache.get ( key );
 
@@ -149,6 +194,80 @@ public class QueryPlanCache implements Serializable {
 		return plan;
 	}
 
+	/**
+	 * Locate a loader for the given criteria query, reusing the one built for a
+	 * previous criteria with the same {@link CriteriaFingerprint structure}.
+	 *
+	 * @param persister The persister of the queried entity
+	 * @param criteria The criteria query
+	 * @param entityName The name of the queried entity
+	 * @param loadQueryInfluencers The filters and fetch profiles in effect
+	 * @return The loader, to be executed via {@link CriteriaLoader#list(org.hibernate.engine.SessionImplementor, CriteriaImpl)}
+	 */
+	public CriteriaLoader getCriteriaLoader(
+			OuterJoinLoadable persister,
+			CriteriaImpl criteria,
+			String entityName,
+			LoadQueryInfluencers loadQueryInfluencers) {
+		CriteriaFingerprint key = CriteriaFingerprint.create( criteria, entityName, loadQueryInfluencers );
+		CriteriaLoader loader = key == null ? null : ( CriteriaLoader ) planCache.get( key );
+		final boolean stats = factory.getStatistics().isStatisticsEnabled();
+
+		if ( loader == null ) {
+			if ( log.isTraceEnabled() ) {
+				log.trace( "unable to locate criteria query plan in cache; generating (" + entityName + ")" );
+			}
+			if ( stats ) {
+				factory.getStatisticsImplementor().criteriaPlanCacheMiss();
+			}
+			loader = new CriteriaLoader( persister, factory, criteria, entityName, loadQueryInfluencers );
+			if ( key != null ) {
+				planCache.put( key, loader );
+			}
+		}
+		else {
+			if ( log.isTraceEnabled() ) {
+				log.trace( "located criteria query plan in cache (" + entityName + ")" );
+			}
+			if ( stats ) {
+				factory.getStatisticsImplementor().criteriaPlanCacheHit();
+			}
+		}
+
+		return loader;
+	}
+
+	/**
+	 * Locate a loader reading the given number of instances of an entity by
+	 * identifier, with a single <tt>in</tt> restriction.  Loaders are only
+	 * shared when no filter or fetch profile is enabled.
+	 *
+	 * @param persister The persister of the entity
+	 * @param batchSize The number of identifiers bound by the loader
+	 * @param loadQueryInfluencers The filters and fetch profiles in effect
+	 * @return The loader
+	 */
+	public EntityLoader getBatchEntityLoader(
+			OuterJoinLoadable persister,
+			int batchSize,
+			LoadQueryInfluencers loadQueryInfluencers) {
+		if ( loadQueryInfluencers.hasEnabledFilters()
+				|| loadQueryInfluencers.hasEnabledFetchProfiles()
+				|| loadQueryInfluencers.getInternalFetchProfile() != null ) {
+			return new EntityLoader( persister, batchSize, LockOptions.NONE, factory, loadQueryInfluencers );
+		}
+		BatchEntityLoaderKey key = new BatchEntityLoaderKey( persister.getEntityName(), batchSize );
+		EntityLoader loader = ( EntityLoader ) planCache.get( key );
+		if ( loader == null ) {
+			if ( log.isTraceEnabled() ) {
+				log.trace( "unable to locate batch loader in cache; generating (" + persister.getEntityName() + ", " + batchSize + ")" );
+			}
+			loader = new EntityLoader( persister, batchSize, LockOptions.NONE, factory, loadQueryInfluencers );
+			planCache.put( key, loader );
+		}
+		return loader;
+	}
+
 	private ParameterMetadata buildNativeSQLParameterMetadata(String sqlString) {
 		ParamLocationRecognizer recognizer = ParamLocationRecognizer.parseLocations( sqlString );
 
@@ -330,4 +449,32 @@ public class QueryPlanCache implements Serializable {
 			return hashCode;
 		}
 	}
+
+	private static class BatchEntityLoaderKey implements Serializable {
+		private final String entityName;
+		private final int batchSize;
+
+		public BatchEntityLoaderKey(String entityName, int batchSize) {
+			this.entityName = entityName;
+			this.batchSize = batchSize;
+		}
+
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( o == null || getClass() != o.getClass() ) {
+				return false;
+			}
+
+			final BatchEntityLoaderKey that = ( BatchEntityLoaderKey ) o;
+
+			return batchSize == that.batchSize
+					&& entityName.equals( that.entityName );
+		}
+
+		public int hashCode() {
+			return 37 * entityName.hashCode() + batchSize;
+		}
+	}
 }
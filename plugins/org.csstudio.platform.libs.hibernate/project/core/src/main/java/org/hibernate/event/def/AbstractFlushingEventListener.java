@@ -26,7 +26,6 @@ package org.hibernate.event.def;
 
 import java.io.Serializable;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -52,7 +51,7 @@ import org.hibernate.event.FlushEvent;
 import org.hibernate.engine.SessionImplementor;
 import org.hibernate.persister.entity.EntityPersister;
 import org.hibernate.pretty.Printer;
-import org.hibernate.util.IdentityMap;
+import org.hibernate.util.LinkedIdentityMap;
 import org.hibernate.util.LazyIterator;
 
 /**
@@ -133,12 +132,11 @@ public abstract class AbstractFlushingEventListener implements Serializable {
 		
 		log.debug("processing flush-time cascades");
 
-		final Map.Entry[] list = IdentityMap.concurrentEntries( session.getPersistenceContext().getEntityEntries() );
-		//safe from concurrent modification because of how entryList() is implemented on IdentityMap
-		final int size = list.length;
+		final Iterator entries = LinkedIdentityMap.concurrentEntryIterator( session.getPersistenceContext().getEntityEntries() );
+		//safe from concurrent modification because of how LinkedIdentityMap iterates
 		final Object anything = getAnything();
-		for ( int i=0; i<size; i++ ) {
-			Map.Entry me = list[i];
+		while ( entries.hasNext() ) {
+			Map.Entry me = (Map.Entry) entries.next();
 			EntityEntry entry = (EntityEntry) me.getValue();
 			Status status = entry.getStatus();
 			if ( status == Status.MANAGED || status == Status.SAVING || status == Status.READ_ONLY ) {
@@ -176,10 +174,9 @@ public abstract class AbstractFlushingEventListener implements Serializable {
 		
 		log.debug("dirty checking collections");
 
-		final List list = IdentityMap.entries( session.getPersistenceContext().getCollectionEntries() );
-		final int size = list.size();
-		for ( int i = 0; i < size; i++ ) {
-			Map.Entry e = ( Map.Entry ) list.get( i );
+		final Iterator entries = LinkedIdentityMap.concurrentEntryIterator( session.getPersistenceContext().getCollectionEntries() );
+		while ( entries.hasNext() ) {
+			Map.Entry e = ( Map.Entry ) entries.next();
 			( (CollectionEntry) e.getValue() ).preFlush( (PersistentCollection) e.getKey() );
 		}
 	}
@@ -198,23 +195,30 @@ public abstract class AbstractFlushingEventListener implements Serializable {
 		// be loaded.
 
 		// So this needs to be safe from concurrent modification problems.
-		// It is safe because of how IdentityMap implements entrySet()
+		// It is safe because of how LinkedIdentityMap iterates
 
 		final EventSource source = event.getSession();
 		
-		final Map.Entry[] list = IdentityMap.concurrentEntries( source.getPersistenceContext().getEntityEntries() );
-		final int size = list.length;
-		for ( int i = 0; i < size; i++ ) {
+		final FlushEntityEventListener[] listeners = source.getListeners().getFlushEntityEventListeners();
+		// entries which cannot have changed (eg. clean instrumented entities) need
+		// not be visited at all, unless a custom listener wants to see every entity
+		final boolean skipUnmodified = listeners.length == 1
+				&& listeners[0].getClass() == DefaultFlushEntityEventListener.class;
+
+		final Iterator entries = LinkedIdentityMap.concurrentEntryIterator( source.getPersistenceContext().getEntityEntries() );
+		while ( entries.hasNext() ) {
 
 			// Update the status of the object and if necessary, schedule an update
 
-			Map.Entry me = list[i];
+			Map.Entry me = (Map.Entry) entries.next();
 			EntityEntry entry = (EntityEntry) me.getValue();
 			Status status = entry.getStatus();
 
 			if ( status != Status.LOADING && status != Status.GONE ) {
+				if ( skipUnmodified && entry.isFlushSkippable( me.getKey() ) ) {
+					continue;
+				}
 				FlushEntityEvent entityEvent = new FlushEntityEvent( source, me.getKey(), entry );
-				FlushEntityEventListener[] listeners = source.getListeners().getFlushEntityEventListeners();
 				for ( int j = 0; j < listeners.length; j++ ) {
 					listeners[j].onFlushEntity(entityEvent);
 				}
@@ -232,10 +236,9 @@ public abstract class AbstractFlushingEventListener implements Serializable {
 
 		log.trace("Processing unreferenced collections");
 
-		List list = IdentityMap.entries( session.getPersistenceContext().getCollectionEntries() );
-		int size = list.size();
-		for ( int i = 0; i < size; i++ ) {
-			Map.Entry me = ( Map.Entry ) list.get( i );
+		Iterator entries = LinkedIdentityMap.concurrentEntryIterator( session.getPersistenceContext().getCollectionEntries() );
+		while ( entries.hasNext() ) {
+			Map.Entry me = ( Map.Entry ) entries.next();
 			CollectionEntry ce = (CollectionEntry) me.getValue();
 			if ( !ce.isReached() && !ce.isIgnore() ) {
 				Collections.processUnreachableCollection( (PersistentCollection) me.getKey(), session );
@@ -246,11 +249,10 @@ public abstract class AbstractFlushingEventListener implements Serializable {
 
 		log.trace( "Scheduling collection removes/(re)creates/updates" );
 
-		list = IdentityMap.entries( session.getPersistenceContext().getCollectionEntries() );
-		size = list.size();
+		entries = LinkedIdentityMap.concurrentEntryIterator( session.getPersistenceContext().getCollectionEntries() );
 		ActionQueue actionQueue = session.getActionQueue();
-		for ( int i = 0; i < size; i++ ) {
-			Map.Entry me = (Map.Entry) list.get(i);
+		while ( entries.hasNext() ) {
+			Map.Entry me = (Map.Entry) entries.next();
 			PersistentCollection coll = (PersistentCollection) me.getKey();
 			CollectionEntry ce = (CollectionEntry) me.getValue();
 
@@ -348,7 +350,7 @@ public abstract class AbstractFlushingEventListener implements Serializable {
 		persistenceContext.getBatchFetchQueue()
 				.clearSubselects(); //the database has changed now, so the subselect results need to be invalidated
 
-		Iterator iter = persistenceContext.getCollectionEntries().entrySet().iterator();
+		Iterator iter = LinkedIdentityMap.concurrentEntryIterator( persistenceContext.getCollectionEntries() );
 		while ( iter.hasNext() ) {
 			Map.Entry me = (Map.Entry) iter.next();
 			CollectionEntry collectionEntry = (CollectionEntry) me.getValue();
@@ -36,6 +36,7 @@ import org.hibernate.EntityMode;
 import org.hibernate.cache.CacheKey;
 import org.hibernate.cache.access.SoftLock;
 import org.hibernate.cache.entry.CacheEntry;
+import org.hibernate.engine.BatchFetchQueue;
 import org.hibernate.engine.EntityEntry;
 import org.hibernate.engine.EntityKey;
 import org.hibernate.engine.PersistenceContext;
@@ -493,6 +494,8 @@ public class DefaultLoadEventListener extends AbstractLockUpgradeEventListener i
 			final EntityKey keyToLoad,
 			final LoadEventListener.LoadType options) {
 		final SessionImplementor source = event.getSession();
+		final boolean stats = source.getFactory().getStatistics().isStatisticsEnabled();
+		final long startTime = stats ? System.nanoTime() : 0;
 		Object entity = persister.load(
 				event.getEntityId(),
 				event.getInstanceToLoad(),
@@ -500,8 +503,14 @@ public class DefaultLoadEventListener extends AbstractLockUpgradeEventListener i
 				source
 		);
 
-		if ( event.isAssociationFetch() && source.getFactory().getStatistics().isStatisticsEnabled() ) {
-			source.getFactory().getStatisticsImplementor().fetchEntity( event.getEntityClassName() );
+		if ( stats ) {
+			if ( event.isAssociationFetch() ) {
+				source.getFactory().getStatisticsImplementor().fetchEntity( event.getEntityClassName() );
+			}
+			source.getFactory().getStatisticsImplementor().entityLoadExecuted(
+					persister.getEntityName(),
+					( System.nanoTime() - startTime ) / 1000
+			);
 		}
 
 		return entity;
@@ -576,24 +585,33 @@ public class DefaultLoadEventListener extends AbstractLockUpgradeEventListener i
 
 			final SessionFactoryImplementor factory = source.getFactory();
 
-			final CacheKey ck = new CacheKey(
-					event.getEntityId(),
-					persister.getIdentifierType(),
-					persister.getRootEntityName(),
-					source.getEntityMode(),
-					source.getFactory()
+			// the cache may already have been consulted, e.g. while assembling cached query results
+			Object ce = source.getPersistenceContext().getBatchFetchQueue().removePrefetchedCacheEntry(
+					new EntityKey( event.getEntityId(), persister, source.getEntityMode() )
 			);
-			Object ce = persister.getCacheAccessStrategy().get( ck, source.getTimestamp() );
-			if ( factory.getStatistics().isStatisticsEnabled() ) {
-				if ( ce == null ) {
-					factory.getStatisticsImplementor().secondLevelCacheMiss(
-							persister.getCacheAccessStrategy().getRegion().getName()
-					);
-				}
-				else {
-					factory.getStatisticsImplementor().secondLevelCacheHit(
-							persister.getCacheAccessStrategy().getRegion().getName()
-					);
+			if ( ce == BatchFetchQueue.CACHE_MISS ) {
+				return null;
+			}
+			if ( ce == null ) {
+				final CacheKey ck = new CacheKey(
+						event.getEntityId(),
+						persister.getIdentifierType(),
+						persister.getRootEntityName(),
+						source.getEntityMode(),
+						source.getFactory()
+				);
+				ce = persister.getCacheAccessStrategy().get( ck, source.getTimestamp() );
+				if ( factory.getStatistics().isStatisticsEnabled() ) {
+					if ( ce == null ) {
+						factory.getStatisticsImplementor().secondLevelCacheMiss(
+								persister.getCacheAccessStrategy().getRegion().getName()
+						);
+					}
+					else {
+						factory.getStatisticsImplementor().secondLevelCacheHit(
+								persister.getCacheAccessStrategy().getRegion().getName()
+						);
+					}
 				}
 			}
 
@@ -85,6 +85,7 @@ public class EvictVisitor extends AbstractVisitor {
 			getSession().getPersistenceContext().getCollectionsByKey().remove( 
 					new CollectionKey( ce.getLoadedPersister(), ce.getLoadedKey(), getSession().getEntityMode() ) 
 			);
+			getSession().getPersistenceContext().getBatchFetchQueue().removeBatchLoadableCollection( ce );
 		}
 	}
 
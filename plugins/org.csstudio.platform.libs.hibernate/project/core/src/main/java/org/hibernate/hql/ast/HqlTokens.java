@@ -0,0 +1,158 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.hql.ast;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import antlr.Token;
+import antlr.TokenStreamException;
+
+import org.hibernate.QueryException;
+import org.hibernate.hql.antlr.HqlTokenTypes;
+
+/**
+ * The tokens of a query string as recognized by the {@link HqlLexer}, together with
+ * their positions within the string, so that literals can be located and rewritten
+ * without parsing the query.  SQL queries can be tokenized as well, as far as their
+ * syntax is shared with HQL.
+ */
+public final class HqlTokens {
+	private final String query;
+	private final Token[] tokens;
+	private final int[] starts;
+
+	private HqlTokens(String query, Token[] tokens, int[] starts) {
+		this.query = query;
+		this.tokens = tokens;
+		this.starts = starts;
+	}
+
+	/**
+	 * Tokenize the given query string.
+	 *
+	 * @param query The query string
+	 * @return The tokens, or null if the string could not be tokenized
+	 */
+	public static HqlTokens tokenize(String query) {
+		final HqlLexer lexer = new HqlLexer( new StringReader( query ) );
+		final List tokens = new ArrayList();
+		final List starts = new ArrayList();
+		int end = 0;
+		try {
+			for ( Token token = lexer.nextToken(); token.getType() != Token.EOF_TYPE; token = lexer.nextToken() ) {
+				// only whitespace separates tokens; locating them this way is immune to the
+				// lexer not counting line breaks within string literals
+				int start = end;
+				while ( start < query.length() && Character.isWhitespace( query.charAt( start ) ) ) {
+					start++;
+				}
+				final String text = token.getText();
+				if ( text == null || !query.regionMatches( true, start, text, 0, text.length() ) ) {
+					return null;
+				}
+				end = start + text.length();
+				tokens.add( token );
+				starts.add( new Integer( start ) );
+			}
+		}
+		catch ( TokenStreamException e ) {
+			return null;
+		}
+		catch ( QueryException e ) {
+			return null;
+		}
+		final int[] startArray = new int[ starts.size() ];
+		for ( int i = 0; i < startArray.length; i++ ) {
+			startArray[i] = ( ( Integer ) starts.get( i ) ).intValue();
+		}
+		return new HqlTokens( query, ( Token[] ) tokens.toArray( new Token[ tokens.size() ] ), startArray );
+	}
+
+	/**
+	 * @return The tokenized query string
+	 */
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * @return The number of tokens
+	 */
+	public int size() {
+		return tokens.length;
+	}
+
+	/**
+	 * @param index The index of a token
+	 * @return The type of the token, one of the {@link HqlTokenTypes}; <tt>EOF</tt> for an index out of range
+	 */
+	public int getType(int index) {
+		return index < 0 || index >= tokens.length ? HqlTokenTypes.EOF : tokens[index].getType();
+	}
+
+	/**
+	 * @param index The index of a token
+	 * @return The text of the token, as it occurs in the query string
+	 */
+	public String getText(int index) {
+		return query.substring( starts[index], getEnd( index ) );
+	}
+
+	/**
+	 * @param index The index of a token
+	 * @return The offset of the first character of the token in the query string
+	 */
+	public int getStart(int index) {
+		return starts[index];
+	}
+
+	/**
+	 * @param index The index of a token
+	 * @return The offset following the last character of the token in the query string
+	 */
+	public int getEnd(int index) {
+		return starts[index] + tokens[index].getText().length();
+	}
+
+	/**
+	 * @param index The index of a token
+	 * @return Is the token a string or numeric literal?
+	 */
+	public boolean isLiteral(int index) {
+		switch ( getType( index ) ) {
+			case HqlTokenTypes.QUOTED_STRING:
+			case HqlTokenTypes.NUM_INT:
+			case HqlTokenTypes.NUM_LONG:
+			case HqlTokenTypes.NUM_FLOAT:
+			case HqlTokenTypes.NUM_DOUBLE:
+			case HqlTokenTypes.NUM_BIG_INTEGER:
+			case HqlTokenTypes.NUM_BIG_DECIMAL:
+				return true;
+			default:
+				return false;
+		}
+	}
+}
@@ -0,0 +1,288 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.hql.ast;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.hibernate.hql.antlr.HqlTokenTypes;
+import org.hibernate.type.Type;
+import org.hibernate.util.ArrayHelper;
+import org.hibernate.util.StringHelper;
+
+/**
+ * Lifts the literals of an HQL query into named parameters, so that queries
+ * differing only in the values they compare against share one query plan.
+ * <p/>
+ * Only integer, long and string literals are lifted, and only where a parameter
+ * is known to mean the same: as the right hand side of a comparison or
+ * <tt>like</tt> in a <tt>where</tt> clause whose left hand side is a path or a
+ * parenthesized expression, or as an element of an <tt>in</tt> list.  Literals
+ * taking part in arithmetic, concatenation, function arguments, <tt>between</tt>
+ * or the <tt>select</tt> clause are left alone.  Whether a lifted literal may
+ * really be bound as a parameter depends on the type the query expects for it,
+ * which is only known once the normalized query is translated; see
+ * {@link Result#retain(boolean[])}.
+ */
+public final class QueryLiteralNormalizer {
+
+	/**
+	 * The prefix of the names of the parameters literals are lifted into;
+	 * queries already containing it are not normalized.
+	 */
+	public static final String PARAMETER_PREFIX = "_literal";
+
+	private QueryLiteralNormalizer() {
+	}
+
+	/**
+	 * Lift the literals of the given query.
+	 *
+	 * @param hql The HQL query
+	 * @return The normalized query, or null if there was nothing to lift
+	 */
+	public static Result normalize(String hql) {
+		if ( hql.indexOf( PARAMETER_PREFIX ) >= 0 ) {
+			return null;
+		}
+		final HqlTokens tokens = HqlTokens.tokenize( hql );
+		if ( tokens == null ) {
+			// leave it to the parser to report
+			return null;
+		}
+
+		final List starts = new ArrayList();
+		final List ends = new ArrayList();
+		final List types = new ArrayList();
+		final List values = new ArrayList();
+
+		// per parenthesis depth, whether it is part of a where clause and whether it is an in list
+		final boolean[] where = new boolean[ tokens.size() + 1 ];
+		final boolean[] inList = new boolean[ tokens.size() + 1 ];
+		int depth = 0;
+		for ( int i = 0; i < tokens.size(); i++ ) {
+			switch ( tokens.getType( i ) ) {
+				case HqlTokenTypes.WHERE:
+					where[depth] = true;
+					break;
+				case HqlTokenTypes.SELECT:
+				case HqlTokenTypes.GROUP:
+				case HqlTokenTypes.ORDER:
+				case HqlTokenTypes.HAVING:
+					where[depth] = false;
+					break;
+				case HqlTokenTypes.OPEN:
+					depth++;
+					where[depth] = where[depth - 1];
+					inList[depth] = tokens.getType( i - 1 ) == HqlTokenTypes.IN;
+					break;
+				case HqlTokenTypes.CLOSE:
+					if ( depth > 0 ) {
+						depth--;
+					}
+					break;
+				case HqlTokenTypes.NUM_INT:
+				case HqlTokenTypes.NUM_LONG:
+				case HqlTokenTypes.QUOTED_STRING:
+					if ( !where[depth] || !isLiftable( tokens, i, inList[depth] ) ) {
+						break;
+					}
+					final Object value = toValue( tokens.getType( i ), tokens.getText( i ) );
+					if ( value == null ) {
+						break;
+					}
+					starts.add( new Integer( tokens.getStart( i ) ) );
+					ends.add( new Integer( tokens.getEnd( i ) ) );
+					types.add( tokens.getType( i ) == HqlTokenTypes.QUOTED_STRING
+							? Hibernate.STRING
+							: tokens.getType( i ) == HqlTokenTypes.NUM_LONG ? Hibernate.LONG : Hibernate.INTEGER );
+					values.add( value );
+					break;
+				default:
+					break;
+			}
+		}
+
+		if ( values.isEmpty() ) {
+			return null;
+		}
+		return new Result(
+				hql,
+				ArrayHelper.toIntArray( starts ),
+				ArrayHelper.toIntArray( ends ),
+				ArrayHelper.toTypeArray( types ),
+				values.toArray()
+		);
+	}
+
+	private static boolean isLiftable(HqlTokens tokens, int index, boolean inList) {
+		final int previous = tokens.getType( index - 1 );
+		final int next = tokens.getType( index + 1 );
+		if ( inList ) {
+			return ( previous == HqlTokenTypes.OPEN || previous == HqlTokenTypes.COMMA )
+					&& ( next == HqlTokenTypes.COMMA || next == HqlTokenTypes.CLOSE );
+		}
+		switch ( previous ) {
+			case HqlTokenTypes.EQ:
+			case HqlTokenTypes.NE:
+			case HqlTokenTypes.SQL_NE:
+			case HqlTokenTypes.LT:
+			case HqlTokenTypes.GT:
+			case HqlTokenTypes.LE:
+			case HqlTokenTypes.GE:
+			case HqlTokenTypes.LIKE:
+				break;
+			default:
+				return false;
+		}
+		int left = tokens.getType( index - 2 );
+		if ( previous == HqlTokenTypes.LIKE && left == HqlTokenTypes.NOT ) {
+			left = tokens.getType( index - 3 );
+		}
+		if ( left != HqlTokenTypes.IDENT && left != HqlTokenTypes.CLOSE ) {
+			return false;
+		}
+		switch ( next ) {
+			case HqlTokenTypes.EOF:
+			case HqlTokenTypes.AND:
+			case HqlTokenTypes.OR:
+			case HqlTokenTypes.CLOSE:
+			case HqlTokenTypes.ESCAPE:
+			case HqlTokenTypes.GROUP:
+			case HqlTokenTypes.ORDER:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private static Object toValue(int type, String text) {
+		try {
+			switch ( type ) {
+				case HqlTokenTypes.QUOTED_STRING:
+					return StringHelper.replace( text.substring( 1, text.length() - 1 ), "''", "'" );
+				case HqlTokenTypes.NUM_LONG:
+					// hexadecimal and octal literals are left alone
+					return text.length() > 2 && text.charAt( 0 ) == '0'
+							? null
+							: Long.valueOf( text.substring( 0, text.length() - 1 ) );
+				default:
+					return text.length() > 1 && text.charAt( 0 ) == '0' ? null : Integer.valueOf( text );
+			}
+		}
+		catch ( NumberFormatException e ) {
+			return null;
+		}
+	}
+
+	/**
+	 * A query with its literals lifted into the parameters
+	 * <tt>:_literal0</tt>, <tt>:_literal1</tt> and so on.
+	 */
+	public static final class Result {
+		private final String hql;
+		private final int[] starts;
+		private final int[] ends;
+		private final Type[] types;
+		private final Object[] values;
+		private final String query;
+
+		private Result(String hql, int[] starts, int[] ends, Type[] types, Object[] values) {
+			this.hql = hql;
+			this.starts = starts;
+			this.ends = ends;
+			this.types = types;
+			this.values = values;
+			final StringBuffer buf = new StringBuffer( hql.length() );
+			int copied = 0;
+			for ( int i = 0; i < starts.length; i++ ) {
+				buf.append( hql.substring( copied, starts[i] ) )
+						.append( ':' )
+						.append( PARAMETER_PREFIX )
+						.append( i );
+				copied = ends[i];
+			}
+			this.query = buf.append( hql.substring( copied ) ).toString();
+		}
+
+		/**
+		 * Keep some of the lifted literals in the query instead, for instance
+		 * because the type expected for them cannot be bound from their value.
+		 *
+		 * @param lifted Per lifted literal, whether it remains lifted
+		 * @return The query with only the given literals lifted, renumbered
+		 * from <tt>:_literal0</tt>; null if none remains lifted
+		 */
+		public Result retain(boolean[] lifted) {
+			int count = 0;
+			for ( int i = 0; i < lifted.length; i++ ) {
+				if ( lifted[i] ) {
+					count++;
+				}
+			}
+			if ( count == 0 ) {
+				return null;
+			}
+			final int[] retainedStarts = new int[count];
+			final int[] retainedEnds = new int[count];
+			final Type[] retainedTypes = new Type[count];
+			final Object[] retainedValues = new Object[count];
+			int j = 0;
+			for ( int i = 0; i < lifted.length; i++ ) {
+				if ( lifted[i] ) {
+					retainedStarts[j] = starts[i];
+					retainedEnds[j] = ends[i];
+					retainedTypes[j] = types[i];
+					retainedValues[j] = values[i];
+					j++;
+				}
+			}
+			return new Result( hql, retainedStarts, retainedEnds, retainedTypes, retainedValues );
+		}
+
+		public String getQuery() {
+			return query;
+		}
+
+		public int getParameterCount() {
+			return values.length;
+		}
+
+		public String getParameterName(int i) {
+			return PARAMETER_PREFIX + i;
+		}
+
+		/**
+		 * @return The type of the literal itself, <tt>string</tt>, <tt>integer</tt> or <tt>long</tt>
+		 */
+		public Type getType(int i) {
+			return types[i];
+		}
+
+		public Object getValue(int i) {
+			return values[i];
+		}
+	}
+}
@@ -26,7 +26,9 @@ package org.hibernate.hql.ast.exec;
 
 import java.sql.PreparedStatement;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Collections;
 
@@ -37,8 +39,10 @@ import org.hibernate.engine.SessionImplementor;
 import org.hibernate.engine.transaction.Isolater;
 import org.hibernate.engine.transaction.IsolatedWork;
 import org.hibernate.event.EventSource;
+import org.hibernate.exception.JDBCExceptionHelper;
 import org.hibernate.hql.ast.HqlSqlWalker;
 import org.hibernate.hql.ast.SqlGenerator;
+import org.hibernate.jdbc.util.FormatStyle;
 import org.hibernate.persister.entity.Queryable;
 import org.hibernate.sql.InsertSelect;
 import org.hibernate.sql.Select;
@@ -60,6 +64,7 @@ public abstract class AbstractStatementExecutor implements StatementExecutor {
 	private final Logger log;
 	private final HqlSqlWalker walker;
 	private List idSelectParameterSpecifications = Collections.EMPTY_LIST;
+	private volatile boolean temporaryTableCreated;
 
 	public AbstractStatementExecutor(HqlSqlWalker walker, Logger log) {
 		this.walker = walker;
@@ -136,7 +141,31 @@ public abstract class AbstractStatementExecutor implements StatementExecutor {
 			        " from " + persister.getTemporaryIdTableName();
 	}
 
+	/**
+	 * Is the temporary id table kept between executions, instead of being created
+	 * and dropped around each of them?  Only where enabled by
+	 * {@link org.hibernate.cfg.Environment#BULK_ID_TABLE_REUSE} and the dialect's
+	 * temporary tables outlive the connection creating them.
+	 *
+	 * @return True if the temporary id table is reused.
+	 */
+	protected boolean isTemporaryTableReused() {
+		return getFactory().getSettings().isBulkIdTableReuseEnabled()
+				&& getFactory().getDialect().supportsTemporaryTableReuse();
+	}
+
+	/**
+	 * Called when the statement populating the temporary id table failed, so that
+	 * a reused table gets created again on the next execution.
+	 */
+	protected void temporaryTableFailed() {
+		temporaryTableCreated = false;
+	}
+
 	protected void createTemporaryTableIfNecessary(final Queryable persister, final SessionImplementor session) {
+		if ( temporaryTableCreated ) {
+			return;
+		}
 		// Don't really know all the codes required to adequately decipher returned jdbc exceptions here.
 		// simply allow the failure to be eaten and the subsequent insert-selects/deletes should fail
 		IsolatedWork work = new IsolatedWork() {
@@ -173,10 +202,13 @@ public abstract class AbstractStatementExecutor implements StatementExecutor {
 			work.doWork( session.getJDBCContext().getConnectionManager().getConnection() );
 			session.getJDBCContext().getConnectionManager().afterStatement();
 		}
+		// a failure to create an existing table was eaten above; any other
+		// failure surfaces when populating the table, see temporaryTableFailed()
+		temporaryTableCreated = isTemporaryTableReused();
 	}
 
 	protected void dropTemporaryTableIfNecessary(final Queryable persister, final SessionImplementor session) {
-		if ( getFactory().getDialect().dropTemporaryTableAfterUse() ) {
+		if ( getFactory().getDialect().dropTemporaryTableAfterUse() && !isTemporaryTableReused() ) {
 			IsolatedWork work = new IsolatedWork() {
 				public void doWork(Connection connection) throws HibernateException {
 					Statement stmnt = null;
@@ -238,6 +270,76 @@ public abstract class AbstractStatementExecutor implements StatementExecutor {
 		}
 	}
 
+	/**
+	 * Execute statements binding no parameters, in order.  When JDBC batching is
+	 * enabled they are sent to the database as a single batch.
+	 *
+	 * @param statements The statements; null elements are skipped
+	 * @param session The session
+	 * @param message The message of any resulting exception
+	 */
+	protected void executeStatements(String[] statements, SessionImplementor session, String message)
+			throws HibernateException {
+		if ( getFactory().getSettings().getJdbcBatchSize() > 0 ) {
+			List batched = new ArrayList();
+			Statement stmnt = null;
+			try {
+				try {
+					stmnt = session.getJDBCContext().getConnectionManager().getConnection().createStatement();
+					for ( int i = 0; i < statements.length; i++ ) {
+						if ( statements[i] != null ) {
+							getFactory().getSettings().getSqlStatementLogger().logStatement( statements[i], FormatStyle.BASIC );
+							stmnt.addBatch( statements[i] );
+							batched.add( statements[i] );
+						}
+					}
+					stmnt.executeBatch();
+				}
+				finally {
+					if ( stmnt != null ) {
+						stmnt.close();
+					}
+					session.getJDBCContext().getConnectionManager().afterStatement();
+				}
+			}
+			catch( SQLException e ) {
+				throw JDBCExceptionHelper.convert(
+						getFactory().getSQLExceptionConverter(),
+				        e,
+				        message,
+				        StringHelper.join( "; ", batched.iterator() )
+					);
+			}
+		}
+		else {
+			for ( int i = 0; i < statements.length; i++ ) {
+				if ( statements[i] == null ) {
+					continue;
+				}
+				PreparedStatement ps = null;
+				try {
+					try {
+						ps = session.getBatcher().prepareStatement( statements[i] );
+						ps.executeUpdate();
+					}
+					finally {
+						if ( ps != null ) {
+							session.getBatcher().closeStatement( ps );
+						}
+					}
+				}
+				catch( SQLException e ) {
+					throw JDBCExceptionHelper.convert(
+							getFactory().getSQLExceptionConverter(),
+					        e,
+					        message,
+					        statements[i]
+						);
+				}
+			}
+		}
+	}
+
 	protected void coordinateSharedCacheCleanup(SessionImplementor session) {
 		BulkOperationCleanupAction action = new BulkOperationCleanupAction( session, getAffectedQueryables() );
 
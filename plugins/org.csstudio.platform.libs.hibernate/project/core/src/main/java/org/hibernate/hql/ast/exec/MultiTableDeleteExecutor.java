@@ -122,6 +122,7 @@ public class MultiTableDeleteExecutor extends AbstractStatementExecutor {
 				}
 			}
 			catch( SQLException e ) {
+				temporaryTableFailed();
 				throw JDBCExceptionHelper.convert(
 						getFactory().getSQLExceptionConverter(),
 				        e,
@@ -131,27 +132,7 @@ public class MultiTableDeleteExecutor extends AbstractStatementExecutor {
 			}
 
 			// Start performing the deletes
-			for ( int i = 0; i < deletes.length; i++ ) {
-				try {
-					try {
-						ps = session.getBatcher().prepareStatement( deletes[i] );
-						ps.executeUpdate();
-					}
-					finally {
-						if ( ps != null ) {
-							session.getBatcher().closeStatement( ps );
-						}
-					}
-				}
-				catch( SQLException e ) {
-					throw JDBCExceptionHelper.convert(
-							getFactory().getSQLExceptionConverter(),
-					        e,
-					        "error performing bulk delete",
-					        deletes[i]
-						);
-				}
-			}
+			executeStatements( deletes, session, "error performing bulk delete" );
 
 			return resultCount;
 		}
@@ -58,6 +58,7 @@ public class MultiTableUpdateExecutor extends AbstractStatementExecutor {
 	private final String idInsertSelect;
 	private final String[] updates;
 	private final ParameterSpecification[][] hqlParameters;
+	private final boolean hasUpdateParameters;
 
 	public MultiTableUpdateExecutor(HqlSqlWalker walker) {
 		super( walker, log );
@@ -82,6 +83,7 @@ public class MultiTableUpdateExecutor extends AbstractStatementExecutor {
 
 		updates = new String[tableNames.length];
 		hqlParameters = new ParameterSpecification[tableNames.length][];
+		boolean parameters = false;
 		for ( int tableIndex = 0; tableIndex < tableNames.length; tableIndex++ ) {
 			boolean affected = false;
 			List parameterList = new ArrayList();
@@ -107,8 +109,11 @@ public class MultiTableUpdateExecutor extends AbstractStatementExecutor {
 			if ( affected ) {
 				updates[tableIndex] = update.toStatementString();
 				hqlParameters[tableIndex] = ( ParameterSpecification[] ) parameterList.toArray( new ParameterSpecification[0] );
+				parameters = parameters || !parameterList.isEmpty();
 			}
 		}
+		// without parameters to bind, the updates can share one JDBC batch
+		this.hasUpdateParameters = parameters;
 	}
 
 	public Queryable getAffectedQueryable() {
@@ -148,6 +153,7 @@ public class MultiTableUpdateExecutor extends AbstractStatementExecutor {
 				}
 			}
 			catch( SQLException e ) {
+				temporaryTableFailed();
 				throw JDBCExceptionHelper.convert(
 						getFactory().getSQLExceptionConverter(),
 				        e,
@@ -157,6 +163,10 @@ public class MultiTableUpdateExecutor extends AbstractStatementExecutor {
 			}
 
 			// Start performing the updates
+			if ( !hasUpdateParameters ) {
+				executeStatements( updates, session, "error performing bulk update" );
+				return resultCount;
+			}
 			for ( int i = 0; i < updates.length; i++ ) {
 				if ( updates[i] == null ) {
 					continue;
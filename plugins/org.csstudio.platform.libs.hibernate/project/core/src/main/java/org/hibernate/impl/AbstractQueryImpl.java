@@ -49,6 +49,7 @@ import org.hibernate.NonUniqueResultException;
 import org.hibernate.PropertyNotFoundException;
 import org.hibernate.Query;
 import org.hibernate.QueryException;
+import org.hibernate.ResultHandler;
 import org.hibernate.LockOptions;
 import org.hibernate.engine.QueryParameters;
 import org.hibernate.engine.RowSelection;
@@ -103,6 +104,9 @@ public abstract class AbstractQueryImpl implements Query {
 	private Serializable collectionKey;
 	private Boolean readOnly;
 	private ResultTransformer resultTransformer;
+	private ResultHandler resultHandler;
+	private int hydrationChunkSize;
+	private boolean evictHydratedChunks;
 
 	public AbstractQueryImpl(
 			String queryString,
@@ -884,7 +888,7 @@ public abstract class AbstractQueryImpl implements Query {
 	}
 
 	public QueryParameters getQueryParameters(Map namedParams) {
-		return new QueryParameters(
+		QueryParameters queryParameters = new QueryParameters(
 				typeArray(),
 				valueArray(),
 				namedParams,
@@ -892,7 +896,7 @@ public abstract class AbstractQueryImpl implements Query {
 				getSelection(),
 				true,
 				isReadOnly(),
-				cacheable,
+				cacheable && resultHandler == null,
 				cacheRegion,
 				comment,
 				collectionKey == null ? null : new Serializable[] { collectionKey },
@@ -901,6 +905,29 @@ public abstract class AbstractQueryImpl implements Query {
 				optionalId,
 				resultTransformer
 		);
+		if ( resultHandler != null ) {
+			queryParameters.setResultHandler( resultHandler, hydrationChunkSize, evictHydratedChunks );
+		}
+		return queryParameters;
+	}
+
+	public void stream(ResultHandler handler, int chunkSize, boolean evict) throws HibernateException {
+		if ( handler == null ) {
+			throw new IllegalArgumentException( "result handler must not be null" );
+		}
+		if ( chunkSize <= 0 ) {
+			throw new IllegalArgumentException( "chunk size must be positive: " + chunkSize );
+		}
+		resultHandler = handler;
+		hydrationChunkSize = chunkSize;
+		evictHydratedChunks = evict;
+		try {
+			// the loader hands the results over to the handler, list() returns nothing
+			list();
+		}
+		finally {
+			resultHandler = null;
+		}
 	}
 	
 	protected void before() {
@@ -0,0 +1,171 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.impl;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.hibernate.HibernateException;
+
+/**
+ * Runs the independent tasks of one phase of building a session factory,
+ * either on the calling thread or on a pool of worker threads, and logs how
+ * long each phase took.  The phases themselves always run one after the other,
+ * in the order the session factory executes them.
+ *
+ * @see org.hibernate.cfg.Environment#BOOTSTRAP_PARALLELISM
+ */
+final class BootstrapExecutor {
+
+	private static final Logger log = LoggerFactory.getLogger( BootstrapExecutor.class );
+
+	/**
+	 * One task of a bootstrap phase.
+	 */
+	interface Task {
+		Object run() throws HibernateException;
+	}
+
+	private final int parallelism;
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * @param parallelism The number of worker threads, tasks run on the calling
+	 * thread if less than two
+	 */
+	BootstrapExecutor(int parallelism) {
+		this.parallelism = Math.max( parallelism, 1 );
+		if ( this.parallelism > 1 ) {
+			executor = new ThreadPoolExecutor(
+					this.parallelism,
+					this.parallelism,
+					1,
+					TimeUnit.SECONDS,
+					new LinkedBlockingQueue(),
+					new WorkerThreadFactory()
+			);
+		}
+		else {
+			executor = null;
+		}
+	}
+
+	/**
+	 * Run the tasks of a phase and wait for all of them to complete.
+	 *
+	 * @param phase The name of the phase, for logging
+	 * @param tasks The tasks, which must not depend on each other
+	 * @return The results of the tasks, in the order of the tasks
+	 * @throws HibernateException The failure of the first failing task
+	 */
+	Object[] execute(String phase, Task[] tasks) throws HibernateException {
+		final long start = System.currentTimeMillis();
+		final Object[] results = new Object[tasks.length];
+		if ( executor == null || tasks.length < 2 ) {
+			for ( int i = 0; i < tasks.length; i++ ) {
+				results[i] = tasks[i].run();
+			}
+		}
+		else {
+			final Future[] futures = new Future[tasks.length];
+			for ( int i = 0; i < tasks.length; i++ ) {
+				final Task task = tasks[i];
+				futures[i] = executor.submit(
+						new Callable() {
+							public Object call() {
+								return task.run();
+							}
+						}
+				);
+			}
+			for ( int i = 0; i < futures.length; i++ ) {
+				try {
+					results[i] = futures[i].get();
+				}
+				catch ( ExecutionException e ) {
+					cancel( futures, i + 1 );
+					final Throwable cause = e.getCause();
+					if ( cause instanceof RuntimeException ) {
+						throw ( RuntimeException ) cause;
+					}
+					if ( cause instanceof Error ) {
+						throw ( Error ) cause;
+					}
+					throw new HibernateException( "Failure during " + phase, cause );
+				}
+				catch ( InterruptedException e ) {
+					cancel( futures, i );
+					Thread.currentThread().interrupt();
+					throw new HibernateException( "Interrupted during " + phase, e );
+				}
+			}
+		}
+
+		final long elapsed = System.currentTimeMillis() - start;
+		if ( executor != null ) {
+			log.info( phase + ": " + tasks.length + " tasks on " + parallelism + " threads in " + elapsed + "ms" );
+		}
+		else if ( log.isDebugEnabled() ) {
+			log.debug( phase + ": " + tasks.length + " tasks in " + elapsed + "ms" );
+		}
+		return results;
+	}
+
+	private static void cancel(Future[] futures, int from) {
+		for ( int i = from; i < futures.length; i++ ) {
+			futures[i].cancel( false );
+		}
+	}
+
+	/**
+	 * Release the worker threads.  The workers never time out by themselves, so
+	 * this must be called once the bootstrap is over, whether it succeeded or not.
+	 */
+	void shutdown() {
+		if ( executor != null ) {
+			executor.shutdown();
+		}
+	}
+
+	private static class WorkerThreadFactory implements ThreadFactory {
+		// classes are resolved through the context class loader of the bootstrapping thread
+		private final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		private int count;
+
+		public synchronized Thread newThread(Runnable runnable) {
+			Thread thread = new Thread( runnable, "hibernate-bootstrap-" + ( ++count ) );
+			thread.setDaemon( true );
+			thread.setContextClassLoader( contextClassLoader );
+			return thread;
+		}
+	}
+}
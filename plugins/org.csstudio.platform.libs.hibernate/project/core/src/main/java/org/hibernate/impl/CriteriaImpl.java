@@ -128,6 +128,10 @@ public class CriteriaImpl implements Criteria, Serializable {
 		return lockModes;
 	}
 
+	public Map getFetchModes() {
+		return fetchModes;
+	}
+
 	public Criteria getProjectionCriteria() {
 		return projectionCriteria;
 	}
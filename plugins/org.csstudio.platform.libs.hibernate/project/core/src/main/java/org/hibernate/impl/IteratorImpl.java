@@ -154,6 +154,7 @@ public final class IteratorImpl implements HibernateIterator {
 			}
 
 			postNext();
+			session.afterScrollOperation();
 			log.debug("returning current results");
 			return currentResult;
 		}
@@ -0,0 +1,153 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.hibernate.HibernateException;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.util.StringHelper;
+
+/**
+ * Reads and writes the entity loaders used by an application, so that the
+ * loaders which are otherwise created on first use can be created while the
+ * session factory is built.  The file is a properties file mapping each entity
+ * name to a comma separated list of loader names.
+ *
+ * @see org.hibernate.cfg.Environment#LOADER_USAGE_PROFILE
+ */
+final class LoaderUsageProfile {
+
+	private static final Logger log = LoggerFactory.getLogger( LoaderUsageProfile.class );
+
+	private LoaderUsageProfile() {
+	}
+
+	/**
+	 * Create the loaders recorded in the profile, if it exists.
+	 *
+	 * @param path The profile file
+	 * @param entityPersisters The entity persisters, keyed by entity name
+	 * @param bootstrapExecutor Runs the creation of the loaders
+	 */
+	static void warm(String path, Map entityPersisters, BootstrapExecutor bootstrapExecutor) {
+		final File file = new File( path );
+		if ( !file.exists() ) {
+			log.debug( "no loader usage profile found at: " + path );
+			return;
+		}
+		final Properties profile = new Properties();
+		try {
+			InputStream in = new FileInputStream( file );
+			try {
+				profile.load( in );
+			}
+			finally {
+				in.close();
+			}
+		}
+		catch ( IOException e ) {
+			log.warn( "could not read loader usage profile: " + path, e );
+			return;
+		}
+
+		final List tasks = new ArrayList();
+		Iterator entries = profile.entrySet().iterator();
+		while ( entries.hasNext() ) {
+			final Map.Entry entry = ( Map.Entry ) entries.next();
+			final Object persister = entityPersisters.get( entry.getKey() );
+			if ( !( persister instanceof AbstractEntityPersister ) ) {
+				continue;
+			}
+			final String[] loaderNames = StringHelper.split( ",", ( String ) entry.getValue() );
+			tasks.add(
+					new BootstrapExecutor.Task() {
+						public Object run() throws HibernateException {
+							for ( int i = 0; i < loaderNames.length; i++ ) {
+								prepare( ( AbstractEntityPersister ) persister, loaderNames[i].trim() );
+							}
+							return null;
+						}
+					}
+			);
+		}
+		bootstrapExecutor.execute(
+				"Warming entity loaders",
+				( BootstrapExecutor.Task[] ) tasks.toArray( new BootstrapExecutor.Task[tasks.size()] )
+		);
+	}
+
+	private static void prepare(AbstractEntityPersister persister, String loaderName) {
+		try {
+			persister.prepareLoader( loaderName );
+		}
+		catch ( HibernateException e ) {
+			// the profile may predate a change of the mappings
+			log.debug( "skipping loader [" + loaderName + "] of " + persister.getEntityName() + ": " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * Write the loaders created so far to the profile.
+	 *
+	 * @param path The profile file
+	 * @param entityPersisters The entity persisters, keyed by entity name
+	 */
+	static void record(String path, Map entityPersisters) {
+		final Properties profile = new Properties();
+		Iterator entries = entityPersisters.entrySet().iterator();
+		while ( entries.hasNext() ) {
+			final Map.Entry entry = ( Map.Entry ) entries.next();
+			if ( entry.getValue() instanceof AbstractEntityPersister ) {
+				final String[] loaderNames = ( ( AbstractEntityPersister ) entry.getValue() ).getLoaderNames();
+				profile.setProperty( ( String ) entry.getKey(), StringHelper.join( ",", loaderNames ) );
+			}
+		}
+		try {
+			OutputStream out = new FileOutputStream( path );
+			try {
+				profile.store( out, "entity loaders in use" );
+			}
+			finally {
+				out.close();
+			}
+		}
+		catch ( IOException e ) {
+			log.warn( "could not write loader usage profile: " + path, e );
+		}
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.hibernate.HibernateException;
+import org.hibernate.LockOptions;
+import org.hibernate.MultiIdentifierLoadAccess;
+import org.hibernate.cache.CacheKey;
+import org.hibernate.engine.BatchFetchQueue;
+import org.hibernate.engine.EntityKey;
+import org.hibernate.engine.PersistenceContext;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.loader.entity.EntityLoader;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.persister.entity.OuterJoinLoadable;
+import org.hibernate.type.Type;
+
+/**
+ * Implementation of the <tt>MultiIdentifierLoadAccess</tt> interface.
+ * <p/>
+ * The identifiers are resolved in three passes: those of instances already
+ * associated with the session are skipped, the remaining ones are looked up in
+ * the second-level cache, and those still missing are read from the database.
+ * The outcome of the cache lookups is handed over to the load events through
+ * the {@link BatchFetchQueue}, and the results are finally assembled with
+ * ordinary {@link SessionImpl#get(String, Serializable)} calls, which at that
+ * point are resolved without further cache or database access.
+ */
+public class MultiIdentifierLoadAccessImpl implements MultiIdentifierLoadAccess {
+
+	private static final Logger log = LoggerFactory.getLogger( MultiIdentifierLoadAccessImpl.class );
+
+	/**
+	 * The maximum number of identifiers read by a single statement, unless
+	 * specified otherwise.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
+	private final SessionImpl session;
+	private final EntityPersister persister;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private boolean sessionCheck = true;
+
+	MultiIdentifierLoadAccessImpl(SessionImpl session, EntityPersister persister) {
+		this.session = session;
+		this.persister = persister;
+	}
+
+	public MultiIdentifierLoadAccess withBatchSize(int batchSize) {
+		if ( batchSize < 1 ) {
+			throw new IllegalArgumentException( "batch size must be positive: " + batchSize );
+		}
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	public MultiIdentifierLoadAccess enableSessionCheck(boolean enabled) {
+		this.sessionCheck = enabled;
+		return this;
+	}
+
+	public List multiLoad(List ids) throws HibernateException {
+		session.errorIfClosed();
+		final PersistenceContext persistenceContext = session.getPersistenceContext();
+		final int size = ids.size();
+		final EntityKey[] keys = new EntityKey[size];
+		// the keys still to be resolved, without duplicates
+		final Set pending = new LinkedHashSet();
+		for ( int i = 0; i < size; i++ ) {
+			final Serializable id = ( Serializable ) ids.get( i );
+			if ( id == null ) {
+				throw new IllegalArgumentException( "id to load is required for loading" );
+			}
+			keys[i] = new EntityKey( id, persister, session.getEntityMode() );
+			if ( !sessionCheck || !persistenceContext.containsEntity( keys[i] ) ) {
+				pending.add( keys[i] );
+			}
+		}
+
+		final BatchFetchQueue queue = persistenceContext.getBatchFetchQueue();
+		boolean success = false;
+		// the get() calls below must not evict what this call loaded
+		session.beginCompositeOperation();
+		try {
+			Set missing = Collections.EMPTY_SET;
+			if ( !pending.isEmpty() ) {
+				lookupSecondLevelCache( pending, queue );
+			}
+			if ( !pending.isEmpty() ) {
+				missing = loadFromDatabase( pending );
+			}
+
+			final List result = new ArrayList( size );
+			for ( int i = 0; i < size; i++ ) {
+				result.add(
+						missing.contains( keys[i] )
+								? null
+								: session.get( persister.getEntityName(), keys[i].getIdentifier() )
+				);
+			}
+			success = true;
+			return result;
+		}
+		finally {
+			queue.clearPrefetchedCacheEntries();
+			session.endCompositeOperation( success );
+		}
+	}
+
+	public Iterator multiLoad(List ids, int chunkSize) throws HibernateException {
+		if ( chunkSize < 1 ) {
+			throw new IllegalArgumentException( "chunk size must be positive: " + chunkSize );
+		}
+		return new ChunkIterator( ids, chunkSize );
+	}
+
+	/**
+	 * Consult the second-level cache for the given keys, removing those found
+	 * from the set.  The outcome of every lookup is recorded in the
+	 * {@link BatchFetchQueue}, so that the cache is not consulted again.
+	 */
+	private void lookupSecondLevelCache(Set pending, BatchFetchQueue queue) {
+		if ( !persister.hasCache() || !session.getCacheMode().isGetEnabled() ) {
+			return;
+		}
+		final SessionFactoryImplementor factory = session.getFactory();
+		final boolean stats = factory.getStatistics().isStatisticsEnabled();
+		final String regionName = persister.getCacheAccessStrategy().getRegion().getName();
+		Iterator keys = pending.iterator();
+		while ( keys.hasNext() ) {
+			final EntityKey entityKey = ( EntityKey ) keys.next();
+			final CacheKey cacheKey = new CacheKey(
+					entityKey.getIdentifier(),
+					persister.getIdentifierType(),
+					persister.getRootEntityName(),
+					session.getEntityMode(),
+					factory
+			);
+			final Object cached = persister.getCacheAccessStrategy().get( cacheKey, session.getTimestamp() );
+			if ( stats ) {
+				if ( cached == null ) {
+					factory.getStatisticsImplementor().secondLevelCacheMiss( regionName );
+				}
+				else {
+					factory.getStatisticsImplementor().secondLevelCacheHit( regionName );
+				}
+			}
+			queue.addPrefetchedCacheEntry( entityKey, cached == null ? BatchFetchQueue.CACHE_MISS : cached );
+			if ( cached != null ) {
+				keys.remove();
+			}
+		}
+	}
+
+	/**
+	 * Read the instances with the given keys from the database, with as few
+	 * statements as the batch size and the dialect allow.
+	 *
+	 * @return The keys of the instances which do not exist
+	 */
+	private Set loadFromDatabase(Set pending) {
+		if ( !isBatchLoadable() ) {
+			// left to the entity's own loader, one instance at a time
+			return Collections.EMPTY_SET;
+		}
+		final SessionFactoryImplementor factory = session.getFactory();
+		final PersistenceContext persistenceContext = session.getPersistenceContext();
+		final Type idType = persister.getIdentifierType();
+		final int maxBatchSize = getMaxBatchSize();
+
+		final Serializable[] ids = new Serializable[pending.size()];
+		Iterator keys = pending.iterator();
+		for ( int i = 0; keys.hasNext(); i++ ) {
+			ids[i] = ( ( EntityKey ) keys.next() ).getIdentifier();
+		}
+		if ( log.isDebugEnabled() ) {
+			log.debug(
+					"loading " + ids.length + " instances of " + persister.getEntityName()
+							+ " from the database, at most " + maxBatchSize + " per statement"
+			);
+		}
+
+		for ( int start = 0; start < ids.length; start += maxBatchSize ) {
+			final int count = Math.min( maxBatchSize, ids.length - start );
+			final int paddedSize = getPaddedSize( count, maxBatchSize );
+			final Serializable[] batch = new Serializable[paddedSize];
+			System.arraycopy( ids, start, batch, 0, count );
+			// repeating the last identifier keeps the number of distinct loaders small
+			Arrays.fill( batch, count, paddedSize, ids[start + count - 1] );
+			final EntityLoader loader = factory.getQueryPlanCache().getBatchEntityLoader(
+					( OuterJoinLoadable ) persister,
+					paddedSize,
+					session.getLoadQueryInfluencers()
+			);
+			loader.loadEntityBatch( session, batch, idType, null, null, null, persister, LockOptions.NONE );
+		}
+
+		Set missing = null;
+		keys = pending.iterator();
+		while ( keys.hasNext() ) {
+			final EntityKey entityKey = ( EntityKey ) keys.next();
+			if ( !persistenceContext.containsEntity( entityKey ) ) {
+				if ( missing == null ) {
+					missing = new HashSet();
+				}
+				missing.add( entityKey );
+			}
+		}
+		return missing == null ? Collections.EMPTY_SET : missing;
+	}
+
+	private boolean isBatchLoadable() {
+		return persister instanceof AbstractEntityPersister
+				&& !( ( AbstractEntityPersister ) persister ).hasNamedQueryLoader();
+	}
+
+	private int getMaxBatchSize() {
+		final SessionFactoryImplementor factory = session.getFactory();
+		final int limit = factory.getDialect().getInExpressionCountLimit();
+		if ( limit > 0 ) {
+			final int columnSpan = persister.getIdentifierType().getColumnSpan( factory );
+			return Math.max( 1, Math.min( batchSize, limit / columnSpan ) );
+		}
+		return batchSize;
+	}
+
+	/**
+	 * The smallest power of two holding the given number of identifiers, but
+	 * no more than the maximum batch size.
+	 */
+	private static int getPaddedSize(int count, int maxBatchSize) {
+		int size = 1;
+		while ( size < count ) {
+			size <<= 1;
+		}
+		return Math.min( size, maxBatchSize );
+	}
+
+	private class ChunkIterator implements Iterator {
+		private final List ids;
+		private final int chunkSize;
+		private int position;
+
+		private ChunkIterator(List ids, int chunkSize) {
+			this.ids = ids;
+			this.chunkSize = chunkSize;
+		}
+
+		public boolean hasNext() {
+			return position < ids.size();
+		}
+
+		public Object next() {
+			if ( !hasNext() ) {
+				throw new NoSuchElementException();
+			}
+			final int end = Math.min( position + chunkSize, ids.size() );
+			final List chunk = multiLoad( ids.subList( position, end ) );
+			position = end;
+			return chunk;
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException( "chunks cannot be removed" );
+		}
+	}
+
+}
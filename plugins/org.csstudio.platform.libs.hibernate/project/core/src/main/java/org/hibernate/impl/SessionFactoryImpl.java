@@ -192,7 +192,7 @@ public final class SessionFactoryImpl implements SessionFactory, SessionFactoryI
 
 	public SessionFactoryImpl(
 			Configuration cfg,
-	        Mapping mapping,
+	        final Mapping mapping,
 	        Settings settings,
 	        EventListeners listeners,
 			SessionFactoryObserver observer) throws HibernateException {
@@ -274,96 +274,132 @@ public final class SessionFactoryImpl implements SessionFactory, SessionFactoryI
 
 		final String cacheRegionPrefix = settings.getCacheRegionPrefix() == null ? "" : settings.getCacheRegionPrefix() + ".";
 
-		entityPersisters = new HashMap();
-		Map entityAccessStrategies = new HashMap();
-		Map classMeta = new HashMap();
-		classes = cfg.getClassMappings();
-		while ( classes.hasNext() ) {
-			final PersistentClass model = (PersistentClass) classes.next();
-			model.prepareTemporaryTables( mapping, settings.getDialect() );
-			final String cacheRegionName = cacheRegionPrefix + model.getRootClass().getCacheRegionName();
-			// cache region is defined by the root-class in the hierarchy...
-			EntityRegionAccessStrategy accessStrategy = ( EntityRegionAccessStrategy ) entityAccessStrategies.get( cacheRegionName );
-			if ( accessStrategy == null && settings.isSecondLevelCacheEnabled() ) {
-				final AccessType accessType = AccessType.parse( model.getCacheConcurrencyStrategy() );
-				if ( accessType != null ) {
-					log.trace( "Building cache for entity data [" + model.getEntityName() + "]" );
-					EntityRegion entityRegion = settings.getRegionFactory().buildEntityRegion( cacheRegionName, properties, CacheDataDescriptionImpl.decode( model ) );
-					accessStrategy = entityRegion.buildAccessStrategy( accessType );
-					entityAccessStrategies.put( cacheRegionName, accessStrategy );
-					allCacheRegions.put( cacheRegionName, entityRegion );
+		// persisters are built, and their loaders generated, one phase after
+		// the other, but the work within a phase may be done in parallel
+		final BootstrapExecutor bootstrapExecutor = new BootstrapExecutor( settings.getBootstrapParallelism() );
+		try {
+			entityPersisters = new HashMap();
+			Map entityAccessStrategies = new HashMap();
+			Map classMeta = new HashMap();
+			ArrayList entityNames = new ArrayList();
+			ArrayList entityTasks = new ArrayList();
+			classes = cfg.getClassMappings();
+			while ( classes.hasNext() ) {
+				final PersistentClass model = (PersistentClass) classes.next();
+				model.prepareTemporaryTables( mapping, settings.getDialect() );
+				final String cacheRegionName = cacheRegionPrefix + model.getRootClass().getCacheRegionName();
+				// cache region is defined by the root-class in the hierarchy...
+				EntityRegionAccessStrategy accessStrategy = ( EntityRegionAccessStrategy ) entityAccessStrategies.get( cacheRegionName );
+				if ( accessStrategy == null && settings.isSecondLevelCacheEnabled() ) {
+					final AccessType accessType = AccessType.parse( model.getCacheConcurrencyStrategy() );
+					if ( accessType != null ) {
+						log.trace( "Building cache for entity data [" + model.getEntityName() + "]" );
+						EntityRegion entityRegion = settings.getRegionFactory().buildEntityRegion( cacheRegionName, properties, CacheDataDescriptionImpl.decode( model ) );
+						accessStrategy = entityRegion.buildAccessStrategy( accessType );
+						entityAccessStrategies.put( cacheRegionName, accessStrategy );
+						allCacheRegions.put( cacheRegionName, entityRegion );
+					}
 				}
+				final EntityRegionAccessStrategy entityAccessStrategy = accessStrategy;
+				entityNames.add( model.getEntityName() );
+				entityTasks.add(
+						new BootstrapExecutor.Task() {
+							public Object run() {
+								return PersisterFactory.createClassPersister( model, entityAccessStrategy, SessionFactoryImpl.this, mapping );
+							}
+						}
+				);
 			}
-			EntityPersister cp = PersisterFactory.createClassPersister( model, accessStrategy, this, mapping );
-			entityPersisters.put( model.getEntityName(), cp );
-			classMeta.put( model.getEntityName(), cp.getClassMetadata() );
-		}
-		classMetadata = Collections.unmodifiableMap(classMeta);
-
-		Map tmpEntityToCollectionRoleMap = new HashMap();
-		collectionPersisters = new HashMap();
-		Iterator collections = cfg.getCollectionMappings();
-		while ( collections.hasNext() ) {
-			Collection model = (Collection) collections.next();
-			final String cacheRegionName = cacheRegionPrefix + model.getCacheRegionName();
-			final AccessType accessType = AccessType.parse( model.getCacheConcurrencyStrategy() );
-			CollectionRegionAccessStrategy accessStrategy = null;
-			if ( accessType != null && settings.isSecondLevelCacheEnabled() ) {
-				log.trace( "Building cache for collection data [" + model.getRole() + "]" );
-				CollectionRegion collectionRegion = settings.getRegionFactory().buildCollectionRegion( cacheRegionName, properties, CacheDataDescriptionImpl.decode( model ) );
-				accessStrategy = collectionRegion.buildAccessStrategy( accessType );
-				entityAccessStrategies.put( cacheRegionName, accessStrategy );
-				allCacheRegions.put( cacheRegionName, collectionRegion );
+			Object[] builtEntityPersisters = bootstrapExecutor.execute( "Building entity persisters", toTasks( entityTasks ) );
+			for ( int i = 0; i < builtEntityPersisters.length; i++ ) {
+				EntityPersister cp = ( EntityPersister ) builtEntityPersisters[i];
+				entityPersisters.put( entityNames.get( i ), cp );
+				classMeta.put( entityNames.get( i ), cp.getClassMetadata() );
 			}
-			CollectionPersister persister = PersisterFactory.createCollectionPersister( cfg, model, accessStrategy, this) ;
-			collectionPersisters.put( model.getRole(), persister.getCollectionMetadata() );
-			Type indexType = persister.getIndexType();
-			if ( indexType != null && indexType.isAssociationType() && !indexType.isAnyType() ) {
-				String entityName = ( ( AssociationType ) indexType ).getAssociatedEntityName( this );
-				Set roles = ( Set ) tmpEntityToCollectionRoleMap.get( entityName );
-				if ( roles == null ) {
-					roles = new HashSet();
-					tmpEntityToCollectionRoleMap.put( entityName, roles );
+			classMetadata = Collections.unmodifiableMap(classMeta);
+
+			Map tmpEntityToCollectionRoleMap = new HashMap();
+			collectionPersisters = new HashMap();
+			ArrayList collectionRoles = new ArrayList();
+			ArrayList collectionTasks = new ArrayList();
+			Iterator collections = cfg.getCollectionMappings();
+			while ( collections.hasNext() ) {
+				final Collection model = (Collection) collections.next();
+				final String cacheRegionName = cacheRegionPrefix + model.getCacheRegionName();
+				final AccessType accessType = AccessType.parse( model.getCacheConcurrencyStrategy() );
+				CollectionRegionAccessStrategy accessStrategy = null;
+				if ( accessType != null && settings.isSecondLevelCacheEnabled() ) {
+					log.trace( "Building cache for collection data [" + model.getRole() + "]" );
+					CollectionRegion collectionRegion = settings.getRegionFactory().buildCollectionRegion( cacheRegionName, properties, CacheDataDescriptionImpl.decode( model ) );
+					accessStrategy = collectionRegion.buildAccessStrategy( accessType );
+					entityAccessStrategies.put( cacheRegionName, accessStrategy );
+					allCacheRegions.put( cacheRegionName, collectionRegion );
 				}
-				roles.add( persister.getRole() );
+				final CollectionRegionAccessStrategy collectionAccessStrategy = accessStrategy;
+				final Configuration configuration = cfg;
+				collectionRoles.add( model.getRole() );
+				collectionTasks.add(
+						new BootstrapExecutor.Task() {
+							public Object run() {
+								return PersisterFactory.createCollectionPersister( configuration, model, collectionAccessStrategy, SessionFactoryImpl.this );
+							}
+						}
+				);
 			}
-			Type elementType = persister.getElementType();
-			if ( elementType.isAssociationType() && !elementType.isAnyType() ) {
-				String entityName = ( ( AssociationType ) elementType ).getAssociatedEntityName( this );
-				Set roles = ( Set ) tmpEntityToCollectionRoleMap.get( entityName );
-				if ( roles == null ) {
-					roles = new HashSet();
-					tmpEntityToCollectionRoleMap.put( entityName, roles );
+			Object[] builtCollectionPersisters = bootstrapExecutor.execute( "Building collection persisters", toTasks( collectionTasks ) );
+			for ( int i = 0; i < builtCollectionPersisters.length; i++ ) {
+				CollectionPersister persister = ( CollectionPersister ) builtCollectionPersisters[i];
+				collectionPersisters.put( collectionRoles.get( i ), persister.getCollectionMetadata() );
+				Type indexType = persister.getIndexType();
+				if ( indexType != null && indexType.isAssociationType() && !indexType.isAnyType() ) {
+					String entityName = ( ( AssociationType ) indexType ).getAssociatedEntityName( this );
+					Set roles = ( Set ) tmpEntityToCollectionRoleMap.get( entityName );
+					if ( roles == null ) {
+						roles = new HashSet();
+						tmpEntityToCollectionRoleMap.put( entityName, roles );
+					}
+					roles.add( persister.getRole() );
+				}
+				Type elementType = persister.getElementType();
+				if ( elementType.isAssociationType() && !elementType.isAnyType() ) {
+					String entityName = ( ( AssociationType ) elementType ).getAssociatedEntityName( this );
+					Set roles = ( Set ) tmpEntityToCollectionRoleMap.get( entityName );
+					if ( roles == null ) {
+						roles = new HashSet();
+						tmpEntityToCollectionRoleMap.put( entityName, roles );
+					}
+					roles.add( persister.getRole() );
 				}
-				roles.add( persister.getRole() );
+			}
+			collectionMetadata = Collections.unmodifiableMap(collectionPersisters);
+			Iterator itr = tmpEntityToCollectionRoleMap.entrySet().iterator();
+			while ( itr.hasNext() ) {
+				final Map.Entry entry = ( Map.Entry ) itr.next();
+				entry.setValue( Collections.unmodifiableSet( ( Set ) entry.getValue() ) );
+			}
+			collectionRolesByEntityParticipant = Collections.unmodifiableMap( tmpEntityToCollectionRoleMap );
+
+			//Named Queries:
+			namedQueries = new HashMap( cfg.getNamedQueries() );
+			namedSqlQueries = new HashMap( cfg.getNamedSQLQueries() );
+			sqlResultSetMappings = new HashMap( cfg.getSqlResultSetMappings() );
+			imports = new HashMap( cfg.getImports() );
+
+			// after *all* persisters and named queries are registered; entity
+			// loaders are generated before collection loaders, as they always were
+			bootstrapExecutor.execute( "Generating entity loaders", postInstantiateTasks( entityPersisters.values() ) );
+			bootstrapExecutor.execute( "Generating collection loaders", postInstantiateTasks( collectionPersisters.values() ) );
+			if ( settings.getLoaderUsageProfile() != null ) {
+				LoaderUsageProfile.warm( settings.getLoaderUsageProfile(), entityPersisters, bootstrapExecutor );
 			}
 		}
-		collectionMetadata = Collections.unmodifiableMap(collectionPersisters);
-		Iterator itr = tmpEntityToCollectionRoleMap.entrySet().iterator();
-		while ( itr.hasNext() ) {
-			final Map.Entry entry = ( Map.Entry ) itr.next();
-			entry.setValue( Collections.unmodifiableSet( ( Set ) entry.getValue() ) );
+		finally {
+			// also when building a persister fails, so that no idle worker outlives the bootstrap
+			bootstrapExecutor.shutdown();
 		}
-		collectionRolesByEntityParticipant = Collections.unmodifiableMap( tmpEntityToCollectionRoleMap );
-
-		//Named Queries:
-		namedQueries = new HashMap( cfg.getNamedQueries() );
-		namedSqlQueries = new HashMap( cfg.getNamedSQLQueries() );
-		sqlResultSetMappings = new HashMap( cfg.getSqlResultSetMappings() );
-		imports = new HashMap( cfg.getImports() );
-
-		// after *all* persisters and named queries are registered
 		Iterator iter = entityPersisters.values().iterator();
 		while ( iter.hasNext() ) {
-			final EntityPersister persister = ( ( EntityPersister ) iter.next() );
-			persister.postInstantiate();
-			registerEntityNameResolvers( persister );
-
-		}
-		iter = collectionPersisters.values().iterator();
-		while ( iter.hasNext() ) {
-			final CollectionPersister persister = ( ( CollectionPersister ) iter.next() );
-			persister.postInstantiate();
+			registerEntityNameResolvers( ( EntityPersister ) iter.next() );
 		}
 
 		//JNDI + Serialization:
@@ -421,7 +457,14 @@ public final class SessionFactoryImpl implements SessionFactory, SessionFactoryI
 
 		//checking for named queries
 		if ( settings.isNamedQueryStartupCheckingEnabled() ) {
-			Map errors = checkNamedQueries();
+			Map errors;
+			final BootstrapExecutor queryCheckExecutor = new BootstrapExecutor( settings.getBootstrapParallelism() );
+			try {
+				errors = checkNamedQueries( queryCheckExecutor );
+			}
+			finally {
+				queryCheckExecutor.shutdown();
+			}
 			if ( !errors.isEmpty() ) {
 				Set keys = errors.keySet();
 				StringBuffer failingQueries = new StringBuffer( "Errors in named queries: " );
@@ -440,6 +483,12 @@ public final class SessionFactoryImpl implements SessionFactory, SessionFactoryI
 
 		//stats
 		getStatistics().setStatisticsEnabled( settings.isStatisticsEnabled() );
+		if ( statistics instanceof ConcurrentStatisticsImpl ) {
+			( (ConcurrentStatisticsImpl) statistics ).setQueryStatisticsMaxSize( settings.getQueryStatisticsMaxSize() );
+			( (ConcurrentStatisticsImpl) statistics ).setQueryLiteralNormalizationEnabled(
+					settings.isQueryStatisticsLiteralNormalizationEnabled()
+			);
+		}
 
 		// EntityNotFoundDelegate
 		EntityNotFoundDelegate entityNotFoundDelegate = cfg.getEntityNotFoundDelegate();
@@ -457,7 +506,7 @@ public final class SessionFactoryImpl implements SessionFactory, SessionFactoryI
 
 		// this needs to happen after persisters are all ready to go...
 		this.fetchProfiles = new HashMap();
-		itr = cfg.iterateFetchProfiles();
+		Iterator itr = cfg.iterateFetchProfiles();
 		while ( itr.hasNext() ) {
 			final org.hibernate.mapping.FetchProfile mappingProfile =
 					( org.hibernate.mapping.FetchProfile ) itr.next();
@@ -545,8 +594,34 @@ public final class SessionFactoryImpl implements SessionFactory, SessionFactoryI
 		return queryPlanCache;
 	}
 
-	private Map checkNamedQueries() throws HibernateException {
-		Map errors = new HashMap();
+	private static BootstrapExecutor.Task[] toTasks(java.util.List tasks) {
+		return ( BootstrapExecutor.Task[] ) tasks.toArray( new BootstrapExecutor.Task[tasks.size()] );
+	}
+
+	private static BootstrapExecutor.Task[] postInstantiateTasks(java.util.Collection persisters) {
+		BootstrapExecutor.Task[] tasks = new BootstrapExecutor.Task[persisters.size()];
+		Iterator itr = persisters.iterator();
+		for ( int i = 0; i < tasks.length; i++ ) {
+			final Object persister = itr.next();
+			tasks[i] = new BootstrapExecutor.Task() {
+				public Object run() {
+					if ( persister instanceof EntityPersister ) {
+						( ( EntityPersister ) persister ).postInstantiate();
+					}
+					else {
+						( ( CollectionPersister ) persister ).postInstantiate();
+					}
+					return null;
+				}
+			};
+		}
+		return tasks;
+	}
+
+	private Map checkNamedQueries(BootstrapExecutor bootstrapExecutor) throws HibernateException {
+		// each task returns the error in its query, if any
+		ArrayList queryNames = new ArrayList();
+		ArrayList tasks = new ArrayList();
 
 		// Check named HQL queries
 		log.debug("Checking " + namedQueries.size() + " named HQL queries");
@@ -555,18 +630,26 @@ public final class SessionFactoryImpl implements SessionFactory, SessionFactoryI
 			final Map.Entry entry = ( Map.Entry ) itr.next();
 			final String queryName = ( String ) entry.getKey();
 			final NamedQueryDefinition qd = ( NamedQueryDefinition ) entry.getValue();
-			// this will throw an error if there's something wrong.
-			try {
-				log.debug("Checking named query: " + queryName);
-				//TODO: BUG! this currently fails for named queries for non-POJO entities
-				queryPlanCache.getHQLQueryPlan( qd.getQueryString(), false, CollectionHelper.EMPTY_MAP );
-			}
-			catch ( QueryException e ) {
-				errors.put( queryName, e );
-			}
-			catch ( MappingException e ) {
-				errors.put( queryName, e );
-			}
+			queryNames.add( queryName );
+			tasks.add(
+					new BootstrapExecutor.Task() {
+						public Object run() {
+							// this will throw an error if there's something wrong.
+							try {
+								log.debug("Checking named query: " + queryName);
+								//TODO: BUG! this currently fails for named queries for non-POJO entities
+								queryPlanCache.getHQLQueryPlan( qd.getQueryString(), false, CollectionHelper.EMPTY_MAP );
+								return null;
+							}
+							catch ( QueryException e ) {
+								return e;
+							}
+							catch ( MappingException e ) {
+								return e;
+							}
+						}
+					}
+			);
 		}
 
 		log.debug("Checking " + namedSqlQueries.size() + " named SQL queries");
@@ -575,43 +658,60 @@ public final class SessionFactoryImpl implements SessionFactory, SessionFactoryI
 			final Map.Entry entry = ( Map.Entry ) itr.next();
 			final String queryName = ( String ) entry.getKey();
 			final NamedSQLQueryDefinition qd = ( NamedSQLQueryDefinition ) entry.getValue();
-			// this will throw an error if there's something wrong.
-			try {
-				log.debug("Checking named SQL query: " + queryName);
-				// TODO : would be really nice to cache the spec on the query-def so as to not have to re-calc the hash;
-				// currently not doable though because of the resultset-ref stuff...
-				NativeSQLQuerySpecification spec;
-				if ( qd.getResultSetRef() != null ) {
-					ResultSetMappingDefinition definition = ( ResultSetMappingDefinition ) sqlResultSetMappings.get( qd.getResultSetRef() );
-					if ( definition == null ) {
-						throw new MappingException( "Unable to find resultset-ref definition: " + qd.getResultSetRef() );
+			queryNames.add( queryName );
+			tasks.add(
+					new BootstrapExecutor.Task() {
+						public Object run() {
+							// this will throw an error if there's something wrong.
+							try {
+								log.debug("Checking named SQL query: " + queryName);
+								queryPlanCache.getNativeSQLQueryPlan( toSpecification( qd ) );
+								return null;
+							}
+							catch ( QueryException e ) {
+								return e;
+							}
+							catch ( MappingException e ) {
+								return e;
+							}
+						}
 					}
-					spec = new NativeSQLQuerySpecification(
-							qd.getQueryString(),
-					        definition.getQueryReturns(),
-					        qd.getQuerySpaces()
-					);
-				}
-				else {
-					spec =  new NativeSQLQuerySpecification(
-							qd.getQueryString(),
-					        qd.getQueryReturns(),
-					        qd.getQuerySpaces()
-					);
-				}
-				queryPlanCache.getNativeSQLQueryPlan( spec );
-			}
-			catch ( QueryException e ) {
-				errors.put( queryName, e );
-			}
-			catch ( MappingException e ) {
-				errors.put( queryName, e );
-			}
+			);
 		}
 
+		Object[] results = bootstrapExecutor.execute( "Checking named queries", toTasks( tasks ) );
+		Map errors = new HashMap();
+		for ( int i = 0; i < results.length; i++ ) {
+			if ( results[i] != null ) {
+				errors.put( queryNames.get( i ), results[i] );
+			}
+		}
 		return errors;
 	}
 
+	private NativeSQLQuerySpecification toSpecification(NamedSQLQueryDefinition qd) {
+		// TODO : would be really nice to cache the spec on the query-def so as to not have to re-calc the hash;
+		// currently not doable though because of the resultset-ref stuff...
+		if ( qd.getResultSetRef() != null ) {
+			ResultSetMappingDefinition definition = ( ResultSetMappingDefinition ) sqlResultSetMappings.get( qd.getResultSetRef() );
+			if ( definition == null ) {
+				throw new MappingException( "Unable to find resultset-ref definition: " + qd.getResultSetRef() );
+			}
+			return new NativeSQLQuerySpecification(
+					qd.getQueryString(),
+			        definition.getQueryReturns(),
+			        qd.getQuerySpaces()
+			);
+		}
+		else {
+			return new NativeSQLQuerySpecification(
+					qd.getQueryString(),
+			        qd.getQueryReturns(),
+			        qd.getQuerySpaces()
+			);
+		}
+	}
+
 	public StatelessSession openStatelessSession() {
 		return new StatelessSessionImpl( null, this );
 	}
@@ -941,6 +1041,10 @@ public final class SessionFactoryImpl implements SessionFactory, SessionFactoryI
 
 		isClosed = true;
 
+		if ( settings.getLoaderUsageProfile() != null ) {
+			LoaderUsageProfile.record( settings.getLoaderUsageProfile(), entityPersisters );
+		}
+
 		Iterator iter = entityPersisters.values().iterator();
 		while ( iter.hasNext() ) {
 			EntityPersister p = (EntityPersister) iter.next();
@@ -54,6 +54,7 @@ import org.hibernate.HibernateException;
 import org.hibernate.Interceptor;
 import org.hibernate.LockMode;
 import org.hibernate.MappingException;
+import org.hibernate.MultiIdentifierLoadAccess;
 import org.hibernate.ObjectDeletedException;
 import org.hibernate.Query;
 import org.hibernate.QueryException;
@@ -75,6 +76,7 @@ import org.hibernate.engine.ActionQueue;
 import org.hibernate.engine.CollectionEntry;
 import org.hibernate.engine.EntityEntry;
 import org.hibernate.engine.EntityKey;
+import org.hibernate.engine.ManagedEntityLimit;
 import org.hibernate.engine.NonFlushedChanges;
 import org.hibernate.engine.PersistenceContext;
 import org.hibernate.engine.QueryParameters;
@@ -164,6 +166,8 @@ public final class SessionImpl extends AbstractSessionImpl
 	private transient Interceptor interceptor;
 
 	private transient int dontFlushFromFind = 0;
+	// operations built from other operations of this session, see beginCompositeOperation()
+	private transient int compositeOperationDepth = 0;
 
 	private transient ActionQueue actionQueue;
 	private transient StatefulPersistenceContext persistenceContext;
@@ -583,8 +587,67 @@ public final class SessionImpl extends AbstractSessionImpl
 	 * completion processing
 	 */
 	public void afterOperation(boolean success) {
-		if ( !jdbcContext.isTransactionInProgress() ) {
-			jdbcContext.afterNontransactionalQuery( success );
+		try {
+			if ( success ) {
+				enforceManagedEntityLimit( false );
+			}
+		}
+		finally {
+			if ( !jdbcContext.isTransactionInProgress() ) {
+				jdbcContext.afterNontransactionalQuery( success );
+			}
+		}
+	}
+
+	public void setManagedEntityLimit(int maxEntities, long maxEstimatedBytes) {
+		errorIfClosed();
+		if ( maxEntities <= 0 && maxEstimatedBytes <= 0 ) {
+			persistenceContext.setManagedEntityLimit( null );
+		}
+		else {
+			persistenceContext.setManagedEntityLimit( new ManagedEntityLimit( maxEntities, maxEstimatedBytes ) );
+		}
+	}
+
+	public void enforceManagedEntityLimit() {
+		errorIfClosed();
+		checkTransactionSynchStatus();
+		enforceManagedEntityLimit( false );
+	}
+
+	/**
+	 * Flush and evict if the managed entity limit is exceeded, but only at the end
+	 * of a top-level operation, never while cascading, flushing or loading.
+	 */
+	private void enforceManagedEntityLimit(boolean flushed) {
+		ManagedEntityLimit limit = persistenceContext.getManagedEntityLimit();
+		if ( limit != null
+				&& compositeOperationDepth == 0
+				&& persistenceContext.getCascadeLevel() == 0
+				&& !persistenceContext.isFlushing()
+				&& persistenceContext.isLoadFinished() ) {
+			limit.enforce( this, flushed );
+		}
+	}
+
+	/**
+	 * Begin an operation which calls other operations of this session, such as
+	 * merge() loading its target through get(), so that the managed entity limit
+	 * is only enforced once the whole operation ends.
+	 */
+	void beginCompositeOperation() {
+		compositeOperationDepth++;
+	}
+
+	/**
+	 * End an operation begun by {@link #beginCompositeOperation()}.
+	 *
+	 * @param success Whether the operation completed normally
+	 */
+	void endCompositeOperation(boolean success) {
+		compositeOperationDepth--;
+		if ( success ) {
+			enforceManagedEntityLimit( false );
 		}
 	}
 
@@ -676,6 +739,7 @@ public final class SessionImpl extends AbstractSessionImpl
 		for ( int i = 0; i < saveOrUpdateEventListener.length; i++ ) {
 			saveOrUpdateEventListener[i].onSaveOrUpdate(event);
 		}
+		enforceManagedEntityLimit( false );
 	}
 
 
@@ -704,6 +768,7 @@ public final class SessionImpl extends AbstractSessionImpl
 		for ( int i = 0; i < saveEventListener.length; i++ ) {
 			saveEventListener[i].onSaveOrUpdate(event);
 		}
+		enforceManagedEntityLimit( false );
 		return event.getResultId();
 	}
 
@@ -733,6 +798,7 @@ public final class SessionImpl extends AbstractSessionImpl
 		for ( int i = 0; i < updateEventListener.length; i++ ) {
 			updateEventListener[i].onSaveOrUpdate(event);
 		}
+		enforceManagedEntityLimit( false );
 	}
 
 
@@ -799,6 +865,7 @@ public final class SessionImpl extends AbstractSessionImpl
 		for ( int i = 0; i < createEventListener.length; i++ ) {
 			createEventListener[i].onPersist(event);
 		}
+		enforceManagedEntityLimit( false );
 	}
 
 
@@ -854,9 +921,17 @@ public final class SessionImpl extends AbstractSessionImpl
 	private Object fireMerge(MergeEvent event) {
 		errorIfClosed();
 		checkTransactionSynchStatus();
-		MergeEventListener[] mergeEventListener = listeners.getMergeEventListeners();
-		for ( int i = 0; i < mergeEventListener.length; i++ ) {
-			mergeEventListener[i].onMerge(event);
+		boolean success = false;
+		beginCompositeOperation();
+		try {
+			MergeEventListener[] mergeEventListener = listeners.getMergeEventListeners();
+			for ( int i = 0; i < mergeEventListener.length; i++ ) {
+				mergeEventListener[i].onMerge(event);
+			}
+			success = true;
+		}
+		finally {
+			endCompositeOperation( success );
 		}
 		return event.getResult();
 	}
@@ -909,9 +984,17 @@ public final class SessionImpl extends AbstractSessionImpl
 	private Object fireSaveOrUpdateCopy(MergeEvent event) {
 		errorIfClosed();
 		checkTransactionSynchStatus();
-		MergeEventListener[] saveOrUpdateCopyEventListener = listeners.getSaveOrUpdateCopyEventListeners();
-		for ( int i = 0; i < saveOrUpdateCopyEventListener.length; i++ ) {
-			saveOrUpdateCopyEventListener[i].onMerge(event);
+		boolean success = false;
+		beginCompositeOperation();
+		try {
+			MergeEventListener[] saveOrUpdateCopyEventListener = listeners.getSaveOrUpdateCopyEventListeners();
+			for ( int i = 0; i < saveOrUpdateCopyEventListener.length; i++ ) {
+				saveOrUpdateCopyEventListener[i].onMerge(event);
+			}
+			success = true;
+		}
+		finally {
+			endCompositeOperation( success );
 		}
 		return event.getResult();
 	}
@@ -947,6 +1030,7 @@ public final class SessionImpl extends AbstractSessionImpl
 		for ( int i = 0; i < deleteEventListener.length; i++ ) {
 			deleteEventListener[i].onDelete( event );
 		}
+		enforceManagedEntityLimit( false );
 	}
 
 	private void fireDelete(DeleteEvent event, Set transientEntities) {
@@ -964,6 +1048,7 @@ public final class SessionImpl extends AbstractSessionImpl
 	public void load(Object object, Serializable id) throws HibernateException {
 		LoadEvent event = new LoadEvent(id, object, this);
 		fireLoad( event, LoadEventListener.RELOAD );
+		enforceManagedEntityLimit( false );
 	}
 
 	public Object load(Class entityClass, Serializable id) throws HibernateException {
@@ -1043,12 +1128,14 @@ public final class SessionImpl extends AbstractSessionImpl
 	public Object load(String entityName, Serializable id, LockMode lockMode) throws HibernateException {
 		LoadEvent event = new LoadEvent(id, entityName, lockMode, this);
 		fireLoad( event, LoadEventListener.LOAD );
+		enforceManagedEntityLimit( false );
 		return event.getResult();
 	}
 
 	public Object load(String entityName, Serializable id, LockOptions lockOptions) throws HibernateException {
 		LoadEvent event = new LoadEvent(id, entityName, lockOptions, this);
 		fireLoad( event, LoadEventListener.LOAD );
+		enforceManagedEntityLimit( false );
 		return event.getResult();
 	}
 
@@ -1063,14 +1150,26 @@ public final class SessionImpl extends AbstractSessionImpl
 	public Object get(String entityName, Serializable id, LockMode lockMode) throws HibernateException {
 		LoadEvent event = new LoadEvent(id, entityName, lockMode, this);
 	   	fireLoad(event, LoadEventListener.GET);
+		enforceManagedEntityLimit( false );
 		return event.getResult();
 	}
 
 	public Object get(String entityName, Serializable id, LockOptions lockOptions) throws HibernateException {
 		LoadEvent event = new LoadEvent(id, entityName, lockOptions, this);
 	   	fireLoad(event, LoadEventListener.GET);
+		enforceManagedEntityLimit( false );
 		return event.getResult();
 	}
+
+	public MultiIdentifierLoadAccess byMultipleIds(Class entityClass) {
+		return byMultipleIds( entityClass.getName() );
+	}
+
+	public MultiIdentifierLoadAccess byMultipleIds(String entityName) {
+		errorIfClosed();
+		checkTransactionSynchStatus();
+		return new MultiIdentifierLoadAccessImpl( this, factory.getEntityPersister( entityName ) );
+	}
 	
 	private void fireLoad(LoadEvent event, LoadType loadType) {
 		errorIfClosed();
@@ -1196,6 +1295,15 @@ public final class SessionImpl extends AbstractSessionImpl
 	}
 
 	public void flush() throws HibernateException {
+		doFlush();
+		enforceManagedEntityLimit( true );
+	}
+
+	/**
+	 * Flush without enforcing the managed entity limit, for flushes in the
+	 * middle of an operation.
+	 */
+	private void doFlush() throws HibernateException {
 		errorIfClosed();
 		checkTransactionSynchStatus();
 		if ( persistenceContext.getCascadeLevel() > 0 ) {
@@ -1224,7 +1332,7 @@ public final class SessionImpl extends AbstractSessionImpl
 			);
 		}
 
-		flush();
+		doFlush();
 	}
 
 
@@ -1567,7 +1675,7 @@ public final class SessionImpl extends AbstractSessionImpl
 		if ( roleBeforeFlush == null ) {
 			// if it was previously unreferenced, we need to flush in order to
 			// get its state into the database in order to execute query
-			flush();
+			doFlush();
 			entry = persistenceContext.getCollectionEntryOrNull( collection );
 			CollectionPersister roleAfterFlush = (entry == null) ? null : entry.getLoadedPersister();
 			if ( roleAfterFlush == null ) {
@@ -1657,9 +1765,8 @@ public final class SessionImpl extends AbstractSessionImpl
 		errorIfClosed();
 		checkTransactionSynchStatus();
 		String entityName = criteria.getEntityOrClassName();
-		CriteriaLoader loader = new CriteriaLoader(
+		CriteriaLoader loader = factory.getQueryPlanCache().getCriteriaLoader(
 				getOuterJoinLoadable(entityName),
-				factory,
 				criteria,
 				entityName,
 				getLoadQueryInfluencers()
@@ -1667,7 +1774,7 @@ public final class SessionImpl extends AbstractSessionImpl
 		autoFlushIfRequired( loader.getQuerySpaces() );
 		dontFlushFromFind++;
 		try {
-			return loader.scroll(this, scrollMode);
+			return loader.scroll(this, criteria, scrollMode);
 		}
 		finally {
 			dontFlushFromFind--;
@@ -1684,9 +1791,8 @@ public final class SessionImpl extends AbstractSessionImpl
 		Set spaces = new HashSet();
 		for( int i=0; i <size; i++ ) {
 
-			loaders[i] = new CriteriaLoader(
+			loaders[i] = factory.getQueryPlanCache().getCriteriaLoader(
 					getOuterJoinLoadable( implementors[i] ),
-					factory,
 					criteria,
 					implementors[i],
 					getLoadQueryInfluencers()
@@ -1703,7 +1809,7 @@ public final class SessionImpl extends AbstractSessionImpl
 		boolean success = false;
 		try {
 			for( int i=0; i<size; i++ ) {
-				final List currentResults = loaders[i].list(this);
+				final List currentResults = loaders[i].list(this, criteria);
 				currentResults.addAll(results);
 				results = currentResults;
 			}
@@ -1993,7 +2099,8 @@ public final class SessionImpl extends AbstractSessionImpl
 	}
 
 	public void afterScrollOperation() {
-		// nothing to do in a stateful session
+		// each row read is an operation of its own
+		enforceManagedEntityLimit( false );
 	}
 
 	public JDBCContext getJDBCContext() {
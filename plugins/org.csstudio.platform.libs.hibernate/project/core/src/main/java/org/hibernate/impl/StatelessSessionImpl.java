@@ -266,7 +266,7 @@ public class StatelessSessionImpl extends AbstractSessionImpl
 		errorIfClosed();
 		EntityPersister persister = getFactory().getEntityPersister( entityName );
 		// first, try to load it from the temp PC associated to this SS
-		Object loaded = temporaryPersistenceContext.getEntity( new EntityKey( id, persister, getEntityMode() ) );
+		Object loaded = temporaryPersistenceContext.getEntity( id, persister );
 		if ( loaded != null ) {
 			// we found it in the temp PC.  Should indicate we are in the midst of processing a result set
 			// containing eager fetches via join fetch
@@ -551,14 +551,13 @@ public class StatelessSessionImpl extends AbstractSessionImpl
 	public ScrollableResults scroll(CriteriaImpl criteria, ScrollMode scrollMode) {
 		errorIfClosed();
 		String entityName = criteria.getEntityOrClassName();
-		CriteriaLoader loader = new CriteriaLoader(
+		CriteriaLoader loader = factory.getQueryPlanCache().getCriteriaLoader(
 				getOuterJoinLoadable( entityName ),
-		        factory,
 		        criteria,
 		        entityName,
 		        getLoadQueryInfluencers()
 		);
-		return loader.scroll(this, scrollMode);
+		return loader.scroll(this, criteria, scrollMode);
 	}
 
 	public List list(CriteriaImpl criteria) throws HibernateException {
@@ -568,9 +567,8 @@ public class StatelessSessionImpl extends AbstractSessionImpl
 
 		CriteriaLoader[] loaders = new CriteriaLoader[size];
 		for( int i=0; i <size; i++ ) {
-			loaders[i] = new CriteriaLoader(
+			loaders[i] = factory.getQueryPlanCache().getCriteriaLoader(
 					getOuterJoinLoadable( implementors[i] ),
-			        factory,
 			        criteria,
 			        implementors[i],
 			        getLoadQueryInfluencers()
@@ -582,7 +580,7 @@ public class StatelessSessionImpl extends AbstractSessionImpl
 		boolean success = false;
 		try {
 			for( int i=0; i<size; i++ ) {
-				final List currentResults = loaders[i].list(this);
+				final List currentResults = loaders[i].list(this, criteria);
 				currentResults.addAll(results);
 				results = currentResults;
 			}
@@ -27,6 +27,8 @@ package org.hibernate.intercept;
 import org.hibernate.engine.SessionImplementor;
 import org.hibernate.LazyInitializationException;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 import java.io.Serializable;
 
@@ -41,6 +43,9 @@ public abstract class AbstractFieldInterceptor implements FieldInterceptor, Seri
 
 	private transient boolean initializing;
 	private boolean dirty;
+	// the names of the fields written since the entity was last clean;
+	// null while dirty means the entity was forcefully marked dirty
+	private Set dirtyFields;
 
 	protected AbstractFieldInterceptor(SessionImplementor session, Set uninitializedFields, String entityName) {
 		this.session = session;
@@ -65,6 +70,7 @@ public abstract class AbstractFieldInterceptor implements FieldInterceptor, Seri
 
 	public final void dirty() {
 		dirty = true;
+		dirtyFields = null;
 	}
 
 	public final boolean isDirty() {
@@ -73,11 +79,39 @@ public abstract class AbstractFieldInterceptor implements FieldInterceptor, Seri
 
 	public final void clearDirty() {
 		dirty = false;
+		dirtyFields = null;
+	}
+
+	/**
+	 * The names of the fields written since the entity was last known to be
+	 * in sync with the database.
+	 *
+	 * @return The written field names (empty if the entity is not dirty), or
+	 * null if the entity was forcefully marked dirty and every field must be
+	 * checked.
+	 */
+	public final Set getDirtyFields() {
+		return dirty ? dirtyFields : Collections.EMPTY_SET;
 	}
 
 
 	// subclass accesses ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 
+	/**
+	 * Mark the entity as dirty because of a write to the given field.
+	 *
+	 * @param fieldName The name of the field being written
+	 */
+	protected final void dirty(String fieldName) {
+		if ( !dirty ) {
+			dirty = true;
+			dirtyFields = new HashSet();
+		}
+		if ( dirtyFields != null ) {
+			dirtyFields.add( fieldName );
+		}
+	}
+
 	protected final Object intercept(Object target, String fieldName, Object value) {
 		if ( initializing ) {
 			return value;
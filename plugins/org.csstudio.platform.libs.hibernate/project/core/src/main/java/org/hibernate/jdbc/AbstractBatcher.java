@@ -30,7 +30,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.ConcurrentModificationException;
 
 import org.slf4j.Logger;
@@ -41,6 +43,8 @@ import org.hibernate.HibernateException;
 import org.hibernate.Interceptor;
 import org.hibernate.ScrollMode;
 import org.hibernate.TransactionException;
+import org.hibernate.connection.ConnectionProvider;
+import org.hibernate.connection.StatementCachingConnectionProvider;
 import org.hibernate.dialect.Dialect;
 import org.hibernate.engine.SessionFactoryImplementor;
 import org.hibernate.exception.JDBCExceptionHelper;
@@ -78,6 +82,9 @@ public abstract class AbstractBatcher implements Batcher {
 	private long transactionTimeout = -1;
 	boolean isTransactionTimeoutSet;
 
+	// statements taken from a statement cache and not returned yet, mapped to their cache
+	private final Map cachedStatements = new IdentityHashMap();
+
 	public AbstractBatcher(ConnectionManager connectionManager, Interceptor interceptor) {
 		this.connectionManager = connectionManager;
 		this.interceptor = interceptor;
@@ -321,7 +328,7 @@ public abstract class AbstractBatcher implements Batcher {
 
 			try {
 				if ( batchUpdate != null ) {
-					batchUpdate.close();
+					releaseStatement( batchUpdate );
 				}
 			}
 			catch ( SQLException sqle ) {
@@ -517,7 +524,7 @@ public abstract class AbstractBatcher implements Batcher {
 				result = conn.prepareCall( sql, scrollMode.toResultSetType(), ResultSet.CONCUR_READ_ONLY );
 			}
 			else {
-				result = conn.prepareStatement( sql, scrollMode.toResultSetType(), ResultSet.CONCUR_READ_ONLY );
+				result = prepareCacheableStatement( conn, sql, scrollMode.toResultSetType() );
 			}
 		}
 		else if ( useGetGeneratedKeys ) {
@@ -531,7 +538,7 @@ public abstract class AbstractBatcher implements Batcher {
 				result = conn.prepareCall( sql );
 			}
 			else {
-				result = conn.prepareStatement( sql );
+				result = prepareCacheableStatement( conn, sql, ResultSet.TYPE_FORWARD_ONLY );
 			}
 		}
 
@@ -545,6 +552,79 @@ public abstract class AbstractBatcher implements Batcher {
 
 	}
 
+	/**
+	 * Prepare a plain (read-only, non-callable) statement, reusing one from the
+	 * {@link PreparedStatementCache} the connection provider keeps for the connection, if any.
+	 */
+	private PreparedStatement prepareCacheableStatement(
+			final Connection conn,
+	        final String sql,
+	        final int resultSetType) throws SQLException {
+		final PreparedStatementCache statementCache = getStatementCache( conn );
+		if ( statementCache == null ) {
+			return resultSetType == ResultSet.TYPE_FORWARD_ONLY
+					? conn.prepareStatement( sql )
+					: conn.prepareStatement( sql, resultSetType, ResultSet.CONCUR_READ_ONLY );
+		}
+
+		PreparedStatement result = statementCache.checkOut( sql, resultSetType, ResultSet.CONCUR_READ_ONLY );
+		if ( result != null ) {
+			cachedStatements.put( result, statementCache );
+			log.trace( "reusing cached prepared statement" );
+			if ( factory.getStatistics().isStatisticsEnabled() ) {
+				factory.getStatisticsImplementor().preparedStatementCacheHit();
+			}
+			return result;
+		}
+
+		if ( factory.getStatistics().isStatisticsEnabled() ) {
+			factory.getStatisticsImplementor().preparedStatementCacheMiss();
+		}
+		result = resultSetType == ResultSet.TYPE_FORWARD_ONLY
+				? conn.prepareStatement( sql )
+				: conn.prepareStatement( sql, resultSetType, ResultSet.CONCUR_READ_ONLY );
+		statementCache.register( result, sql, resultSetType, ResultSet.CONCUR_READ_ONLY );
+		cachedStatements.put( result, statementCache );
+		return result;
+	}
+
+	private PreparedStatementCache getStatementCache(Connection conn) {
+		if ( factory.getSettings().getJdbcStatementCacheSize() <= 0 ) {
+			return null;
+		}
+		// connections supplied by the application are unknown to the provider, and have no cache
+		final ConnectionProvider provider = factory.getConnectionProvider();
+		return provider instanceof StatementCachingConnectionProvider
+				? ( (StatementCachingConnectionProvider) provider ).getStatementCache( conn )
+				: null;
+	}
+
+	/**
+	 * Return a statement to the statement cache it came from, or close it.
+	 */
+	private void releaseStatement(PreparedStatement ps) throws SQLException {
+		final PreparedStatementCache statementCache = (PreparedStatementCache) cachedStatements.remove( ps );
+		if ( statementCache == null || !statementCache.checkIn( ps ) ) {
+			ps.close();
+		}
+	}
+
+	/**
+	 * Forget about cached statements which were never closed, before their connection goes
+	 * back to the provider.
+	 */
+	private void discardCachedStatements() {
+		if ( cachedStatements.isEmpty() ) {
+			return;
+		}
+		Iterator iter = cachedStatements.entrySet().iterator();
+		while ( iter.hasNext() ) {
+			Map.Entry entry = (Map.Entry) iter.next();
+			( (PreparedStatementCache) entry.getValue() ).discard( (PreparedStatement) entry.getKey() );
+		}
+		cachedStatements.clear();
+	}
+
 	private void setTimeout(PreparedStatement result) throws SQLException {
 		if ( isTransactionTimeoutSet ) {
 			int timeout = (int) ( transactionTimeout - ( System.currentTimeMillis() / 1000 ) );
@@ -560,7 +640,7 @@ public abstract class AbstractBatcher implements Batcher {
 	private void closePreparedStatement(PreparedStatement ps) throws SQLException {
 		try {
 			log.trace("closing statement");
-			ps.close();
+			releaseStatement( ps );
 			if ( factory.getStatistics().isStatisticsEnabled() ) {
 				factory.getStatisticsImplementor().closeStatement();
 			}
@@ -606,6 +686,7 @@ public abstract class AbstractBatcher implements Batcher {
 			log.debug( "closing JDBC connection" + preparedStatementCountsToString() + resultSetCountsToString() );
 		}
 
+		discardCachedStatements();
 		try {
 			if ( !conn.isClosed() ) {
 				JDBCExceptionReporter.logAndClearWarnings( conn );
@@ -0,0 +1,258 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An LRU cache of open <tt>PreparedStatement</tt>s belonging to a single physical JDBC
+ * connection, enabled by <tt>hibernate.jdbc.statement_cache_size</tt>.
+ * <p/>
+ * Statements are keyed by their SQL, result set type and result set concurrency.  A cached
+ * statement is removed from the cache while it is {@link #checkOut checked out}, so it is never
+ * shared; on {@link #checkIn check in} its parameters, batch, warnings and the limits Hibernate
+ * sets on statements (max rows, query timeout, fetch size) are reset before it is made
+ * available again.  Statements which cannot be reset, and statements evicted as least recently
+ * used, are closed.
+ * <p/>
+ * The caches belong to the {@link org.hibernate.connection.StatementCachingConnectionProvider}
+ * which opened their connections: they outlive the session which filled them, so that
+ * statements are reused across sessions using pooled connections, and are {@link #clear cleared}
+ * by the provider when it physically closes the connection.
+ */
+public final class PreparedStatementCache {
+	private static final Logger log = LoggerFactory.getLogger( PreparedStatementCache.class );
+
+	private final int maxSize;
+	private final LinkedHashMap statements;
+	private final Map checkedOut = new IdentityHashMap();
+
+	/**
+	 * Constructs a statement cache for a single physical connection.
+	 *
+	 * @param maxSize The maximum number of statements to cache
+	 */
+	public PreparedStatementCache(final int maxSize) {
+		this.maxSize = maxSize;
+		this.statements = new LinkedHashMap( 16, 0.75f, true ) {
+			protected boolean removeEldestEntry(Map.Entry eldest) {
+				if ( size() > PreparedStatementCache.this.maxSize ) {
+					closeQuietly( ( (CachedStatement) eldest.getValue() ).statement );
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Take a statement for the given SQL out of the cache.
+	 *
+	 * @param sql The SQL
+	 * @param resultSetType The result set type
+	 * @param resultSetConcurrency The result set concurrency
+	 *
+	 * @return The cached statement, or null if none is available
+	 */
+	public synchronized PreparedStatement checkOut(String sql, int resultSetType, int resultSetConcurrency) {
+		CachedStatement cached = (CachedStatement) statements.remove( new StatementKey( sql, resultSetType, resultSetConcurrency ) );
+		if ( cached == null ) {
+			return null;
+		}
+		checkedOut.put( cached.statement, cached );
+		return cached.statement;
+	}
+
+	/**
+	 * Register a newly prepared statement as belonging to this cache; it is cached when it is
+	 * {@link #checkIn checked in}.
+	 *
+	 * @param statement The statement
+	 * @param sql The SQL
+	 * @param resultSetType The result set type
+	 * @param resultSetConcurrency The result set concurrency
+	 */
+	public synchronized void register(PreparedStatement statement, String sql, int resultSetType, int resultSetConcurrency) {
+		int defaultFetchSize;
+		try {
+			defaultFetchSize = statement.getFetchSize();
+		}
+		catch ( SQLException e ) {
+			log.debug( "could not determine default fetch size, statement will not be cached", e );
+			return;
+		}
+		StatementKey key = new StatementKey( sql, resultSetType, resultSetConcurrency );
+		checkedOut.put( statement, new CachedStatement( key, statement, defaultFetchSize ) );
+	}
+
+	/**
+	 * Return a statement to the cache.
+	 *
+	 * @param statement The statement
+	 *
+	 * @return false if the statement does not belong to this cache, and should be closed by the caller
+	 */
+	public boolean checkIn(PreparedStatement statement) {
+		CachedStatement cached;
+		synchronized ( this ) {
+			cached = (CachedStatement) checkedOut.remove( statement );
+		}
+		if ( cached == null ) {
+			return false;
+		}
+		if ( !reset( cached ) ) {
+			closeQuietly( statement );
+			return true;
+		}
+		synchronized ( this ) {
+			if ( statements.containsKey( cached.key ) ) {
+				// the same statement was checked out twice concurrently; keep the cached one
+				closeQuietly( statement );
+			}
+			else {
+				statements.put( cached.key, cached );
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Forget about a checked out statement which will not be checked in, and close it.
+	 *
+	 * @param statement The statement
+	 */
+	public void discard(PreparedStatement statement) {
+		synchronized ( this ) {
+			checkedOut.remove( statement );
+		}
+		closeQuietly( statement );
+	}
+
+	/**
+	 * Close all cached statements; to be called before physically closing the connection.
+	 */
+	public synchronized void clear() {
+		Iterator iter = statements.values().iterator();
+		while ( iter.hasNext() ) {
+			closeQuietly( ( (CachedStatement) iter.next() ).statement );
+		}
+		statements.clear();
+		checkedOut.clear();
+	}
+
+	/**
+	 * @return The number of statements currently cached (excluding checked out ones)
+	 */
+	public synchronized int size() {
+		return statements.size();
+	}
+
+	private boolean reset(CachedStatement cached) {
+		PreparedStatement statement = cached.statement;
+		try {
+			statement.clearParameters();
+			statement.clearWarnings();
+			if ( statement.getMaxRows() != 0 ) {
+				statement.setMaxRows( 0 );
+			}
+			if ( statement.getQueryTimeout() != 0 ) {
+				statement.setQueryTimeout( 0 );
+			}
+			if ( statement.getFetchSize() != cached.defaultFetchSize ) {
+				statement.setFetchSize( cached.defaultFetchSize );
+			}
+			if ( cached.key.resultSetType == ResultSet.TYPE_FORWARD_ONLY ) {
+				// batches are only ever added to forward-only statements
+				statement.clearBatch();
+			}
+			return true;
+		}
+		catch ( SQLException e ) {
+			log.debug( "could not reset prepared statement, closing it", e );
+			return false;
+		}
+	}
+
+	private static void closeQuietly(PreparedStatement statement) {
+		try {
+			statement.close();
+		}
+		catch ( SQLException e ) {
+			log.debug( "could not close cached prepared statement", e );
+		}
+	}
+
+	private static final class CachedStatement {
+		private final StatementKey key;
+		private final PreparedStatement statement;
+		private final int defaultFetchSize;
+
+		private CachedStatement(StatementKey key, PreparedStatement statement, int defaultFetchSize) {
+			this.key = key;
+			this.statement = statement;
+			this.defaultFetchSize = defaultFetchSize;
+		}
+	}
+
+	private static final class StatementKey {
+		private final String sql;
+		private final int resultSetType;
+		private final int resultSetConcurrency;
+		private final int hashCode;
+
+		private StatementKey(String sql, int resultSetType, int resultSetConcurrency) {
+			this.sql = sql;
+			this.resultSetType = resultSetType;
+			this.resultSetConcurrency = resultSetConcurrency;
+			this.hashCode = ( sql.hashCode() * 31 + resultSetType ) * 31 + resultSetConcurrency;
+		}
+
+		public boolean equals(Object other) {
+			if ( this == other ) {
+				return true;
+			}
+			if ( !( other instanceof StatementKey ) ) {
+				return false;
+			}
+			StatementKey that = (StatementKey) other;
+			return hashCode == that.hashCode
+					&& resultSetType == that.resultSetType
+					&& resultSetConcurrency == that.resultSetConcurrency
+					&& sql.equals( that.sql );
+		}
+
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -43,8 +43,10 @@ import org.hibernate.AssertionFailure;
 import org.hibernate.HibernateException;
 import org.hibernate.LockMode;
 import org.hibernate.QueryException;
+import org.hibernate.ResultHandler;
 import org.hibernate.ScrollMode;
 import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.hibernate.StaleObjectStateException;
 import org.hibernate.WrongClassException;
 import org.hibernate.LockOptions;
@@ -521,7 +523,8 @@ public abstract class Loader {
 							getEntityPersisters()[0],
 							null,
 							resultSet,
-							session
+							session,
+							lastKey
 						);
 
 					if ( firstPass ) {
@@ -544,7 +547,8 @@ public abstract class Loader {
 						getEntityPersisters()[0],
 						null,
 						resultSet,
-						session
+						session,
+						keyToRead
 					);
 
 				if ( !keyToRead.equals( checkKey ) ) {
@@ -601,6 +605,7 @@ public abstract class Loader {
 		final int entitySpan = persisters.length;
 
 		for ( int i = 0; i < entitySpan; i++ ) {
+			// keys holds the keys of the previous row, unless it is a new array
 			keys[i] = getKeyFromResultSet(
 			        i,
 					persisters[i],
@@ -608,7 +613,8 @@ public abstract class Loader {
 							queryParameters.getOptionalId() :
 							null,
 					resultSet,
-					session
+					session,
+					keys[i]
 				);
 			//TODO: the i==entitySpan-1 bit depends upon subclass implementation (very bad)
 		}
@@ -706,6 +712,11 @@ public abstract class Loader {
 			final QueryParameters queryParameters,
 			final boolean returnProxies) throws SQLException, HibernateException {
 
+		if ( queryParameters.getResultHandler() != null ) {
+			streamQuery( session, queryParameters, returnProxies );
+			return new ArrayList();
+		}
+
 		final RowSelection selection = queryParameters.getRowSelection();
 		final int maxRows = hasMaxRows( selection ) ?
 				selection.getMaxRows().intValue() :
@@ -778,6 +789,120 @@ public abstract class Loader {
 
 	}
 
+	/**
+	 * Process the result set in chunks of {@link QueryParameters#getHydrationChunkSize()}
+	 * rows: each chunk is hydrated, initialized (two-phase load) and handed over to the
+	 * {@link QueryParameters#getResultHandler() result handler} before the next chunk is
+	 * read, so that the hydrated state of at most one chunk is held at any time.
+	 */
+	private void streamQuery(
+			final SessionImplementor session,
+			final QueryParameters queryParameters,
+			final boolean returnProxies) throws SQLException, HibernateException {
+
+		final CollectionPersister[] collectionPersisters = getCollectionPersisters();
+		if ( collectionPersisters != null && collectionPersisters.length > 0 ) {
+			// a collection may span several chunks, and must be completely
+			// read before it is initialized
+			throw new QueryException( "cannot stream the results of a query fetching collections" );
+		}
+
+		final RowSelection selection = queryParameters.getRowSelection();
+		final int maxRows = hasMaxRows( selection ) ?
+				selection.getMaxRows().intValue() :
+				Integer.MAX_VALUE;
+		final int chunkSize = queryParameters.getHydrationChunkSize();
+		final ResultHandler handler = queryParameters.getResultHandler();
+		final boolean evict = queryParameters.isEvictHydratedChunks() && session instanceof Session;
+		final PersistenceContext persistenceContext = session.getPersistenceContext();
+
+		final int entitySpan = getEntityPersisters().length;
+
+		final ArrayList hydratedObjects = entitySpan == 0 ? null : new ArrayList( entitySpan * chunkSize );
+		final PreparedStatement st = prepareQueryStatement( queryParameters, false, session );
+		final ResultSet rs = getResultSet( st, queryParameters.hasAutoDiscoverScalarTypes(), queryParameters.isCallable(), selection, session );
+
+		final EntityKey optionalObjectKey = getOptionalObjectKey( queryParameters, session );
+		final LockMode[] lockModesArray = getLockModes( queryParameters.getLockOptions() );
+		final boolean createSubselects = isSubselectLoadingEnabled();
+		final List subselectResultKeys = createSubselects ? new ArrayList() : null;
+		final List results = new ArrayList( chunkSize );
+
+		try {
+
+			EntityKey[] keys = new EntityKey[entitySpan]; //we can reuse it for each row
+
+			if ( log.isTraceEnabled() ) log.trace( "streaming result set in chunks of " + chunkSize + " rows" );
+
+			int count = 0;
+			boolean more = true;
+			while ( more ) {
+				for ( ; results.size() < chunkSize && count < maxRows && ( more = rs.next() ); count++ ) {
+					Object result = getRowFromResultSet(
+							rs,
+							session,
+							queryParameters,
+							lockModesArray,
+							optionalObjectKey,
+							hydratedObjects,
+							keys,
+							returnProxies
+					);
+					results.add( result );
+
+					if ( createSubselects ) {
+						subselectResultKeys.add(keys);
+						keys = new EntityKey[entitySpan]; //can't reuse in this case
+					}
+				}
+				if ( count >= maxRows ) {
+					more = false;
+				}
+				if ( results.isEmpty() ) {
+					break;
+				}
+
+				initializeEntitiesAndCollections( hydratedObjects, rs, session, queryParameters.isReadOnly( session ) );
+				if ( createSubselects ) {
+					createSubselects( subselectResultKeys, queryParameters, session );
+					subselectResultKeys.clear();
+				}
+				// the collections of the chunk may not outlive its entities
+				persistenceContext.afterLoad();
+				try {
+					persistenceContext.initializeNonLazyCollections();
+				}
+				finally {
+					persistenceContext.beforeLoad();
+				}
+
+				List chunk = getResultList( results, queryParameters.getResultTransformer() );
+				for ( int i = 0; i < chunk.size(); i++ ) {
+					handler.handleResult( chunk.get( i ) );
+				}
+				results.clear();
+
+				if ( hydratedObjects != null ) {
+					if ( evict ) {
+						for ( int i = 0; i < hydratedObjects.size(); i++ ) {
+							( ( Session ) session ).evict( hydratedObjects.get( i ) );
+						}
+					}
+					hydratedObjects.clear();
+				}
+			}
+
+			if ( log.isTraceEnabled() ) {
+				log.trace( "done streaming result set (" + count + " rows)" );
+			}
+
+		}
+		finally {
+			session.getBatcher().closeQueryStatement( st, rs );
+		}
+
+	}
+
 	protected boolean isSubselectLoadingEnabled() {
 		return false;
 	}
@@ -1146,6 +1271,21 @@ public abstract class Loader {
 	        final Serializable id,
 	        final ResultSet rs,
 	        final SessionImplementor session) throws HibernateException, SQLException {
+		return getKeyFromResultSet( i, persister, id, rs, session, null );
+	}
+
+	/**
+	 * Read a row of <tt>Key</tt>s from the <tt>ResultSet</tt>, reusing the given
+	 * key of the same persister if it has the same identifier, so that the rows of
+	 * an entity repeated by a join allocate no new key.
+	 */
+	private EntityKey getKeyFromResultSet(
+	        final int i,
+	        final Loadable persister,
+	        final Serializable id,
+	        final ResultSet rs,
+	        final SessionImplementor session,
+	        final EntityKey previousKey) throws HibernateException, SQLException {
 
 		Serializable resultId;
 
@@ -1173,9 +1313,14 @@ public abstract class Loader {
 			if ( idIsResultId ) resultId = id; //use the id passed in
 		}
 
-		return resultId == null ?
-				null :
-				new EntityKey( resultId, persister, session.getEntityMode() );
+		if ( resultId == null ) {
+			return null;
+		}
+		if ( previousKey != null && persister.getIdentifierType().isEqual(
+				previousKey.getIdentifier(), resultId, session.getEntityMode(), factory ) ) {
+			return previousKey;
+		}
+		return new EntityKey( resultId, persister, session.getEntityMode() );
 	}
 
 	/**
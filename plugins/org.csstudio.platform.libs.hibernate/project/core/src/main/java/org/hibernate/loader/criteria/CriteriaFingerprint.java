@@ -0,0 +1,282 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.loader.criteria;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.hibernate.Criteria;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Example;
+import org.hibernate.criterion.MatchMode;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projection;
+import org.hibernate.criterion.SubqueryExpression;
+import org.hibernate.engine.LoadQueryInfluencers;
+import org.hibernate.engine.TypedValue;
+import org.hibernate.impl.CriteriaImpl;
+import org.hibernate.type.Type;
+
+/**
+ * The structural fingerprint of a {@link CriteriaImpl criteria query}: two
+ * criteria with equal fingerprints translate to the same SQL and may therefore
+ * share one {@link CriteriaLoader}, even though the values they bind differ.
+ * <p/>
+ * The fingerprint covers the queried entity, the tree of subcriteria (paths,
+ * aliases, join types and with-clauses), the shape of the restrictions,
+ * orderings and projection, the fetch and lock modes, and the enabled filters
+ * and fetch profiles.  It is built by inspecting the state of the criterion,
+ * projection and order instances, leaving out the fields which only hold
+ * values to bind (the number of values is kept, as it decides the number of
+ * parameter placeholders).  Only the implementations of
+ * <tt>org.hibernate.criterion</tt> are understood; criteria using any other
+ * implementation, a query by {@link Example} or a subquery have no
+ * fingerprint and are always translated afresh.
+ */
+public final class CriteriaFingerprint implements Serializable {
+	private static final String CRITERION_PACKAGE = "org.hibernate.criterion.";
+	private static final int MAX_DEPTH = 32;
+	private static final Map FIELDS_BY_CLASS = new HashMap();
+
+	private final String shape;
+	private final int hashCode;
+
+	private CriteriaFingerprint(String shape) {
+		this.shape = shape;
+		this.hashCode = shape.hashCode();
+	}
+
+	/**
+	 * Compute the fingerprint of a criteria query.
+	 *
+	 * @param criteria The criteria query
+	 * @param entityName The name of the entity (implementor) to be queried
+	 * @param loadQueryInfluencers The filters and fetch profiles in effect
+	 * @return The fingerprint, or null if the criteria structure is not understood
+	 */
+	public static CriteriaFingerprint create(
+			CriteriaImpl criteria,
+			String entityName,
+			LoadQueryInfluencers loadQueryInfluencers) {
+		StringBuilder buf = new StringBuilder( 256 );
+		buf.append( entityName ).append( ':' ).append( criteria.getAlias() );
+
+		Map criteriaIndexes = new IdentityHashMap();
+		criteriaIndexes.put( criteria, new Integer( 0 ) );
+		Iterator itr = criteria.iterateSubcriteria();
+		while ( itr.hasNext() ) {
+			CriteriaImpl.Subcriteria subcriteria = ( CriteriaImpl.Subcriteria ) itr.next();
+			criteriaIndexes.put( subcriteria, new Integer( criteriaIndexes.size() ) );
+			buf.append( ";join:" ).append( criteriaIndexes.get( subcriteria.getParent() ) )
+					.append( '.' ).append( subcriteria.getPath() )
+					.append( ' ' ).append( subcriteria.getAlias() )
+					.append( ' ' ).append( subcriteria.getJoinType() )
+					.append( ' ' ).append( subcriteria.getLockMode() );
+			if ( subcriteria.getWithClause() != null ) {
+				buf.append( " with " );
+				if ( !appendShape( buf, subcriteria.getWithClause(), 0 ) ) {
+					return null;
+				}
+			}
+		}
+
+		itr = criteria.iterateExpressionEntries();
+		while ( itr.hasNext() ) {
+			CriteriaImpl.CriterionEntry entry = ( CriteriaImpl.CriterionEntry ) itr.next();
+			buf.append( ";where:" ).append( indexOf( criteriaIndexes, entry.getCriteria() ) ).append( ' ' );
+			if ( !appendShape( buf, entry.getCriterion(), 0 ) ) {
+				return null;
+			}
+		}
+
+		itr = criteria.iterateOrderings();
+		while ( itr.hasNext() ) {
+			CriteriaImpl.OrderEntry entry = ( CriteriaImpl.OrderEntry ) itr.next();
+			buf.append( ";order:" ).append( indexOf( criteriaIndexes, entry.getCriteria() ) ).append( ' ' );
+			if ( !appendShape( buf, entry.getOrder(), 0 ) ) {
+				return null;
+			}
+		}
+
+		if ( criteria.getProjection() != null ) {
+			buf.append( ";select:" ).append( indexOf( criteriaIndexes, criteria.getProjectionCriteria() ) ).append( ' ' );
+			if ( !appendShape( buf, criteria.getProjection(), 0 ) ) {
+				return null;
+			}
+		}
+
+		buf.append( ";fetch:" ).append( new TreeMap( criteria.getFetchModes() ) );
+		buf.append( ";lock:" ).append( new TreeMap( criteria.getLockModes() ) );
+		if ( loadQueryInfluencers.hasEnabledFilters() ) {
+			buf.append( ";filters:" ).append( new TreeSet( loadQueryInfluencers.getEnabledFilters().keySet() ) );
+		}
+		if ( loadQueryInfluencers.hasEnabledFetchProfiles() ) {
+			buf.append( ";profiles:" ).append( new TreeSet( loadQueryInfluencers.getEnabledFetchProfileNames() ) );
+		}
+		if ( loadQueryInfluencers.getInternalFetchProfile() != null ) {
+			buf.append( ";internal:" ).append( loadQueryInfluencers.getInternalFetchProfile() );
+		}
+		return new CriteriaFingerprint( buf.toString() );
+	}
+
+	private static Object indexOf(Map criteriaIndexes, Criteria criteria) {
+		Object index = criteriaIndexes.get( criteria );
+		return index == null ? "?" : index;
+	}
+
+	private static boolean appendShape(StringBuilder buf, Object node, int depth) {
+		if ( node == null ) {
+			buf.append( "null" );
+			return true;
+		}
+		Class clazz = node.getClass();
+		if ( depth > MAX_DEPTH
+				|| !clazz.getName().startsWith( CRITERION_PACKAGE )
+				|| node instanceof Example
+				|| node instanceof SubqueryExpression ) {
+			return false;
+		}
+		buf.append( clazz.getName().substring( CRITERION_PACKAGE.length() ) ).append( '(' );
+		Field[] fields = getFields( clazz );
+		try {
+			for ( int i = 0; i < fields.length; i++ ) {
+				if ( i > 0 ) {
+					buf.append( ',' );
+				}
+				if ( !appendField( buf, fields[i].getType(), fields[i].get( node ), depth ) ) {
+					return false;
+				}
+			}
+		}
+		catch ( IllegalAccessException e ) {
+			return false;
+		}
+		buf.append( ')' );
+		return true;
+	}
+
+	private static boolean appendField(StringBuilder buf, Class type, Object value, int depth) {
+		if ( type == Object.class ) {
+			// a value to bind
+			buf.append( '?' );
+		}
+		else if ( type == Object[].class ) {
+			// values to bind; their number decides the number of placeholders
+			buf.append( "?[" ).append( value == null ? -1 : ( ( Object[] ) value ).length ).append( ']' );
+		}
+		else if ( type == TypedValue[].class ) {
+			TypedValue[] typedValues = ( TypedValue[] ) value;
+			buf.append( "?[" );
+			for ( int i = 0; typedValues != null && i < typedValues.length; i++ ) {
+				buf.append( typedValues[i].getType().getName() ).append( ' ' );
+			}
+			buf.append( ']' );
+		}
+		else if ( type.isPrimitive() || type == String.class || type == Character.class
+				|| type == Boolean.class || type == MatchMode.class ) {
+			buf.append( value );
+		}
+		else if ( type == String[].class ) {
+			String[] strings = ( String[] ) value;
+			buf.append( '[' );
+			for ( int i = 0; strings != null && i < strings.length; i++ ) {
+				buf.append( strings[i] ).append( ' ' );
+			}
+			buf.append( ']' );
+		}
+		else if ( type == Type[].class ) {
+			Type[] types = ( Type[] ) value;
+			buf.append( '[' );
+			for ( int i = 0; types != null && i < types.length; i++ ) {
+				buf.append( types[i].getName() ).append( ' ' );
+			}
+			buf.append( ']' );
+		}
+		else if ( Criterion.class.isAssignableFrom( type )
+				|| Projection.class.isAssignableFrom( type )
+				|| Order.class.isAssignableFrom( type ) ) {
+			return appendShape( buf, value, depth + 1 );
+		}
+		else if ( List.class.isAssignableFrom( type ) ) {
+			buf.append( '[' );
+			if ( value != null ) {
+				Iterator itr = ( ( List ) value ).iterator();
+				while ( itr.hasNext() ) {
+					if ( !appendShape( buf, itr.next(), depth + 1 ) ) {
+						return false;
+					}
+					buf.append( ' ' );
+				}
+			}
+			buf.append( ']' );
+		}
+		else {
+			return false;
+		}
+		return true;
+	}
+
+	private static Field[] getFields(Class clazz) {
+		synchronized ( FIELDS_BY_CLASS ) {
+			Field[] fields = ( Field[] ) FIELDS_BY_CLASS.get( clazz );
+			if ( fields == null ) {
+				List list = new ArrayList();
+				for ( Class current = clazz; current != Object.class; current = current.getSuperclass() ) {
+					Field[] declared = current.getDeclaredFields();
+					for ( int i = 0; i < declared.length; i++ ) {
+						if ( !Modifier.isStatic( declared[i].getModifiers() ) ) {
+							declared[i].setAccessible( true );
+							list.add( declared[i] );
+						}
+					}
+				}
+				fields = ( Field[] ) list.toArray( new Field[list.size()] );
+				FIELDS_BY_CLASS.put( clazz, fields );
+			}
+			return fields;
+		}
+	}
+
+	public boolean equals(Object other) {
+		return this == other
+				|| ( other instanceof CriteriaFingerprint && shape.equals( ( ( CriteriaFingerprint ) other ).shape ) );
+	}
+
+	public int hashCode() {
+		return hashCode;
+	}
+
+	public String toString() {
+		return "CriteriaFingerprint(" + shape + ')';
+	}
+}
@@ -62,15 +62,19 @@ public class CriteriaLoader extends OuterJoinLoader {
 	//      in the impl package ... add a CriteriaImplementor 
 	//      interface
 
-	//NOTE: unlike all other Loaders, this one is NOT
-	//      multithreaded, or cacheable!!
+	//NOTE: this loader holds no reference to the criteria it was built
+	//      for, so that it may be cached and used to execute any criteria
+	//      with the same CriteriaFingerprint
 
-	private final CriteriaQueryTranslator translator;
 	private final Set querySpaces;
 	private final Type[] resultTypes;
 	//the user visible aliases, which are unknown to the superclass,
 	//these are not the actual "physical" SQL aliases
 	private final String[] userAliases;
+	private final String rootEntityName;
+	private final Type[] projectedTypes;
+	private final String[] projectedColumnAliases;
+	private final String[] projectedAliases;
 
 	public CriteriaLoader(
 			final OuterJoinLoadable persister, 
@@ -80,7 +84,7 @@ public class CriteriaLoader extends OuterJoinLoader {
 			final LoadQueryInfluencers loadQueryInfluencers) throws HibernateException {
 		super( factory, loadQueryInfluencers );
 
-		translator = new CriteriaQueryTranslator(
+		CriteriaQueryTranslator translator = new CriteriaQueryTranslator(
 				factory, 
 				criteria, 
 				rootEntityName, 
@@ -102,26 +106,64 @@ public class CriteriaLoader extends OuterJoinLoader {
 		
 		userAliases = walker.getUserAliases();
 		resultTypes = walker.getResultTypes();
+		this.rootEntityName = rootEntityName;
+		if ( translator.hasProjection() ) {
+			projectedTypes = translator.getProjectedTypes();
+			projectedColumnAliases = translator.getProjectedColumnAliases();
+			projectedAliases = translator.getProjectedAliases();
+		}
+		else {
+			projectedTypes = null;
+			projectedColumnAliases = null;
+			projectedAliases = null;
+		}
 
 		postInstantiate();
 
 	}
 	
-	public ScrollableResults scroll(SessionImplementor session, ScrollMode scrollMode) 
+	/**
+	 * Execute the given criteria, which must have the same
+	 * {@link CriteriaFingerprint} as the criteria this loader was built for.
+	 *
+	 * @param session The session
+	 * @param criteria The criteria providing the values to bind and the row selection
+	 * @return The query results
+	 */
+	public List list(SessionImplementor session, CriteriaImpl criteria)
 	throws HibernateException {
-		QueryParameters qp = translator.getQueryParameters();
-		qp.setScrollMode(scrollMode);
-		return scroll(qp, resultTypes, null, session);
+		return list( session, getQueryParameters( criteria ), querySpaces, resultTypes );
 	}
 
-	public List list(SessionImplementor session) 
+	/**
+	 * Execute the given criteria, which must have the same
+	 * {@link CriteriaFingerprint} as the criteria this loader was built for.
+	 *
+	 * @param session The session
+	 * @param criteria The criteria providing the values to bind and the row selection
+	 * @param scrollMode The scroll mode
+	 * @return The scrollable query results
+	 */
+	public ScrollableResults scroll(SessionImplementor session, CriteriaImpl criteria, ScrollMode scrollMode)
 	throws HibernateException {
-		return list( session, translator.getQueryParameters(), querySpaces, resultTypes );
+		QueryParameters qp = getQueryParameters( criteria );
+		qp.setScrollMode( scrollMode );
+		return scroll( qp, resultTypes, null, session );
+	}
 
+	private QueryParameters getQueryParameters(CriteriaImpl criteria) {
+		// only the values and the row selection are needed, the SQL is already known
+		return new CriteriaQueryTranslator(
+				getFactory(),
+				criteria,
+				rootEntityName,
+				CriteriaQueryTranslator.ROOT_SQL_ALIAS
+			).getQueryParameters();
 	}
 
 	protected ResultTransformer resolveResultTransformer(ResultTransformer resultTransformer) {
-		return translator.getRootCriteria().getResultTransformer();
+		// the transformer of the criteria being executed, as carried by its QueryParameters
+		return resultTransformer;
 	}
 
 	protected boolean areResultSetRowsTransformedImmediately( ResultTransformer transformer ) {
@@ -134,10 +176,10 @@ public class CriteriaLoader extends OuterJoinLoader {
 	throws SQLException, HibernateException {
 		final Object[] result;
 		final String[] aliases;
-		if ( translator.hasProjection() ) {
-			Type[] types = translator.getProjectedTypes();
+		if ( projectedTypes != null ) {
+			Type[] types = projectedTypes;
 			result = new Object[types.length];
-			String[] columnAliases = translator.getProjectedColumnAliases();
+			String[] columnAliases = projectedColumnAliases;
 			for ( int i=0, pos=0; i<result.length; i++ ) {
 				int numColumns = types[i].getColumnSpan( session.getFactory() );
 				if ( numColumns > 1 ) {
@@ -149,7 +191,7 @@ public class CriteriaLoader extends OuterJoinLoader {
 				}
 				pos += numColumns;
 			}
-			aliases = translator.getProjectedAliases();
+			aliases = projectedAliases;
 		}
 		else {
 			result = row;
@@ -24,6 +24,8 @@
  */
 package org.hibernate.mapping;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 import org.hibernate.dialect.Dialect;
@@ -44,6 +46,15 @@ public class Formula implements Selectable, Serializable {
 		uniqueInteger = formulaUniqueInteger++;
 	}
 
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+		// as for tables, formulas created after reading a mapping snapshot must not
+		// reuse the unique integers of the formulas read
+		if ( formulaUniqueInteger <= uniqueInteger ) {
+			formulaUniqueInteger = uniqueInteger + 1;
+		}
+	}
+
 	public String getTemplate(Dialect dialect, SQLFunctionRegistry functionRegistry) {
 		return Template.renderWhereStringTemplate(formula, dialect, functionRegistry);
 	}
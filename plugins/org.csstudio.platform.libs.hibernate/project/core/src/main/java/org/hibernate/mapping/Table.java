@@ -24,6 +24,8 @@
  */
 package org.hibernate.mapping;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -109,6 +111,15 @@ public class Table implements RelationalModel, Serializable {
 		setName( name );
 	}
 
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+		// a table read back from a mapping snapshot keeps the unique integer it was
+		// given by the writing VM, which tables created from now on must not reuse
+		if ( tableCounter <= uniqueInteger ) {
+			tableCounter = uniqueInteger + 1;
+		}
+	}
+
 	public String getQualifiedName(Dialect dialect, String defaultCatalog, String defaultSchema) {
 		if ( subselect != null ) {
 			return "( " + subselect + " )";
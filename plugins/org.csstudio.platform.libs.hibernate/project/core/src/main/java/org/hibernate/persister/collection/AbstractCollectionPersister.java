@@ -1055,6 +1055,15 @@ public abstract class AbstractCollectionPersister
 		return isLazy;
 	}
 
+	/**
+	 * The number of collections of this role initialized at once.
+	 *
+	 * @return The batch size, a value of 1 meaning no batch fetching
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
 	public boolean isInverse() {
 		return isInverse;
 	}
@@ -36,6 +36,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.hibernate.AssertionFailure;
 import org.hibernate.EntityMode;
@@ -51,6 +52,7 @@ import org.hibernate.cache.CacheKey;
 import org.hibernate.cache.access.EntityRegionAccessStrategy;
 import org.hibernate.cache.entry.CacheEntry;
 import org.hibernate.cache.entry.CacheEntryStructure;
+import org.hibernate.cache.entry.BinaryCacheEntry;
 import org.hibernate.cache.entry.StructuredCacheEntry;
 import org.hibernate.cache.entry.UnstructuredCacheEntry;
 import org.hibernate.dialect.lock.LockingStrategy;
@@ -72,6 +74,7 @@ import org.hibernate.id.PostInsertIdentifierGenerator;
 import org.hibernate.id.PostInsertIdentityPersister;
 import org.hibernate.id.insert.Binder;
 import org.hibernate.id.insert.InsertGeneratedIdentifierDelegate;
+import org.hibernate.intercept.AbstractFieldInterceptor;
 import org.hibernate.intercept.FieldInterceptionHelper;
 import org.hibernate.intercept.FieldInterceptor;
 import org.hibernate.intercept.LazyPropertyInitializer;
@@ -108,6 +111,7 @@ import org.hibernate.type.AssociationType;
 import org.hibernate.type.EntityType;
 import org.hibernate.type.Type;
 import org.hibernate.type.TypeFactory;
+import org.hibernate.type.TypeHelper;
 import org.hibernate.type.VersionType;
 import org.hibernate.util.ArrayHelper;
 import org.hibernate.util.FilterHelper;
@@ -208,7 +212,11 @@ public abstract class AbstractEntityPersister
 
 	private final Map uniqueKeyLoaders = new HashMap();
 	private final Map lockers = new HashMap();
-	private final Map loaders = new HashMap();
+	// loaders are created on first use, keyed by LockMode or by the
+	// "merge"/"refresh" cascade names
+	private final Map loaders = new ConcurrentHashMap();
+	// loaders for lock modes combined with enabled filters/fetch profiles
+	private final Map influencedLoaders = new ConcurrentHashMap();
 
 	// SQL strings
 	private String sqlVersionSelectString;
@@ -468,9 +476,14 @@ public abstract class AbstractEntityPersister
 		this.factory = factory;
 		this.cacheAccessStrategy = cacheAccessStrategy;
 		isLazyPropertiesCacheable = persistentClass.isLazyPropertiesCacheable();
-		this.cacheEntryStructure = factory.getSettings().isStructuredCacheEntriesEnabled() ?
-				(CacheEntryStructure) new StructuredCacheEntry(this) :
-				(CacheEntryStructure) new UnstructuredCacheEntry();
+		if ( factory.getSettings().isBinaryCacheEntriesEnabled() ) {
+			this.cacheEntryStructure = new BinaryCacheEntry( this );
+		}
+		else {
+			this.cacheEntryStructure = factory.getSettings().isStructuredCacheEntriesEnabled() ?
+					(CacheEntryStructure) new StructuredCacheEntry(this) :
+					(CacheEntryStructure) new UnstructuredCacheEntry();
+		}
 
 		this.entityMetamodel = new EntityMetamodel( persistentClass, factory );
 		// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -948,6 +961,14 @@ public abstract class AbstractEntityPersister
 		return batchSize > 1;
 	}
 
+	/**
+	 * Is this entity read by a named query, given by a <tt>&lt;loader/&gt;</tt>
+	 * mapping, rather than by generated SQL?
+	 */
+	public boolean hasNamedQueryLoader() {
+		return loaderName != null;
+	}
+
 	public String[] getIdentifierColumnNames() {
 		return rootTableKeyColumnNames;
 	}
@@ -3179,63 +3200,101 @@ public abstract class AbstractEntityPersister
 	}
 
 	private void createLoaders() {
-		loaders.put( LockMode.NONE, createEntityLoader( LockMode.NONE ) );
+		// the remaining lock modes are only built when first needed
+		getLoader( LockMode.NONE );
+		getLoader( LockMode.READ );
+	}
+
+	/**
+	 * Get the loader for the given {@link LockMode}, or for one of the
+	 * <tt>"merge"</tt> and <tt>"refresh"</tt> cascade loaders, creating it
+	 * if it has not been used yet.
+	 */
+	private UniqueEntityLoader getLoader(Object key) {
+		UniqueEntityLoader loader = ( UniqueEntityLoader ) loaders.get( key );
+		if ( loader == null ) {
+			synchronized ( loaders ) {
+				loader = ( UniqueEntityLoader ) loaders.get( key );
+				if ( loader == null ) {
+					loader = buildLoader( key );
+					loaders.put( key, loader );
+				}
+			}
+		}
+		return loader;
+	}
 
-		UniqueEntityLoader readLoader = createEntityLoader( LockMode.READ );
-		loaders.put( LockMode.READ, readLoader );
+	private UniqueEntityLoader buildLoader(Object key) {
+		if ( "merge".equals( key ) ) {
+			return new CascadeEntityLoader( this, CascadingAction.MERGE, getFactory() );
+		}
+		else if ( "refresh".equals( key ) ) {
+			return new CascadeEntityLoader( this, CascadingAction.REFRESH, getFactory() );
+		}
+		else if ( !( key instanceof LockMode ) ) {
+			throw new HibernateException( "Unknown loader [" + key + "] for entity: " + getEntityName() );
+		}
 
+		final LockMode lockMode = ( LockMode ) key;
+		if ( LockMode.READ.lessThan( lockMode ) && isForUpdateDisabled() ) {
+			// pessimistic modes share the READ loader
+			return lockMode == LockMode.OPTIMISTIC || lockMode == LockMode.OPTIMISTIC_FORCE_INCREMENT ?
+					createEntityLoader( lockMode ) :
+					getLoader( LockMode.READ );
+		}
+		return createEntityLoader( lockMode );
+	}
+
+	private boolean isForUpdateDisabled() {
 		//TODO: inexact, what we really need to know is: are any outer joins used?
-		boolean disableForUpdate = getSubclassTableSpan() > 1 &&
+		return getSubclassTableSpan() > 1 &&
 				hasSubclasses() &&
 				!getFactory().getDialect().supportsOuterJoinForUpdate();
+	}
 
-		loaders.put(
-				LockMode.UPGRADE,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.UPGRADE )
-			);
-		loaders.put(
-				LockMode.UPGRADE_NOWAIT,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.UPGRADE_NOWAIT )
-			);
-		loaders.put(
-				LockMode.FORCE,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.FORCE )
-			);
-		loaders.put(
-				LockMode.PESSIMISTIC_READ,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.PESSIMISTIC_READ )
-			);
-		loaders.put(
-				LockMode.PESSIMISTIC_WRITE,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.PESSIMISTIC_WRITE )
-			);
-		loaders.put(
-				LockMode.PESSIMISTIC_FORCE_INCREMENT,
-				disableForUpdate ?
-						readLoader :
-						createEntityLoader( LockMode.PESSIMISTIC_FORCE_INCREMENT )
-			);
-		loaders.put( LockMode.OPTIMISTIC, createEntityLoader( LockMode.OPTIMISTIC) );
-		loaders.put( LockMode.OPTIMISTIC_FORCE_INCREMENT, createEntityLoader(LockMode.OPTIMISTIC_FORCE_INCREMENT) );
-	
-		loaders.put(
-				"merge",
-				new CascadeEntityLoader( this, CascadingAction.MERGE, getFactory() )
-			);
-		loaders.put(
-				"refresh",
-				new CascadeEntityLoader( this, CascadingAction.REFRESH, getFactory() )
-			);
+	/**
+	 * The number of loaders created so far for this entity, including those
+	 * built for enabled filters and fetch profiles.
+	 *
+	 * @return The loader count
+	 */
+	public int getLoaderCount() {
+		return loaders.size() + influencedLoaders.size();
+	}
+
+	/**
+	 * The names of the plain (uninfluenced) loaders created so far: the
+	 * {@link LockMode} names plus <tt>"merge"</tt> and <tt>"refresh"</tt>.
+	 *
+	 * @return The loader names
+	 */
+	public String[] getLoaderNames() {
+		String[] names = new String[ loaders.size() ];
+		Iterator keys = loaders.keySet().iterator();
+		int i = 0;
+		while ( keys.hasNext() && i < names.length ) {
+			names[i++] = keys.next().toString();
+		}
+		return i == names.length ? names : ArrayHelper.slice( names, 0, i );
+	}
+
+	/**
+	 * Create the loader with the given name ahead of its first use.
+	 *
+	 * @param loaderName A name as returned by {@link #getLoaderNames()}
+	 * @throws HibernateException If the name does not denote a loader
+	 */
+	public void prepareLoader(String loaderName) {
+		if ( "merge".equals( loaderName ) || "refresh".equals( loaderName ) ) {
+			getLoader( loaderName );
+		}
+		else {
+			final LockMode lockMode = LockMode.parse( loaderName );
+			if ( lockMode == null ) {
+				throw new HibernateException( "Unknown loader [" + loaderName + "] for entity: " + getEntityName() );
+			}
+			getLoader( lockMode );
+		}
 	}
 
 	protected void createQueryLoader() {
@@ -3298,24 +3357,79 @@ public abstract class AbstractEntityPersister
 		else if ( isAffectedByEnabledFilters( session ) ) {
 			// because filters affect the rows returned (because they add
 			// restirctions) these need to be next in precendence
-			return createEntityLoader(lockOptions, session.getLoadQueryInfluencers() );
+			return getInfluencedLoader( lockOptions, session.getLoadQueryInfluencers() );
 		}
 		else if ( session.getLoadQueryInfluencers().getInternalFetchProfile() != null && LockMode.UPGRADE.greaterThan( lockOptions.getLockMode() ) ) {
 			// Next, we consider whether an 'internal' fetch profile has been set.
 			// This indicates a special fetch profile Hibernate needs applied
 			// (for its merge loading process e.g.).
-			return ( UniqueEntityLoader ) loaders.get( session.getLoadQueryInfluencers().getInternalFetchProfile() );
+			return getLoader( session.getLoadQueryInfluencers().getInternalFetchProfile() );
 		}
 		else if ( isAffectedByEnabledFetchProfiles( session ) ) {
 			// If the session has associated influencers we need to adjust the
 			// SQL query used for loading based on those influencers
-			return createEntityLoader(lockOptions, session.getLoadQueryInfluencers() );
+			return getInfluencedLoader( lockOptions, session.getLoadQueryInfluencers() );
 		}
 		else if ( lockOptions.getTimeOut() != LockOptions.WAIT_FOREVER ) {
 			return createEntityLoader( lockOptions, session.getLoadQueryInfluencers() );
 		}
 		else {
-			return ( UniqueEntityLoader ) loaders.get( lockOptions.getLockMode() );
+			return getLoader( lockOptions.getLockMode() );
+		}
+	}
+
+	/**
+	 * Get a loader reflecting the enabled filters and fetch profiles.  Filter
+	 * parameter values are bound when the loader executes, so the SQL only
+	 * depends upon the lock mode and the names of what is enabled.
+	 */
+	private UniqueEntityLoader getInfluencedLoader(LockOptions lockOptions, LoadQueryInfluencers influencers) {
+		if ( lockOptions.getTimeOut() != LockOptions.WAIT_FOREVER
+				|| lockOptions.getAliasLockCount() > 0
+				|| lockOptions.getScope() ) {
+			return createEntityLoader( lockOptions, influencers );
+		}
+		final InfluencedLoaderKey key = new InfluencedLoaderKey( lockOptions.getLockMode(), influencers );
+		UniqueEntityLoader loader = ( UniqueEntityLoader ) influencedLoaders.get( key );
+		if ( loader == null ) {
+			loader = createEntityLoader( lockOptions, influencers );
+			if ( influencedLoaders.size() < MAX_INFLUENCED_LOADERS ) {
+				influencedLoaders.put( key, loader );
+			}
+		}
+		return loader;
+	}
+
+	private static final int MAX_INFLUENCED_LOADERS = 32;
+
+	private static final class InfluencedLoaderKey {
+		private final LockMode lockMode;
+		private final Set filterNames;
+		private final Set fetchProfileNames;
+		private final int hashCode;
+
+		private InfluencedLoaderKey(LockMode lockMode, LoadQueryInfluencers influencers) {
+			this.lockMode = lockMode;
+			this.filterNames = new HashSet( influencers.getEnabledFilterNames() );
+			this.fetchProfileNames = new HashSet( influencers.getEnabledFetchProfileNames() );
+			this.hashCode = 37 * ( 37 * lockMode.hashCode() + filterNames.hashCode() ) + fetchProfileNames.hashCode();
+		}
+
+		public boolean equals(Object other) {
+			if ( this == other ) {
+				return true;
+			}
+			if ( !( other instanceof InfluencedLoaderKey ) ) {
+				return false;
+			}
+			InfluencedLoaderKey that = ( InfluencedLoaderKey ) other;
+			return lockMode == that.lockMode
+					&& filterNames.equals( that.filterNames )
+					&& fetchProfileNames.equals( that.fetchProfileNames );
+		}
+
+		public int hashCode() {
+			return hashCode;
 		}
 	}
 
@@ -3377,11 +3491,12 @@ public abstract class AbstractEntityPersister
 	 */
 	public int[] findDirty(Object[] currentState, Object[] previousState, Object entity, SessionImplementor session)
 	throws HibernateException {
-		int[] props = TypeFactory.findDirty(
+		int[] props = TypeHelper.findDirty(
 				entityMetamodel.getProperties(),
 				currentState,
 				previousState,
 				propertyColumnUpdateable,
+				getWrittenProperties( entity, session ),
 				hasUninitializedLazyProperties( entity, session.getEntityMode() ),
 				session
 			);
@@ -3394,6 +3509,52 @@ public abstract class AbstractEntityPersister
 		}
 	}
 
+	/**
+	 * For a managed instrumented entity, determine the properties which may have been
+	 * modified since the entity was last in sync with the database: the properties
+	 * whose fields were written, plus the mutable properties (which can change
+	 * without a field write).
+	 * <p/>
+	 * Entities in any other state are checked in full: the deleted state of a
+	 * deleted entity, for example, has its references to transient and deleted
+	 * entities nulled out without any field being written.
+	 *
+	 * @return The properties to dirty check, or null if all properties must be checked
+	 */
+	private boolean[] getWrittenProperties(Object entity, SessionImplementor session) {
+		if ( !isInstrumented( session.getEntityMode() ) ) {
+			return null;
+		}
+		FieldInterceptor interceptor = FieldInterceptionHelper.extractFieldInterceptor( entity );
+		if ( !( interceptor instanceof AbstractFieldInterceptor ) ) {
+			return null;
+		}
+		Set dirtyFields = ( ( AbstractFieldInterceptor ) interceptor ).getDirtyFields();
+		if ( dirtyFields == null ) {
+			return null;
+		}
+		EntityEntry entry = session.getPersistenceContext().getEntry( entity );
+		if ( entry == null || entry.getStatus() != Status.MANAGED ) {
+			return null;
+		}
+		Type[] types = getPropertyTypes();
+		boolean[] written = new boolean[types.length];
+		for ( int i = 0; i < types.length; i++ ) {
+			written[i] = types[i].isMutable();
+		}
+		Iterator itr = dirtyFields.iterator();
+		while ( itr.hasNext() ) {
+			Integer index = entityMetamodel.getPropertyIndexOrNull( ( String ) itr.next() );
+			if ( index == null ) {
+				// a field not mapped as a property of its own name, eg.
+				// with property access; fall back to a full dirty check
+				return null;
+			}
+			written[ index.intValue() ] = true;
+		}
+		return written;
+	}
+
 	/**
 	 * Locate the property-indices of all properties considered to be dirty.
 	 *
@@ -31,7 +31,6 @@ import org.slf4j.LoggerFactory;
 import org.hibernate.FlushMode;
 import org.hibernate.HibernateException;
 import org.hibernate.LockOptions;
-import org.hibernate.engine.EntityKey;
 import org.hibernate.engine.SessionImplementor;
 import org.hibernate.impl.AbstractQueryImpl;
 import org.hibernate.loader.entity.UniqueEntityLoader;
@@ -91,7 +90,7 @@ public final class NamedQueryLoader implements UniqueEntityLoader {
 		// (this lets us correctly handle proxies and multi-row
 		// or multi-column queries)
 		return session.getPersistenceContext()
-				.getEntity( new EntityKey( id, persister, session.getEntityMode() ) );
+				.getEntity( id, persister );
 
 	}
 }
\ No newline at end of file
@@ -1,7 +1,5 @@
 package org.hibernate.stat;
 
-import java.util.concurrent.atomic.AtomicLong;
-
 /**
  * Collection related statistics
  *
@@ -13,11 +11,11 @@ public class ConcurrentCollectionStatisticsImpl extends CategorizedStatistics im
 		super(role);
 	}
 
-	private	AtomicLong loadCount	 = new AtomicLong();
-	private	AtomicLong fetchCount	 = new AtomicLong();
-	private	AtomicLong updateCount	 = new AtomicLong();
-	private	AtomicLong removeCount	 = new AtomicLong();
-	private	AtomicLong recreateCount = new AtomicLong();
+	private	StripedCounter loadCount	 = new StripedCounter();
+	private	StripedCounter fetchCount	 = new StripedCounter();
+	private	StripedCounter updateCount	 = new StripedCounter();
+	private	StripedCounter removeCount	 = new StripedCounter();
+	private	StripedCounter recreateCount = new StripedCounter();
 
 	public long getLoadCount() {
 		return loadCount.get();
@@ -52,22 +50,22 @@ public class ConcurrentCollectionStatisticsImpl extends CategorizedStatistics im
 	}
 
 	void incrementLoadCount() {
-		loadCount.getAndIncrement();
+		loadCount.increment();
 	}
 
 	void incrementFetchCount() {
-		fetchCount.getAndIncrement();
+		fetchCount.increment();
 	}
 
 	void incrementUpdateCount() {
-		updateCount.getAndIncrement();
+		updateCount.increment();
 	}
 
 	void incrementRecreateCount() {
-		recreateCount.getAndIncrement();
+		recreateCount.increment();
 	}
 
 	void incrementRemoveCount() {
-		removeCount.getAndIncrement();
+		removeCount.increment();
 	}
 }
@@ -1,8 +1,5 @@
 package org.hibernate.stat;
 
-import java.util.concurrent.atomic.AtomicLong;
-
-
 /**
  * Entity related statistics
  *
@@ -14,12 +11,13 @@ public class ConcurrentEntityStatisticsImpl extends CategorizedStatistics implem
 		super(name);
 	}
 
-	private	AtomicLong loadCount			  =	new	AtomicLong();
-	private	AtomicLong updateCount			  =	new	AtomicLong();
-	private	AtomicLong insertCount			  =	new	AtomicLong();
-	private	AtomicLong deleteCount			  =	new	AtomicLong();
-	private	AtomicLong fetchCount			  =	new	AtomicLong();
-	private	AtomicLong optimisticFailureCount =	new	AtomicLong();
+	private	StripedCounter loadCount			  =	new	StripedCounter();
+	private	StripedCounter updateCount			  =	new	StripedCounter();
+	private	StripedCounter insertCount			  =	new	StripedCounter();
+	private	StripedCounter deleteCount			  =	new	StripedCounter();
+	private	StripedCounter fetchCount			  =	new	StripedCounter();
+	private	StripedCounter optimisticFailureCount =	new	StripedCounter();
+	private LatencyHistogram loadTimeHistogram = new LatencyHistogram();
 
 	public long getDeleteCount() {
 		return deleteCount.get();
@@ -59,26 +57,37 @@ public class ConcurrentEntityStatisticsImpl extends CategorizedStatistics implem
 	}
 
 	void incrementLoadCount() {
-		loadCount.getAndIncrement();
+		loadCount.increment();
 	}
 
 	void incrementFetchCount() {
-		fetchCount.getAndIncrement();
+		fetchCount.increment();
 	}
 
 	void incrementUpdateCount() {
-		updateCount.getAndIncrement();
+		updateCount.increment();
 	}
 
 	void incrementInsertCount() {
-		insertCount.getAndIncrement();
+		insertCount.increment();
 	}
 
 	void incrementDeleteCount() {
-		deleteCount.getAndIncrement();
+		deleteCount.increment();
 	}
 
 	void incrementOptimisticFailureCount() {
-		optimisticFailureCount.getAndIncrement();
+		optimisticFailureCount.increment();
+	}
+
+	void loadExecuted(long time) {
+		loadTimeHistogram.record(time);
+	}
+
+	/**
+	 * @return the distribution of the times in &micro;s spent loading this entity from the DB
+	 */
+	public LatencyHistogram getLoadTimeHistogram() {
+		return loadTimeHistogram.snapshot();
 	}
 }
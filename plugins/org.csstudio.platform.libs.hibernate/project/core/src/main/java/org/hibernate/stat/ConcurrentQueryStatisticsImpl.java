@@ -1,9 +1,6 @@
 package org.hibernate.stat;
 
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Query statistics (HQL and SQL)
@@ -14,23 +11,15 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  */
 public class ConcurrentQueryStatisticsImpl extends CategorizedStatistics implements QueryStatistics {
 
-	private final AtomicLong cacheHitCount = new AtomicLong();
-	private final AtomicLong cacheMissCount = new AtomicLong();
-	private final AtomicLong cachePutCount = new AtomicLong();
-	private final AtomicLong executionCount = new AtomicLong();
-	private final AtomicLong executionRowCount = new AtomicLong();
+	private final StripedCounter cacheHitCount = new StripedCounter();
+	private final StripedCounter cacheMissCount = new StripedCounter();
+	private final StripedCounter cachePutCount = new StripedCounter();
+	private final StripedCounter executionCount = new StripedCounter();
+	private final StripedCounter executionRowCount = new StripedCounter();
 	private final AtomicLong executionMaxTime = new AtomicLong();
 	private final AtomicLong executionMinTime = new AtomicLong(Long.MAX_VALUE);
-	private final AtomicLong totalExecutionTime = new AtomicLong();
-
-	private final Lock readLock;
-	private final Lock writeLock;
-
-	{
-		ReadWriteLock lock = new ReentrantReadWriteLock();
-		readLock = lock.readLock();
-		writeLock = lock.writeLock();
-	}
+	private final StripedCounter totalExecutionTime = new StripedCounter();
+	private final LatencyHistogram executionTimeHistogram = new LatencyHistogram();
 
 	ConcurrentQueryStatisticsImpl(String query) {
 		super(query);
@@ -75,19 +64,10 @@ public class ConcurrentQueryStatisticsImpl extends CategorizedStatistics impleme
 	 * average time in ms taken by the excution of this query onto the DB
 	 */
 	public long getExecutionAvgTime() {
-		// We write lock here to be sure that we always calculate the average time
-		// with all updates from the executed applied: executionCount and totalExecutionTime
-		// both used in the calculation
-		writeLock.lock();
-		try {
-			long avgExecutionTime = 0;
-			if (executionCount.get() > 0) {
-				avgExecutionTime = totalExecutionTime.get() / executionCount.get();
-			}
-			return avgExecutionTime;
-		} finally {
-			writeLock.unlock();
-		}
+		// executionCount and totalExecutionTime are not read atomically, an execution
+		// being recorded concurrently may thus be partially accounted for
+		long count = executionCount.get();
+		return count > 0 ? totalExecutionTime.get() / count : 0;
 	}
 
 	/**
@@ -111,19 +91,20 @@ public class ConcurrentQueryStatisticsImpl extends CategorizedStatistics impleme
 	 * @param time time taken
 	 */
 	void executed(long rows, long time) {
-		// read lock is enough, concurrent updates are supported by the underlying type AtomicLong
-		// this only guards executed(long, long) to be called, when another thread is executing getExecutionAvgTime()
-		readLock.lock();
-		try {
-			// Less chances for a context switch
-			for (long old = executionMinTime.get(); (time < old) && !executionMinTime.compareAndSet(old, time); old = executionMinTime.get());
-			for (long old = executionMaxTime.get(); (time > old) && !executionMaxTime.compareAndSet(old, time); old = executionMaxTime.get());
-			executionCount.getAndIncrement();
-			executionRowCount.addAndGet(rows);
-			totalExecutionTime.addAndGet(time);
-		} finally {
-			readLock.unlock();
-		}
+		// min and max are only CASed when they actually change, which quickly becomes rare
+		for (long old = executionMinTime.get(); (time < old) && !executionMinTime.compareAndSet(old, time); old = executionMinTime.get());
+		for (long old = executionMaxTime.get(); (time > old) && !executionMaxTime.compareAndSet(old, time); old = executionMaxTime.get());
+		executionCount.increment();
+		executionRowCount.add(rows);
+		totalExecutionTime.add(time);
+		executionTimeHistogram.record(time);
+	}
+
+	/**
+	 * @return the distribution of the execution times in ms of this query onto the DB
+	 */
+	public LatencyHistogram getExecutionTimeHistogram() {
+		return executionTimeHistogram.snapshot();
 	}
 
 	public String toString() {
@@ -142,14 +123,14 @@ public class ConcurrentQueryStatisticsImpl extends CategorizedStatistics impleme
 	}
 
 	void incrementCacheHitCount() {
-		cacheHitCount.getAndIncrement();
+		cacheHitCount.increment();
 	}
 
 	void incrementCacheMissCount() {
-		cacheMissCount.getAndIncrement();
+		cacheMissCount.increment();
 	}
 
 	void incrementCachePutCount() {
-		cachePutCount.getAndIncrement();
+		cachePutCount.increment();
 	}
 }
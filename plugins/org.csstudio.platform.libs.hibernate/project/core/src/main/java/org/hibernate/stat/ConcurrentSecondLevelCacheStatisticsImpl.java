@@ -3,7 +3,6 @@ package org.hibernate.stat;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
 
 import org.hibernate.cache.CacheKey;
 import org.hibernate.cache.Region;
@@ -16,9 +15,9 @@ import org.hibernate.cache.Region;
 public class ConcurrentSecondLevelCacheStatisticsImpl extends CategorizedStatistics implements SecondLevelCacheStatistics {
 
 	private final transient Region region;
-	private AtomicLong hitCount = new AtomicLong();
-	private AtomicLong missCount = new AtomicLong();
-	private AtomicLong putCount = new AtomicLong();
+	private StripedCounter hitCount = new StripedCounter();
+	private StripedCounter missCount = new StripedCounter();
+	private StripedCounter putCount = new StripedCounter();
 
 	ConcurrentSecondLevelCacheStatisticsImpl(Region region) {
 		super(region.getName());
@@ -76,14 +75,14 @@ public class ConcurrentSecondLevelCacheStatisticsImpl extends CategorizedStatist
 	}
 
 	void incrementHitCount() {
-		hitCount.getAndIncrement();
+		hitCount.increment();
 	}
 
 	void incrementMissCount() {
-		missCount.getAndIncrement();
+		missCount.increment();
 	}
 
 	void incrementPutCount() {
-		putCount.getAndIncrement();
+		putCount.increment();
 	}
 }
@@ -23,6 +23,7 @@
  */
 package org.hibernate.stat;
 
+import java.util.Iterator;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -32,15 +33,23 @@ import org.slf4j.LoggerFactory;
 
 import org.hibernate.cache.Region;
 import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
 import org.hibernate.util.ArrayHelper;
 
 /**
  * Implementation of {@link Statistics}, as well as {@link StatisticsImplementor}, based on the
  * {@link java.util.concurrent} package introduced in Java 5.
+ * <p/>
+ * Counters are striped so that concurrent sessions do not contend on them, and query as well
+ * as entity load times are additionally recorded in {@link LatencyHistogram}s, exposed through
+ * {@link LatencyStatistics}.  Per-query statistics are kept for a bounded number of distinct
+ * queries only, optionally keyed by the literal-normalized form of the query strings.
  *
  * @author Alex Snaps
  */
-public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplementor {
+public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplementor, LatencyStatistics {
+	public static final int DEFAULT_QUERY_STATISTICS_MAX_SIZE = 1000;
+
 	private static final Logger log = LoggerFactory.getLogger( ConcurrentStatisticsImpl.class );
 	private static final Logger PERF_LOG = LoggerFactory.getLogger( Statistics.class );
 
@@ -48,40 +57,52 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 
 	private volatile boolean isStatisticsEnabled;
 	private volatile long startTime;
-	private AtomicLong sessionOpenCount = new AtomicLong();
-	private AtomicLong sessionCloseCount = new AtomicLong();
-	private AtomicLong flushCount = new AtomicLong();
-	private AtomicLong connectCount = new AtomicLong();
-
-	private AtomicLong prepareStatementCount = new AtomicLong();
-	private AtomicLong closeStatementCount = new AtomicLong();
-
-	private AtomicLong entityLoadCount = new AtomicLong();
-	private AtomicLong entityUpdateCount = new AtomicLong();
-	private AtomicLong entityInsertCount = new AtomicLong();
-	private AtomicLong entityDeleteCount = new AtomicLong();
-	private AtomicLong entityFetchCount = new AtomicLong();
-	private AtomicLong collectionLoadCount = new AtomicLong();
-	private AtomicLong collectionUpdateCount = new AtomicLong();
-	private AtomicLong collectionRemoveCount = new AtomicLong();
-	private AtomicLong collectionRecreateCount = new AtomicLong();
-	private AtomicLong collectionFetchCount = new AtomicLong();
-
-	private AtomicLong secondLevelCacheHitCount = new AtomicLong();
-	private AtomicLong secondLevelCacheMissCount = new AtomicLong();
-	private AtomicLong secondLevelCachePutCount = new AtomicLong();
-
-	private AtomicLong queryExecutionCount = new AtomicLong();
+	private StripedCounter sessionOpenCount = new StripedCounter();
+	private StripedCounter sessionCloseCount = new StripedCounter();
+	private StripedCounter flushCount = new StripedCounter();
+	private StripedCounter connectCount = new StripedCounter();
+
+	private StripedCounter prepareStatementCount = new StripedCounter();
+	private StripedCounter closeStatementCount = new StripedCounter();
+	private StripedCounter preparedStatementCacheHitCount = new StripedCounter();
+	private StripedCounter preparedStatementCacheMissCount = new StripedCounter();
+
+	private StripedCounter entityLoadCount = new StripedCounter();
+	private StripedCounter entityUpdateCount = new StripedCounter();
+	private StripedCounter entityInsertCount = new StripedCounter();
+	private StripedCounter entityDeleteCount = new StripedCounter();
+	private StripedCounter entityFetchCount = new StripedCounter();
+	private StripedCounter collectionLoadCount = new StripedCounter();
+	private StripedCounter collectionUpdateCount = new StripedCounter();
+	private StripedCounter collectionRemoveCount = new StripedCounter();
+	private StripedCounter collectionRecreateCount = new StripedCounter();
+	private StripedCounter collectionFetchCount = new StripedCounter();
+
+	private StripedCounter secondLevelCacheHitCount = new StripedCounter();
+	private StripedCounter secondLevelCacheMissCount = new StripedCounter();
+	private StripedCounter secondLevelCachePutCount = new StripedCounter();
+
+	private StripedCounter queryExecutionCount = new StripedCounter();
 	private AtomicLong queryExecutionMaxTime = new AtomicLong();
 	private volatile String queryExecutionMaxTimeQueryString;
-	private AtomicLong queryCacheHitCount = new AtomicLong();
-	private AtomicLong queryCacheMissCount = new AtomicLong();
-	private AtomicLong queryCachePutCount = new AtomicLong();
+	private StripedCounter queryCacheHitCount = new StripedCounter();
+	private StripedCounter queryCacheMissCount = new StripedCounter();
+	private StripedCounter queryCachePutCount = new StripedCounter();
+	private StripedCounter criteriaPlanCacheHitCount = new StripedCounter();
+	private StripedCounter criteriaPlanCacheMissCount = new StripedCounter();
+
+	private StripedCounter committedTransactionCount = new StripedCounter();
+	private StripedCounter transactionCount = new StripedCounter();
 
-	private AtomicLong committedTransactionCount = new AtomicLong();
-	private AtomicLong transactionCount = new AtomicLong();
+	private StripedCounter optimisticFailureCount = new StripedCounter();
 
-	private AtomicLong optimisticFailureCount = new AtomicLong();
+	private final LatencyHistogram queryExecutionTimeHistogram = new LatencyHistogram();
+	private final LatencyHistogram entityLoadTimeHistogram = new LatencyHistogram();
+
+	private volatile int queryStatisticsMaxSize = DEFAULT_QUERY_STATISTICS_MAX_SIZE;
+	private StripedCounter queryStatisticsOverflowCount = new StripedCounter();
+	private volatile boolean queryStatisticsOverflowLogged;
+	private volatile boolean queryLiteralNormalizationEnabled;
 
 	/**
 	 * second level cache statistics per region
@@ -96,7 +117,7 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 	 */
 	private final ConcurrentMap collectionStatistics = new ConcurrentHashMap();
 	/**
-	 * entity statistics per query string (HQL or SQL)
+	 * query statistics per query string (HQL or SQL), literal-normalized if enabled
 	 */
 	private final ConcurrentMap queryStatistics = new ConcurrentHashMap();
 
@@ -113,41 +134,50 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 	 * reset all statistics
 	 */
 	public void clear() {
-		secondLevelCacheHitCount.set( 0 );
-		secondLevelCacheMissCount.set( 0 );
-		secondLevelCachePutCount.set( 0 );
-
-		sessionCloseCount.set( 0 );
-		sessionOpenCount.set( 0 );
-		flushCount.set( 0 );
-		connectCount.set( 0 );
-
-		prepareStatementCount.set( 0 );
-		closeStatementCount.set( 0 );
-
-		entityDeleteCount.set( 0 );
-		entityInsertCount.set( 0 );
-		entityUpdateCount.set( 0 );
-		entityLoadCount.set( 0 );
-		entityFetchCount.set( 0 );
-
-		collectionRemoveCount.set( 0 );
-		collectionUpdateCount.set( 0 );
-		collectionRecreateCount.set( 0 );
-		collectionLoadCount.set( 0 );
-		collectionFetchCount.set( 0 );
-
-		queryExecutionCount.set( 0 );
-		queryCacheHitCount.set( 0 );
+		secondLevelCacheHitCount.reset();
+		secondLevelCacheMissCount.reset();
+		secondLevelCachePutCount.reset();
+
+		sessionCloseCount.reset();
+		sessionOpenCount.reset();
+		flushCount.reset();
+		connectCount.reset();
+
+		prepareStatementCount.reset();
+		closeStatementCount.reset();
+		preparedStatementCacheHitCount.reset();
+		preparedStatementCacheMissCount.reset();
+
+		entityDeleteCount.reset();
+		entityInsertCount.reset();
+		entityUpdateCount.reset();
+		entityLoadCount.reset();
+		entityFetchCount.reset();
+
+		collectionRemoveCount.reset();
+		collectionUpdateCount.reset();
+		collectionRecreateCount.reset();
+		collectionLoadCount.reset();
+		collectionFetchCount.reset();
+
+		queryExecutionCount.reset();
+		queryCacheHitCount.reset();
 		queryExecutionMaxTime.set( 0 );
 		queryExecutionMaxTimeQueryString = null;
-		queryCacheMissCount.set( 0 );
-		queryCachePutCount.set( 0 );
+		queryCacheMissCount.reset();
+		queryCachePutCount.reset();
+		criteriaPlanCacheHitCount.reset();
+		criteriaPlanCacheMissCount.reset();
+
+		transactionCount.reset();
+		committedTransactionCount.reset();
 
-		transactionCount.set( 0 );
-		committedTransactionCount.set( 0 );
+		optimisticFailureCount.reset();
 
-		optimisticFailureCount.set( 0 );
+		queryExecutionTimeHistogram.reset();
+		entityLoadTimeHistogram.reset();
+		queryStatisticsOverflowCount.reset();
+		queryStatisticsOverflowLogged = false;
 
 		secondLevelCacheStatistics.clear();
 		entityStatistics.clear();
@@ -158,31 +188,36 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 	}
 
 	public void openSession() {
-		sessionOpenCount.getAndIncrement();
+		sessionOpenCount.increment();
 	}
 
 	public void closeSession() {
-		sessionCloseCount.getAndIncrement();
+		sessionCloseCount.increment();
 	}
 
 	public void flush() {
-		flushCount.getAndIncrement();
+		flushCount.increment();
 	}
 
 	public void connect() {
-		connectCount.getAndIncrement();
+		connectCount.increment();
 	}
 
 	public void loadEntity(String entityName) {
-		entityLoadCount.getAndIncrement();
+		entityLoadCount.increment();
 		( (ConcurrentEntityStatisticsImpl) getEntityStatistics( entityName ) ).incrementLoadCount();
 	}
 
 	public void fetchEntity(String entityName) {
-		entityFetchCount.getAndIncrement();
+		entityFetchCount.increment();
 		( (ConcurrentEntityStatisticsImpl) getEntityStatistics( entityName ) ).incrementFetchCount();
 	}
 
+	public void entityLoadExecuted(String entityName, long time) {
+		entityLoadTimeHistogram.record( time );
+		( (ConcurrentEntityStatisticsImpl) getEntityStatistics( entityName ) ).loadExecuted( time );
+	}
+
 	/**
 	 * find entity statistics per name
 	 *
@@ -205,19 +240,19 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 	}
 
 	public void updateEntity(String entityName) {
-		entityUpdateCount.getAndIncrement();
+		entityUpdateCount.increment();
 		ConcurrentEntityStatisticsImpl es = (ConcurrentEntityStatisticsImpl) getEntityStatistics( entityName );
 		es.incrementUpdateCount();
 	}
 
 	public void insertEntity(String entityName) {
-		entityInsertCount.getAndIncrement();
+		entityInsertCount.increment();
 		ConcurrentEntityStatisticsImpl es = (ConcurrentEntityStatisticsImpl) getEntityStatistics( entityName );
 		es.incrementInsertCount();
 	}
 
 	public void deleteEntity(String entityName) {
-		entityDeleteCount.getAndIncrement();
+		entityDeleteCount.increment();
 		ConcurrentEntityStatisticsImpl es = (ConcurrentEntityStatisticsImpl) getEntityStatistics( entityName );
 		es.incrementDeleteCount();
 	}
@@ -244,27 +279,27 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 	}
 
 	public void loadCollection(String role) {
-		collectionLoadCount.getAndIncrement();
+		collectionLoadCount.increment();
 		( (ConcurrentCollectionStatisticsImpl) getCollectionStatistics( role ) ).incrementLoadCount();
 	}
 
 	public void fetchCollection(String role) {
-		collectionFetchCount.getAndIncrement();
+		collectionFetchCount.increment();
 		( (ConcurrentCollectionStatisticsImpl) getCollectionStatistics( role ) ).incrementFetchCount();
 	}
 
 	public void updateCollection(String role) {
-		collectionUpdateCount.getAndIncrement();
+		collectionUpdateCount.increment();
 		( (ConcurrentCollectionStatisticsImpl) getCollectionStatistics( role ) ).incrementUpdateCount();
 	}
 
 	public void recreateCollection(String role) {
-		collectionRecreateCount.getAndIncrement();
+		collectionRecreateCount.increment();
 		( (ConcurrentCollectionStatisticsImpl) getCollectionStatistics( role ) ).incrementRecreateCount();
 	}
 
 	public void removeCollection(String role) {
-		collectionRemoveCount.getAndIncrement();
+		collectionRemoveCount.increment();
 		( (ConcurrentCollectionStatisticsImpl) getCollectionStatistics( role ) ).incrementRemoveCount();
 	}
 
@@ -298,23 +333,23 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 	}
 
 	public void secondLevelCachePut(String regionName) {
-		secondLevelCachePutCount.getAndIncrement();
+		secondLevelCachePutCount.increment();
 		( (ConcurrentSecondLevelCacheStatisticsImpl) getSecondLevelCacheStatistics( regionName ) ).incrementPutCount();
 	}
 
 	public void secondLevelCacheHit(String regionName) {
-		secondLevelCacheHitCount.getAndIncrement();
+		secondLevelCacheHitCount.increment();
 		( (ConcurrentSecondLevelCacheStatisticsImpl) getSecondLevelCacheStatistics( regionName ) ).incrementHitCount();
 	}
 
 	public void secondLevelCacheMiss(String regionName) {
-		secondLevelCacheMissCount.getAndIncrement();
+		secondLevelCacheMissCount.increment();
 		( (ConcurrentSecondLevelCacheStatisticsImpl) getSecondLevelCacheStatistics( regionName ) ).incrementMissCount();
 	}
 
 	public void queryExecuted(String hql, int rows, long time) {
 		PERF_LOG.info( "HQL: {}, time: {}ms, rows: {}", new Object[] {hql, Long.valueOf( time ), Long.valueOf(rows)} );
-		queryExecutionCount.getAndIncrement();
+		queryExecutionCount.increment();
 		boolean isLongestQuery = false;
 		for ( long old = queryExecutionMaxTime.get();
 			  ( time > old ) && ( isLongestQuery = !queryExecutionMaxTime.compareAndSet( old, time ) );
@@ -324,17 +359,30 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 		if ( isLongestQuery ) {
 			queryExecutionMaxTimeQueryString = hql;
 		}
+		queryExecutionTimeHistogram.record( time );
 		if ( hql != null ) {
-			ConcurrentQueryStatisticsImpl qs = (ConcurrentQueryStatisticsImpl) getQueryStatistics( hql );
-			qs.executed( rows, time );
+			ConcurrentQueryStatisticsImpl qs = locateQueryStatistics( hql );
+			if ( qs != null ) {
+				qs.executed( rows, time );
+			}
 		}
 	}
 
+	public void criteriaPlanCacheHit() {
+		criteriaPlanCacheHitCount.increment();
+	}
+
+	public void criteriaPlanCacheMiss() {
+		criteriaPlanCacheMissCount.increment();
+	}
+
 	public void queryCacheHit(String hql, String regionName) {
-		queryCacheHitCount.getAndIncrement();
+		queryCacheHitCount.increment();
 		if ( hql != null ) {
-			ConcurrentQueryStatisticsImpl qs = (ConcurrentQueryStatisticsImpl) getQueryStatistics( hql );
-			qs.incrementCacheHitCount();
+			ConcurrentQueryStatisticsImpl qs = locateQueryStatistics( hql );
+			if ( qs != null ) {
+				qs.incrementCacheHitCount();
+			}
 		}
 		ConcurrentSecondLevelCacheStatisticsImpl slcs = (ConcurrentSecondLevelCacheStatisticsImpl) getSecondLevelCacheStatistics(
 				regionName
@@ -343,10 +391,12 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 	}
 
 	public void queryCacheMiss(String hql, String regionName) {
-		queryCacheMissCount.getAndIncrement();
+		queryCacheMissCount.increment();
 		if ( hql != null ) {
-			ConcurrentQueryStatisticsImpl qs = (ConcurrentQueryStatisticsImpl) getQueryStatistics( hql );
-			qs.incrementCacheMissCount();
+			ConcurrentQueryStatisticsImpl qs = locateQueryStatistics( hql );
+			if ( qs != null ) {
+				qs.incrementCacheMissCount();
+			}
 		}
 		ConcurrentSecondLevelCacheStatisticsImpl slcs = (ConcurrentSecondLevelCacheStatisticsImpl) getSecondLevelCacheStatistics(
 				regionName
@@ -355,10 +405,12 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 	}
 
 	public void queryCachePut(String hql, String regionName) {
-		queryCachePutCount.getAndIncrement();
+		queryCachePutCount.increment();
 		if ( hql != null ) {
-			ConcurrentQueryStatisticsImpl qs = (ConcurrentQueryStatisticsImpl) getQueryStatistics( hql );
-			qs.incrementCachePutCount();
+			ConcurrentQueryStatisticsImpl qs = locateQueryStatistics( hql );
+			if ( qs != null ) {
+				qs.incrementCachePutCount();
+			}
 		}
 		ConcurrentSecondLevelCacheStatisticsImpl slcs = (ConcurrentSecondLevelCacheStatisticsImpl) getSecondLevelCacheStatistics(
 				regionName
@@ -368,18 +420,48 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 
 	/**
 	 * Query statistics from query string (HQL or SQL)
+	 * <p/>
+	 * Literals are ignored when matching the query string if literal normalization is
+	 * enabled.  Empty statistics are returned for queries which are not tracked because
+	 * the per-query statistics are full.
 	 *
 	 * @param queryString query string
 	 *
 	 * @return QueryStatistics
 	 */
 	public QueryStatistics getQueryStatistics(String queryString) {
-		ConcurrentQueryStatisticsImpl qs = (ConcurrentQueryStatisticsImpl) queryStatistics.get( queryString );
+		String normalized = toQueryStatisticsKey( queryString );
+		ConcurrentQueryStatisticsImpl qs = (ConcurrentQueryStatisticsImpl) queryStatistics.get( normalized );
+		return qs == null ? new ConcurrentQueryStatisticsImpl( normalized ) : qs;
+	}
+
+	/**
+	 * Locate the statistics of a query being executed, registering them if needed.
+	 *
+	 * @param queryString query string
+	 *
+	 * @return the query statistics, or null if the per-query statistics are full
+	 */
+	private ConcurrentQueryStatisticsImpl locateQueryStatistics(String queryString) {
+		String normalized = toQueryStatisticsKey( queryString );
+		ConcurrentQueryStatisticsImpl qs = (ConcurrentQueryStatisticsImpl) queryStatistics.get( normalized );
 		if ( qs == null ) {
-			qs = new ConcurrentQueryStatisticsImpl( queryString );
+			// the bound may be slightly exceeded by concurrent registrations, which is harmless
+			if ( queryStatistics.size() >= queryStatisticsMaxSize ) {
+				queryStatisticsOverflowCount.increment();
+				if ( !queryStatisticsOverflowLogged ) {
+					queryStatisticsOverflowLogged = true;
+					log.warn(
+							"Per-query statistics are limited to " + queryStatisticsMaxSize
+									+ " distinct queries, further queries are only accounted globally"
+					);
+				}
+				return null;
+			}
+			qs = new ConcurrentQueryStatisticsImpl( normalized );
 			ConcurrentQueryStatisticsImpl previous;
 			if ( ( previous = (ConcurrentQueryStatisticsImpl) queryStatistics.putIfAbsent(
-					queryString, qs
+					normalized, qs
 			) ) != null ) {
 				qs = previous;
 			}
@@ -387,6 +469,50 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 		return qs;
 	}
 
+	/**
+	 * Set the maximum number of distinct queries for which statistics are kept.
+	 *
+	 * @param queryStatisticsMaxSize the maximum number of per-query statistics
+	 */
+	public void setQueryStatisticsMaxSize(int queryStatisticsMaxSize) {
+		this.queryStatisticsMaxSize = queryStatisticsMaxSize;
+	}
+
+	/**
+	 * Key per-query statistics by the query strings with their literals replaced by <tt>?</tt>,
+	 * as set by <tt>hibernate.statistics.query_normalize_literals</tt>.  This changes the query
+	 * strings returned by {@link #getQueries()}, and should be set before queries are executed.
+	 *
+	 * @param queryLiteralNormalizationEnabled whether literals of query strings are normalized
+	 */
+	public void setQueryLiteralNormalizationEnabled(boolean queryLiteralNormalizationEnabled) {
+		this.queryLiteralNormalizationEnabled = queryLiteralNormalizationEnabled;
+	}
+
+	private String toQueryStatisticsKey(String queryString) {
+		return queryLiteralNormalizationEnabled ? QueryStringNormalizer.normalize( queryString ) : queryString;
+	}
+
+	public long getQueryStatisticsOverflowCount() {
+		return queryStatisticsOverflowCount.get();
+	}
+
+	public LatencyHistogram getQueryExecutionTimeHistogram() {
+		return queryExecutionTimeHistogram.snapshot();
+	}
+
+	public LatencyHistogram getQueryExecutionTimeHistogram(String queryString) {
+		return ( (ConcurrentQueryStatisticsImpl) getQueryStatistics( queryString ) ).getExecutionTimeHistogram();
+	}
+
+	public LatencyHistogram getEntityLoadTimeHistogram() {
+		return entityLoadTimeHistogram.snapshot();
+	}
+
+	public LatencyHistogram getEntityLoadTimeHistogram(String entityName) {
+		return ( (ConcurrentEntityStatisticsImpl) getEntityStatistics( entityName ) ).getLoadTimeHistogram();
+	}
+
 	/**
 	 * @return entity deletion count
 	 */
@@ -438,6 +564,14 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 		return queryCachePutCount.get();
 	}
 
+	public long getCriteriaPlanCacheHitCount() {
+		return criteriaPlanCacheHitCount.get();
+	}
+
+	public long getCriteriaPlanCacheMissCount() {
+		return criteriaPlanCacheMissCount.get();
+	}
+
 	/**
 	 * @return flush
 	 */
@@ -545,6 +679,8 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 		log.info( "connections obtained: " + connectCount );
 		log.info( "statements prepared: " + prepareStatementCount );
 		log.info( "statements closed: " + closeStatementCount );
+		log.info( "statement cache hits: " + preparedStatementCacheHitCount );
+		log.info( "statement cache misses: " + preparedStatementCacheMissCount );
 		log.info( "second level cache puts: " + secondLevelCachePutCount );
 		log.info( "second level cache hits: " + secondLevelCacheHitCount );
 		log.info( "second level cache misses: " + secondLevelCacheMissCount );
@@ -562,7 +698,12 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 		log.info( "query cache puts: " + queryCachePutCount );
 		log.info( "query cache hits: " + queryCacheHitCount );
 		log.info( "query cache misses: " + queryCacheMissCount );
+		log.info( "criteria plan cache hits: " + criteriaPlanCacheHitCount );
+		log.info( "criteria plan cache misses: " + criteriaPlanCacheMissCount );
 		log.info( "max query time: " + queryExecutionMaxTime + "ms" );
+		log.info( "entity loaders: " + getEntityLoaderCount() );
+		log.info( "query time distribution: " + queryExecutionTimeHistogram + " (ms)" );
+		log.info( "entity load time distribution: " + entityLoadTimeHistogram + " (us)" );
 	}
 
 	/**
@@ -631,9 +772,9 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 	}
 
 	public void endTransaction(boolean success) {
-		transactionCount.getAndIncrement();
+		transactionCount.increment();
 		if ( success ) {
-			committedTransactionCount.getAndIncrement();
+			committedTransactionCount.increment();
 		}
 	}
 
@@ -646,11 +787,11 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 	}
 
 	public void closeStatement() {
-		closeStatementCount.getAndIncrement();
+		closeStatementCount.increment();
 	}
 
 	public void prepareStatement() {
-		prepareStatementCount.getAndIncrement();
+		prepareStatementCount.increment();
 	}
 
 	public long getCloseStatementCount() {
@@ -661,8 +802,24 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 		return prepareStatementCount.get();
 	}
 
+	public void preparedStatementCacheHit() {
+		preparedStatementCacheHitCount.increment();
+	}
+
+	public void preparedStatementCacheMiss() {
+		preparedStatementCacheMissCount.increment();
+	}
+
+	public long getPreparedStatementCacheHitCount() {
+		return preparedStatementCacheHitCount.get();
+	}
+
+	public long getPreparedStatementCacheMissCount() {
+		return preparedStatementCacheMissCount.get();
+	}
+
 	public void optimisticFailure(String entityName) {
-		optimisticFailureCount.getAndIncrement();
+		optimisticFailureCount.increment();
 		( (ConcurrentEntityStatisticsImpl) getEntityStatistics( entityName ) ).incrementOptimisticFailureCount();
 	}
 
@@ -670,6 +827,21 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 		return optimisticFailureCount.get();
 	}
 
+	public long getEntityLoaderCount() {
+		if ( sessionFactory == null ) {
+			return 0;
+		}
+		long count = 0;
+		Iterator persisters = sessionFactory.getAllClassMetadata().values().iterator();
+		while ( persisters.hasNext() ) {
+			Object persister = persisters.next();
+			if ( persister instanceof AbstractEntityPersister ) {
+				count += ( (AbstractEntityPersister) persister ).getLoaderCount();
+			}
+		}
+		return count;
+	}
+
 	public String toString() {
 		return new StringBuilder()
 				.append( "Statistics[" )
@@ -683,6 +855,8 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 				.append( ",connections obtained=" ).append( connectCount )
 				.append( ",statements prepared=" ).append( prepareStatementCount )
 				.append( ",statements closed=" ).append( closeStatementCount )
+				.append( ",statement cache hits=" ).append( preparedStatementCacheHitCount )
+				.append( ",statement cache misses=" ).append( preparedStatementCacheMissCount )
 				.append( ",second level cache puts=" ).append( secondLevelCachePutCount )
 				.append( ",second level cache hits=" ).append( secondLevelCacheHitCount )
 				.append( ",second level cache misses=" ).append( secondLevelCacheMissCount )
@@ -700,6 +874,8 @@ public class ConcurrentStatisticsImpl implements Statistics, StatisticsImplement
 				.append( ",query cache puts=" ).append( queryCachePutCount )
 				.append( ",query cache hits=" ).append( queryCacheHitCount )
 				.append( ",query cache misses=" ).append( queryCacheMissCount )
+				.append( ",criteria plan cache hits=" ).append( criteriaPlanCacheHitCount )
+				.append( ",criteria plan cache misses=" ).append( criteriaPlanCacheMissCount )
 				.append( ",max query time=" ).append( queryExecutionMaxTime )
 				.append( ']' )
 				.toString();
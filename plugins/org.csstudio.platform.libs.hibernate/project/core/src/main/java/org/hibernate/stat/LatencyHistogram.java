@@ -0,0 +1,244 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.stat;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size latency histogram using log-linear buckets, in the spirit of HdrHistogram:
+ * values are grouped by their highest set bit, and each power of two is further split
+ * into 8 linear sub-buckets.  Recorded values are therefore reported with a relative
+ * error of at most 12.5%, whatever their magnitude, while the histogram never
+ * allocates after construction.
+ * <p/>
+ * Recording is lock-free.  Histograms are additive: {@link #merge} folds the counts of
+ * another histogram into this one, which allows aggregating several sources (for
+ * example per-query histograms, or several session factories).  Histograms handed
+ * out by the statistics API are snapshots and are not updated afterwards.
+ * <p/>
+ * The unit of the recorded values depends on the statistic: query execution times
+ * are recorded in milliseconds, entity load times in microseconds.
+ */
+public class LatencyHistogram implements Serializable {
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	/**
+	 * Values above this bound are accounted in the last bucket
+	 */
+	private static final long MAX_TRACKABLE_VALUE = ( 1L << 41 ) - 1;
+	private static final int BUCKET_COUNT = bucketIndex( MAX_TRACKABLE_VALUE ) + 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray( BUCKET_COUNT );
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Record a single value.  Negative values are recorded as zero.
+	 *
+	 * @param value the value to record
+	 */
+	void record(long value) {
+		if ( value < 0 ) {
+			value = 0;
+		}
+		counts.getAndIncrement( bucketIndex( value ) );
+		total.getAndAdd( value );
+		for ( long old = max.get(); value > old && !max.compareAndSet( old, value ); old = max.get() ) {
+			// retry
+		}
+	}
+
+	/**
+	 * Add all values recorded by the given histogram to this histogram.
+	 *
+	 * @param other the histogram to merge into this one
+	 */
+	public void merge(LatencyHistogram other) {
+		for ( int i = 0; i < BUCKET_COUNT; i++ ) {
+			long count = other.counts.get( i );
+			if ( count != 0 ) {
+				counts.getAndAdd( i, count );
+			}
+		}
+		total.getAndAdd( other.total.get() );
+		long otherMax = other.max.get();
+		for ( long old = max.get(); otherMax > old && !max.compareAndSet( old, otherMax ); old = max.get() ) {
+			// retry
+		}
+	}
+
+	/**
+	 * @return a copy of this histogram, unaffected by later updates
+	 */
+	public LatencyHistogram snapshot() {
+		LatencyHistogram copy = new LatencyHistogram();
+		copy.merge( this );
+		return copy;
+	}
+
+	void reset() {
+		for ( int i = 0; i < BUCKET_COUNT; i++ ) {
+			counts.set( i, 0 );
+		}
+		total.set( 0 );
+		max.set( 0 );
+	}
+
+	/**
+	 * @return the number of recorded values
+	 */
+	public long getCount() {
+		long count = 0;
+		for ( int i = 0; i < BUCKET_COUNT; i++ ) {
+			count += counts.get( i );
+		}
+		return count;
+	}
+
+	/**
+	 * @return the largest recorded value, exact
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return the arithmetic mean of the recorded values, exact
+	 */
+	public double getMean() {
+		long count = getCount();
+		return count == 0 ? 0 : (double) total.get() / count;
+	}
+
+	/**
+	 * Get the value below which the given percentage of the recorded values fall.
+	 *
+	 * @param percentile the percentile, between 0 and 100
+	 *
+	 * @return the (approximated) value at the given percentile, or 0 if nothing was recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long[] snapshot = new long[BUCKET_COUNT];
+		long count = 0;
+		for ( int i = 0; i < BUCKET_COUNT; i++ ) {
+			snapshot[i] = counts.get( i );
+			count += snapshot[i];
+		}
+		if ( count == 0 ) {
+			return 0;
+		}
+		double ratio = Math.min( Math.max( percentile, 0 ), 100 ) / 100;
+		long target = Math.max( 1, (long) Math.ceil( ratio * count ) );
+		long cumulated = 0;
+		for ( int i = 0; i < BUCKET_COUNT; i++ ) {
+			cumulated += snapshot[i];
+			if ( cumulated >= target ) {
+				return Math.min( highestEquivalentValue( i ), max.get() );
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * @return the lower bound of each non empty bucket, in increasing order
+	 */
+	public long[] getBucketLowerBounds() {
+		long[] snapshot = nonEmptyBuckets();
+		long[] bounds = new long[snapshot.length];
+		for ( int i = 0; i < snapshot.length; i++ ) {
+			bounds[i] = lowestEquivalentValue( (int) snapshot[i] );
+		}
+		return bounds;
+	}
+
+	/**
+	 * @return the count of each non empty bucket, matching {@link #getBucketLowerBounds()}
+	 */
+	public long[] getBucketCounts() {
+		long[] snapshot = nonEmptyBuckets();
+		long[] bucketCounts = new long[snapshot.length];
+		for ( int i = 0; i < snapshot.length; i++ ) {
+			bucketCounts[i] = counts.get( (int) snapshot[i] );
+		}
+		return bucketCounts;
+	}
+
+	private long[] nonEmptyBuckets() {
+		int size = 0;
+		long[] indexes = new long[BUCKET_COUNT];
+		for ( int i = 0; i < BUCKET_COUNT; i++ ) {
+			if ( counts.get( i ) != 0 ) {
+				indexes[size++] = i;
+			}
+		}
+		long[] result = new long[size];
+		System.arraycopy( indexes, 0, result, 0, size );
+		return result;
+	}
+
+	public String toString() {
+		return new StringBuilder()
+				.append( "LatencyHistogram" )
+				.append( "[count=" ).append( getCount() )
+				.append( ",mean=" ).append( getMean() )
+				.append( ",p50=" ).append( getValueAtPercentile( 50 ) )
+				.append( ",p90=" ).append( getValueAtPercentile( 90 ) )
+				.append( ",p99=" ).append( getValueAtPercentile( 99 ) )
+				.append( ",p999=" ).append( getValueAtPercentile( 99.9 ) )
+				.append( ",max=" ).append( getMax() )
+				.append( ']' )
+				.toString();
+	}
+
+	static int bucketIndex(long value) {
+		if ( value > MAX_TRACKABLE_VALUE ) {
+			value = MAX_TRACKABLE_VALUE;
+		}
+		if ( value < SUB_BUCKET_COUNT << 1 ) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros( value ) - SUB_BUCKET_BITS;
+		return shift * SUB_BUCKET_COUNT + (int) ( value >>> shift );
+	}
+
+	static long lowestEquivalentValue(int index) {
+		if ( index < SUB_BUCKET_COUNT << 1 ) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long top = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+		return top << shift;
+	}
+
+	static long highestEquivalentValue(int index) {
+		if ( index < SUB_BUCKET_COUNT << 1 ) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long top = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+		return ( ( top + 1 ) << shift ) - 1;
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.stat;
+
+/**
+ * Latency distributions for a particular <tt>SessionFactory</tt>, complementing
+ * the counters and min/avg/max times exposed by {@link Statistics}.  Only maintained
+ * by the {@link java.util.concurrent} based statistics implementation; every
+ * histogram returned is a snapshot.
+ */
+public interface LatencyStatistics {
+	/**
+	 * @return the distribution of execution times of all queries, in ms
+	 */
+	public LatencyHistogram getQueryExecutionTimeHistogram();
+
+	/**
+	 * Get the distribution of execution times of a given query.  Literals are
+	 * ignored when matching the query string if per-query statistics are kept for
+	 * the literal-normalized form of queries
+	 * (<tt>hibernate.statistics.query_normalize_literals</tt>).
+	 *
+	 * @param queryString query string (HQL or SQL)
+	 *
+	 * @return the distribution of execution times of the query, in ms
+	 */
+	public LatencyHistogram getQueryExecutionTimeHistogram(String queryString);
+
+	/**
+	 * @return the distribution of times spent loading entities from the database, in &micro;s
+	 */
+	public LatencyHistogram getEntityLoadTimeHistogram();
+
+	/**
+	 * @param entityName entity name
+	 *
+	 * @return the distribution of times spent loading the given entity from the database, in &micro;s
+	 */
+	public LatencyHistogram getEntityLoadTimeHistogram(String entityName);
+
+	/**
+	 * @return the number of query executions which were only accounted globally, because
+	 *         their query was not tracked and the per-query statistics were already full;
+	 *         every execution is counted, not every distinct query
+	 */
+	public long getQueryStatisticsOverflowCount();
+}
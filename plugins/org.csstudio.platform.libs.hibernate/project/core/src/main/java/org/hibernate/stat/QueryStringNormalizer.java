@@ -0,0 +1,81 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.stat;
+
+import org.hibernate.hql.ast.HqlTokens;
+
+/**
+ * Normalizes query strings (HQL or SQL) for statistics purposes by replacing
+ * string and numeric literals with <tt>?</tt>, so that queries built by
+ * concatenating values are accounted under a single entry.  Literals are located
+ * by the HQL lexer; query strings it cannot tokenize (such as SQL using quoted
+ * identifiers) are left as they are.
+ */
+final class QueryStringNormalizer {
+
+	private QueryStringNormalizer() {
+	}
+
+	/**
+	 * Replace the literals of the given query string with <tt>?</tt>.
+	 *
+	 * @param query the query string
+	 *
+	 * @return the normalized query string; the given instance if it contains no literal
+	 */
+	static String normalize(String query) {
+		if ( !mayContainLiteral( query ) ) {
+			return query;
+		}
+		final HqlTokens tokens = HqlTokens.tokenize( query );
+		if ( tokens == null ) {
+			return query;
+		}
+		StringBuilder buffer = null;
+		int copied = 0;
+		for ( int i = 0; i < tokens.size(); i++ ) {
+			if ( tokens.isLiteral( i ) ) {
+				if ( buffer == null ) {
+					buffer = new StringBuilder( query.length() );
+				}
+				buffer.append( query, copied, tokens.getStart( i ) ).append( '?' );
+				copied = tokens.getEnd( i );
+			}
+		}
+		if ( buffer == null ) {
+			return query;
+		}
+		return buffer.append( query, copied, query.length() ).toString();
+	}
+
+	private static boolean mayContainLiteral(String query) {
+		for ( int i = 0; i < query.length(); i++ ) {
+			final char c = query.charAt( i );
+			if ( c == '\'' || ( c >= '0' && c <= '9' ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
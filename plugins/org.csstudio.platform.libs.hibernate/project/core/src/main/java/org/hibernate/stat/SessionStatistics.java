@@ -52,5 +52,18 @@ public interface SessionStatistics {
 	 * @see org.hibernate.engine.CollectionKey
 	 */
 	public Set getCollectionKeys();
+
+	/**
+	 * Get the number of entities evicted to keep within the session's
+	 * managed entity limit
+	 * @see org.hibernate.Session#setManagedEntityLimit(int, long)
+	 */
+	public long getEvictionCount();
+	/**
+	 * Get the number of flushes performed to keep within the session's
+	 * managed entity limit
+	 * @see org.hibernate.Session#setManagedEntityLimit(int, long)
+	 */
+	public long getEvictionFlushCount();
 	
 }
@@ -27,6 +27,7 @@ package org.hibernate.stat;
 import java.util.Collections;
 import java.util.Set;
 
+import org.hibernate.engine.ManagedEntityLimit;
 import org.hibernate.engine.SessionImplementor;
 
 /**
@@ -56,11 +57,23 @@ public class SessionStatisticsImpl implements SessionStatistics {
 		return Collections.unmodifiableSet( session.getPersistenceContext().getCollectionsByKey().keySet() );
 	}
 	
+	public long getEvictionCount() {
+		ManagedEntityLimit limit = session.getPersistenceContext().getManagedEntityLimit();
+		return limit == null ? 0 : limit.getEvictionCount();
+	}
+
+	public long getEvictionFlushCount() {
+		ManagedEntityLimit limit = session.getPersistenceContext().getManagedEntityLimit();
+		return limit == null ? 0 : limit.getFlushCount();
+	}
+
 	public String toString() {
 		return new StringBuffer()
 			.append("SessionStatistics[")
 			.append("entity count=").append( getEntityCount() )
 			.append("collection count=").append( getCollectionCount() )
+			.append("eviction count=").append( getEvictionCount() )
+			.append("eviction flush count=").append( getEvictionFlushCount() )
 			.append(']')
 			.toString();
 	}
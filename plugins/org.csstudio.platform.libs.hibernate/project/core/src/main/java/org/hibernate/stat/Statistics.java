@@ -126,6 +126,14 @@ public interface Statistics {
      * Get the global number of cacheable queries put in cache
      */
 	public long getQueryCachePutCount();
+    /**
+     * Get the global number of criteria queries whose loader was found in the query plan cache
+     */
+	public long getCriteriaPlanCacheHitCount();
+    /**
+     * Get the global number of criteria queries whose loader had to be built
+     */
+	public long getCriteriaPlanCacheMissCount();
 	/**
      * Get the global number of flush executed by sessions (either implicit or explicit)
      */
@@ -226,9 +234,23 @@ public interface Statistics {
 	 * The number of prepared statements that were released
 	 */
 	public long getCloseStatementCount();
+	/**
+	 * The number of prepared statements served from the per-connection statement cache
+	 */
+	public long getPreparedStatementCacheHitCount();
+	/**
+	 * The number of prepared statements which had to be prepared because they were
+	 * not found in the per-connection statement cache
+	 */
+	public long getPreparedStatementCacheMissCount();
 	/**
 	 * The number of <tt>StaleObjectStateException</tt>s 
 	 * that occurred
 	 */
 	public long getOptimisticFailureCount();
+	/**
+	 * The number of entity loaders created so far, entity loaders being
+	 * created on first use of a lock mode, filter or fetch profile
+	 */
+	public long getEntityLoaderCount();
 }
\ No newline at end of file
@@ -24,12 +24,14 @@
  */
 package org.hibernate.stat;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.hibernate.cache.Region;
 import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
 import org.hibernate.util.ArrayHelper;
 
 /**
@@ -54,6 +56,8 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 	
 	private long prepareStatementCount;
 	private long closeStatementCount;
+	private long preparedStatementCacheHitCount;
+	private long preparedStatementCacheMissCount;
 	
 	private long entityLoadCount;
 	private long entityUpdateCount;
@@ -76,6 +80,8 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 	private long queryCacheHitCount;
 	private long queryCacheMissCount;
 	private long queryCachePutCount;
+	private long criteriaPlanCacheHitCount;
+	private long criteriaPlanCacheMissCount;
 	
 	private long commitedTransactionCount;
 	private long transactionCount;
@@ -115,6 +121,8 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 		
 		prepareStatementCount = 0;
 		closeStatementCount = 0;
+		preparedStatementCacheHitCount = 0;
+		preparedStatementCacheMissCount = 0;
 		
 		entityDeleteCount = 0;
 		entityInsertCount = 0;
@@ -134,6 +142,8 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 		queryExecutionMaxTimeQueryString = null;
 		queryCacheMissCount = 0;
 		queryCachePutCount = 0;
+		criteriaPlanCacheHitCount = 0;
+		criteriaPlanCacheMissCount = 0;
 		
 		transactionCount = 0;
 		commitedTransactionCount = 0;
@@ -174,6 +184,10 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 		((EntityStatisticsImpl) getEntityStatistics(entityName)).fetchCount++;
 	}
 
+	public void entityLoadExecuted(String entityName, long time) {
+		// load time distributions are only kept by ConcurrentStatisticsImpl
+	}
+
 	/**
 	 * find entity statistics per name
 	 * 
@@ -297,6 +311,14 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 		}
 	}
 	
+	public synchronized void criteriaPlanCacheHit() {
+		criteriaPlanCacheHitCount++;
+	}
+
+	public synchronized void criteriaPlanCacheMiss() {
+		criteriaPlanCacheMissCount++;
+	}
+
 	public synchronized void queryCacheHit(String hql, String regionName) {
 		queryCacheHitCount++;
 		if (hql!=null) {
@@ -389,6 +411,14 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 		return queryCacheMissCount;
 	}
 	
+	public long getCriteriaPlanCacheHitCount() {
+		return criteriaPlanCacheHitCount;
+	}
+
+	public long getCriteriaPlanCacheMissCount() {
+		return criteriaPlanCacheMissCount;
+	}
+
 	public long getQueryCachePutCount() {
 		return queryCachePutCount;
 	}
@@ -499,6 +529,8 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 		log.info("connections obtained: " + connectCount);
 		log.info("statements prepared: " + prepareStatementCount);
 		log.info("statements closed: " + closeStatementCount);
+		log.info("statement cache hits: " + preparedStatementCacheHitCount);
+		log.info("statement cache misses: " + preparedStatementCacheMissCount);
 		log.info("second level cache puts: " + secondLevelCachePutCount);
 		log.info("second level cache hits: " + secondLevelCacheHitCount);
 		log.info("second level cache misses: " + secondLevelCacheMissCount);
@@ -516,7 +548,10 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 		log.info("query cache puts: " + queryCachePutCount);
 		log.info("query cache hits: " + queryCacheHitCount);
 		log.info("query cache misses: " + queryCacheMissCount);
+		log.info("criteria plan cache hits: " + criteriaPlanCacheHitCount);
+		log.info("criteria plan cache misses: " + criteriaPlanCacheMissCount);
 		log.info("max query time: " + queryExecutionMaxTime + "ms");
+		log.info("entity loaders: " + getEntityLoaderCount());
 	}
 	
 	/**
@@ -613,6 +648,22 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 		return prepareStatementCount;
 	}
 
+	public synchronized void preparedStatementCacheHit() {
+		preparedStatementCacheHitCount++;
+	}
+
+	public synchronized void preparedStatementCacheMiss() {
+		preparedStatementCacheMissCount++;
+	}
+
+	public long getPreparedStatementCacheHitCount() {
+		return preparedStatementCacheHitCount;
+	}
+
+	public long getPreparedStatementCacheMissCount() {
+		return preparedStatementCacheMissCount;
+	}
+
 	public void optimisticFailure(String entityName) {
 		optimisticFailureCount++;
 		((EntityStatisticsImpl) getEntityStatistics(entityName)).optimisticFailureCount++;
@@ -621,6 +672,21 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 	public long getOptimisticFailureCount() {
 		return optimisticFailureCount;
 	}
+
+	public long getEntityLoaderCount() {
+		if ( sessionFactory == null ) {
+			return 0;
+		}
+		long count = 0;
+		Iterator persisters = sessionFactory.getAllClassMetadata().values().iterator();
+		while ( persisters.hasNext() ) {
+			Object persister = persisters.next();
+			if ( persister instanceof AbstractEntityPersister ) {
+				count += ( (AbstractEntityPersister) persister ).getLoaderCount();
+			}
+		}
+		return count;
+	}
 	public String toString() {
 		return new StringBuffer()
 			.append("Statistics[")
@@ -634,6 +700,8 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 			.append(",connections obtained=").append(connectCount)
 			.append(",statements prepared=").append(prepareStatementCount)
 			.append(",statements closed=").append(closeStatementCount)
+			.append(",statement cache hits=").append(preparedStatementCacheHitCount)
+			.append(",statement cache misses=").append(preparedStatementCacheMissCount)
 			.append(",second level cache puts=").append(secondLevelCachePutCount)
 			.append(",second level cache hits=").append(secondLevelCacheHitCount)
 			.append(",second level cache misses=").append(secondLevelCacheMissCount)
@@ -651,6 +719,8 @@ public class StatisticsImpl implements Statistics, StatisticsImplementor {
 			.append(",query cache puts=").append(queryCachePutCount)
 			.append(",query cache hits=").append(queryCacheHitCount)
 			.append(",query cache misses=").append(queryCacheMissCount)
+			.append(",criteria plan cache hits=").append(criteriaPlanCacheHitCount)
+			.append(",criteria plan cache misses=").append(criteriaPlanCacheMissCount)
 			.append(",max query time=").append(queryExecutionMaxTime)
 			.append(']')
 			.toString();
@@ -36,6 +36,13 @@ public interface StatisticsImplementor {
 	public void connect();
 	public void loadEntity(String entityName);
 	public void fetchEntity(String entityName);
+	/**
+	 * An entity was loaded from the database by id.
+	 *
+	 * @param entityName entity name
+	 * @param time time spent loading, in microseconds
+	 */
+	public void entityLoadExecuted(String entityName, long time);
 	public void updateEntity(String entityName);
 	public void insertEntity(String entityName);
 	public void deleteEntity(String entityName);
@@ -51,8 +58,12 @@ public interface StatisticsImplementor {
 	public void queryCacheHit(String hql, String regionName);
 	public void queryCacheMiss(String hql, String regionName);
 	public void queryCachePut(String hql, String regionName);
+	public void criteriaPlanCacheHit();
+	public void criteriaPlanCacheMiss();
 	public void endTransaction(boolean success);
 	public void closeStatement();
 	public void prepareStatement();
+	public void preparedStatementCacheHit();
+	public void preparedStatementCacheMiss();
 	public void optimisticFailure(String entityName);
 }
\ No newline at end of file
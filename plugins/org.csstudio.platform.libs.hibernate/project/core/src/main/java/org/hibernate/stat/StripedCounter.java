@@ -0,0 +1,112 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.stat;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter spreading its updates over several cache-line padded cells so that
+ * threads incrementing it concurrently do not contend on a single memory location.
+ * Like the Java 8 <tt>LongAdder</tt> it starts as a single atomic value, and only
+ * allocates its cells once a concurrent update has been observed, so that counters
+ * which are never contended keep a small footprint.  Reads sum all cells and are
+ * therefore more expensive than updates, which suits statistics that are written on
+ * every operation but only read on demand.
+ */
+final class StripedCounter implements Serializable {
+	/**
+	 * Number of longs per cell; 8 longs span a typical 64 byte cache line
+	 */
+	private static final int PADDING = 8;
+	private static final int STRIPES;
+
+	static {
+		int processors = Runtime.getRuntime().availableProcessors();
+		int stripes = 1;
+		while ( stripes < processors * 2 && stripes < 64 ) {
+			stripes <<= 1;
+		}
+		STRIPES = stripes;
+	}
+
+	private final AtomicLong base = new AtomicLong();
+	private volatile AtomicLongArray cells;
+
+	void increment() {
+		add( 1 );
+	}
+
+	void add(long delta) {
+		AtomicLongArray cells = this.cells;
+		if ( cells == null ) {
+			long value = base.get();
+			if ( base.compareAndSet( value, value + delta ) ) {
+				return;
+			}
+			cells = contended();
+		}
+		cells.getAndAdd( cellIndex(), delta );
+	}
+
+	long get() {
+		long sum = base.get();
+		AtomicLongArray cells = this.cells;
+		if ( cells != null ) {
+			for ( int i = 0; i < STRIPES; i++ ) {
+				sum += cells.get( i * PADDING );
+			}
+		}
+		return sum;
+	}
+
+	void reset() {
+		base.set( 0 );
+		AtomicLongArray cells = this.cells;
+		if ( cells != null ) {
+			for ( int i = 0; i < STRIPES; i++ ) {
+				cells.set( i * PADDING, 0 );
+			}
+		}
+	}
+
+	public String toString() {
+		return Long.toString( get() );
+	}
+
+	private synchronized AtomicLongArray contended() {
+		if ( cells == null ) {
+			cells = new AtomicLongArray( STRIPES * PADDING );
+		}
+		return cells;
+	}
+
+	private static int cellIndex() {
+		long id = Thread.currentThread().getId();
+		int hash = (int) ( id ^ ( id >>> 32 ) ) * 0x9E3779B9;
+		hash ^= hash >>> 16;
+		return ( hash & ( STRIPES - 1 ) ) * PADDING;
+	}
+}
@@ -54,6 +54,12 @@ public class DatabaseMetadata {
 	private final Map tables = new HashMap();
 	private final Set sequences = new HashSet();
 	private final boolean extras;
+	private final boolean bulk;
+	// per catalog and schema searched, the tables keyed by name as stored, and
+	// by lower case name
+	private final Map schemaTables = new HashMap();
+	// the schema searched in bulk for tables looked up without a schema
+	private String currentSchema;
 
 	private DatabaseMetaData meta;
 	private SQLExceptionConverter sqlExceptionConverter;
@@ -63,9 +69,29 @@ public class DatabaseMetadata {
 	}
 
 	public DatabaseMetadata(Connection connection, Dialect dialect, boolean extras) throws SQLException {
+		this(connection, dialect, extras, false);
+	}
+
+	/**
+	 * @param bulk Whether the tables and columns of a schema are read with one
+	 * call each when the first of its tables is looked up, rather than per table;
+	 * the foreign keys and indexes are still read per table looked up, as JDBC
+	 * offers no call for a whole schema.  Tables looked up without a schema are
+	 * searched in the {@link Dialect#getCurrentSchemaName current schema} of the
+	 * connection, and read per table if the dialect cannot tell it or the table
+	 * is not found there, as the search would otherwise span all schemas
+	 */
+	public DatabaseMetadata(Connection connection, Dialect dialect, boolean extras, boolean bulk) throws SQLException {
 		sqlExceptionConverter = dialect.buildSQLExceptionConverter();
 		meta = connection.getMetaData();
 		this.extras = extras;
+		this.bulk = bulk;
+		if (bulk) {
+			currentSchema = dialect.getCurrentSchemaName(meta);
+			if ( currentSchema==null ) {
+				log.info("current schema unknown, tables without a schema are read per table");
+			}
+		}
 		initSequences(connection, dialect);
 	}
 
@@ -81,31 +107,36 @@ public class DatabaseMetadata {
 		else {
 			
 			try {
-				ResultSet rs = null;
-				try {
-					if ( (isQuoted && meta.storesMixedCaseQuotedIdentifiers())) {
-						rs = meta.getTables(catalog, schema, name, TYPES);
-					} else if ( (isQuoted && meta.storesUpperCaseQuotedIdentifiers()) 
-						|| (!isQuoted && meta.storesUpperCaseIdentifiers() )) {
-						rs = meta.getTables( 
-								StringHelper.toUpperCase(catalog), 
-								StringHelper.toUpperCase(schema), 
-								StringHelper.toUpperCase(name), 
-								TYPES 
-							);
-					}
-					else if ( (isQuoted && meta.storesLowerCaseQuotedIdentifiers())
-							|| (!isQuoted && meta.storesLowerCaseIdentifiers() )) {
-						rs = meta.getTables( 
-								StringHelper.toLowerCase(catalog), 
-								StringHelper.toLowerCase(schema), 
-								StringHelper.toLowerCase(name), 
-								TYPES 
-							);
+				String bulkSchema = schema==null ? currentSchema : toStoredCase(schema, isQuoted);
+				if ( bulk && bulkSchema!=null ) {
+					table = findSchemaTable(
+							getSchemaTables( toStoredCase(catalog, isQuoted), bulkSchema ),
+							name,
+							isQuoted
+						);
+					if ( table != null ) {
+						if (extras) {
+							table.initExtras(meta);
+						}
+						table.logFound(extras);
+						tables.put(identifier, table);
+						return table;
 					}
-					else {
-						rs = meta.getTables(catalog, schema, name, TYPES);
+					if ( schema!=null ) {
+						log.info("table not found: " + name);
+						return null;
 					}
+					// may be found in another schema, through a synonym for instance
+				}
+
+				ResultSet rs = null;
+				try {
+					rs = meta.getTables(
+							toStoredCase(catalog, isQuoted),
+							toStoredCase(schema, isQuoted),
+							toStoredCase(name, isQuoted),
+							TYPES
+						);
 					
 					while ( rs.next() ) {
 						String tableName = rs.getString("TABLE_NAME");
@@ -135,6 +166,102 @@ public class DatabaseMetadata {
 
 	}
 
+	/**
+	 * The identifier in the case the database stores it in, for use as a
+	 * metadata search pattern.
+	 */
+	private String toStoredCase(String identifier, boolean isQuoted) throws SQLException {
+		if ( isQuoted && meta.storesMixedCaseQuotedIdentifiers() ) {
+			return identifier;
+		}
+		else if ( (isQuoted && meta.storesUpperCaseQuotedIdentifiers()) 
+				|| (!isQuoted && meta.storesUpperCaseIdentifiers()) ) {
+			return StringHelper.toUpperCase(identifier);
+		}
+		else if ( (isQuoted && meta.storesLowerCaseQuotedIdentifiers())
+				|| (!isQuoted && meta.storesLowerCaseIdentifiers()) ) {
+			return StringHelper.toLowerCase(identifier);
+		}
+		else {
+			return identifier;
+		}
+	}
+
+	/**
+	 * Find a table among the tables of a schema, matching its name like a search
+	 * by name pattern would: exactly as stored, or ignoring case for an unquoted
+	 * name if the database stores unquoted identifiers in mixed case.  Quoted
+	 * names are never matched ignoring case, as they may differ in case only.
+	 */
+	private TableMetadata findSchemaTable(Map[] schemaTables, String name, boolean isQuoted) throws SQLException {
+		TableMetadata table = (TableMetadata) schemaTables[0].get( toStoredCase(name, isQuoted) );
+		if ( table==null && !isQuoted
+				&& !meta.storesUpperCaseIdentifiers() && !meta.storesLowerCaseIdentifiers() ) {
+			table = (TableMetadata) schemaTables[1].get( name.toLowerCase() );
+		}
+		return table;
+	}
+
+	/**
+	 * The tables of a schema, read with one <tt>getTables()</tt> and one
+	 * <tt>getColumns()</tt> call the first time the schema is searched.
+	 *
+	 * @return The tables keyed by name as stored, and the tables keyed by
+	 * lower case name
+	 */
+	private Map[] getSchemaTables(String catalog, String schema) throws SQLException {
+		Object key = identifier(catalog, schema, "");
+		Map[] cached = (Map[]) schemaTables.get(key);
+		if (cached!=null) {
+			return cached;
+		}
+
+		long start = System.currentTimeMillis();
+		Map byName = new HashMap();
+		Map byLowerCaseName = new HashMap();
+		Map byQualifiedName = new HashMap();
+		ResultSet rs = meta.getTables(catalog, schema, "%", TYPES);
+		try {
+			while ( rs.next() ) {
+				TableMetadata table = new TableMetadata(rs);
+				byQualifiedName.put( identifier( table.getCatalog(), table.getSchema(), table.getName() ), table );
+				// like a search by name, the first table found wins
+				if ( !byName.containsKey( table.getName() ) ) {
+					byName.put( table.getName(), table );
+				}
+				String lowerCaseName = table.getName().toLowerCase();
+				if ( !byLowerCaseName.containsKey(lowerCaseName) ) {
+					byLowerCaseName.put(lowerCaseName, table);
+				}
+			}
+		}
+		finally {
+			rs.close();
+		}
+
+		rs = meta.getColumns(catalog, schema, "%", "%");
+		try {
+			while ( rs.next() ) {
+				TableMetadata table = (TableMetadata) byQualifiedName.get( identifier( 
+						rs.getString("TABLE_CAT"), 
+						rs.getString("TABLE_SCHEM"), 
+						rs.getString("TABLE_NAME") 
+					) );
+				if (table!=null) {
+					table.addColumn(rs);
+				}
+			}
+		}
+		finally {
+			rs.close();
+		}
+
+		log.info( "read metadata of " + byQualifiedName.size() + " tables in " + ( System.currentTimeMillis() - start ) + "ms" );
+		cached = new Map[] { byName, byLowerCaseName };
+		schemaTables.put(key, cached);
+		return cached;
+	}
+
 	private Object identifier(String catalog, String schema, String name) {
 		return Table.qualify(catalog,schema,name);
 	}
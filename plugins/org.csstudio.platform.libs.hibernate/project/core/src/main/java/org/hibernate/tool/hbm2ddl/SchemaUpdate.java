@@ -68,6 +68,7 @@ public class SchemaUpdate {
 	private String delimiter;
 	private Formatter formatter;
 	private SQLStatementLogger sqlStatementLogger;
+	private boolean bulkMetadata;
 
 	public SchemaUpdate(Configuration cfg) throws HibernateException {
 		this( cfg, cfg.getProperties() );
@@ -82,6 +83,7 @@ public class SchemaUpdate {
 		connectionHelper = new ManagedProviderConnectionHelper( props );
 		exceptions = new ArrayList();
 		formatter = ( PropertiesHelper.getBoolean( Environment.FORMAT_SQL, props ) ? FormatStyle.DDL : FormatStyle.NONE ).getFormatter();
+		bulkMetadata = PropertiesHelper.getBoolean( Environment.HBM2DDL_BULK_METADATA, props );
 	}
 
 	public SchemaUpdate(Configuration cfg, Settings settings) throws HibernateException {
@@ -93,6 +95,7 @@ public class SchemaUpdate {
 		exceptions = new ArrayList();
 		sqlStatementLogger = settings.getSqlStatementLogger();
 		formatter = ( sqlStatementLogger.isFormatSql() ? FormatStyle.DDL : FormatStyle.NONE ).getFormatter();
+		bulkMetadata = settings.isBulkSchemaMetadataEnabled();
 	}
 
 	public static void main(String[] args) {
@@ -167,7 +170,7 @@ public class SchemaUpdate {
 				log.info( "fetching database metadata" );
 				connectionHelper.prepare( true );
 				connection = connectionHelper.getConnection();
-				meta = new DatabaseMetadata( connection, dialect );
+				meta = new DatabaseMetadata( connection, dialect, true, bulkMetadata );
 				stmt = connection.createStatement();
 			}
 			catch ( SQLException sqle ) {
@@ -33,9 +33,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.hibernate.HibernateException;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
 import org.hibernate.cfg.NamingStrategy;
 import org.hibernate.cfg.Settings;
 import org.hibernate.dialect.Dialect;
+import org.hibernate.util.PropertiesHelper;
 import org.hibernate.util.ReflectHelper;
 
 /**
@@ -50,6 +52,7 @@ public class SchemaValidator {
 	private ConnectionHelper connectionHelper;
 	private Configuration configuration;
 	private Dialect dialect;
+	private boolean bulkMetadata;
 
 	public SchemaValidator(Configuration cfg) throws HibernateException {
 		this( cfg, cfg.getProperties() );
@@ -62,6 +65,7 @@ public class SchemaValidator {
 		props.putAll( dialect.getDefaultProperties() );
 		props.putAll( connectionProperties );
 		connectionHelper = new ManagedProviderConnectionHelper( props );
+		bulkMetadata = PropertiesHelper.getBoolean( Environment.HBM2DDL_BULK_METADATA, props );
 	}
 
 	public SchemaValidator(Configuration cfg, Settings settings) throws HibernateException {
@@ -70,6 +74,7 @@ public class SchemaValidator {
 		connectionHelper = new SuppliedConnectionProviderConnectionHelper(
 				settings.getConnectionProvider()
 		);
+		bulkMetadata = settings.isBulkSchemaMetadataEnabled();
 	}
 
 	public static void main(String[] args) {
@@ -129,7 +134,7 @@ public class SchemaValidator {
 				log.info( "fetching database metadata" );
 				connectionHelper.prepare( false );
 				connection = connectionHelper.getConnection();
-				meta = new DatabaseMetadata( connection, dialect, false );
+				meta = new DatabaseMetadata( connection, dialect, false, bulkMetadata );
 			}
 			catch ( SQLException sqle ) {
 				log.error( "could not get database metadata", sqle );
@@ -52,14 +52,31 @@ public class TableMetadata {
 	private final Map indexes = new HashMap();
 
 	TableMetadata(ResultSet rs, DatabaseMetaData meta, boolean extras) throws SQLException {
-		catalog = rs.getString("TABLE_CAT");
-		schema = rs.getString("TABLE_SCHEM");
-		name = rs.getString("TABLE_NAME");
+		this(rs);
 		initColumns(meta);
 		if (extras) {
-			initForeignKeys(meta);
-			initIndexes(meta);
+			initExtras(meta);
 		}
+		logFound(extras);
+	}
+
+	/**
+	 * Only reads the table name from the <tt>getTables()</tt> row; the columns
+	 * are then added by {@link #addColumn(ResultSet)}, from a <tt>getColumns()</tt>
+	 * call covering many tables.
+	 */
+	TableMetadata(ResultSet rs) throws SQLException {
+		catalog = rs.getString("TABLE_CAT");
+		schema = rs.getString("TABLE_SCHEM");
+		name = rs.getString("TABLE_NAME");
+	}
+
+	void initExtras(DatabaseMetaData meta) throws SQLException {
+		initForeignKeys(meta);
+		initIndexes(meta);
+	}
+
+	void logFound(boolean extras) {
 		String cat = catalog==null ? "" : catalog + '.';
 		String schem = schema==null ? "" : schema + '.';
 		log.info( "table found: " + cat + schem + name );
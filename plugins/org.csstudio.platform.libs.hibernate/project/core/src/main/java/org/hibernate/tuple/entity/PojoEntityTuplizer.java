@@ -39,7 +39,9 @@ import org.hibernate.MappingException;
 import org.hibernate.EntityNameResolver;
 import org.hibernate.tuple.Instantiator;
 import org.hibernate.tuple.PojoInstantiator;
+import org.hibernate.bytecode.OrdinalAccessor;
 import org.hibernate.bytecode.ReflectionOptimizer;
+import org.hibernate.bytecode.javassist.OrdinalAccessorFactory;
 import org.hibernate.cfg.Environment;
 import org.hibernate.classic.Lifecycle;
 import org.hibernate.classic.Validatable;
@@ -72,6 +74,8 @@ public class PojoEntityTuplizer extends AbstractEntityTuplizer {
 	private final boolean validatableImplementor;
 	private final Set lazyPropertyNames = new HashSet();
 	private final ReflectionOptimizer optimizer;
+	// assigned by buildInstantiator(), which the superclass constructor calls; hence no initializer
+	private OrdinalAccessor ordinalAccessor;
 
 	public PojoEntityTuplizer(EntityMetamodel entityMetamodel, PersistentClass mappedEntity) {
 		super( entityMetamodel, mappedEntity );
@@ -107,6 +111,10 @@ public class PojoEntityTuplizer extends AbstractEntityTuplizer {
 //					mappedClass, getterNames, setterNames, propTypes
 //			);
 		}
+		if ( optimizer != null && optimizer.getAccessOptimizer() != null ) {
+			// the reflection optimizer could be built after all, it takes over property access
+			ordinalAccessor = null;
+		}
 	
 	}
 
@@ -212,7 +220,14 @@ public class PojoEntityTuplizer extends AbstractEntityTuplizer {
 	 * {@inheritDoc}
 	 */
 	protected Instantiator buildInstantiator(PersistentClass persistentClass) {
-		if ( optimizer == null ) {
+		// called before the constructor builds the reflection optimizer, which may yet fail
+		if ( Environment.useOrdinalAccessors() ) {
+			ordinalAccessor = buildOrdinalAccessor( persistentClass.getMappedClass() );
+		}
+		if ( ordinalAccessor != null ) {
+			return new PojoInstantiator( persistentClass, ordinalAccessor.isInstantiable() ? ordinalAccessor : null );
+		}
+		else if ( optimizer == null ) {
 			return new PojoInstantiator( persistentClass, null );
 		}
 		else {
@@ -220,6 +235,23 @@ public class PojoEntityTuplizer extends AbstractEntityTuplizer {
 		}
 	}
 
+	private OrdinalAccessor buildOrdinalAccessor(Class mappedClass) {
+		try {
+			return OrdinalAccessorFactory.create(
+					mappedClass,
+					getEntityMetamodel().getPropertyNames(),
+					getters,
+					setters,
+					getFactory()
+			);
+		}
+		catch ( NoClassDefFoundError e ) {
+			// javassist is not available with another bytecode provider
+			log.debug( "ordinal accessors disabled, javassist not found: " + e.getMessage() );
+			return null;
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -227,6 +259,9 @@ public class PojoEntityTuplizer extends AbstractEntityTuplizer {
 		if ( !getEntityMetamodel().hasLazyProperties() && optimizer != null && optimizer.getAccessOptimizer() != null ) {
 			setPropertyValuesWithOptimizer( entity, values );
 		}
+		else if ( !getEntityMetamodel().hasLazyProperties() && ordinalAccessor != null ) {
+			ordinalAccessor.setPropertyValues( entity, values );
+		}
 		else {
 			super.setPropertyValues( entity, values );
 		}
@@ -239,6 +274,9 @@ public class PojoEntityTuplizer extends AbstractEntityTuplizer {
 		if ( shouldGetAllProperties( entity ) && optimizer != null && optimizer.getAccessOptimizer() != null ) {
 			return getPropertyValuesWithOptimizer( entity );
 		}
+		else if ( shouldGetAllProperties( entity ) && ordinalAccessor != null ) {
+			return ordinalAccessor.getPropertyValues( entity );
+		}
 		else {
 			return super.getPropertyValues( entity );
 		}
@@ -251,6 +289,16 @@ public class PojoEntityTuplizer extends AbstractEntityTuplizer {
 		if ( shouldGetAllProperties( entity ) && optimizer != null && optimizer.getAccessOptimizer() != null ) {
 			return getPropertyValuesWithOptimizer( entity );
 		}
+		else if ( shouldGetAllProperties( entity ) && ordinalAccessor != null ) {
+			// properties left to their getters may be backrefs, which need the merge map
+			final Object[] result = new Object[propertySpan];
+			for ( int i = 0; i < propertySpan; i++ ) {
+				result[i] = ordinalAccessor.isGenerated( i ) ?
+						ordinalAccessor.get( entity, i ) :
+						getters[i].getForInsert( entity, mergeMap, session );
+			}
+			return result;
+		}
 		else {
 			return super.getPropertyValuesToInsert( entity, mergeMap, session );
 		}
@@ -42,7 +42,6 @@ import org.hibernate.Hibernate;
 import org.hibernate.HibernateException;
 import org.hibernate.MappingException;
 import org.hibernate.collection.PersistentCollection;
-import org.hibernate.engine.CollectionKey;
 import org.hibernate.engine.EntityEntry;
 import org.hibernate.engine.Mapping;
 import org.hibernate.engine.PersistenceContext;
@@ -632,7 +631,7 @@ public abstract class CollectionType extends AbstractType implements Association
 		if ( collection == null ) {
 			
 			// check if it is already completely loaded, but unowned
-			collection = persistenceContext.useUnownedCollection( new CollectionKey(persister, key, entityMode) );
+			collection = persistenceContext.useUnownedCollection( persister, key );
 			
 			if ( collection == null ) {
 				// create a new collection wrapper, to be initialized later
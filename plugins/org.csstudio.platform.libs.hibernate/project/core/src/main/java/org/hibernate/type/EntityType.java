@@ -140,6 +140,15 @@ public abstract class EntityType extends AbstractType implements AssociationType
 		return uniqueKeyPropertyName==null;
 	}
 
+	/**
+	 * Is the associated entity loaded (rather than proxied) when this association is resolved?
+	 *
+	 * @return True if the associated entity is fetched eagerly.
+	 */
+	public boolean isEager() {
+		return eager;
+	}
+
 	public String getRHSUniqueKeyPropertyName() {
 		return uniqueKeyPropertyName;
 	}
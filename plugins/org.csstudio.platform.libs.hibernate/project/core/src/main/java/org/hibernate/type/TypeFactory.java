@@ -660,30 +660,15 @@ public final class TypeFactory {
 			final boolean[][] includeColumns,
 			final boolean anyUninitializedProperties,
 			final SessionImplementor session) {
-		int[] results = null;
-		int count = 0;
-		int span = properties.length;
-
-		for ( int i = 0; i < span; i++ ) {
-			final boolean dirty = currentState[i] != LazyPropertyInitializer.UNFETCHED_PROPERTY
-					&& properties[i].isDirtyCheckable( anyUninitializedProperties )
-					&& properties[i].getType().isDirty( previousState[i], currentState[i], includeColumns[i], session );
-			if ( dirty ) {
-				if ( results == null ) {
-					results = new int[span];
-				}
-				results[count++] = i;
-			}
-		}
-
-		if ( count == 0 ) {
-			return null;
-		}
-		else {
-			int[] trimmed = new int[count];
-			System.arraycopy( results, 0, trimmed, 0, count );
-			return trimmed;
-		}
+		return TypeHelper.findDirty(
+				properties,
+				currentState,
+				previousState,
+				includeColumns,
+				null,
+				anyUninitializedProperties,
+				session
+		);
 	}
 
 	/**
@@ -26,6 +26,7 @@ package org.hibernate.util;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -86,14 +87,23 @@ public final class IdentityMap implements Map {
 	 * @return Collection
 	 */
 	public static Map.Entry[] concurrentEntries(Map map) {
+		if ( map instanceof LinkedIdentityMap ) {
+			return ( (LinkedIdentityMap) map ).entryArray();
+		}
 		return ( (IdentityMap) map ).entryArray();
 	}
 
 	public static List entries(Map map) {
+		if ( map instanceof LinkedIdentityMap ) {
+			return Arrays.asList( ( (LinkedIdentityMap) map ).entryArray() );
+		}
 		return ( (IdentityMap) map ).entryList();
 	}
 
 	public static Iterator keyIterator(Map map) {
+		if ( map instanceof LinkedIdentityMap ) {
+			return ( (LinkedIdentityMap) map ).keyIterator();
+		}
 		return ( (IdentityMap) map ).keyIterator();
 	}
 
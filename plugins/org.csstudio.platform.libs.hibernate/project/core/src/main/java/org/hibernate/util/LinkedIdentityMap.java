@@ -0,0 +1,381 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2010, Red Hat Inc. or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Inc.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.hibernate.util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A <tt>Map</tt> where keys are compared by object identity, iterated in the
+ * order in which they were added.
+ * <p/>
+ * Unlike {@link IdentityMap}, keys are not wrapped: entries live in parallel
+ * key and value arrays, in insertion order, and are found through an open
+ * addressing table of positions hashed by {@link System#identityHashCode}.
+ * Removed entries leave a hole until the arrays are next compacted, which is
+ * always done into new arrays.  An iteration therefore works on the arrays it
+ * started with, without copying the entries: it may run while entries are added
+ * and removed, does not see entries added after it started, and skips entries
+ * removed before it reached them (unless the arrays were compacted meanwhile).
+ * <p/>
+ * Null keys are not supported.
+ */
+public final class LinkedIdentityMap implements Map {
+
+	private static final int FREE = 0;
+	private static final int REMOVED = -1;
+
+	private Object[] keys;
+	private Object[] values;
+	// position in keys/values plus one, FREE or REMOVED
+	private int[] table;
+	// positions used in keys/values, including holes
+	private int used;
+	private int size;
+
+	public LinkedIdentityMap(int size) {
+		allocate( Math.max( size, 4 ) );
+	}
+
+	private void allocate(int capacity) {
+		keys = new Object[capacity];
+		values = new Object[capacity];
+		int tableSize = 4;
+		while ( tableSize < capacity * 2 ) {
+			tableSize <<= 1;
+		}
+		table = new int[tableSize];
+		used = 0;
+		size = 0;
+	}
+
+	private static int hash(Object key) {
+		final int h = System.identityHashCode( key );
+		return h ^ ( h >>> 16 );
+	}
+
+	private int slotOf(Object key) {
+		final int mask = table.length - 1;
+		int slot = hash( key ) & mask;
+		while ( true ) {
+			final int position = table[slot];
+			if ( position == FREE ) {
+				return -1;
+			}
+			if ( position != REMOVED && keys[position - 1] == key ) {
+				return slot;
+			}
+			slot = ( slot + 1 ) & mask;
+		}
+	}
+
+	private void index(Object key, int position) {
+		final int mask = table.length - 1;
+		int slot = hash( key ) & mask;
+		while ( table[slot] != FREE && table[slot] != REMOVED ) {
+			slot = ( slot + 1 ) & mask;
+		}
+		table[slot] = position + 1;
+	}
+
+	/**
+	 * Move the live entries into new arrays, growing them unless at most half
+	 * of the positions are in use.  Running iterations keep the old arrays.
+	 */
+	private void compact() {
+		final Object[] oldKeys = keys;
+		final Object[] oldValues = values;
+		final int oldUsed = used;
+		final int liveSize = size;
+		allocate( liveSize * 2 > oldKeys.length ? oldKeys.length * 2 : oldKeys.length );
+		for ( int i = 0; i < oldUsed; i++ ) {
+			if ( oldKeys[i] != null ) {
+				keys[used] = oldKeys[i];
+				values[used] = oldValues[i];
+				index( oldKeys[i], used );
+				used++;
+			}
+		}
+		size = liveSize;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean containsKey(Object key) {
+		return key != null && slotOf( key ) >= 0;
+	}
+
+	public boolean containsValue(Object value) {
+		for ( int i = 0; i < used; i++ ) {
+			if ( keys[i] != null && EqualsHelper.equals( values[i], value ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public Object get(Object key) {
+		if ( key == null ) {
+			return null;
+		}
+		final int slot = slotOf( key );
+		return slot < 0 ? null : values[ table[slot] - 1 ];
+	}
+
+	public Object put(Object key, Object value) {
+		if ( key == null ) {
+			throw new IllegalArgumentException( "null keys are not supported" );
+		}
+		final int slot = slotOf( key );
+		if ( slot >= 0 ) {
+			final int position = table[slot] - 1;
+			final Object result = values[position];
+			values[position] = value;
+			return result;
+		}
+		if ( used == keys.length ) {
+			compact();
+		}
+		keys[used] = key;
+		values[used] = value;
+		index( key, used );
+		used++;
+		size++;
+		return null;
+	}
+
+	public Object remove(Object key) {
+		if ( key == null ) {
+			return null;
+		}
+		final int slot = slotOf( key );
+		if ( slot < 0 ) {
+			return null;
+		}
+		final int position = table[slot] - 1;
+		final Object result = values[position];
+		table[slot] = REMOVED;
+		keys[position] = null;
+		values[position] = null;
+		size--;
+		return result;
+	}
+
+	public void putAll(Map otherMap) {
+		Iterator iter = otherMap.entrySet().iterator();
+		while ( iter.hasNext() ) {
+			Map.Entry me = (Map.Entry) iter.next();
+			put( me.getKey(), me.getValue() );
+		}
+	}
+
+	public void clear() {
+		// new arrays, leaving running iterations alone
+		allocate( Math.min( keys.length, 16 ) );
+	}
+
+	/**
+	 * Iterate the entries without allocating an entry object for each of them: the
+	 * returned <tt>Map.Entry</tt> is the iterator itself, and only describes the
+	 * current entry until the next call to <tt>next()</tt>.
+	 *
+	 * @return An iterator over the entries present when it is created
+	 */
+	public Iterator concurrentEntryIterator() {
+		return new EntryIterator( true );
+	}
+
+	/**
+	 * Iterate the entries of a map created by either this class or
+	 * {@link IdentityMap}, tolerating modifications of the map.
+	 *
+	 * @param map The map
+	 * @return An iterator over the entries present when it is created
+	 * @see #concurrentEntryIterator()
+	 */
+	public static Iterator concurrentEntryIterator(Map map) {
+		if ( map instanceof LinkedIdentityMap ) {
+			return ( (LinkedIdentityMap) map ).concurrentEntryIterator();
+		}
+		return Arrays.asList( IdentityMap.concurrentEntries( map ) ).iterator();
+	}
+
+	public Iterator keyIterator() {
+		return new KeyIterator();
+	}
+
+	public Set keySet() {
+		return new AbstractSet() {
+			public Iterator iterator() {
+				return keyIterator();
+			}
+			public int size() {
+				return size;
+			}
+			public boolean contains(Object key) {
+				return containsKey( key );
+			}
+		};
+	}
+
+	public Collection values() {
+		return new AbstractCollection() {
+			public Iterator iterator() {
+				return new ValueIterator();
+			}
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	public Set entrySet() {
+		return new AbstractSet() {
+			public Iterator iterator() {
+				return new EntryIterator( false );
+			}
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Copy the entries into an array, in insertion order.
+	 *
+	 * @return The entries
+	 */
+	public Map.Entry[] entryArray() {
+		Map.Entry[] result = new Map.Entry[size];
+		int i = 0;
+		for ( int position = 0; position < used; position++ ) {
+			if ( keys[position] != null ) {
+				result[i++] = new IdentityMap.IdentityMapEntry( keys[position], values[position] );
+			}
+		}
+		return result;
+	}
+
+	public String toString() {
+		StringBuffer buf = new StringBuffer().append( '{' );
+		for ( int i = 0; i < used; i++ ) {
+			if ( keys[i] != null ) {
+				if ( buf.length() > 1 ) {
+					buf.append( ", " );
+				}
+				buf.append( keys[i] ).append( '=' ).append( values[i] );
+			}
+		}
+		return buf.append( '}' ).toString();
+	}
+
+	private abstract class PositionIterator implements Iterator {
+		protected final Object[] iteratedKeys = keys;
+		protected final Object[] iteratedValues = values;
+		private final int end = used;
+		private int next;
+		protected Object currentKey;
+		protected Object currentValue;
+
+		public boolean hasNext() {
+			while ( next < end && iteratedKeys[next] == null ) {
+				next++;
+			}
+			return next < end;
+		}
+
+		protected void advance() {
+			if ( !hasNext() ) {
+				throw new NoSuchElementException();
+			}
+			currentKey = iteratedKeys[next];
+			currentValue = iteratedValues[next];
+			next++;
+		}
+
+		public void remove() {
+			if ( currentKey == null ) {
+				throw new IllegalStateException();
+			}
+			LinkedIdentityMap.this.remove( currentKey );
+			currentKey = null;
+		}
+	}
+
+	private final class KeyIterator extends PositionIterator {
+		public Object next() {
+			advance();
+			return currentKey;
+		}
+	}
+
+	private final class ValueIterator extends PositionIterator {
+		public Object next() {
+			advance();
+			return currentValue;
+		}
+	}
+
+	private final class EntryIterator extends PositionIterator implements Map.Entry {
+		private final boolean reuseEntry;
+
+		private EntryIterator(boolean reuseEntry) {
+			this.reuseEntry = reuseEntry;
+		}
+
+		public Object next() {
+			advance();
+			return reuseEntry ? ( Object ) this : new IdentityMap.IdentityMapEntry( currentKey, currentValue );
+		}
+
+		public Object getKey() {
+			return currentKey;
+		}
+
+		public Object getValue() {
+			return currentValue;
+		}
+
+		public Object setValue(Object value) {
+			final Object result = currentValue;
+			if ( containsKey( currentKey ) ) {
+				LinkedIdentityMap.this.put( currentKey, value );
+			}
+			currentValue = value;
+			return result;
+		}
+	}
+}
@@ -132,6 +132,24 @@ public final class PropertiesHelper {
 		return value == null ? defaultValue : Integer.parseInt( value );
 	}
 
+	/**
+	 * Get a property value as a long.
+	 * <p/>
+	 * First, the string value is extracted, and then {@link Long#parseLong(String)} is
+	 * used to determine the correct long value for any non-null property values.
+	 *
+	 * @see #extractPropertyValue(String, java.util.Properties)
+	 *
+	 * @param propertyName The name of the property for which to retrieve value
+	 * @param properties The properties object
+	 * @param defaultValue The default property value to use.
+	 * @return The property value.
+	 */
+	public static long getLong(String propertyName, Properties properties, long defaultValue) {
+		String value = extractPropertyValue( propertyName, properties );
+		return value == null ? defaultValue : Long.parseLong( value );
+	}
+
 	/**
 	 * Get a property value as an Integer.
 	 * <p/>
@@ -0,0 +1,230 @@
+package org.hibernate.jmx;
+
+import javax.naming.InitialContext;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingException;
+import javax.naming.Reference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.connection.ConnectionPoolStatistics;
+import org.hibernate.connection.ConnectionProvider;
+import org.hibernate.connection.PooledConnectionProvider;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.impl.SessionFactoryObjectFactory;
+
+/**
+ * JMX service for the metrics of a {@link PooledConnectionProvider}<br>
+ * <br>
+ * Register this MBean in your JMX server for a specific session factory
+ * <pre>
+ * //build the ObjectName you want
+ * Hashtable tb = new Hashtable();
+ * tb.put("type", "connectionPool");
+ * tb.put("sessionFactory", "myFinancialApp");
+ * ObjectName on = new ObjectName("hibernate", tb);
+ * ConnectionPoolService pool = new ConnectionPoolService();
+ * pool.setSessionFactory(sessionFactory);
+ * server.registerMBean(pool, on);
+ * </pre>
+ * If the session factory does not use a <tt>PooledConnectionProvider</tt> all
+ * gauges and counters read as zero.
+ *
+ * @see StatisticsService
+ */
+public class ConnectionPoolService implements ConnectionPoolServiceMBean {
+
+	private final Logger log = LoggerFactory.getLogger( ConnectionPoolService.class );
+
+	private String poolName;
+	private ConnectionPoolStatistics stats = NoPoolStatistics.INSTANCE;
+
+	/**
+	 * @see ConnectionPoolServiceMBean#setSessionFactoryJNDIName(java.lang.String)
+	 */
+	public void setSessionFactoryJNDIName(String sfJNDIName) {
+		try {
+			Object obj = new InitialContext().lookup( sfJNDIName );
+			if ( obj instanceof Reference ) {
+				Reference ref = (Reference) obj;
+				setSessionFactory( (SessionFactory) SessionFactoryObjectFactory.getInstance( (String) ref.get( 0 ).getContent() ) );
+			}
+			else {
+				setSessionFactory( (SessionFactory) obj );
+			}
+		}
+		catch ( NameNotFoundException e ) {
+			log.error( "No session factory with JNDI name " + sfJNDIName, e );
+			setSessionFactory( null );
+		}
+		catch ( NamingException e ) {
+			log.error( "Error while accessing session factory with JNDI name " + sfJNDIName, e );
+			setSessionFactory( null );
+		}
+		catch ( ClassCastException e ) {
+			log.error( "JNDI name " + sfJNDIName + " does not handle a session factory reference", e );
+			setSessionFactory( null );
+		}
+	}
+
+	/**
+	 * Useful to init this MBean wo a JNDI session factory name
+	 *
+	 * @param sf session factory whose connection pool should be published
+	 */
+	public void setSessionFactory(SessionFactory sf) {
+		ConnectionProvider provider = sf == null
+				? null
+				: ( (SessionFactoryImplementor) sf ).getConnectionProvider();
+		if ( provider instanceof PooledConnectionProvider ) {
+			poolName = ( (PooledConnectionProvider) provider ).getName();
+			stats = ( (PooledConnectionProvider) provider ).getStatistics();
+		}
+		else {
+			if ( provider != null ) {
+				log.warn( "Session factory does not use a pooled connection provider: " + provider.getClass().getName() );
+			}
+			poolName = null;
+			stats = NoPoolStatistics.INSTANCE;
+		}
+	}
+
+	public String getPoolName() {
+		return poolName;
+	}
+
+	public int getActiveCount() {
+		return stats.getActiveCount();
+	}
+
+	public int getIdleCount() {
+		return stats.getIdleCount();
+	}
+
+	public int getTotalCount() {
+		return stats.getTotalCount();
+	}
+
+	public int getWaitingCount() {
+		return stats.getWaitingCount();
+	}
+
+	public int getMaxSize() {
+		return stats.getMaxSize();
+	}
+
+	public int getMinSize() {
+		return stats.getMinSize();
+	}
+
+	public long getBorrowCount() {
+		return stats.getBorrowCount();
+	}
+
+	public long getThreadLocalHitCount() {
+		return stats.getThreadLocalHitCount();
+	}
+
+	public long getTimeoutCount() {
+		return stats.getTimeoutCount();
+	}
+
+	public long getCreatedCount() {
+		return stats.getCreatedCount();
+	}
+
+	public long getDestroyedCount() {
+		return stats.getDestroyedCount();
+	}
+
+	public long getValidationFailureCount() {
+		return stats.getValidationFailureCount();
+	}
+
+	public long getLeakCount() {
+		return stats.getLeakCount();
+	}
+
+	public long getMaxWaitTime() {
+		return stats.getMaxWaitTime();
+	}
+
+	public long getAverageWaitTime() {
+		return stats.getAverageWaitTime();
+	}
+
+	/**
+	 * @see ConnectionPoolServiceMBean#clear()
+	 */
+	public void clear() {
+		stats.clear();
+	}
+
+	private static class NoPoolStatistics implements ConnectionPoolStatistics {
+		private static final NoPoolStatistics INSTANCE = new NoPoolStatistics();
+
+		public int getActiveCount() {
+			return 0;
+		}
+
+		public int getIdleCount() {
+			return 0;
+		}
+
+		public int getTotalCount() {
+			return 0;
+		}
+
+		public int getWaitingCount() {
+			return 0;
+		}
+
+		public int getMaxSize() {
+			return 0;
+		}
+
+		public int getMinSize() {
+			return 0;
+		}
+
+		public long getBorrowCount() {
+			return 0;
+		}
+
+		public long getThreadLocalHitCount() {
+			return 0;
+		}
+
+		public long getTimeoutCount() {
+			return 0;
+		}
+
+		public long getCreatedCount() {
+			return 0;
+		}
+
+		public long getDestroyedCount() {
+			return 0;
+		}
+
+		public long getValidationFailureCount() {
+			return 0;
+		}
+
+		public long getLeakCount() {
+			return 0;
+		}
+
+		public long getMaxWaitTime() {
+			return 0;
+		}
+
+		public long getAverageWaitTime() {
+			return 0;
+		}
+
+		public void clear() {
+		}
+	}
+}
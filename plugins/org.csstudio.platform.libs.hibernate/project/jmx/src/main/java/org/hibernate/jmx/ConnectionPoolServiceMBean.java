@@ -0,0 +1,22 @@
+package org.hibernate.jmx;
+
+import org.hibernate.connection.ConnectionPoolStatistics;
+
+/**
+ * MBean exposing the metrics of a session factory's connection pool
+ *
+ * @see org.hibernate.connection.ConnectionPoolStatistics
+ */
+public interface ConnectionPoolServiceMBean extends ConnectionPoolStatistics {
+	/**
+	 * Publish the connection pool metrics of a session factory bound to
+	 * the default JNDI context
+	 * @param sfJNDIName session factory jndi name
+	 */
+	public abstract void setSessionFactoryJNDIName(String sfJNDIName);
+
+	/**
+	 * @return The name of the published pool, or null if no pool is published
+	 */
+	public String getPoolName();
+}
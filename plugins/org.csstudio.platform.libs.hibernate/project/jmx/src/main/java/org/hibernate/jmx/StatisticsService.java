@@ -12,6 +12,8 @@ import org.hibernate.SessionFactory;
 import org.hibernate.impl.SessionFactoryObjectFactory;
 import org.hibernate.stat.CollectionStatistics;
 import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.LatencyHistogram;
+import org.hibernate.stat.LatencyStatistics;
 import org.hibernate.stat.QueryStatistics;
 import org.hibernate.stat.SecondLevelCacheStatistics;
 import org.hibernate.stat.Statistics;
@@ -180,6 +182,12 @@ public class StatisticsService implements StatisticsServiceMBean {
 	public long getQueryCachePutCount() {
 		return stats.getQueryCachePutCount();
 	}
+	public long getCriteriaPlanCacheHitCount() {
+		return stats.getCriteriaPlanCacheHitCount();
+	}
+	public long getCriteriaPlanCacheMissCount() {
+		return stats.getCriteriaPlanCacheMissCount();
+	}
 	/**
 	 * @see StatisticsServiceMBean#getFlushCount()
 	 */
@@ -307,11 +315,67 @@ public class StatisticsService implements StatisticsServiceMBean {
 		return stats.getPrepareStatementCount();
 	}
 
+	public long getPreparedStatementCacheHitCount() {
+		return stats.getPreparedStatementCacheHitCount();
+	}
+	public long getPreparedStatementCacheMissCount() {
+		return stats.getPreparedStatementCacheMissCount();
+	}
+
 	public long getOptimisticFailureCount() {
 		return stats.getOptimisticFailureCount();
 	}
 
+	public long getEntityLoaderCount() {
+		return stats.getEntityLoaderCount();
+	}
+
 	public String getQueryExecutionMaxTimeQueryString() {
 		return stats.getQueryExecutionMaxTimeQueryString();
 	}
+
+	/**
+	 * @see StatisticsServiceMBean#getQueryExecutionTimeHistogram()
+	 */
+	public LatencyHistogram getQueryExecutionTimeHistogram() {
+		return latencyStats() == null ? new LatencyHistogram() : latencyStats().getQueryExecutionTimeHistogram();
+	}
+	/**
+	 * @see StatisticsServiceMBean#getQueryExecutionTimeHistogram(java.lang.String)
+	 */
+	public LatencyHistogram getQueryExecutionTimeHistogram(String queryString) {
+		return latencyStats() == null ? new LatencyHistogram() : latencyStats().getQueryExecutionTimeHistogram( queryString );
+	}
+	/**
+	 * @see StatisticsServiceMBean#getEntityLoadTimeHistogram()
+	 */
+	public LatencyHistogram getEntityLoadTimeHistogram() {
+		return latencyStats() == null ? new LatencyHistogram() : latencyStats().getEntityLoadTimeHistogram();
+	}
+	/**
+	 * @see StatisticsServiceMBean#getEntityLoadTimeHistogram(java.lang.String)
+	 */
+	public LatencyHistogram getEntityLoadTimeHistogram(String entityName) {
+		return latencyStats() == null ? new LatencyHistogram() : latencyStats().getEntityLoadTimeHistogram( entityName );
+	}
+	public long getQueryStatisticsOverflowCount() {
+		return latencyStats() == null ? 0 : latencyStats().getQueryStatisticsOverflowCount();
+	}
+	/**
+	 * @see StatisticsServiceMBean#getQueryExecutionTimePercentile(double)
+	 */
+	public long getQueryExecutionTimePercentile(double percentile) {
+		return getQueryExecutionTimeHistogram().getValueAtPercentile( percentile );
+	}
+	/**
+	 * @see StatisticsServiceMBean#getEntityLoadTimePercentile(double)
+	 */
+	public long getEntityLoadTimePercentile(double percentile) {
+		return getEntityLoadTimeHistogram().getValueAtPercentile( percentile );
+	}
+
+	private LatencyStatistics latencyStats() {
+		// latency histograms are only kept by the java.util.concurrent based implementation
+		return stats instanceof LatencyStatistics ? (LatencyStatistics) stats : null;
+	}
 }
@@ -1,19 +1,33 @@
 //$Id: StatisticsServiceMBean.java 4332 2004-08-15 12:55:28Z oneovthafew $
 package org.hibernate.jmx;
 
+import org.hibernate.stat.LatencyStatistics;
 import org.hibernate.stat.Statistics;
 
 /**
  * MBean exposing Session Factory statistics
  * 
  * @see org.hibernate.stat.Statistics
+ * @see org.hibernate.stat.LatencyStatistics
  * @author Emmanuel Bernard
  */
-public interface StatisticsServiceMBean extends Statistics {
+public interface StatisticsServiceMBean extends Statistics, LatencyStatistics {
 	/**
 	 * Publish the statistics of a session factory bound to 
 	 * the default JNDI context
 	 * @param sfJNDIName session factory jndi name
 	 */
 	public abstract void setSessionFactoryJNDIName(String sfJNDIName);
+
+	/**
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the query execution time in ms at the given percentile, for all queries
+	 */
+	public long getQueryExecutionTimePercentile(double percentile);
+
+	/**
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the entity load time in &micro;s at the given percentile, for all entities
+	 */
+	public long getEntityLoadTimePercentile(double percentile);
 }
\ No newline at end of file
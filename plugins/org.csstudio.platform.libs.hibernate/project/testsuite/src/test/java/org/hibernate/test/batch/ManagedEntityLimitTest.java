@@ -0,0 +1,225 @@
+package org.hibernate.test.batch;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.Test;
+
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+
+/**
+ * Tests bounding the entities managed by a session with
+ * {@link Session#setManagedEntityLimit(int, long)}.
+ */
+public class ManagedEntityLimitTest extends FunctionalTestCase {
+
+	public ManagedEntityLimitTest(String str) {
+		super( str );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "batch/DataPoint.hbm.xml" };
+	}
+
+	public String getCacheConcurrencyStrategy() {
+		return null;
+	}
+
+	public void configure(Configuration cfg) {
+		cfg.setProperty( Environment.STATEMENT_BATCH_SIZE, "20" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( ManagedEntityLimitTest.class );
+	}
+
+	public void testEntityLimit() {
+		Session s = openSession();
+		s.setCacheMode( CacheMode.IGNORE );
+		s.setManagedEntityLimit( 100, 0 );
+		Transaction t = s.beginTransaction();
+		for ( int i = 0; i < 1000; i++ ) {
+			s.save( createDataPoint( i ) );
+			assertTrue( s.getStatistics().getEntityCount() <= 100 );
+		}
+		assertTrue( s.getStatistics().getEvictionCount() >= 900 );
+		assertTrue( s.getStatistics().getEvictionFlushCount() > 0 );
+		t.commit();
+		s.close();
+
+		s = openSession();
+		s.setCacheMode( CacheMode.IGNORE );
+		s.setManagedEntityLimit( 100, 0 );
+		t = s.beginTransaction();
+		Iterator itr = s.createQuery( "from DataPoint" ).iterate();
+		int count = 0;
+		while ( itr.hasNext() ) {
+			( ( DataPoint ) itr.next() ).setDescription( "done!" );
+			count++;
+			assertTrue( s.getStatistics().getEntityCount() <= 100 );
+		}
+		assertEquals( 1000, count );
+		t.commit();
+		s.close();
+
+		s = openSession();
+		t = s.beginTransaction();
+		assertEquals(
+				new Long( 1000 ),
+				s.createQuery( "select count(*) from DataPoint where description = 'done!'" ).uniqueResult()
+		);
+		s.createQuery( "delete DataPoint" ).executeUpdate();
+		t.commit();
+		s.close();
+	}
+
+	public void testReadLoop() {
+		Session s = openSession();
+		Transaction t = s.beginTransaction();
+		List ids = new ArrayList();
+		for ( int i = 0; i < 200; i++ ) {
+			ids.add( s.save( createDataPoint( i ) ) );
+		}
+		t.commit();
+		s.close();
+
+		s = openSession();
+		s.setCacheMode( CacheMode.IGNORE );
+		s.setManagedEntityLimit( 20, 0 );
+		t = s.beginTransaction();
+		for ( int i = 0; i < ids.size(); i++ ) {
+			DataPoint dp = ( DataPoint ) s.get( DataPoint.class, ( Long ) ids.get( i ) );
+			assertTrue( s.contains( dp ) );
+			assertTrue( s.getStatistics().getEntityCount() <= 20 );
+		}
+		assertTrue( s.getStatistics().getEvictionCount() >= 180 );
+		t.commit();
+		s.close();
+
+		s = openSession();
+		t = s.beginTransaction();
+		s.createQuery( "delete DataPoint" ).executeUpdate();
+		t.commit();
+		s.close();
+	}
+
+	public void testOperationResultsNotEvicted() {
+		Session s = openSession();
+		Transaction t = s.beginTransaction();
+		for ( int i = 0; i < 50; i++ ) {
+			s.save( createDataPoint( i ) );
+		}
+		t.commit();
+		s.close();
+
+		s = openSession();
+		s.setCacheMode( CacheMode.IGNORE );
+		s.setManagedEntityLimit( 10, 0 );
+		t = s.beginTransaction();
+		List points = s.createQuery( "from DataPoint dp order by dp.x asc" ).list();
+		assertEquals( 50, points.size() );
+		assertEquals( 50, s.getStatistics().getEntityCount() );
+		assertEquals( 0, s.getStatistics().getEvictionCount() );
+		for ( int i = 0; i < points.size(); i++ ) {
+			assertTrue( s.contains( points.get( i ) ) );
+		}
+		// the entities of the query are evicted by the next operation, except those it uses
+		Object first = points.get( 0 );
+		assertSame( first, s.get( DataPoint.class, new Long( ( ( DataPoint ) first ).getId() ) ) );
+		assertTrue( s.contains( first ) );
+		assertTrue( s.getStatistics().getEntityCount() <= 10 );
+		assertTrue( s.getStatistics().getEvictionCount() >= 40 );
+		t.commit();
+		assertTrue( s.getStatistics().getEntityCount() <= 10 );
+		s.close();
+
+		s = openSession();
+		t = s.beginTransaction();
+		s.createQuery( "delete DataPoint" ).executeUpdate();
+		t.commit();
+		s.close();
+	}
+
+	public void testManualFlushModeKeepsPendingChanges() {
+		Session s = openSession();
+		Transaction t = s.beginTransaction();
+		for ( int i = 0; i < 50; i++ ) {
+			s.save( createDataPoint( i ) );
+		}
+		t.commit();
+		s.close();
+
+		s = openSession();
+		s.setCacheMode( CacheMode.IGNORE );
+		s.setFlushMode( FlushMode.MANUAL );
+		t = s.beginTransaction();
+		s.setManagedEntityLimit( 10, 0 );
+		List points = s.createQuery( "from DataPoint dp order by dp.x asc" ).list();
+		DataPoint changed = ( DataPoint ) points.get( 0 );
+		changed.setDescription( "changed" );
+		List pending = new ArrayList();
+		for ( int i = 50; i < 70; i++ ) {
+			DataPoint dp = createDataPoint( i );
+			s.save( dp );
+			pending.add( dp );
+		}
+		assertTrue( s.getStatistics().getEvictionCount() >= 40 );
+		assertEquals( 0, s.getStatistics().getEvictionFlushCount() );
+		assertTrue( s.contains( changed ) );
+		for ( int i = 0; i < pending.size(); i++ ) {
+			assertTrue( s.contains( pending.get( i ) ) );
+		}
+		s.flush();
+		t.commit();
+		s.close();
+
+		s = openSession();
+		t = s.beginTransaction();
+		assertEquals( new Long( 70 ), s.createQuery( "select count(*) from DataPoint" ).uniqueResult() );
+		assertEquals(
+				new Long( 1 ),
+				s.createQuery( "select count(*) from DataPoint where description = 'changed'" ).uniqueResult()
+		);
+		s.createQuery( "delete DataPoint" ).executeUpdate();
+		t.commit();
+		s.close();
+	}
+
+	public void testEstimatedByteLimit() {
+		Session s = openSession();
+		s.setCacheMode( CacheMode.IGNORE );
+		s.setManagedEntityLimit( 0, 32 * 1024 );
+		Transaction t = s.beginTransaction();
+		for ( int i = 0; i < 1000; i++ ) {
+			s.save( createDataPoint( i ) );
+		}
+		assertTrue( s.getStatistics().getEntityCount() < 1000 );
+		assertTrue( s.getStatistics().getEvictionCount() > 0 );
+		t.commit();
+		s.close();
+
+		s = openSession();
+		t = s.beginTransaction();
+		assertEquals( new Long( 1000 ), s.createQuery( "select count(*) from DataPoint" ).uniqueResult() );
+		s.createQuery( "delete DataPoint" ).executeUpdate();
+		t.commit();
+		s.close();
+	}
+
+	private DataPoint createDataPoint(int i) {
+		DataPoint dp = new DataPoint();
+		dp.setX( new BigDecimal( i * 0.1d ).setScale( 19, BigDecimal.ROUND_DOWN ) );
+		dp.setY( new BigDecimal( Math.cos( dp.getX().doubleValue() ) ).setScale( 19, BigDecimal.ROUND_DOWN ) );
+		return dp;
+	}
+
+}
@@ -0,0 +1,184 @@
+package org.hibernate.test.bytecode.javassist;
+
+import junit.framework.TestSuite;
+
+import org.hibernate.InstantiationException;
+import org.hibernate.PropertyAccessException;
+import org.hibernate.bytecode.OrdinalAccessor;
+import org.hibernate.bytecode.javassist.OrdinalAccessorFactory;
+import org.hibernate.junit.UnitTestCase;
+import org.hibernate.property.BasicPropertyAccessor;
+import org.hibernate.property.DirectPropertyAccessor;
+import org.hibernate.property.Getter;
+import org.hibernate.property.PropertyAccessor;
+import org.hibernate.property.Setter;
+import org.hibernate.test.bytecode.Bean;
+import org.hibernate.test.bytecode.BeanReflectionHelper;
+
+/**
+ * Tests the accessors generated by {@link OrdinalAccessorFactory}.
+ */
+public class OrdinalAccessorTest extends UnitTestCase {
+	private static final String[] PROPERTIES = new String[] {
+			"someString", "someLong", "someInteger", "someDate", "somelong", "someint", "someObject"
+	};
+
+	public OrdinalAccessorTest(String string) {
+		super( string );
+	}
+
+	public void testPropertyAccess() {
+		OrdinalAccessor accessor = buildAccessor( Bean.class, new BasicPropertyAccessor() );
+		assertNotNull( accessor );
+		for ( int i = 0; i < PROPERTIES.length; i++ ) {
+			assertTrue( accessor.isGenerated( i ) );
+		}
+		assertTrue( accessor.isInstantiable() );
+
+		Object instance = accessor.newInstance();
+		assertEquals( Bean.class, instance.getClass() );
+		accessor.setPropertyValues( instance, BeanReflectionHelper.TEST_VALUES );
+		assertEquals( BeanReflectionHelper.TEST_VALUES[0], ( ( Bean ) instance ).getSomeString() );
+		assertEquivalent( BeanReflectionHelper.TEST_VALUES, accessor.getPropertyValues( instance ) );
+	}
+
+	public void testInheritedProperties() {
+		OrdinalAccessor accessor = buildAccessor( ExtendedBean.class, new BasicPropertyAccessor() );
+		assertNotNull( accessor );
+		assertTrue( accessor.isGenerated( 0 ) );
+
+		Object instance = accessor.newInstance();
+		assertEquals( ExtendedBean.class, instance.getClass() );
+		accessor.setPropertyValues( instance, BeanReflectionHelper.TEST_VALUES );
+		assertEquivalent( BeanReflectionHelper.TEST_VALUES, accessor.getPropertyValues( instance ) );
+	}
+
+	public void testAbstractClass() {
+		OrdinalAccessor accessor = buildAccessor( AbstractBean.class, new BasicPropertyAccessor() );
+		assertNotNull( accessor );
+		assertFalse( accessor.isInstantiable() );
+		assertNull( accessor.newInstance() );
+	}
+
+	public void testPrivateClassNotGenerated() {
+		assertNull( buildAccessor( PrivateBean.class, new BasicPropertyAccessor() ) );
+	}
+
+	public void testPrivateFieldsFallBackToReflection() {
+		OrdinalAccessor accessor = buildAccessor( Bean.class, new DirectPropertyAccessor() );
+		assertNotNull( accessor );
+		for ( int i = 0; i < PROPERTIES.length; i++ ) {
+			assertFalse( accessor.isGenerated( i ) );
+		}
+
+		Bean bean = new Bean();
+		accessor.setPropertyValues( bean, BeanReflectionHelper.TEST_VALUES );
+		assertEquals( BeanReflectionHelper.TEST_VALUES[0], bean.getSomeString() );
+		assertEquivalent( BeanReflectionHelper.TEST_VALUES, accessor.getPropertyValues( bean ) );
+	}
+
+	public void testNullPrimitive() {
+		OrdinalAccessor accessor = buildAccessor( Bean.class, new BasicPropertyAccessor() );
+		try {
+			// somelong
+			accessor.set( new Bean(), 4, null );
+			fail( "expecting PropertyAccessException" );
+		}
+		catch ( PropertyAccessException expected ) {
+		}
+	}
+
+	public void testSetterException() {
+		OrdinalAccessor accessor = buildAccessor( RejectingBean.class, new BasicPropertyAccessor() );
+		assertTrue( accessor.isGenerated( 0 ) );
+		try {
+			accessor.setPropertyValues( new RejectingBean(), BeanReflectionHelper.TEST_VALUES );
+			fail( "expecting PropertyAccessException" );
+		}
+		catch ( PropertyAccessException expected ) {
+			assertEquals( RejectingBean.class, expected.getPersistentClass() );
+			assertEquals( "someString", expected.getPropertyName() );
+			assertTrue( expected.getCause() instanceof IllegalStateException );
+		}
+	}
+
+	public void testWrongValueType() {
+		OrdinalAccessor accessor = buildAccessor( Bean.class, new BasicPropertyAccessor() );
+		try {
+			// someString
+			accessor.set( new Bean(), 0, new Long( 1 ) );
+			fail( "expecting PropertyAccessException" );
+		}
+		catch ( PropertyAccessException expected ) {
+			assertEquals( "someString", expected.getPropertyName() );
+			assertTrue( expected.getCause() instanceof ClassCastException );
+		}
+		try {
+			// somelong
+			accessor.set( new Bean(), 4, "1" );
+			fail( "expecting PropertyAccessException" );
+		}
+		catch ( PropertyAccessException expected ) {
+			assertEquals( "somelong", expected.getPropertyName() );
+		}
+	}
+
+	public void testConstructorException() {
+		OrdinalAccessor accessor = buildAccessor( RejectingBean.class, new BasicPropertyAccessor() );
+		RejectingBean.rejectInstances = true;
+		try {
+			accessor.newInstance();
+			fail( "expecting InstantiationException" );
+		}
+		catch ( InstantiationException expected ) {
+			assertEquals( RejectingBean.class, expected.getPersistentClass() );
+		}
+		finally {
+			RejectingBean.rejectInstances = false;
+		}
+	}
+
+	private OrdinalAccessor buildAccessor(Class entityClass, PropertyAccessor propertyAccessor) {
+		Getter[] getters = new Getter[PROPERTIES.length];
+		Setter[] setters = new Setter[PROPERTIES.length];
+		for ( int i = 0; i < PROPERTIES.length; i++ ) {
+			getters[i] = propertyAccessor.getGetter( entityClass, PROPERTIES[i] );
+			setters[i] = propertyAccessor.getSetter( entityClass, PROPERTIES[i] );
+		}
+		return OrdinalAccessorFactory.create( entityClass, PROPERTIES, getters, setters, null );
+	}
+
+	private void assertEquivalent(Object[] checkValues, Object[] values) {
+		assertEquals( "Different lengths", checkValues.length, values.length );
+		for ( int i = 0; i < checkValues.length; i++ ) {
+			assertEquals( "different values at index [" + i + "]", checkValues[i], values[i] );
+		}
+	}
+
+	public static class ExtendedBean extends Bean {
+	}
+
+	public static abstract class AbstractBean extends Bean {
+	}
+
+	private static class PrivateBean extends Bean {
+	}
+
+	public static class RejectingBean extends Bean {
+		static boolean rejectInstances;
+
+		public RejectingBean() {
+			if ( rejectInstances ) {
+				throw new IllegalStateException( "no instances" );
+			}
+		}
+
+		public void setSomeString(String someString) {
+			throw new IllegalStateException( "read only" );
+		}
+	}
+
+	public static TestSuite suite() {
+		return new TestSuite( OrdinalAccessorTest.class );
+	}
+}
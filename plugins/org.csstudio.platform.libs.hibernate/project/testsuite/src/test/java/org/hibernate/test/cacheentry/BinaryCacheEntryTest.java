@@ -0,0 +1,146 @@
+package org.hibernate.test.cacheentry;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+
+import junit.framework.Test;
+
+import org.hibernate.Session;
+import org.hibernate.cache.entry.BinaryCacheEntry;
+import org.hibernate.cache.entry.CacheEntry;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.engine.SessionImplementor;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.util.SerializationHelper;
+
+/**
+ * Entities cached using {@link BinaryCacheEntry} must be assembled back to their original state.
+ */
+public class BinaryCacheEntryTest extends FunctionalTestCase {
+
+	public BinaryCacheEntryTest(String name) {
+		super( name );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "cacheentry/Item.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		cfg.setProperty( Environment.USE_SECOND_LEVEL_CACHE, "true" );
+		cfg.setProperty( Environment.USE_BINARY_CACHE, "true" );
+		cfg.setProperty( Environment.GENERATE_STATISTICS, "true" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( BinaryCacheEntryTest.class );
+	}
+
+	public void testRoundTrip() {
+		Date created = new Date();
+		ArrayList tags = new ArrayList();
+		tags.add( "new" );
+
+		Session s = openSession();
+		s.beginTransaction();
+		Owner owner = new Owner( "Gavin" );
+		s.persist( owner );
+		Item item = new Item();
+		item.setName( "café €" );
+		item.setQuantity( new Integer( -42 ) );
+		item.setRating( 4.5 );
+		item.setActive( true );
+		item.setPrice( new BigDecimal( "1234.56" ) );
+		item.setCreated( created );
+		item.setCode( new Character( 'x' ) );
+		item.setTags( tags );
+		item.setAddress( new Address( "Main Street", 12345 ) );
+		item.setOwner( owner );
+		s.persist( item );
+		SpecialItem special = new SpecialItem();
+		special.setName( "special" );
+		special.setDiscount( new Float( 0.25f ) );
+		s.persist( special );
+		s.getTransaction().commit();
+		s.close();
+
+		EntityPersister persister = ( (SessionFactoryImplementor) getSessions() ).getEntityPersister( Item.class.getName() );
+		assertTrue( persister.getCacheEntryStructure() instanceof BinaryCacheEntry );
+		String regionName = persister.getCacheAccessStrategy().getRegion().getName();
+		SecondLevelCacheStatistics regionStats = getSessions().getStatistics().getSecondLevelCacheStatistics( regionName );
+		assertEquals( 2, regionStats.getEntries().size() );
+
+		getSessions().getStatistics().clear();
+		s = openSession();
+		s.beginTransaction();
+		Item loaded = (Item) s.get( Item.class, item.getId() );
+		assertEquals( 1, getSessions().getStatistics().getSecondLevelCacheHitCount() );
+		assertEquals( "café €", loaded.getName() );
+		assertEquals( new Integer( -42 ), loaded.getQuantity() );
+		assertEquals( 4.5, loaded.getRating(), 0 );
+		assertTrue( loaded.isActive() );
+		assertEquals( new BigDecimal( "1234.56" ), loaded.getPrice() );
+		assertEquals( created.getTime(), loaded.getCreated().getTime() );
+		assertEquals( new Character( 'x' ), loaded.getCode() );
+		assertEquals( tags, loaded.getTags() );
+		assertEquals( "Main Street", loaded.getAddress().getStreet() );
+		assertEquals( 12345, loaded.getAddress().getZip() );
+		assertEquals( owner.getId(), loaded.getOwner().getId() );
+		assertEquals( "Gavin", loaded.getOwner().getName() );
+		assertEquals( item.getVersion(), loaded.getVersion() );
+
+		Item loadedSpecial = (Item) s.get( Item.class, special.getId() );
+		assertTrue( loadedSpecial instanceof SpecialItem );
+		assertEquals( new Float( 0.25f ), ( (SpecialItem) loadedSpecial ).getDiscount() );
+		assertNull( loadedSpecial.getQuantity() );
+		assertNull( loadedSpecial.getAddress() );
+		assertNull( loadedSpecial.getOwner() );
+		assertEquals( 2, getSessions().getStatistics().getSecondLevelCacheHitCount() );
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		s.delete( s.get( Item.class, item.getId() ) );
+		s.delete( s.get( Item.class, special.getId() ) );
+		s.delete( s.get( Owner.class, owner.getId() ) );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	public void testCompactness() {
+		Session s = openSession();
+		s.beginTransaction();
+		Item item = new Item();
+		item.setName( "compact" );
+		item.setQuantity( new Integer( 3 ) );
+		item.setPrice( new BigDecimal( "9.99" ) );
+		item.setCreated( new Date() );
+		item.setAddress( new Address( "Main Street", 12345 ) );
+		s.persist( item );
+		s.getTransaction().commit();
+
+		s.beginTransaction();
+		EntityPersister persister = ( (SessionFactoryImplementor) getSessions() ).getEntityPersister( Item.class.getName() );
+		CacheEntry entry = new CacheEntry(
+				persister.getPropertyValues( item, s.getEntityMode() ),
+				persister,
+				false,
+				new Integer( item.getVersion() ),
+				(SessionImplementor) s,
+				item
+		);
+		byte[] binary = (byte[]) persister.getCacheEntryStructure().structure( entry );
+		byte[] serialized = SerializationHelper.serialize( entry );
+		assertTrue( "binary: " + binary.length + ", serialized: " + serialized.length, binary.length * 4 < serialized.length );
+		s.delete( item );
+		s.getTransaction().commit();
+		s.close();
+	}
+}
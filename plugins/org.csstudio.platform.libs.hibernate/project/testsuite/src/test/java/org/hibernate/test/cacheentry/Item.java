@@ -0,0 +1,108 @@
+package org.hibernate.test.cacheentry;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+
+public class Item {
+	private Long id;
+	private int version;
+	private String name;
+	private Integer quantity;
+	private double rating;
+	private boolean active;
+	private BigDecimal price;
+	private Date created;
+	private Character code;
+	private ArrayList tags;
+	private Address address;
+	private Owner owner;
+
+	public Long getId() {
+		return id;
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Integer getQuantity() {
+		return quantity;
+	}
+
+	public void setQuantity(Integer quantity) {
+		this.quantity = quantity;
+	}
+
+	public double getRating() {
+		return rating;
+	}
+
+	public void setRating(double rating) {
+		this.rating = rating;
+	}
+
+	public boolean isActive() {
+		return active;
+	}
+
+	public void setActive(boolean active) {
+		this.active = active;
+	}
+
+	public BigDecimal getPrice() {
+		return price;
+	}
+
+	public void setPrice(BigDecimal price) {
+		this.price = price;
+	}
+
+	public Date getCreated() {
+		return created;
+	}
+
+	public void setCreated(Date created) {
+		this.created = created;
+	}
+
+	public Character getCode() {
+		return code;
+	}
+
+	public void setCode(Character code) {
+		this.code = code;
+	}
+
+	public ArrayList getTags() {
+		return tags;
+	}
+
+	public void setTags(ArrayList tags) {
+		this.tags = tags;
+	}
+
+	public Address getAddress() {
+		return address;
+	}
+
+	public void setAddress(Address address) {
+		this.address = address;
+	}
+
+	public Owner getOwner() {
+		return owner;
+	}
+
+	public void setOwner(Owner owner) {
+		this.owner = owner;
+	}
+}
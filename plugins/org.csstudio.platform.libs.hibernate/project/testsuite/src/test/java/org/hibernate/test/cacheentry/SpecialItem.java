@@ -0,0 +1,13 @@
+package org.hibernate.test.cacheentry;
+
+public class SpecialItem extends Item {
+	private Float discount;
+
+	public Float getDiscount() {
+		return discount;
+	}
+
+	public void setDiscount(Float discount) {
+		this.discount = discount;
+	}
+}
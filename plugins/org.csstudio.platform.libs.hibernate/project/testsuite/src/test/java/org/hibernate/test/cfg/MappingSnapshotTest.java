@@ -0,0 +1,149 @@
+package org.hibernate.test.cfg;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.MappingSnapshot;
+import org.hibernate.junit.UnitTestCase;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.Table;
+
+/**
+ * Tests reading the mappings of a {@link Configuration} from a binary snapshot.
+ */
+public class MappingSnapshotTest extends UnitTestCase {
+	private File mappingFile;
+	private File snapshotFile;
+
+	public MappingSnapshotTest(String string) {
+		super( string );
+	}
+
+	public static Test suite() {
+		return new TestSuite( MappingSnapshotTest.class );
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		mappingFile = File.createTempFile( "entities", ".hbm.xml" );
+		snapshotFile = File.createTempFile( "entities", ".snapshot" );
+		snapshotFile.delete();
+	}
+
+	protected void tearDown() throws Exception {
+		mappingFile.delete();
+		snapshotFile.delete();
+		super.tearDown();
+	}
+
+	public void testSnapshotRoundTrip() throws Exception {
+		writeMapping( 20 );
+		String checksum = MappingSnapshot.checksum( new File[] { mappingFile } );
+		Configuration source = new Configuration().addFile( mappingFile );
+		source.writeMappingSnapshot( snapshotFile, checksum );
+		assertTrue( snapshotFile.exists() );
+
+		Configuration cfg = new Configuration();
+		assertTrue( cfg.addMappingSnapshot( snapshotFile, checksum ) );
+		assertEquals( tableNames( source ), tableNames( cfg ) );
+		int count = 0;
+		for ( Iterator classes = cfg.getClassMappings(); classes.hasNext(); ) {
+			PersistentClass persistentClass = ( PersistentClass ) classes.next();
+			assertNotNull( source.getClassMapping( persistentClass.getEntityName() ) );
+			count++;
+		}
+		assertEquals( 20, count );
+
+		SessionFactory factory = cfg.buildSessionFactory();
+		factory.close();
+	}
+
+	public void testStaleSnapshotIgnored() throws Exception {
+		writeMapping( 2 );
+		String checksum = MappingSnapshot.checksum( new File[] { mappingFile } );
+		new Configuration().addFile( mappingFile ).writeMappingSnapshot( snapshotFile, checksum );
+
+		writeMapping( 3 );
+		String changed = MappingSnapshot.checksum( new File[] { mappingFile } );
+		assertFalse( checksum.equals( changed ) );
+		Configuration cfg = new Configuration();
+		assertFalse( cfg.addMappingSnapshot( snapshotFile, changed ) );
+		assertFalse( cfg.getClassMappings().hasNext() );
+		cfg.addFile( mappingFile );
+		assertNotNull( cfg.getClassMapping( "Entity2" ) );
+	}
+
+	public void testMappingsAddedAfterSnapshot() throws Exception {
+		writeMapping( 5 );
+		String checksum = MappingSnapshot.checksum( new File[] { mappingFile } );
+		new Configuration().addFile( mappingFile ).writeMappingSnapshot( snapshotFile, checksum );
+
+		Configuration cfg = new Configuration();
+		assertTrue( cfg.addMappingSnapshot( snapshotFile, checksum ) );
+		cfg.addXML(
+				"<?xml version=\"1.0\"?>\n" +
+				"<!DOCTYPE hibernate-mapping PUBLIC \"-//Hibernate/Hibernate Mapping DTD 3.0//EN\" " +
+				"\"http://hibernate.sourceforge.net/hibernate-mapping-3.0.dtd\">\n" +
+				"<hibernate-mapping><class entity-name=\"Later\" table=\"LATER\">" +
+				"<id name=\"id\" type=\"long\"><generator class=\"native\"/></id>" +
+				"<many-to-one name=\"first\" entity-name=\"Entity0\" column=\"FIRST_ID\"/>" +
+				"</class></hibernate-mapping>"
+		);
+		cfg.buildMappings();
+
+		// tables read from the snapshot and tables added later never share a unique integer,
+		// which column aliases are derived from
+		Set uniqueIntegers = new HashSet();
+		int count = 0;
+		for ( Iterator tables = cfg.getTableMappings(); tables.hasNext(); ) {
+			uniqueIntegers.add( new Integer( ( ( Table ) tables.next() ).getUniqueInteger() ) );
+			count++;
+		}
+		assertEquals( 6, count );
+		assertEquals( count, uniqueIntegers.size() );
+
+		SessionFactory factory = cfg.buildSessionFactory();
+		factory.close();
+	}
+
+	private void writeMapping(int entities) throws Exception {
+		Writer writer = new FileWriter( mappingFile );
+		try {
+			writer.write( "<?xml version=\"1.0\"?>\n" );
+			writer.write( "<!DOCTYPE hibernate-mapping PUBLIC \"-//Hibernate/Hibernate Mapping DTD 3.0//EN\"" );
+			writer.write( " \"http://hibernate.sourceforge.net/hibernate-mapping-3.0.dtd\">\n" );
+			writer.write( "<hibernate-mapping>\n" );
+			for ( int i = 0; i < entities; i++ ) {
+				writer.write( "<class entity-name=\"Entity" + i + "\" table=\"ENTITY_" + i + "\">\n" );
+				writer.write( "<id name=\"id\" type=\"long\"><generator class=\"native\"/></id>\n" );
+				writer.write( "<property name=\"name\" type=\"string\"/>\n" );
+				writer.write( "<property name=\"created\" type=\"timestamp\"/>\n" );
+				if ( i > 0 ) {
+					writer.write( "<many-to-one name=\"previous\" entity-name=\"Entity" + ( i - 1 ) + "\" column=\"PREVIOUS_ID\"/>\n" );
+				}
+				writer.write( "</class>\n" );
+			}
+			writer.write( "</hibernate-mapping>\n" );
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	private static String tableNames(Configuration cfg) {
+		StringBuffer buf = new StringBuffer();
+		for ( Iterator tables = cfg.getTableMappings(); tables.hasNext(); ) {
+			buf.append( ( ( Table ) tables.next() ).getName() ).append( ',' );
+		}
+		return buf.toString();
+	}
+}
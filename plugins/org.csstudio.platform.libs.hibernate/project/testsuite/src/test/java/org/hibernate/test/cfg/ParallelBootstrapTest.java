@@ -0,0 +1,165 @@
+package org.hibernate.test.cfg;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.hibernate.HibernateException;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.junit.UnitTestCase;
+import org.hibernate.persister.entity.OuterJoinLoadable;
+
+/**
+ * Tests building a session factory with {@link Environment#BOOTSTRAP_PARALLELISM}.
+ */
+public class ParallelBootstrapTest extends UnitTestCase {
+	public ParallelBootstrapTest(String string) {
+		super( string );
+	}
+
+	public static Test suite() {
+		return new TestSuite( ParallelBootstrapTest.class );
+	}
+
+	private static final String[] FILES = new String[] {
+			"legacy/ABC.hbm.xml",
+			"legacy/ABCExtends.hbm.xml",
+			"legacy/Baz.hbm.xml",
+			"legacy/Blobber.hbm.xml",
+			"legacy/Broken.hbm.xml",
+			"legacy/Category.hbm.xml",
+			"legacy/Circular.hbm.xml",
+			"legacy/Commento.hbm.xml",
+			"legacy/ComponentNotNullMaster.hbm.xml",
+			"legacy/Componentizable.hbm.xml",
+			"legacy/Container.hbm.xml",
+			"legacy/Custom.hbm.xml",
+			"legacy/CustomSQL.hbm.xml",
+			"legacy/Eye.hbm.xml",
+			"legacy/Fee.hbm.xml",
+			"legacy/Fo.hbm.xml",
+			"legacy/FooBar.hbm.xml",
+			"legacy/Fum.hbm.xml",
+			"legacy/Fumm.hbm.xml",
+			"legacy/Glarch.hbm.xml",
+			"legacy/Holder.hbm.xml",
+			"legacy/IJ2.hbm.xml",
+			"legacy/Immutable.hbm.xml",
+			"legacy/Location.hbm.xml",
+			"legacy/Many.hbm.xml",
+			"legacy/Map.hbm.xml",
+			"legacy/Marelo.hbm.xml",
+			"legacy/MasterDetail.hbm.xml",
+			"legacy/Middle.hbm.xml",
+			"legacy/Multi.hbm.xml",
+			"legacy/MultiExtends.hbm.xml",
+			"legacy/Nameable.hbm.xml",
+			"legacy/One.hbm.xml",
+			"legacy/ParentChild.hbm.xml",
+			"legacy/Qux.hbm.xml",
+			"legacy/Simple.hbm.xml",
+			"legacy/SingleSeveral.hbm.xml",
+			"legacy/Stuff.hbm.xml",
+			"legacy/UpDown.hbm.xml",
+			"legacy/Vetoer.hbm.xml",
+			"legacy/WZ.hbm.xml",
+	};
+
+	private Configuration buildConfiguration(int parallelism) {
+		Configuration cfg = new Configuration();
+		cfg.setProperty( Environment.BOOTSTRAP_PARALLELISM, Integer.toString( parallelism ) );
+		for ( String file : FILES ) {
+			cfg.addResource( "org/hibernate/test/" + file );
+		}
+		return cfg;
+	}
+
+	public void testParallelBootstrapMatchesSerialBootstrap() {
+		SessionFactoryImplementor serial = ( SessionFactoryImplementor ) buildConfiguration( 1 ).buildSessionFactory();
+		SessionFactoryImplementor parallel = ( SessionFactoryImplementor ) buildConfiguration( 4 ).buildSessionFactory();
+		try {
+			assertEquals( serial.getAllClassMetadata().keySet(), parallel.getAllClassMetadata().keySet() );
+			assertEquals( serial.getAllCollectionMetadata().keySet(), parallel.getAllCollectionMetadata().keySet() );
+			Iterator itr = serial.getAllClassMetadata().entrySet().iterator();
+			while ( itr.hasNext() ) {
+				String entityName = ( String ) ( ( Map.Entry ) itr.next() ).getKey();
+				OuterJoinLoadable expected = ( OuterJoinLoadable ) serial.getEntityPersister( entityName );
+				OuterJoinLoadable actual = ( OuterJoinLoadable ) parallel.getEntityPersister( entityName );
+				assertEquals( expected.selectFragment( "x", "_0" ), actual.selectFragment( "x", "_0" ) );
+				assertNotNull( parallel.getClassMetadata( entityName ) );
+			}
+			itr = serial.getAllCollectionMetadata().keySet().iterator();
+			while ( itr.hasNext() ) {
+				String role = ( String ) itr.next();
+				assertEquals(
+						serial.getCollectionPersister( role ).getElementType().getName(),
+						parallel.getCollectionPersister( role ).getElementType().getName()
+				);
+			}
+			assertNotNull( parallel.getNamedQuery( "all_details" ) );
+		}
+		finally {
+			serial.close();
+			parallel.close();
+		}
+	}
+
+	public void testParallelNamedQueryChecking() {
+		Configuration cfg = buildConfiguration( 4 );
+		cfg.addXML(
+				"<?xml version=\"1.0\"?>\n" +
+				"<!DOCTYPE hibernate-mapping PUBLIC \"-//Hibernate/Hibernate Mapping DTD 3.0//EN\" " +
+				"\"http://hibernate.sourceforge.net/hibernate-mapping-3.0.dtd\">\n" +
+				"<hibernate-mapping><query name=\"broken\">from NoSuchEntity</query></hibernate-mapping>"
+		);
+		try {
+			SessionFactory factory = cfg.buildSessionFactory();
+			factory.close();
+			fail( "named query error expected" );
+		}
+		catch ( HibernateException expected ) {
+			assertTrue( expected.getMessage().indexOf( "broken" ) >= 0 );
+		}
+	}
+
+	public void testWorkersReleasedWhenPersisterFails() throws Exception {
+		Configuration cfg = buildConfiguration( 4 );
+		cfg.addXML(
+				"<?xml version=\"1.0\"?>\n" +
+				"<!DOCTYPE hibernate-mapping PUBLIC \"-//Hibernate/Hibernate Mapping DTD 3.0//EN\" " +
+				"\"http://hibernate.sourceforge.net/hibernate-mapping-3.0.dtd\">\n" +
+				"<hibernate-mapping><class name=\"org.hibernate.test.legacy.Simple\" entity-name=\"BrokenSimple\" table=\"broken_simple\">" +
+				"<id column=\"id\" type=\"long\"><generator class=\"assigned\"/></id>" +
+				"<property name=\"noSuchProperty\" type=\"string\"/>" +
+				"</class></hibernate-mapping>"
+		);
+		try {
+			SessionFactory factory = cfg.buildSessionFactory();
+			factory.close();
+			fail( "persister failure expected" );
+		}
+		catch ( HibernateException expected ) {
+		}
+		// shut down workers finish asynchronously
+		long deadline = System.currentTimeMillis() + 5000;
+		while ( countBootstrapWorkers() > 0 && System.currentTimeMillis() < deadline ) {
+			Thread.sleep( 50 );
+		}
+		assertEquals( 0, countBootstrapWorkers() );
+	}
+
+	private static int countBootstrapWorkers() {
+		int count = 0;
+		for ( Thread thread : Thread.getAllStackTraces().keySet() ) {
+			if ( thread.isAlive() && thread.getName().startsWith( "hibernate-bootstrap-" ) ) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
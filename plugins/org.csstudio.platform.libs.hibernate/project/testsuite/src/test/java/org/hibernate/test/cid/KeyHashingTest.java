@@ -0,0 +1,94 @@
+package org.hibernate.test.cid;
+
+import java.io.Serializable;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.hibernate.EntityMode;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.CollectionKey;
+import org.hibernate.engine.EntityKey;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.junit.UnitTestCase;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+
+/**
+ * Checks that {@link EntityKey} and {@link CollectionKey} hash and compare simple
+ * (string) and non-simple (composite) keys the same way the identifier type does.
+ */
+public class KeyHashingTest extends UnitTestCase {
+	private SessionFactoryImplementor factory;
+
+	public KeyHashingTest(String string) {
+		super( string );
+	}
+
+	public static Test suite() {
+		return new TestSuite( KeyHashingTest.class );
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		Configuration cfg = new Configuration()
+				.addResource( "org/hibernate/test/cid/Customer.hbm.xml" )
+				.addResource( "org/hibernate/test/cid/Order.hbm.xml" )
+				.addResource( "org/hibernate/test/cid/LineItem.hbm.xml" )
+				.addResource( "org/hibernate/test/cid/Product.hbm.xml" );
+		factory = ( SessionFactoryImplementor ) cfg.buildSessionFactory();
+	}
+
+	protected void tearDown() throws Exception {
+		if ( factory != null ) {
+			factory.close();
+			factory = null;
+		}
+		super.tearDown();
+	}
+
+	public void testSimpleEntityKey() {
+		EntityPersister persister = factory.getEntityPersister( Customer.class.getName() );
+		assertEntityKeys( persister, "c1", new String( "c1" ), "c2" );
+	}
+
+	public void testCompositeEntityKey() {
+		EntityPersister persister = factory.getEntityPersister( Order.class.getName() );
+		assertEntityKeys( persister, new Order.Id( "c1", 1 ), new Order.Id( "c1", 1 ), new Order.Id( "c1", 2 ) );
+	}
+
+	public void testSimpleCollectionKey() {
+		CollectionPersister persister = factory.getCollectionPersister( Customer.class.getName() + ".orders" );
+		assertCollectionKeys( persister, "c1", new String( "c1" ), "c2" );
+	}
+
+	public void testCompositeCollectionKey() {
+		CollectionPersister persister = factory.getCollectionPersister( Order.class.getName() + ".lineItems" );
+		assertCollectionKeys( persister, new Order.Id( "c1", 1 ), new Order.Id( "c1", 1 ), new Order.Id( "c1", 2 ) );
+	}
+
+	private void assertEntityKeys(EntityPersister persister, Serializable id, Serializable sameId, Serializable otherId) {
+		EntityKey key = new EntityKey( id, persister, EntityMode.POJO );
+		assertEquals( expectedHashCode( persister.getRootEntityName(), persister.getIdentifierType(), id ), key.hashCode() );
+		assertEquals( key, new EntityKey( sameId, persister, EntityMode.POJO ) );
+		assertEquals( key.hashCode(), new EntityKey( sameId, persister, EntityMode.POJO ).hashCode() );
+		assertFalse( key.equals( new EntityKey( otherId, persister, EntityMode.POJO ) ) );
+	}
+
+	private void assertCollectionKeys(CollectionPersister persister, Serializable id, Serializable sameId, Serializable otherId) {
+		CollectionKey key = new CollectionKey( persister, id, EntityMode.POJO );
+		assertEquals( expectedHashCode( persister.getRole(), persister.getKeyType(), id ), key.hashCode() );
+		assertEquals( key, new CollectionKey( persister, sameId, EntityMode.POJO ) );
+		assertEquals( key.hashCode(), new CollectionKey( persister, sameId, EntityMode.POJO ).hashCode() );
+		assertFalse( key.equals( new CollectionKey( persister, otherId, EntityMode.POJO ) ) );
+	}
+
+	private int expectedHashCode(String name, Type type, Serializable id) {
+		// the hash code both keys computed before simple keys skipped the type
+		int result = 17;
+		result = 37 * result + name.hashCode();
+		result = 37 * result + type.getHashCode( id, EntityMode.POJO, factory );
+		return result;
+	}
+}
@@ -0,0 +1,44 @@
+package org.hibernate.test.collection.bag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Owns a bag of values and a bag of one-to-many associations.
+ */
+public class BagContainer {
+	private String name;
+	private List tags = new ArrayList();
+	private List items = new ArrayList();
+
+	public BagContainer() {
+	}
+
+	public BagContainer(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public List getTags() {
+		return tags;
+	}
+
+	public void setTags(List tags) {
+		this.tags = tags;
+	}
+
+	public List getItems() {
+		return items;
+	}
+
+	public void setItems(List items) {
+		this.items = items;
+	}
+}
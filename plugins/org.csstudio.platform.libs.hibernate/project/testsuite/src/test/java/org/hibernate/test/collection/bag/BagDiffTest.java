@@ -0,0 +1,116 @@
+package org.hibernate.test.collection.bag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.Test;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+
+/**
+ * Tests the dirty checking and the row diffing of bags against their snapshot.
+ */
+public class BagDiffTest extends FunctionalTestCase {
+	public BagDiffTest(String name) {
+		super( name );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "collection/bag/BagDiff.hbm.xml" };
+	}
+
+	public String getCacheConcurrencyStrategy() {
+		return null;
+	}
+
+	public void configure(Configuration cfg) {
+		cfg.setProperty( Environment.GENERATE_STATISTICS, "true" );
+		cfg.setProperty( Environment.STATEMENT_BATCH_SIZE, "50" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( BagDiffTest.class );
+	}
+
+	public void testReorderedValueBagIsNotDirty() {
+		BagContainer container = new BagContainer( "c" );
+		// the original list remains directly accessible to the application
+		List tags = container.getTags();
+		tags.add( "a" );
+		tags.add( "b" );
+		tags.add( "a" );
+		tags.add( "c" );
+
+		Session s = openSession();
+		s.beginTransaction();
+		s.save( container );
+		s.flush();
+		long updates = sfi().getStatistics().getCollectionUpdateCount();
+
+		Collections.reverse( tags );
+		s.flush();
+		assertEquals( updates, sfi().getStatistics().getCollectionUpdateCount() );
+
+		// same elements, different multiplicities
+		tags.set( 0, "a" );
+		s.flush();
+		assertEquals( updates + 1, sfi().getStatistics().getCollectionUpdateCount() );
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		container = ( BagContainer ) s.get( BagContainer.class, "c" );
+		List loaded = new ArrayList( container.getTags() );
+		Collections.sort( loaded );
+		assertEquals( "[a, a, a, b]", loaded.toString() );
+		s.delete( container );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	public void testOneToManyBagRowDiff() {
+		BagContainer container = new BagContainer( "c" );
+		for ( int i = 0; i < 10; i++ ) {
+			container.getItems().add( new BagItem( "item" + i ) );
+		}
+
+		Session s = openSession();
+		s.beginTransaction();
+		s.save( container );
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		container = ( BagContainer ) s.get( BagContainer.class, "c" );
+		List items = container.getItems();
+		BagItem first = ( BagItem ) items.remove( 0 );
+		BagItem last = ( BagItem ) items.remove( items.size() - 1 );
+		items.add( 3, last );
+		items.add( new BagItem( "item10" ) );
+		s.delete( first );
+		s.getTransaction().commit();
+		s.close();
+
+		s = openSession();
+		s.beginTransaction();
+		container = ( BagContainer ) s.get( BagContainer.class, "c" );
+		assertEquals( 10, container.getItems().size() );
+		List names = new ArrayList();
+		for ( int i = 0; i < container.getItems().size(); i++ ) {
+			names.add( ( ( BagItem ) container.getItems().get( i ) ).getName() );
+		}
+		assertFalse( names.contains( "item0" ) );
+		assertTrue( names.contains( "item9" ) );
+		assertTrue( names.contains( "item10" ) );
+		s.delete( container );
+		s.getTransaction().commit();
+		s.close();
+	}
+}
@@ -0,0 +1,32 @@
+package org.hibernate.test.collection.bag;
+
+/**
+ * The element of a one-to-many bag.
+ */
+public class BagItem {
+	private Long id;
+	private String name;
+
+	public BagItem() {
+	}
+
+	public BagItem(String name) {
+		this.name = name;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+}
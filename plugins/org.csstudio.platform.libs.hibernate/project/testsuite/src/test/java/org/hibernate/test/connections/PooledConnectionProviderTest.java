@@ -0,0 +1,92 @@
+package org.hibernate.test.connections;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import junit.framework.Test;
+
+import org.hibernate.ConnectionReleaseMode;
+import org.hibernate.Session;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.connection.ConnectionPoolStatistics;
+import org.hibernate.connection.PooledConnectionProvider;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+
+/**
+ * Runs the connection management tests against {@link PooledConnectionProvider}
+ * and checks the pool specific behavior.
+ */
+public class PooledConnectionProviderTest extends ConnectionManagementTestCase {
+
+	public PooledConnectionProviderTest(String name) {
+		super( name );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( PooledConnectionProviderTest.class );
+	}
+
+	protected Session getSessionUnderTest() {
+		return openSession();
+	}
+
+	protected void reconnect(Session session) {
+		session.reconnect();
+	}
+
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.RELEASE_CONNECTIONS, ConnectionReleaseMode.ON_CLOSE.toString() );
+		cfg.setProperty( Environment.CONNECTION_PROVIDER, PooledConnectionProvider.class.getName() );
+	}
+
+	public void testReturnedConnectionIsReused() throws Exception {
+		PooledConnectionProvider provider = (PooledConnectionProvider) sfi().getConnectionProvider();
+		ConnectionPoolStatistics stats = provider.getStatistics();
+		stats.clear();
+
+		Connection first = provider.getConnection();
+		assertEquals( 1, stats.getActiveCount() );
+		provider.closeConnection( first );
+		assertEquals( 0, stats.getActiveCount() );
+
+		Connection second = provider.getConnection();
+		assertSame( first, second );
+		provider.closeConnection( second );
+
+		assertEquals( 2, stats.getBorrowCount() );
+		assertEquals( 1, stats.getThreadLocalHitCount() );
+		assertEquals( 0, stats.getTimeoutCount() );
+	}
+
+	public void testBorrowTimesOutWhenExhausted() throws Exception {
+		Properties props = new Properties();
+		props.putAll( getCfg().getProperties() );
+		props.setProperty( Environment.POOL_SIZE, "1" );
+		props.setProperty( Environment.POOL_MAX_WAIT, "50" );
+		props.setProperty( Environment.POOL_HOUSEKEEPING_PERIOD, "0" );
+		PooledConnectionProvider provider = new PooledConnectionProvider();
+		provider.configure( props );
+		try {
+			Connection connection = provider.getConnection();
+			try {
+				provider.getConnection();
+				fail( "expecting timeout" );
+			}
+			catch ( SQLException expected ) {
+			}
+			assertEquals( 1, provider.getStatistics().getTimeoutCount() );
+			provider.closeConnection( connection );
+
+			connection = provider.getConnection();
+			provider.closeConnection( connection );
+			assertEquals( 1, provider.getStatistics().getCreatedCount() );
+		}
+		finally {
+			provider.close();
+		}
+		assertEquals( 0, provider.getStatistics().getTotalCount() );
+	}
+}
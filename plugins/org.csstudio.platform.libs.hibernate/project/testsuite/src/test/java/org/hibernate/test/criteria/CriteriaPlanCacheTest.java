@@ -0,0 +1,160 @@
+package org.hibernate.test.criteria;
+
+import java.util.List;
+
+import junit.framework.Test;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.criterion.Example;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Verifies that criteria queries differing only in their values share a
+ * cached loader.
+ */
+public class CriteriaPlanCacheTest extends FunctionalTestCase {
+
+	public CriteriaPlanCacheTest(String str) {
+		super( str );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "criteria/Enrolment.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.GENERATE_STATISTICS, "true" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( CriteriaPlanCacheTest.class );
+	}
+
+	public void testLoaderReusedAcrossValues() {
+		createStudents();
+		Statistics stats = getSessions().getStatistics();
+		stats.clear();
+
+		Session s = openSession();
+		Transaction t = s.beginTransaction();
+		List result = s.createCriteria( Student.class )
+				.add( Restrictions.eq( "name", "Gavin" ) )
+				.list();
+		assertEquals( 1, result.size() );
+		assertEquals( "Gavin", ( (Student) result.get( 0 ) ).getName() );
+		assertEquals( 1, stats.getCriteriaPlanCacheMissCount() );
+		assertEquals( 0, stats.getCriteriaPlanCacheHitCount() );
+
+		result = s.createCriteria( Student.class )
+				.add( Restrictions.eq( "name", "Max" ) )
+				.list();
+		assertEquals( 1, result.size() );
+		assertEquals( "Max", ( (Student) result.get( 0 ) ).getName() );
+		assertEquals( 1, stats.getCriteriaPlanCacheMissCount() );
+		assertEquals( 1, stats.getCriteriaPlanCacheHitCount() );
+
+		// a different number of IN values produces different SQL
+		result = s.createCriteria( Student.class )
+				.add( Restrictions.in( "name", new Object[] { "Gavin", "Max" } ) )
+				.list();
+		assertEquals( 2, result.size() );
+		result = s.createCriteria( Student.class )
+				.add( Restrictions.in( "name", new Object[] { "Gavin", "Max", "Steve" } ) )
+				.list();
+		assertEquals( 3, result.size() );
+		assertEquals( 3, stats.getCriteriaPlanCacheMissCount() );
+		assertEquals( 1, stats.getCriteriaPlanCacheHitCount() );
+		t.commit();
+		s.close();
+
+		deleteStudents();
+	}
+
+	public void testProjectionLoaderReused() {
+		createStudents();
+		Statistics stats = getSessions().getStatistics();
+		stats.clear();
+
+		Session s = openSession();
+		Transaction t = s.beginTransaction();
+		List names = s.createCriteria( Student.class )
+				.add( Restrictions.gt( "studentNumber", new Long( 100 ) ) )
+				.setProjection( Projections.property( "name" ) )
+				.addOrder( Order.asc( "name" ) )
+				.list();
+		assertEquals( 2, names.size() );
+		assertEquals( "Max", names.get( 0 ) );
+		assertEquals( "Steve", names.get( 1 ) );
+
+		names = s.createCriteria( Student.class )
+				.add( Restrictions.gt( "studentNumber", new Long( 200 ) ) )
+				.setProjection( Projections.property( "name" ) )
+				.addOrder( Order.asc( "name" ) )
+				.list();
+		assertEquals( 1, names.size() );
+		assertEquals( "Steve", names.get( 0 ) );
+		assertEquals( 1, stats.getCriteriaPlanCacheMissCount() );
+		assertEquals( 1, stats.getCriteriaPlanCacheHitCount() );
+		t.commit();
+		s.close();
+
+		deleteStudents();
+	}
+
+	public void testExampleNotCached() {
+		createStudents();
+		Statistics stats = getSessions().getStatistics();
+		stats.clear();
+
+		Session s = openSession();
+		Transaction t = s.beginTransaction();
+		Student example = new Student();
+		example.setName( "Max" );
+		for ( int i = 0; i < 2; i++ ) {
+			List result = s.createCriteria( Student.class )
+					.add( Example.create( example ).excludeZeroes() )
+					.list();
+			assertEquals( 1, result.size() );
+		}
+		assertEquals( 0, stats.getCriteriaPlanCacheHitCount() );
+		assertEquals( 2, stats.getCriteriaPlanCacheMissCount() );
+		t.commit();
+		s.close();
+
+		deleteStudents();
+	}
+
+	private void createStudents() {
+		Session s = openSession();
+		Transaction t = s.beginTransaction();
+		s.persist( student( 1, "Gavin" ) );
+		s.persist( student( 101, "Max" ) );
+		s.persist( student( 201, "Steve" ) );
+		t.commit();
+		s.close();
+	}
+
+	private Student student(long number, String name) {
+		Student student = new Student();
+		student.setStudentNumber( number );
+		student.setName( name );
+		return student;
+	}
+
+	private void deleteStudents() {
+		Session s = openSession();
+		Transaction t = s.beginTransaction();
+		s.createQuery( "delete from Student" ).executeUpdate();
+		t.commit();
+		s.close();
+	}
+}
@@ -0,0 +1,84 @@
+package org.hibernate.test.hql;
+
+import junit.framework.Test;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests bulk updates and deletes spanning several tables with the temporary id
+ * table reused and the per-table statements sent as one JDBC batch.
+ */
+public class BulkIdTableReuseTest extends FunctionalTestCase {
+
+	private static final Logger log = LoggerFactory.getLogger( BulkIdTableReuseTest.class );
+
+	public BulkIdTableReuseTest(String name) {
+		super( name );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "hql/Animal.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.BULK_ID_TABLE_REUSE, "true" );
+		cfg.setProperty( Environment.STATEMENT_BATCH_SIZE, "10" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( BulkIdTableReuseTest.class );
+	}
+
+	public boolean appliesTo(Dialect dialect) {
+		return dialect.supportsTemporaryTables();
+	}
+
+	public void testRepeatedBulkOperations() {
+		final int executions = 50;
+		long start = System.currentTimeMillis();
+		for ( int i = 0; i < executions; i++ ) {
+			Session s = openSession();
+			Transaction t = s.beginTransaction();
+			for ( int j = 0; j < 3; j++ ) {
+				Human human = new Human();
+				human.setDescription( "human " + j );
+				human.setBodyWeight( j );
+				human.setNickName( "nick " + j );
+				s.save( human );
+			}
+			s.flush();
+
+			int count = s.createQuery( "update Human h set h.bodyWeight = 100, h.nickName = 'renamed' where h.bodyWeight > 0" )
+					.executeUpdate();
+			assertEquals( 2, count );
+			count = s.createQuery( "update Human h set h.nickName = :nickName where h.bodyWeight = 0" )
+					.setString( "nickName", "bound" )
+					.executeUpdate();
+			assertEquals( 1, count );
+			s.clear();
+			assertEquals( new Long( 2 ), s.createQuery( "select count(*) from Human h where h.nickName = 'renamed' and h.bodyWeight = 100" ).uniqueResult() );
+
+			count = s.createQuery( "delete Human h where h.nickName = 'renamed'" ).executeUpdate();
+			assertEquals( 2, count );
+			count = s.createQuery( "delete Mammal" ).executeUpdate();
+			assertEquals( 1, count );
+			assertEquals( new Long( 0 ), s.createQuery( "select count(*) from Animal" ).uniqueResult() );
+			t.commit();
+			s.close();
+		}
+		log.info(
+				executions + " rounds of bulk updates and deletes on " + getDialect().getClass().getName()
+						+ " took " + ( System.currentTimeMillis() - start ) + "ms"
+		);
+	}
+}
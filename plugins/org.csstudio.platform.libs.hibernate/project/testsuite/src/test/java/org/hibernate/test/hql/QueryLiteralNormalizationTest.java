@@ -0,0 +1,125 @@
+package org.hibernate.test.hql;
+
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.Test;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.engine.query.HQLQueryPlan;
+import org.hibernate.hql.ast.QueryLiteralNormalizer;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+
+/**
+ * Tests the sharing of query plans between queries differing only in their literals.
+ */
+public class QueryLiteralNormalizationTest extends FunctionalTestCase {
+
+	public QueryLiteralNormalizationTest(String name) {
+		super( name );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "hql/Animal.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.QUERY_PLAN_NORMALIZE_LITERALS, "true" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( QueryLiteralNormalizationTest.class );
+	}
+
+	public void testNormalizedQueries() {
+		assertNormalized(
+				"from Animal a where a.description = :_literal0 and a.id in (:_literal1, :_literal2)",
+				"from Animal a where a.description = 'it''s' and a.id in (1, 2)"
+		);
+		assertNormalized(
+				"from Animal a where lower(a.description) like :_literal0 order by a.id",
+				"from Animal a where lower(a.description) like 'a%' order by a.id"
+		);
+		// arithmetic, the select clause and existing parameters are left alone
+		assertNull( QueryLiteralNormalizer.normalize( "from Animal a where a.bodyWeight > 1 + 1" ) );
+		assertNull( QueryLiteralNormalizer.normalize( "select 'x' from Animal a where a.bodyWeight between 1 and 2" ) );
+		assertNull( QueryLiteralNormalizer.normalize( "from Animal a where a.description = :_literal0" ) );
+	}
+
+	private void assertNormalized(String expected, String query) {
+		QueryLiteralNormalizer.Result result = QueryLiteralNormalizer.normalize( query );
+		assertNotNull( result );
+		assertEquals( expected, result.getQuery() );
+	}
+
+	public void testPlanSharing() {
+		HQLQueryPlan first = sfi().getQueryPlanCache()
+				.getHQLQueryPlan( "from Animal a where a.description = 'first'", false, Collections.EMPTY_MAP );
+		HQLQueryPlan second = sfi().getQueryPlanCache()
+				.getHQLQueryPlan( "from Animal a where a.description = 'second'", false, Collections.EMPTY_MAP );
+		assertEquals( "from Animal a where a.description = 'second'", second.getSourceQuery() );
+		assertSame( first.getSqlStrings(), second.getSqlStrings() );
+		assertTrue( second.getParameterMetadata().getNamedParameterNames().isEmpty() );
+	}
+
+	public void testLiteralsOfOtherTypesStayInQuery() {
+		// a string compared to a date, and an integer compared to a float
+		HQLQueryPlan first = sfi().getQueryPlanCache().getHQLQueryPlan(
+				"from Mammal m where m.birthdate = '2000-01-01' and m.bodyWeight = 1 and m.description = 'first'",
+				false,
+				Collections.EMPTY_MAP
+		);
+		String sql = first.getSqlStrings()[0];
+		assertTrue( sql, sql.indexOf( "'2000-01-01'" ) >= 0 );
+		assertTrue( sql, sql.indexOf( "=1" ) >= 0 );
+		assertTrue( sql, sql.indexOf( "'first'" ) < 0 );
+
+		// the string compared to a string property is still lifted
+		HQLQueryPlan second = sfi().getQueryPlanCache().getHQLQueryPlan(
+				"from Mammal m where m.birthdate = '2000-01-01' and m.bodyWeight = 1 and m.description = 'second'",
+				false,
+				Collections.EMPTY_MAP
+		);
+		assertSame( first.getSqlStrings(), second.getSqlStrings() );
+		assertTrue( second.getParameterMetadata().getNamedParameterNames().isEmpty() );
+
+		// integers compared to a long identifier are bound as longs
+		HQLQueryPlan ids = sfi().getQueryPlanCache()
+				.getHQLQueryPlan( "from Animal a where a.id in (1, 2)", false, Collections.EMPTY_MAP );
+		assertTrue( ids.getSqlStrings()[0].indexOf( "?" ) >= 0 );
+	}
+
+	public void testResults() {
+		Session s = openSession();
+		Transaction t = s.beginTransaction();
+		for ( int i = 0; i < 3; i++ ) {
+			Animal animal = new Animal();
+			animal.setDescription( "animal " + i );
+			animal.setBodyWeight( i );
+			s.save( animal );
+		}
+		t.commit();
+		s.close();
+
+		s = openSession();
+		t = s.beginTransaction();
+		for ( int i = 0; i < 3; i++ ) {
+			List results = s.createQuery( "from Animal a where a.description = 'animal " + i + "'" ).list();
+			assertEquals( 1, results.size() );
+			assertEquals( "animal " + i, ( ( Animal ) results.get( 0 ) ).getDescription() );
+		}
+		List results = s.createQuery( "select a.description from Animal a where a.description like 'animal%' and a.bodyWeight > :weight order by a.description" )
+				.setFloat( "weight", 0 )
+				.list();
+		assertEquals( 2, results.size() );
+		assertEquals( "animal 1", results.get( 0 ) );
+		assertEquals( 3, s.createQuery( "delete Animal a where a.description like 'animal%'" ).executeUpdate() );
+		t.commit();
+		s.close();
+	}
+}
@@ -0,0 +1,75 @@
+package org.hibernate.test.insertordering;
+
+import java.util.Iterator;
+
+import junit.framework.Test;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+import org.hibernate.test.insertordering.InsertOrderingTest.StatsBatcher;
+import org.hibernate.test.insertordering.InsertOrderingTest.StatsBatcherFactory;
+
+/**
+ * Tests the dependency-aware grouping of flush statements enabled by
+ * {@link Environment#ORDER_FLUSH}.
+ */
+public class FlushOrderingTest extends FunctionalTestCase {
+	public FlushOrderingTest(String string) {
+		super( string );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( FlushOrderingTest.class );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "insertordering/Mapping.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.ORDER_FLUSH, "true" );
+		cfg.setProperty( Environment.STATEMENT_BATCH_SIZE, "10" );
+		cfg.setProperty( Environment.BATCH_STRATEGY, StatsBatcherFactory.class.getName() );
+	}
+
+	public void testInsertAndDeleteBatching() {
+		Session s = openSession();
+		s.beginTransaction();
+		int iterations = 12;
+		for ( int i = 0; i < iterations; i++ ) {
+			User user = new User( "user-" + i );
+			Group group = new Group( "group-" + i );
+			s.save( user );
+			s.save( group );
+			user.addMembership( group );
+		}
+		StatsBatcher.reset();
+		s.getTransaction().commit();
+		s.close();
+
+		assertEquals( 6, StatsBatcher.batchSizes.size() );  // 2 batches of each insert statement
+
+		s = openSession();
+		s.beginTransaction();
+		Iterator users = s.createQuery( "from User u left join fetch u.memberships m left join fetch m.group" ).list().iterator();
+		while ( users.hasNext() ) {
+			s.delete( users.next() );
+		}
+		StatsBatcher.reset();
+		s.getTransaction().commit();
+		s.close();
+
+		assertEquals( 6, StatsBatcher.batchSizes.size() );  // 2 batches of each delete statement
+
+		s = openSession();
+		s.beginTransaction();
+		assertEquals( 0, s.createQuery( "from Membership" ).list().size() );
+		assertEquals( 0, s.createQuery( "from Group" ).list().size() );
+		s.getTransaction().commit();
+		s.close();
+	}
+}
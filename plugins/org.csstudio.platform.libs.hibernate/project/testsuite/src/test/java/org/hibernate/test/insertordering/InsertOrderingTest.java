@@ -79,7 +79,7 @@ public class InsertOrderingTest extends FunctionalTestCase {
 
 	public static class StatsBatcher extends BatchingBatcher {
 		private static String batchSQL;
-		private static List batchSizes = new ArrayList();
+		static List batchSizes = new ArrayList();
 		private static int currentBatch = -1;
 
 		public StatsBatcher(ConnectionManager connectionManager, Interceptor interceptor) {
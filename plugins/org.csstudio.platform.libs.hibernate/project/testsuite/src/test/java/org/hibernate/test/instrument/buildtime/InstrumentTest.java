@@ -8,7 +8,9 @@ import org.hibernate.intercept.FieldInterceptionHelper;
 import org.hibernate.junit.UnitTestCase;
 import org.hibernate.test.instrument.cases.Executable;
 import org.hibernate.test.instrument.cases.TestCustomColumnReadAndWrite;
+import org.hibernate.test.instrument.cases.TestDeleteCycleExecutable;
 import org.hibernate.test.instrument.cases.TestDirtyCheckExecutable;
+import org.hibernate.test.instrument.cases.TestDirtyTrackingExecutable;
 import org.hibernate.test.instrument.cases.TestFetchAllExecutable;
 import org.hibernate.test.instrument.cases.TestInjectFieldInterceptorExecutable;
 import org.hibernate.test.instrument.cases.TestIsPropertyInitializedExecutable;
@@ -36,6 +38,14 @@ public class InstrumentTest extends UnitTestCase {
 		execute( new TestDirtyCheckExecutable() );
 	}
 
+	public void testDirtyTracking() throws Exception {
+		execute( new TestDirtyTrackingExecutable() );
+	}
+
+	public void testDeleteCycle() throws Exception {
+		execute( new TestDeleteCycleExecutable() );
+	}
+
 	public void testFetchAll() throws Exception {
 		execute( new TestFetchAllExecutable() );
 	}
@@ -0,0 +1,43 @@
+package org.hibernate.test.instrument.cases;
+
+import junit.framework.Assert;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.test.instrument.domain.Folder;
+
+/**
+ * Checks that deleting instrumented entities referencing each other nulls the
+ * foreign keys before the deletes, although no field of theirs was written.
+ */
+public class TestDeleteCycleExecutable extends AbstractExecutable {
+	public void execute() {
+		Session s = getFactory().openSession();
+		Transaction t = s.beginTransaction();
+		Folder first = new Folder();
+		first.setName( "first" );
+		Folder second = new Folder();
+		second.setName( "second" );
+		s.persist( first );
+		s.persist( second );
+		first.setParent( second );
+		second.setParent( first );
+		t.commit();
+		s.close();
+
+		s = getFactory().openSession();
+		t = s.beginTransaction();
+		first = ( Folder ) s.get( Folder.class, first.getId() );
+		second = ( Folder ) s.get( Folder.class, second.getId() );
+		s.delete( first );
+		s.delete( second );
+		t.commit();
+		s.close();
+
+		s = getFactory().openSession();
+		t = s.beginTransaction();
+		Assert.assertEquals( 0, s.createQuery( "from Folder" ).list().size() );
+		t.commit();
+		s.close();
+	}
+}
@@ -0,0 +1,64 @@
+package org.hibernate.test.instrument.cases;
+
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.intercept.AbstractFieldInterceptor;
+import org.hibernate.intercept.FieldInterceptionHelper;
+import org.hibernate.test.instrument.domain.Owner;
+
+/**
+ * Checks that instrumented entities record which fields were written, and that
+ * flush only updates the entities which were actually written.
+ */
+public class TestDirtyTrackingExecutable extends AbstractExecutable {
+	public void execute() {
+		Session s = getFactory().openSession();
+		Transaction t = s.beginTransaction();
+		for ( int i = 0; i < 3; i++ ) {
+			Owner o = new Owner();
+			o.setName( "owner-" + i );
+			s.persist( o );
+		}
+		t.commit();
+		s.close();
+
+		getFactory().getStatistics().clear();
+		getFactory().getStatistics().setStatisticsEnabled( true );
+
+		s = getFactory().openSession();
+		t = s.beginTransaction();
+		List owners = s.createQuery( "from Owner o order by o.name" ).list();
+		for ( Iterator itr = owners.iterator(); itr.hasNext(); ) {
+			Assert.assertFalse( FieldInterceptionHelper.extractFieldInterceptor( itr.next() ).isDirty() );
+		}
+		Owner changed = ( Owner ) owners.get( 1 );
+		changed.setName( "changed" );
+		AbstractFieldInterceptor interceptor = ( AbstractFieldInterceptor ) FieldInterceptionHelper.extractFieldInterceptor( changed );
+		Assert.assertTrue( interceptor.isDirty() );
+		Assert.assertEquals( 1, interceptor.getDirtyFields().size() );
+		Assert.assertTrue( interceptor.getDirtyFields().contains( "name" ) );
+		s.flush();
+		Assert.assertEquals( 1, getFactory().getStatistics().getEntityUpdateCount() );
+		Assert.assertFalse( interceptor.isDirty() );
+		Assert.assertTrue( interceptor.getDirtyFields().isEmpty() );
+
+		// writing the same value is detected as no change
+		changed.setName( "changed" );
+		s.flush();
+		Assert.assertEquals( 1, getFactory().getStatistics().getEntityUpdateCount() );
+		t.commit();
+		s.close();
+
+		s = getFactory().openSession();
+		t = s.beginTransaction();
+		Assert.assertEquals( 1, s.createQuery( "from Owner o where o.name = 'changed'" ).list().size() );
+		s.createQuery( "delete from Owner" ).executeUpdate();
+		t.commit();
+		s.close();
+	}
+}
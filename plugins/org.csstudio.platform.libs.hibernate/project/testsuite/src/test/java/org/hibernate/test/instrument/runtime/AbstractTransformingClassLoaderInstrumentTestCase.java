@@ -54,6 +54,14 @@ public abstract class AbstractTransformingClassLoaderInstrumentTestCase extends
 		executeExecutable( "org.hibernate.test.instrument.cases.TestDirtyCheckExecutable" );
 	}
 
+	public void testDirtyTracking() {
+		executeExecutable( "org.hibernate.test.instrument.cases.TestDirtyTrackingExecutable" );
+	}
+
+	public void testDeleteCycle() {
+		executeExecutable( "org.hibernate.test.instrument.cases.TestDeleteCycleExecutable" );
+	}
+
 	public void testFetchAll() throws Exception {
 		executeExecutable( "org.hibernate.test.instrument.cases.TestFetchAllExecutable" );
 	}
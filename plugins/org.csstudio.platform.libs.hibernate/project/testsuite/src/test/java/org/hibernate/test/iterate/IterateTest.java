@@ -1,11 +1,14 @@
 //$Id: IterateTest.java 10977 2006-12-12 23:28:04Z steve.ebersole@jboss.com $
 package org.hibernate.test.iterate;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import junit.framework.Test;
 
 import org.hibernate.Hibernate;
+import org.hibernate.ResultHandler;
 import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
@@ -101,5 +104,59 @@ public class IterateTest extends FunctionalTestCase {
 		s.close();
 		assertEquals( getSessions().getStatistics().getEntityFetchCount(), 0 );
 	}
-}
 
+	public void testStream() throws Exception {
+		getSessions().getStatistics().clear();
+		Session s = openSession();
+		Transaction t = s.beginTransaction();
+		for ( int i = 0; i < 25; i++ ) {
+			s.persist( "Item", new Item( "item-" + ( i < 10 ? "0" + i : String.valueOf( i ) ) ) );
+		}
+		t.commit();
+		s.close();
+
+		s = openSession();
+		t = s.beginTransaction();
+		final Session session = s;
+		final List names = new ArrayList();
+		s.createQuery( "from Item order by name" ).stream(
+				new ResultHandler() {
+					public void handleResult(Object result) {
+						Item item = (Item) result;
+						assertTrue( Hibernate.isInitialized( item ) );
+						assertTrue( session.contains( item ) );
+						names.add( item.getName() );
+					}
+				},
+				10,
+				true
+		);
+		assertEquals( 25, names.size() );
+		assertEquals( "item-00", names.get( 0 ) );
+		assertEquals( "item-24", names.get( 24 ) );
+		// every chunk was evicted once handled
+		assertEquals( 0, s.getStatistics().getEntityCount() );
+		t.commit();
+		s.close();
+
+		s = openSession();
+		t = s.beginTransaction();
+		final List items = new ArrayList();
+		s.createQuery( "from Item" ).stream(
+				new ResultHandler() {
+					public void handleResult(Object result) {
+						items.add( result );
+					}
+				},
+				7,
+				false
+		);
+		assertEquals( 25, items.size() );
+		assertEquals( 25, s.getStatistics().getEntityCount() );
+		for ( Iterator iter = items.iterator(); iter.hasNext(); ) {
+			s.delete( iter.next() );
+		}
+		t.commit();
+		s.close();
+	}
+}
@@ -1,6 +1,10 @@
 //$Id: CacheTest.java 11398 2007-04-10 14:54:07Z steve.ebersole@jboss.com $
 package org.hibernate.test.legacy;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
@@ -140,4 +144,62 @@ public class CacheTest extends UnitTestCase {
 
 	}
 
+	public void testConcurrentReadWrite() throws Exception {
+		final int threadCount = 8;
+		final int keysPerThread = 50;
+		final int rounds = 200;
+		final Cache cache = new HashtableCacheProvider().buildCache( String.class.getName(), System.getProperties() );
+		final CacheConcurrencyStrategy ccs = new ReadWriteCache();
+		ccs.setCache( cache );
+		final List failures = Collections.synchronizedList( new ArrayList() );
+
+		Thread[] threads = new Thread[threadCount];
+		for ( int t = 0; t < threadCount; t++ ) {
+			final int thread = t;
+			threads[t] = new Thread() {
+				public void run() {
+					try {
+						for ( int round = 0; round < rounds; round++ ) {
+							for ( int i = 0; i < keysPerThread; i++ ) {
+								// keys owned by this thread: every update must be visible straight away
+								String key = "key" + thread + '_' + i;
+								String value = thread + ":" + round;
+								SoftLock lock = ccs.lock( key, null );
+								if ( ccs.get( key, Long.MAX_VALUE ) != null ) {
+									failures.add( "locked item was readable: " + key );
+								}
+								if ( !ccs.afterUpdate( key, value, null, lock ) ) {
+									failures.add( "update was not cached: " + key );
+								}
+								Object cached = ccs.get( key, Long.MAX_VALUE );
+								if ( !value.equals( cached ) ) {
+									failures.add( "expected " + value + " but read " + cached + " for " + key );
+								}
+							}
+							// a key contended by all threads: locks must never leak
+							SoftLock lock = ccs.lock( "shared", null );
+							ccs.release( "shared", lock );
+						}
+					}
+					catch ( Throwable e ) {
+						failures.add( e.toString() );
+					}
+				}
+			};
+		}
+		for ( int t = 0; t < threadCount; t++ ) {
+			threads[t].start();
+		}
+		for ( int t = 0; t < threadCount; t++ ) {
+			threads[t].join();
+		}
+		assertTrue( failures.toString(), failures.isEmpty() );
+
+		Thread.sleep( 15 );
+		long after = cache.nextTimestamp();
+		assertTrue( ccs.put( "shared", "final", after, null, null, false ) );
+		Thread.sleep( 15 );
+		assertEquals( "final", ccs.get( "shared", cache.nextTimestamp() ) );
+	}
+
 }
@@ -0,0 +1,21 @@
+package org.hibernate.test.localcache;
+
+public class Category {
+	private Long id;
+	private String name;
+
+	public Category() {
+	}
+
+	public Category(String name) {
+		this.name = name;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
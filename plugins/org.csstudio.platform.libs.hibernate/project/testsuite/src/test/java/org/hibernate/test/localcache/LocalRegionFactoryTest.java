@@ -0,0 +1,144 @@
+package org.hibernate.test.localcache;
+
+import junit.framework.Test;
+
+import org.hibernate.Session;
+import org.hibernate.cache.impl.local.LocalCache;
+import org.hibernate.cache.impl.local.LocalRegionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+
+/**
+ * Second-level caching through {@link LocalRegionFactory}.
+ */
+public class LocalRegionFactoryTest extends FunctionalTestCase {
+	private static final long PRODUCT_REGION_SIZE = 64 * 1024;
+
+	public LocalRegionFactoryTest(String name) {
+		super( name );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "localcache/Product.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		cfg.setProperty( Environment.USE_SECOND_LEVEL_CACHE, "true" );
+		cfg.setProperty( Environment.CACHE_REGION_FACTORY, LocalRegionFactory.class.getName() );
+		cfg.setProperty( Environment.GENERATE_STATISTICS, "true" );
+		cfg.setProperty(
+				LocalRegionFactory.PREFIX + Product.class.getName() + '.' + LocalRegionFactory.MAX_SIZE,
+				String.valueOf( PRODUCT_REGION_SIZE )
+		);
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( LocalRegionFactoryTest.class );
+	}
+
+	public void testCachedLoad() {
+		Session s = openSession();
+		s.beginTransaction();
+		Product product = new Product( "widget", "a widget" );
+		s.persist( product );
+		Category category = new Category( "tools" );
+		s.persist( category );
+		s.getTransaction().commit();
+		s.close();
+
+		getSessions().getStatistics().clear();
+		s = openSession();
+		s.beginTransaction();
+		assertEquals( "widget", ( (Product) s.get( Product.class, product.getId() ) ).getName() );
+		assertEquals( "tools", ( (Category) s.get( Category.class, category.getId() ) ).getName() );
+		s.getTransaction().commit();
+		s.close();
+		assertEquals( 2, getSessions().getStatistics().getSecondLevelCacheHitCount() );
+		assertEquals( 0, getSessions().getStatistics().getSecondLevelCacheMissCount() );
+
+		SecondLevelCacheStatistics regionStats = getSessions().getStatistics()
+				.getSecondLevelCacheStatistics( Product.class.getName() );
+		assertEquals( 1, regionStats.getElementCountInMemory() );
+		assertTrue( regionStats.getSizeInMemory() > 0 );
+
+		s = openSession();
+		s.beginTransaction();
+		s.createQuery( "delete from Product" ).executeUpdate();
+		s.createQuery( "delete from Category" ).executeUpdate();
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	public void testRegionStaysWithinBudget() {
+		StringBuffer description = new StringBuffer();
+		for ( int i = 0; i < 100; i++ ) {
+			description.append( "0123456789" );
+		}
+		Session s = openSession();
+		s.beginTransaction();
+		for ( int i = 0; i < 500; i++ ) {
+			s.persist( new Product( "product " + i, description.toString() ) );
+		}
+		s.getTransaction().commit();
+		s.close();
+
+		SecondLevelCacheStatistics regionStats = getSessions().getStatistics()
+				.getSecondLevelCacheStatistics( Product.class.getName() );
+		assertTrue( regionStats.getElementCountInMemory() > 0 );
+		assertTrue( regionStats.getElementCountInMemory() < 500 );
+		assertTrue( regionStats.getSizeInMemory() <= PRODUCT_REGION_SIZE );
+
+		s = openSession();
+		s.beginTransaction();
+		s.createQuery( "delete from Product" ).executeUpdate();
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	public void testFrequentlyReadEntriesSurviveScan() {
+		LocalCache cache = new LocalCache( "test", 16 * 1024, 0, 0 );
+		for ( int i = 0; i < 10; i++ ) {
+			cache.put( "hot" + i, new byte[256] );
+		}
+		for ( int round = 0; round < 5; round++ ) {
+			for ( int i = 0; i < 10; i++ ) {
+				assertNotNull( cache.get( "hot" + i ) );
+			}
+		}
+		// a one-off scan much larger than the cache must not flush the popular entries
+		for ( int i = 0; i < 1000; i++ ) {
+			cache.put( "cold" + i, new byte[256] );
+		}
+		int survivors = 0;
+		for ( int i = 0; i < 10; i++ ) {
+			if ( cache.get( "hot" + i ) != null ) {
+				survivors++;
+			}
+		}
+		assertEquals( 10, survivors );
+		assertTrue( cache.getEvictionCount() > 0 );
+		assertTrue( cache.getSizeInMemory() <= 16 * 1024 );
+	}
+
+	public void testExpiry() throws Exception {
+		LocalCache cache = new LocalCache( "test", -1, 50, 0 );
+		cache.put( "key", "value" );
+		assertEquals( "value", cache.get( "key" ) );
+		Thread.sleep( 100 );
+		assertNull( cache.get( "key" ) );
+		assertEquals( 0, cache.getElementCountInMemory() );
+		assertEquals( 1, cache.getExpirationCount() );
+
+		cache = new LocalCache( "test", -1, 0, 50 );
+		cache.put( "key", "value" );
+		for ( int i = 0; i < 4; i++ ) {
+			Thread.sleep( 20 );
+			assertEquals( "value", cache.get( "key" ) );
+		}
+		Thread.sleep( 100 );
+		assertNull( cache.get( "key" ) );
+	}
+}
@@ -0,0 +1,27 @@
+package org.hibernate.test.localcache;
+
+public class Product {
+	private Long id;
+	private String name;
+	private String description;
+
+	public Product() {
+	}
+
+	public Product(String name, String description) {
+		this.name = name;
+		this.description = description;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+}
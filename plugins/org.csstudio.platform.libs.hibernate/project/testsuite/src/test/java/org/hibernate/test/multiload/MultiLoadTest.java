@@ -0,0 +1,149 @@
+package org.hibernate.test.multiload;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.Test;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Tests for {@link org.hibernate.Session#byMultipleIds(Class)}.
+ */
+public class MultiLoadTest extends FunctionalTestCase {
+
+	public MultiLoadTest(String str) {
+		super( str );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "multiload/Person.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.USE_SECOND_LEVEL_CACHE, "true" );
+		cfg.setProperty( Environment.GENERATE_STATISTICS, "true" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( MultiLoadTest.class );
+	}
+
+	protected void prepareTest() throws Exception {
+		Session s = openSession();
+		s.beginTransaction();
+		for ( int i = 1; i <= 10; i++ ) {
+			s.persist( new Person( new Long( i ), "person" + i ) );
+		}
+		s.getTransaction().commit();
+		s.close();
+		getSessions().getCache().evictEntityRegion( Person.class );
+	}
+
+	protected void cleanupTest() throws Exception {
+		Session s = openSession();
+		s.beginTransaction();
+		s.createQuery( "delete from Person" ).executeUpdate();
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	public void testInputOrder() {
+		Statistics stats = getSessions().getStatistics();
+		stats.clear();
+
+		Session s = openSession();
+		s.beginTransaction();
+		List result = s.byMultipleIds( Person.class ).multiLoad( ids( new long[] { 5, 3, 99, 3, 1 } ) );
+		assertEquals( 5, result.size() );
+		assertEquals( "person5", ( ( Person ) result.get( 0 ) ).getName() );
+		assertEquals( "person3", ( ( Person ) result.get( 1 ) ).getName() );
+		assertNull( result.get( 2 ) );
+		assertSame( result.get( 1 ), result.get( 3 ) );
+		assertEquals( "person1", ( ( Person ) result.get( 4 ) ).getName() );
+		assertEquals( 1, stats.getPrepareStatementCount() );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	public void testSessionThenCacheThenDatabase() {
+		Session s = openSession();
+		s.beginTransaction();
+		for ( int i = 1; i <= 5; i++ ) {
+			s.get( Person.class, new Long( i ) );
+		}
+		s.getTransaction().commit();
+		s.close();
+
+		Statistics stats = getSessions().getStatistics();
+		s = openSession();
+		s.beginTransaction();
+		Person six = ( Person ) s.get( Person.class, new Long( 6 ) );
+		stats.clear();
+
+		List result = s.byMultipleIds( Person.class ).multiLoad( ids( new long[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 } ) );
+		for ( int i = 0; i < 10; i++ ) {
+			assertEquals( "person" + ( i + 1 ), ( ( Person ) result.get( i ) ).getName() );
+		}
+		assertSame( six, result.get( 5 ) );
+		assertEquals( 5, stats.getSecondLevelCacheHitCount() );
+		assertEquals( 4, stats.getSecondLevelCacheMissCount() );
+		assertEquals( 1, stats.getPrepareStatementCount() );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	public void testBatchSize() {
+		Statistics stats = getSessions().getStatistics();
+		stats.clear();
+
+		Session s = openSession();
+		s.beginTransaction();
+		List result = s.byMultipleIds( Person.class )
+				.withBatchSize( 3 )
+				.multiLoad( ids( new long[] { 10, 9, 8, 7, 6, 5, 4, 3, 2, 1 } ) );
+		assertEquals( 10, result.size() );
+		for ( int i = 0; i < 10; i++ ) {
+			assertEquals( "person" + ( 10 - i ), ( ( Person ) result.get( i ) ).getName() );
+		}
+		assertEquals( 4, stats.getPrepareStatementCount() );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	public void testChunks() {
+		Session s = openSession();
+		s.beginTransaction();
+		List chunkSizes = new ArrayList();
+		int expected = 1;
+		Iterator chunks = s.byMultipleIds( Person.class ).multiLoad( ids( new long[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 } ), 4 );
+		while ( chunks.hasNext() ) {
+			List chunk = ( List ) chunks.next();
+			chunkSizes.add( new Integer( chunk.size() ) );
+			for ( int i = 0; i < chunk.size(); i++ ) {
+				assertEquals( "person" + expected++, ( ( Person ) chunk.get( i ) ).getName() );
+			}
+			s.clear();
+		}
+		assertEquals( 11, expected );
+		assertEquals( 3, chunkSizes.size() );
+		assertEquals( new Integer( 2 ), chunkSizes.get( 2 ) );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	private static List ids(long[] values) {
+		List ids = new ArrayList( values.length );
+		for ( int i = 0; i < values.length; i++ ) {
+			ids.add( new Long( values[i] ) );
+		}
+		return ids;
+	}
+}
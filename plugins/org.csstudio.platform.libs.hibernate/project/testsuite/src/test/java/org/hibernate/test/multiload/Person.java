@@ -0,0 +1,30 @@
+package org.hibernate.test.multiload;
+
+public class Person {
+	private Long id;
+	private String name;
+
+	public Person() {
+	}
+
+	public Person(Long id, String name) {
+		this.id = id;
+		this.name = name;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+}
@@ -0,0 +1,89 @@
+package org.hibernate.test.querycache;
+
+import java.util.List;
+
+import junit.framework.Test;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+import org.hibernate.stat.QueryStatistics;
+
+/**
+ * With asynchronous invalidation, cached query results must not be used for
+ * tables written by a committed transaction, whether or not the background
+ * thread has written their timestamps yet.
+ */
+public class AsyncTimestampsInvalidationTest extends FunctionalTestCase {
+
+	private static final String QUERY = "from Item i order by i.id";
+
+	public AsyncTimestampsInvalidationTest(String str) {
+		super( str );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "querycache/Item.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.USE_QUERY_CACHE, "true" );
+		cfg.setProperty( Environment.ASYNC_TIMESTAMPS_INVALIDATION, "true" );
+		cfg.setProperty( Environment.GENERATE_STATISTICS, "true" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( AsyncTimestampsInvalidationTest.class );
+	}
+
+	public void testInvalidation() throws Exception {
+		getSessions().evictQueries();
+		createItem( "first" );
+		assertEquals( 1, list().size() );
+
+		createItem( "second" );
+		getSessions().getStatistics().clear();
+		QueryStatistics qs = getSessions().getStatistics().getQueryStatistics( QUERY );
+		// the table is pre-invalidated until the background thread has run
+		assertEquals( 2, list().size() );
+		assertEquals( 0, qs.getCacheHitCount() );
+
+		// once the timestamps are written, the query is cached again
+		long deadline = System.currentTimeMillis() + 10000;
+		while ( qs.getCacheHitCount() == 0 ) {
+			assertTrue( "query results never cached again", System.currentTimeMillis() < deadline );
+			Thread.sleep( 50 );
+			assertEquals( 2, list().size() );
+		}
+
+		Session s = openSession();
+		s.beginTransaction();
+		s.createQuery( "delete from Item" ).executeUpdate();
+		s.getTransaction().commit();
+		s.close();
+		assertEquals( 0, list().size() );
+	}
+
+	private void createItem(String name) {
+		Session s = openSession();
+		s.beginTransaction();
+		Item item = new Item();
+		item.setName( name );
+		item.setDescription( name );
+		s.persist( item );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	private List list() {
+		Session s = openSession();
+		s.beginTransaction();
+		List result = s.createQuery( QUERY ).setCacheable( true ).list();
+		s.getTransaction().commit();
+		s.close();
+		return result;
+	}
+}
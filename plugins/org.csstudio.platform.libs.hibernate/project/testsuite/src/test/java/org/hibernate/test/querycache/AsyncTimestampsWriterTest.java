@@ -0,0 +1,120 @@
+package org.hibernate.test.querycache;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.TimestampsRegion;
+import org.hibernate.cache.UpdateTimestampsCache;
+import org.hibernate.cache.impl.local.LocalRegionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.cfg.Settings;
+import org.hibernate.dialect.HSQLDialect;
+import org.hibernate.junit.UnitTestCase;
+
+/**
+ * Checks that the background writer of asynchronous timestamp invalidation never
+ * holds up completing transactions, and never leaves a table pre-invalidated in
+ * the meantime looking up to date.
+ */
+public class AsyncTimestampsWriterTest extends UnitTestCase {
+	private static final Serializable[] SPACES = new Serializable[] { "ITEM" };
+
+	public AsyncTimestampsWriterTest(String str) {
+		super( str );
+	}
+
+	public static Test suite() {
+		return new TestSuite( AsyncTimestampsWriterTest.class );
+	}
+
+	public void testPreinvalidationDuringWrite() throws Exception {
+		Configuration cfg = new Configuration()
+				.setProperty( Environment.DIALECT, HSQLDialect.class.getName() )
+				.setProperty( Environment.USE_QUERY_CACHE, "true" )
+				.setProperty( Environment.CACHE_REGION_FACTORY, BlockingRegionFactory.class.getName() )
+				.setProperty( Environment.ASYNC_TIMESTAMPS_INVALIDATION, "true" );
+		Settings settings = cfg.buildSettings();
+		settings.getRegionFactory().start( settings, cfg.getProperties() );
+		final UpdateTimestampsCache cache = new UpdateTimestampsCache( settings, cfg.getProperties() );
+		BlockingRegionFactory.reset();
+
+		cache.preinvalidate( SPACES );
+		cache.invalidate( SPACES );
+		assertTrue( BlockingRegionFactory.writing.await( 10, TimeUnit.SECONDS ) );
+
+		// another transaction writes the table while the background write is pending
+		Thread preinvalidation = new Thread() {
+			public void run() {
+				cache.preinvalidate( SPACES );
+			}
+		};
+		preinvalidation.start();
+		preinvalidation.join( 2000 );
+		assertFalse( "pre-invalidation waited for the background writer", preinvalidation.isAlive() );
+
+		BlockingRegionFactory.released.countDown();
+		// waits for the background writer
+		cache.destroy();
+		assertFalse( cache.isUpToDate( asSet( SPACES ), new Long( cache.getRegion().nextTimestamp() ) ) );
+	}
+
+	private static java.util.Set asSet(Serializable[] spaces) {
+		return new java.util.HashSet( java.util.Arrays.asList( spaces ) );
+	}
+
+	/**
+	 * Blocks the first write of the background writer until released, and keeps
+	 * the timestamps when the region is destroyed.
+	 */
+	public static class BlockingRegionFactory extends LocalRegionFactory {
+		static CountDownLatch writing;
+		static CountDownLatch released;
+
+		public BlockingRegionFactory(Properties properties) {
+			super( properties );
+		}
+
+		static void reset() {
+			writing = new CountDownLatch( 1 );
+			released = new CountDownLatch( 1 );
+		}
+
+		public TimestampsRegion buildTimestampsRegion(String regionName, Properties properties) throws CacheException {
+			final TimestampsRegion region = super.buildTimestampsRegion( regionName, properties );
+			return ( TimestampsRegion ) Proxy.newProxyInstance(
+					TimestampsRegion.class.getClassLoader(),
+					new Class[] { TimestampsRegion.class },
+					new InvocationHandler() {
+						public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+							if ( "destroy".equals( method.getName() ) ) {
+								return null;
+							}
+							if ( "put".equals( method.getName() ) && writing != null
+									&& Thread.currentThread().getName().startsWith( "Hibernate update timestamps" )
+									&& writing.getCount() > 0 ) {
+								writing.countDown();
+								released.await( 60, TimeUnit.SECONDS );
+							}
+							try {
+								return method.invoke( region, args );
+							}
+							catch ( InvocationTargetException e ) {
+								throw e.getTargetException();
+							}
+						}
+					}
+			);
+		}
+	}
+}
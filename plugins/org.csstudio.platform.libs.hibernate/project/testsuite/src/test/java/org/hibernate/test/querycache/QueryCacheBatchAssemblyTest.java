@@ -0,0 +1,92 @@
+package org.hibernate.test.querycache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Entities returned by cached query results are resolved per entity name: one
+ * second-level cache lookup each, and batch loads for the ones not cached.
+ */
+public class QueryCacheBatchAssemblyTest extends FunctionalTestCase {
+
+	public QueryCacheBatchAssemblyTest(String str) {
+		super( str );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "querycache/Item.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.USE_QUERY_CACHE, "true" );
+		cfg.setProperty( Environment.USE_SECOND_LEVEL_CACHE, "true" );
+		cfg.setProperty( Environment.GENERATE_STATISTICS, "true" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( QueryCacheBatchAssemblyTest.class );
+	}
+
+	public void testPartiallyEvictedResults() {
+		getSessions().evictQueries();
+		Session s = openSession();
+		s.beginTransaction();
+		List ids = new ArrayList();
+		for ( int i = 0; i < 20; i++ ) {
+			Item item = new Item();
+			item.setName( "item" + i );
+			item.setDescription( "item" + i );
+			s.persist( item );
+			ids.add( new Long( item.getId() ) );
+		}
+		s.getTransaction().commit();
+		s.close();
+
+		String queryString = "from Item i order by i.id";
+		s = openSession();
+		s.beginTransaction();
+		assertEquals( 20, s.createQuery( queryString ).setCacheable( true ).list().size() );
+		s.getTransaction().commit();
+		s.close();
+
+		for ( int i = 0; i < ids.size(); i += 2 ) {
+			getSessions().getCache().evictEntity( Item.class, ( Long ) ids.get( i ) );
+		}
+		Statistics stats = getSessions().getStatistics();
+		stats.clear();
+
+		s = openSession();
+		s.beginTransaction();
+		List result = s.createQuery( queryString ).setCacheable( true ).list();
+		assertEquals( 20, result.size() );
+		for ( int i = 0; i < result.size(); i++ ) {
+			assertEquals( "item" + i, ( ( Item ) result.get( i ) ).getName() );
+		}
+		s.getTransaction().commit();
+		s.close();
+
+		QueryStatistics qs = stats.getQueryStatistics( queryString );
+		assertEquals( 1, qs.getCacheHitCount() );
+		assertEquals( 10, stats.getSecondLevelCacheHitCount() );
+		assertEquals( 10, stats.getSecondLevelCacheMissCount() );
+		// the 10 evicted items are read by batches of 9 (the batch-size of Item) and 1
+		assertEquals( 2, stats.getPrepareStatementCount() );
+
+		s = openSession();
+		s.beginTransaction();
+		s.createQuery( "delete from Item" ).executeUpdate();
+		s.getTransaction().commit();
+		s.close();
+	}
+}
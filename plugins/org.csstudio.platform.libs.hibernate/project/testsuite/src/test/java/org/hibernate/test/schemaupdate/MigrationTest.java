@@ -4,9 +4,13 @@ import junit.framework.Test;
 import junit.framework.TestSuite;
 
 import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.HSQLDialect;
 import org.hibernate.junit.UnitTestCase;
 import org.hibernate.tool.hbm2ddl.SchemaExport;
 import org.hibernate.tool.hbm2ddl.SchemaUpdate;
+import org.hibernate.tool.hbm2ddl.SchemaValidator;
 
 /**
  * @author Max Rydahl Andersen
@@ -44,5 +48,48 @@ public class MigrationTest extends UnitTestCase {
 		new SchemaExport( v2cfg ).drop( false, true );
 	}
 
-}
+	public void testSimpleColumnAdditionWithBulkMetadata() {
+		checkSimpleColumnAdditionWithBulkMetadata( true );
+	}
+
+	public void testSimpleColumnAdditionWithBulkMetadataWithoutSchema() {
+		// the current schema of the connection, where the dialect can tell it
+		checkSimpleColumnAdditionWithBulkMetadata( false );
+	}
+
+	private void checkSimpleColumnAdditionWithBulkMetadata(boolean schema) {
+		String resource1 = "org/hibernate/test/schemaupdate/1_Version.hbm.xml";
+		String resource2 = "org/hibernate/test/schemaupdate/2_Version.hbm.xml";
+
+		Configuration v1cfg = new Configuration();
+		v1cfg.addResource( resource1 );
+		enableBulkMetadata( v1cfg, schema );
+		new SchemaExport( v1cfg ).execute( false, true, true, false );
+
+		SchemaUpdate v1schemaUpdate = new SchemaUpdate( v1cfg );
+		v1schemaUpdate.execute( true, true );
+		assertEquals( 0, v1schemaUpdate.getExceptions().size() );
 
+		Configuration v2cfg = new Configuration();
+		v2cfg.addResource( resource2 );
+		enableBulkMetadata( v2cfg, schema );
+
+		SchemaUpdate v2schemaUpdate = new SchemaUpdate( v2cfg );
+		v2schemaUpdate.execute( true, true );
+		assertEquals( 0, v2schemaUpdate.getExceptions().size() );
+
+		// the added column is found by the validator
+		new SchemaValidator( v2cfg ).validate();
+
+		new SchemaExport( v2cfg ).drop( false, true );
+	}
+
+	private static void enableBulkMetadata(Configuration cfg, boolean schema) {
+		cfg.setProperty( Environment.HBM2DDL_BULK_METADATA, "true" );
+		// HSQLDB cannot tell the current schema
+		if ( schema && Dialect.getDialect() instanceof HSQLDialect ) {
+			cfg.setProperty( Environment.DEFAULT_SCHEMA, "PUBLIC" );
+		}
+	}
+
+}
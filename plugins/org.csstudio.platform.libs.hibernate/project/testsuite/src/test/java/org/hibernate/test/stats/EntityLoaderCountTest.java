@@ -0,0 +1,125 @@
+package org.hibernate.test.stats;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import junit.framework.Test;
+
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Checks that entity loaders are created on first use and can be prepared
+ * from a {@link Environment#LOADER_USAGE_PROFILE}.
+ */
+public class EntityLoaderCountTest extends FunctionalTestCase {
+
+	public EntityLoaderCountTest(String x) {
+		super( x );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "stats/Continent2.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.GENERATE_STATISTICS, "true" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( EntityLoaderCountTest.class );
+	}
+
+	public void testLoadersCreatedOnFirstUse() throws Exception {
+		AbstractEntityPersister persister = (AbstractEntityPersister) sfi().getEntityPersister( Continent.class.getName() );
+		assertFalse( loaderNames( persister ).contains( LockMode.UPGRADE.toString() ) );
+
+		Session s = openSession();
+		s.beginTransaction();
+		Continent europe = new Continent();
+		europe.setName( "Europe" );
+		s.persist( europe );
+		s.getTransaction().commit();
+		s.close();
+
+		Statistics stats = getSessions().getStatistics();
+		long loaderCount = stats.getEntityLoaderCount();
+		for ( int i = 0; i < 2; i++ ) {
+			s = openSession();
+			s.beginTransaction();
+			Continent loaded = (Continent) s.get( Continent.class, europe.getId(), LockMode.UPGRADE );
+			assertEquals( "Europe", loaded.getName() );
+			s.getTransaction().commit();
+			s.close();
+		}
+		assertTrue( loaderNames( persister ).contains( LockMode.UPGRADE.toString() ) );
+		assertEquals( loaderCount + 1, stats.getEntityLoaderCount() );
+
+		s = openSession();
+		s.beginTransaction();
+		s.delete( s.get( Continent.class, europe.getId() ) );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	public void testUsageProfile() throws Exception {
+		File file = File.createTempFile( "loaders", ".properties" );
+		try {
+			Properties profile = new Properties();
+			profile.setProperty( Continent.class.getName(), "UPGRADE,refresh,NO_SUCH_LOADER" );
+			OutputStream out = new FileOutputStream( file );
+			try {
+				profile.store( out, null );
+			}
+			finally {
+				out.close();
+			}
+
+			Configuration cfg = new Configuration()
+					.addResource( "org/hibernate/test/stats/Continent2.hbm.xml" )
+					.setProperty( Environment.LOADER_USAGE_PROFILE, file.getAbsolutePath() );
+			SessionFactoryImplementor factory = (SessionFactoryImplementor) cfg.buildSessionFactory();
+			AbstractEntityPersister persister = (AbstractEntityPersister) factory.getEntityPersister( Continent.class.getName() );
+			List names = loaderNames( persister );
+			assertTrue( names.contains( LockMode.UPGRADE.toString() ) );
+			assertTrue( names.contains( "refresh" ) );
+			assertFalse( names.contains( "merge" ) );
+			persister.prepareLoader( "merge" );
+			factory.close();
+
+			profile = new Properties();
+			InputStream in = new FileInputStream( file );
+			try {
+				profile.load( in );
+			}
+			finally {
+				in.close();
+			}
+			List recorded = Arrays.asList( profile.getProperty( Continent.class.getName() ).split( "," ) );
+			assertTrue( recorded.contains( LockMode.UPGRADE.toString() ) );
+			assertTrue( recorded.contains( "merge" ) );
+			assertFalse( recorded.contains( "NO_SUCH_LOADER" ) );
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+	private static List loaderNames(AbstractEntityPersister persister) {
+		return Arrays.asList( persister.getLoaderNames() );
+	}
+}
@@ -0,0 +1,99 @@
+package org.hibernate.test.stats;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+
+import junit.framework.Test;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.connection.ConnectionProvider;
+import org.hibernate.connection.StatementCachingConnectionProvider;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Checks reuse of prepared statements through the per-connection statement cache.
+ */
+public class StatementCacheTest extends FunctionalTestCase {
+
+	public StatementCacheTest(String x) {
+		super( x );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "stats/Continent2.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.STATEMENT_CACHE_SIZE, "10" );
+		cfg.setProperty( Environment.GENERATE_STATISTICS, "true" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( StatementCacheTest.class );
+	}
+
+	public void testStatementReusedAcrossSessions() throws Exception {
+		Session s = openSession();
+		s.beginTransaction();
+		Continent europe = new Continent();
+		europe.setName( "Europe" );
+		s.persist( europe );
+		s.getTransaction().commit();
+		s.close();
+
+		Statistics stats = getSessions().getStatistics();
+		stats.clear();
+		for ( int i = 0; i < 3; i++ ) {
+			s = openSession();
+			s.beginTransaction();
+			Continent loaded = (Continent) s.get( Continent.class, europe.getId() );
+			assertEquals( "Europe", loaded.getName() );
+			s.getTransaction().commit();
+			s.close();
+		}
+		assertEquals( 1, stats.getPreparedStatementCacheMissCount() );
+		assertEquals( 2, stats.getPreparedStatementCacheHitCount() );
+		assertEquals( stats.getPrepareStatementCount(), stats.getCloseStatementCount() );
+
+		s = openSession();
+		s.beginTransaction();
+		s.delete( s.get( Continent.class, europe.getId() ) );
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	public void testCacheOwnedByConnectionProvider() throws Exception {
+		ConnectionProvider provider = sfi().getConnectionProvider();
+		if ( !( provider instanceof StatementCachingConnectionProvider ) ) {
+			reportSkip( "connection provider does not cache statements", "statement cache ownership" );
+			return;
+		}
+		StatementCachingConnectionProvider cachingProvider = (StatementCachingConnectionProvider) provider;
+		Connection conn = provider.getConnection();
+		try {
+			assertNotNull( cachingProvider.getStatementCache( conn ) );
+		}
+		finally {
+			provider.closeConnection( conn );
+		}
+
+		// connections the provider did not open never get a cache
+		Connection foreign = (Connection) Proxy.newProxyInstance(
+				getClass().getClassLoader(),
+				new Class[] { Connection.class },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						return null;
+					}
+				}
+		);
+		assertNull( cachingProvider.getStatementCache( foreign ) );
+	}
+}
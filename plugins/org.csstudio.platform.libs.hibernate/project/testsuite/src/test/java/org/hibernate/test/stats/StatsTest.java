@@ -1,6 +1,7 @@
 //$Id: StatsTest.java 15731 2008-12-26 23:42:56Z gbadner $
 package org.hibernate.test.stats;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 
@@ -17,6 +18,9 @@ import org.hibernate.cfg.Environment;
 import org.hibernate.junit.functional.FunctionalTestCase;
 import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
 import org.hibernate.mapping.Collection;
+import org.hibernate.stat.ConcurrentStatisticsImpl;
+import org.hibernate.stat.LatencyHistogram;
+import org.hibernate.stat.LatencyStatistics;
 import org.hibernate.stat.QueryStatistics;
 import org.hibernate.stat.Statistics;
 
@@ -216,6 +220,80 @@ public class StatsTest extends FunctionalTestCase {
 		s.close();
 	}
 
+	public void testLiteralNormalizedQueryStatistics() {
+		Statistics stats = getSessions().getStatistics();
+		if ( !( stats instanceof LatencyStatistics ) ) {
+			reportSkip( "latency statistics not available", "literal-normalized query statistics" );
+			return;
+		}
+		LatencyStatistics latencyStats = (LatencyStatistics) stats;
+		stats.clear();
+		( (ConcurrentStatisticsImpl) stats ).setQueryLiteralNormalizationEnabled( true );
+
+		Session s = openSession();
+		Transaction tx = s.beginTransaction();
+		Continent europe = fillDb(s);
+		tx.commit();
+		s.close();
+
+		s = openSession();
+		tx = s.beginTransaction();
+		s.createQuery( "from Country c where c.name = 'France'" ).list();
+		s.createQuery( "from Country c where c.name = 'Italy'" ).list();
+		s.createQuery( "from Continent c where c.id = " + europe.getId() ).list();
+		tx.commit();
+		s.close();
+
+		QueryStatistics countryStats = stats.getQueryStatistics( "from Country c where c.name = 'Spain'" );
+		assertEquals( 2, countryStats.getExecutionCount() );
+		assertEquals( 1, countryStats.getExecutionRowCount() );
+		assertEquals( 2, stats.getQueries().length );
+		assertTrue( Arrays.asList( stats.getQueries() ).contains( "from Continent c where c.id = ?" ) );
+
+		LatencyHistogram all = latencyStats.getQueryExecutionTimeHistogram();
+		assertEquals( 3, all.getCount() );
+		assertEquals( stats.getQueryExecutionMaxTime(), all.getMax() );
+		assertTrue( all.getValueAtPercentile( 50 ) <= all.getMax() );
+		assertEquals( 2, latencyStats.getQueryExecutionTimeHistogram( "from Country c where c.name = ''" ).getCount() );
+
+		s = openSession();
+		s.get( Continent.class, europe.getId() );
+		s.close();
+		assertEquals( 1, latencyStats.getEntityLoadTimeHistogram( Continent.class.getName() ).getCount() );
+		assertEquals( 1, latencyStats.getEntityLoadTimeHistogram().getCount() );
+
+		// per-query statistics are bounded, further queries are only accounted globally
+		( (ConcurrentStatisticsImpl) stats ).setQueryStatisticsMaxSize( 2 );
+		s = openSession();
+		tx = s.beginTransaction();
+		s.createQuery( "from Locality" ).list();
+		tx.commit();
+		s.close();
+		assertEquals( 2, stats.getQueries().length );
+		assertEquals( 0, stats.getQueryStatistics( "from Locality" ).getExecutionCount() );
+		assertTrue( latencyStats.getQueryStatisticsOverflowCount() > 0 );
+		assertEquals( stats.getQueryExecutionCount(), latencyStats.getQueryExecutionTimeHistogram().getCount() );
+		( (ConcurrentStatisticsImpl) stats ).setQueryStatisticsMaxSize( ConcurrentStatisticsImpl.DEFAULT_QUERY_STATISTICS_MAX_SIZE );
+
+		// without normalization (the default) query strings are kept as executed
+		( (ConcurrentStatisticsImpl) stats ).setQueryLiteralNormalizationEnabled( false );
+		stats.clear();
+		s = openSession();
+		tx = s.beginTransaction();
+		s.createQuery( "from Country c where c.name = 'France'" ).list();
+		tx.commit();
+		s.close();
+		assertEquals( 1, stats.getQueries().length );
+		assertEquals( "from Country c where c.name = 'France'", stats.getQueries()[0] );
+		assertEquals( 0, stats.getQueryStatistics( "from Country c where c.name = 'Spain'" ).getExecutionCount() );
+
+		s = openSession();
+		tx = s.beginTransaction();
+		cleanDb( s );
+		tx.commit();
+		s.close();
+	}
+
 	private Continent fillDb(Session s) {
 		Continent europe = new Continent();
 		europe.setName("Europe");
@@ -0,0 +1,109 @@
+package org.hibernate.test.util;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.hibernate.junit.UnitTestCase;
+import org.hibernate.util.LinkedIdentityMap;
+
+/**
+ * Tests {@link LinkedIdentityMap} against {@link IdentityHashMap} and an insertion-ordered key list.
+ */
+public class LinkedIdentityMapTest extends UnitTestCase {
+
+	public LinkedIdentityMapTest(String string) {
+		super( string );
+	}
+
+	public static Test suite() {
+		return new TestSuite( LinkedIdentityMapTest.class );
+	}
+
+	public void testIdentitySemantics() {
+		LinkedIdentityMap map = new LinkedIdentityMap( 4 );
+		String first = new String( "key" );
+		String second = new String( "key" );
+		map.put( first, "1" );
+		map.put( second, "2" );
+		assertEquals( 2, map.size() );
+		assertEquals( "1", map.get( first ) );
+		assertEquals( "2", map.get( second ) );
+		assertNull( map.get( "key" ) );
+		assertEquals( "1", map.remove( first ) );
+		assertFalse( map.containsKey( first ) );
+		assertTrue( map.containsKey( second ) );
+	}
+
+	public void testRandomOperations() {
+		Random random = new Random( 42 );
+		Object[] candidates = new Object[200];
+		for ( int i = 0; i < candidates.length; i++ ) {
+			candidates[i] = new Integer( i % 20 );
+		}
+		LinkedIdentityMap map = new LinkedIdentityMap( 4 );
+		Map expected = new IdentityHashMap();
+		List order = new ArrayList();
+		for ( int i = 0; i < 20000; i++ ) {
+			Object key = candidates[ random.nextInt( candidates.length ) ];
+			if ( random.nextInt( 3 ) == 0 ) {
+				assertSame( expected.remove( key ), map.remove( key ) );
+				removeIdentical( order, key );
+			}
+			else {
+				Object value = new Integer( i );
+				if ( !expected.containsKey( key ) ) {
+					order.add( key );
+				}
+				assertSame( expected.put( key, value ), map.put( key, value ) );
+			}
+			assertEquals( expected.size(), map.size() );
+		}
+		Iterator keys = map.keyIterator();
+		for ( int i = 0; i < order.size(); i++ ) {
+			Object key = keys.next();
+			assertSame( order.get( i ), key );
+			assertSame( expected.get( key ), map.get( key ) );
+		}
+		assertFalse( keys.hasNext() );
+	}
+
+	public void testIterationDuringModification() {
+		LinkedIdentityMap map = new LinkedIdentityMap( 4 );
+		Object[] keys = new Object[10];
+		for ( int i = 0; i < keys.length; i++ ) {
+			keys[i] = new Object();
+			map.put( keys[i], new Integer( i ) );
+		}
+		int seen = 0;
+		Iterator entries = map.concurrentEntryIterator();
+		while ( entries.hasNext() ) {
+			Map.Entry entry = ( Map.Entry ) entries.next();
+			seen++;
+			if ( entry.getKey() == keys[0] ) {
+				// removed ahead of the iteration, added behind it
+				map.remove( keys[5] );
+				for ( int i = 0; i < 100; i++ ) {
+					map.put( new Object(), null );
+				}
+			}
+		}
+		assertEquals( 9, seen );
+		assertEquals( 109, map.size() );
+	}
+
+	private static void removeIdentical(List list, Object element) {
+		for ( int i = 0; i < list.size(); i++ ) {
+			if ( list.get( i ) == element ) {
+				list.remove( i );
+				return;
+			}
+		}
+	}
+}
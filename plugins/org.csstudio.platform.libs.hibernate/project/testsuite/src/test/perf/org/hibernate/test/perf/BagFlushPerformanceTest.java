@@ -0,0 +1,107 @@
+package org.hibernate.test.perf;
+
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.junit.UnitTestCase;
+import org.hibernate.test.collection.bag.BagContainer;
+import org.hibernate.test.collection.bag.BagItem;
+
+/**
+ * Reports the cost of flushing bags of increasing size, which used to grow
+ * quadratically with the number of elements.
+ */
+public class BagFlushPerformanceTest extends UnitTestCase {
+
+	public BagFlushPerformanceTest(String name) {
+		super( name );
+	}
+
+	public static Test suite() {
+		return new TestSuite( BagFlushPerformanceTest.class );
+	}
+
+	public static void main(String[] args) throws Exception {
+		TestRunner.run( suite() );
+	}
+
+	public void testFlushCost() {
+		Configuration cfg = new Configuration()
+				.addResource( "org/hibernate/test/collection/bag/BagDiff.hbm.xml" )
+				.setProperty( Environment.HBM2DDL_AUTO, "create-drop" )
+				.setProperty( Environment.STATEMENT_BATCH_SIZE, "50" );
+		SessionFactory sf = cfg.buildSessionFactory();
+		try {
+			report( sf );
+		}
+		finally {
+			sf.close();
+		}
+	}
+
+	private void report(SessionFactory sf) {
+		final int[] sizes = new int[] { 100, 1000, 10000, 100000 };
+		for ( int n = 0; n < sizes.length; n++ ) {
+			BagContainer container = new BagContainer( "c" + sizes[n] );
+			List tags = container.getTags();
+			for ( int i = 0; i < sizes[n]; i++ ) {
+				tags.add( "tag" + ( i % 1000 ) );
+			}
+
+			Session s = sf.openSession();
+			s.beginTransaction();
+			s.save( container );
+			s.flush();
+
+			// unchanged, but the directly accessible bag is compared to its snapshot
+			long start = System.currentTimeMillis();
+			s.flush();
+			long unchanged = System.currentTimeMillis() - start;
+
+			Collections.reverse( tags );
+			start = System.currentTimeMillis();
+			s.flush();
+			long reordered = System.currentTimeMillis() - start;
+
+			s.delete( container );
+			s.getTransaction().commit();
+			s.close();
+			System.out.println(
+					"bag of " + sizes[n] + " elements: unchanged flush " + unchanged
+							+ "ms, reordered flush " + reordered + "ms"
+			);
+		}
+
+		final int[] itemSizes = new int[] { 100, 1000, 10000 };
+		for ( int n = 0; n < itemSizes.length; n++ ) {
+			BagContainer container = new BagContainer( "i" + itemSizes[n] );
+			for ( int i = 0; i < itemSizes[n]; i++ ) {
+				container.getItems().add( new BagItem( "item" + i ) );
+			}
+
+			Session s = sf.openSession();
+			s.beginTransaction();
+			s.save( container );
+			s.flush();
+
+			Collections.reverse( container.getItems() );
+			container.getItems().add( new BagItem( "added" ) );
+			long start = System.currentTimeMillis();
+			s.flush();
+			long modified = System.currentTimeMillis() - start;
+
+			s.delete( container );
+			s.getTransaction().commit();
+			s.close();
+			System.out.println( "one-to-many bag of " + itemSizes[n] + " elements: modified flush " + modified + "ms" );
+		}
+	}
+}
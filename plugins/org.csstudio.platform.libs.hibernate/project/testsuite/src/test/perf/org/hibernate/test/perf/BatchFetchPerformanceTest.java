@@ -0,0 +1,103 @@
+package org.hibernate.test.perf;
+
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.textui.TestRunner;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+import org.hibernate.stat.Statistics;
+import org.hibernate.test.batchfetch.Model;
+import org.hibernate.test.batchfetch.ProductLine;
+
+/**
+ * Measures the lazy traversal of a large graph of proxies and uninitialized
+ * collections using batch fetching, where each lazy touch picks the next batch
+ * from the {@link org.hibernate.engine.BatchFetchQueue}.
+ */
+public class BatchFetchPerformanceTest extends FunctionalTestCase {
+
+	private static final int PRODUCT_LINES = 5000;
+	private static final int MODELS_PER_LINE = 2;
+
+	public BatchFetchPerformanceTest(String name) {
+		super( name );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "batchfetch/ProductLine.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.GENERATE_STATISTICS, "true" );
+		cfg.setProperty( Environment.STATEMENT_BATCH_SIZE, "50" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( BatchFetchPerformanceTest.class );
+	}
+
+	public static void main(String[] args) throws Exception {
+		TestRunner.run( suite() );
+	}
+
+	public void testLazyTraversal() throws Exception {
+		Session s = openSession();
+		Transaction t = s.beginTransaction();
+		for ( int i = 0; i < PRODUCT_LINES; i++ ) {
+			ProductLine line = new ProductLine();
+			line.setDescription( "line-" + i );
+			for ( int j = 0; j < MODELS_PER_LINE; j++ ) {
+				Model model = new Model( line );
+				model.setName( "model-" + j );
+				model.setDescription( "model " + j + " of line " + i );
+			}
+			s.save( line );
+			if ( i % 50 == 0 ) {
+				s.flush();
+				s.clear();
+			}
+		}
+		t.commit();
+		s.close();
+
+		Statistics stats = getSessions().getStatistics();
+		for ( int round = 0; round < 3; round++ ) {
+			stats.clear();
+			s = openSession();
+			t = s.beginTransaction();
+			long start = System.currentTimeMillis();
+			// registers a product line proxy per model
+			List models = s.createQuery( "from Model" ).list();
+			long loaded = System.currentTimeMillis();
+			int touched = 0;
+			for ( Iterator itr = models.iterator(); itr.hasNext(); ) {
+				ProductLine line = ( ( Model ) itr.next() ).getProductLine();
+				// initializes the proxy, then the models collection, in batches
+				touched += line.getDescription().length() > 0 ? line.getModels().size() : 0;
+			}
+			long traversed = System.currentTimeMillis();
+			t.commit();
+			s.close();
+			assertEquals( PRODUCT_LINES * MODELS_PER_LINE * MODELS_PER_LINE, touched );
+			System.out.println(
+					"round " + round + ": query " + ( loaded - start ) + "ms, lazy traversal "
+							+ ( traversed - loaded ) + "ms, " + stats.getPrepareStatementCount() + " statements"
+			);
+		}
+
+		s = openSession();
+		t = s.beginTransaction();
+		s.createQuery( "delete from Model" ).executeUpdate();
+		s.createQuery( "delete from ProductLine" ).executeUpdate();
+		t.commit();
+		s.close();
+	}
+}
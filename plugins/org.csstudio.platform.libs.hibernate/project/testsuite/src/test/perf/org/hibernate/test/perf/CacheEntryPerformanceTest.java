@@ -0,0 +1,122 @@
+package org.hibernate.test.perf;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import junit.framework.Test;
+import junit.textui.TestRunner;
+
+import org.hibernate.Session;
+import org.hibernate.cache.entry.BinaryCacheEntry;
+import org.hibernate.cache.entry.CacheEntry;
+import org.hibernate.cache.entry.CacheEntryStructure;
+import org.hibernate.cache.entry.StructuredCacheEntry;
+import org.hibernate.cache.entry.UnstructuredCacheEntry;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.engine.SessionImplementor;
+import org.hibernate.junit.functional.FunctionalTestCase;
+import org.hibernate.junit.functional.FunctionalTestClassTestSuite;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.test.cacheentry.Address;
+import org.hibernate.test.cacheentry.Item;
+import org.hibernate.test.cacheentry.Owner;
+import org.hibernate.util.SerializationHelper;
+
+/**
+ * Compares the size and the (de)serialization cost of the unstructured, structured
+ * and binary cache entries of a typical entity, as they would be replicated by a
+ * clustered second-level cache.
+ */
+public class CacheEntryPerformanceTest extends FunctionalTestCase {
+
+	private static final int ITERATIONS = 50000;
+
+	public CacheEntryPerformanceTest(String name) {
+		super( name );
+	}
+
+	public String[] getMappings() {
+		return new String[] { "cacheentry/Item.hbm.xml" };
+	}
+
+	public void configure(Configuration cfg) {
+		super.configure( cfg );
+		cfg.setProperty( Environment.USE_SECOND_LEVEL_CACHE, "true" );
+		cfg.setProperty( Environment.USE_BINARY_CACHE, "true" );
+	}
+
+	public static Test suite() {
+		return new FunctionalTestClassTestSuite( CacheEntryPerformanceTest.class );
+	}
+
+	public static void main(String[] args) throws Exception {
+		TestRunner.run( suite() );
+	}
+
+	public void testEntrySizeAndCost() throws Exception {
+		SessionFactoryImplementor factory = (SessionFactoryImplementor) getSessions();
+		EntityPersister persister = factory.getEntityPersister( Item.class.getName() );
+
+		Session s = openSession();
+		s.beginTransaction();
+		Owner owner = new Owner( "owner" );
+		s.persist( owner );
+		Item item = new Item();
+		item.setName( "a typical item name" );
+		item.setQuantity( new Integer( 150 ) );
+		item.setRating( 3.5 );
+		item.setActive( true );
+		item.setPrice( new BigDecimal( "249.99" ) );
+		item.setCreated( new Date() );
+		item.setCode( new Character( 'A' ) );
+		item.setAddress( new Address( "42 Main Street", 75001 ) );
+		item.setOwner( owner );
+		s.persist( item );
+		s.flush();
+		CacheEntry entry = new CacheEntry(
+				persister.getPropertyValues( item, s.getEntityMode() ),
+				persister,
+				false,
+				new Integer( item.getVersion() ),
+				(SessionImplementor) s,
+				item
+		);
+
+		CacheEntryStructure[] structures = new CacheEntryStructure[] {
+				new UnstructuredCacheEntry(),
+				new StructuredCacheEntry( persister ),
+				persister.getCacheEntryStructure()
+		};
+		for ( int round = 0; round < 3; round++ ) {
+			for ( int i = 0; i < structures.length; i++ ) {
+				measure( structures[i], entry, factory );
+			}
+		}
+
+		s.getTransaction().rollback();
+		s.close();
+	}
+
+	private void measure(CacheEntryStructure structure, CacheEntry entry, SessionFactoryImplementor factory) {
+		// binary entries are replicated as is, others through Java serialization
+		boolean binary = structure instanceof BinaryCacheEntry;
+		byte[] bytes = null;
+		long start = System.currentTimeMillis();
+		for ( int i = 0; i < ITERATIONS; i++ ) {
+			Object structured = structure.structure( entry );
+			bytes = binary ? (byte[]) structured : SerializationHelper.serialize( (Serializable) structured );
+		}
+		long written = System.currentTimeMillis();
+		for ( int i = 0; i < ITERATIONS; i++ ) {
+			structure.destructure( binary ? bytes : SerializationHelper.deserialize( bytes ), factory );
+		}
+		long read = System.currentTimeMillis();
+		System.out.println(
+				structure.getClass().getName() + ": " + bytes.length + " bytes, write "
+						+ ( written - start ) + "ms, read " + ( read - written ) + "ms for " + ITERATIONS + " entries"
+		);
+	}
+}
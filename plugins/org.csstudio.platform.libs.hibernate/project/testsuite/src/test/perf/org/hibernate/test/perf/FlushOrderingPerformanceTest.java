@@ -0,0 +1,118 @@
+package org.hibernate.test.perf;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Interceptor;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.jdbc.Batcher;
+import org.hibernate.jdbc.BatcherFactory;
+import org.hibernate.jdbc.BatchingBatcher;
+import org.hibernate.jdbc.ConnectionManager;
+import org.hibernate.junit.UnitTestCase;
+import org.hibernate.test.insertordering.Group;
+import org.hibernate.test.insertordering.User;
+
+/**
+ * Compares the number of JDBC batch round trips and the flush throughput of a
+ * mixed object graph with and without {@link Environment#ORDER_FLUSH}.
+ */
+public class FlushOrderingPerformanceTest extends UnitTestCase {
+
+	private static final int GRAPHS = 500;
+	private static final int ROUNDS = 10;
+
+	public FlushOrderingPerformanceTest(String name) {
+		super( name );
+	}
+
+	public static Test suite() {
+		return new TestSuite( FlushOrderingPerformanceTest.class );
+	}
+
+	public static void main(String[] args) throws Exception {
+		TestRunner.run( suite() );
+	}
+
+	public void testFlushRoundTrips() throws Exception {
+		long[] unordered = run( false );
+		long[] ordered = run( true );
+		System.out.println( "unordered flush: " + unordered[0] + " round trips, " + unordered[1] + "ms" );
+		System.out.println( "ordered flush:   " + ordered[0] + " round trips, " + ordered[1] + "ms" );
+		assertTrue( ordered[0] < unordered[0] );
+	}
+
+	private long[] run(boolean orderFlush) {
+		Configuration cfg = new Configuration()
+				.addResource( "org/hibernate/test/insertordering/Mapping.hbm.xml" )
+				.setProperty( Environment.HBM2DDL_AUTO, "create-drop" )
+				.setProperty( Environment.STATEMENT_BATCH_SIZE, "50" )
+				.setProperty( Environment.BATCH_STRATEGY, CountingBatcherFactory.class.getName() )
+				.setProperty( Environment.ORDER_FLUSH, String.valueOf( orderFlush ) );
+		SessionFactory sf = cfg.buildSessionFactory();
+		try {
+			// warm up
+			flush( sf );
+			CountingBatcher.roundTrips = 0;
+			long start = System.currentTimeMillis();
+			for ( int i = 0; i < ROUNDS; i++ ) {
+				flush( sf );
+			}
+			return new long[] { CountingBatcher.roundTrips, System.currentTimeMillis() - start };
+		}
+		finally {
+			sf.close();
+		}
+	}
+
+	private void flush(SessionFactory sf) {
+		Session s = sf.openSession();
+		s.beginTransaction();
+		for ( int i = 0; i < GRAPHS; i++ ) {
+			User user = new User( "user-" + i );
+			Group group = new Group( "group-" + i );
+			s.save( user );
+			s.save( group );
+			user.addMembership( group );
+		}
+		s.getTransaction().commit();
+		s.close();
+
+		s = sf.openSession();
+		s.beginTransaction();
+		Iterator users = s.createQuery( "from User u left join fetch u.memberships m left join fetch m.group" ).list().iterator();
+		while ( users.hasNext() ) {
+			s.delete( users.next() );
+		}
+		s.getTransaction().commit();
+		s.close();
+	}
+
+	public static class CountingBatcher extends BatchingBatcher {
+		private static long roundTrips;
+
+		public CountingBatcher(ConnectionManager connectionManager, Interceptor interceptor) {
+			super( connectionManager, interceptor );
+		}
+
+		protected void doExecuteBatch(PreparedStatement ps) throws SQLException, HibernateException {
+			roundTrips++;
+			super.doExecuteBatch( ps );
+		}
+	}
+
+	public static class CountingBatcherFactory implements BatcherFactory {
+		public Batcher createBatcher(ConnectionManager connectionManager, Interceptor interceptor) {
+			return new CountingBatcher( connectionManager, interceptor );
+		}
+	}
+}
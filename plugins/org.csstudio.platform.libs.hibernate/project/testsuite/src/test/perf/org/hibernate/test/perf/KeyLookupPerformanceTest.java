@@ -0,0 +1,143 @@
+package org.hibernate.test.perf;
+
+import java.io.ByteArrayInputStream;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.hibernate.EntityMode;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.classic.Session;
+import org.hibernate.engine.CollectionKey;
+import org.hibernate.engine.EntityKey;
+import org.hibernate.engine.PersistenceContext;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.engine.SessionImplementor;
+import org.hibernate.junit.UnitTestCase;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Compares the allocation and time of persistence context lookups through a
+ * newly allocated key with the lookups by identifier, which reuse a probe key.
+ */
+public class KeyLookupPerformanceTest extends UnitTestCase {
+	private static final int ENTITIES = 1000;
+	private static final int LOOKUPS = 2000000;
+
+	private SessionFactoryImplementor factory;
+	private Session session;
+
+	public KeyLookupPerformanceTest(String name) {
+		super( name );
+	}
+
+	public static Test suite() {
+		return new TestSuite( KeyLookupPerformanceTest.class );
+	}
+
+	public static void main(String[] args) throws Exception {
+		TestRunner.run( suite() );
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		String mapping = "<?xml version=\"1.0\"?>\n"
+				+ "<!DOCTYPE hibernate-mapping PUBLIC \"-//Hibernate/Hibernate Mapping DTD 3.0//EN\""
+				+ " \"http://hibernate.sourceforge.net/hibernate-mapping-3.0.dtd\">\n"
+				+ "<hibernate-mapping>\n"
+				+ "<class entity-name=\"Node\" table=\"NODE\">\n"
+				+ "<id name=\"id\" type=\"long\"><generator class=\"assigned\"/></id>\n"
+				+ "<property name=\"name\" type=\"string\"/>\n"
+				+ "<set name=\"children\"><key column=\"PARENT_ID\"/><one-to-many entity-name=\"Node\"/></set>\n"
+				+ "</class>\n"
+				+ "</hibernate-mapping>\n";
+		Configuration cfg = new Configuration()
+				.addInputStream( new ByteArrayInputStream( mapping.getBytes() ) );
+		factory = ( SessionFactoryImplementor ) cfg.buildSessionFactory();
+		session = factory.openSession();
+	}
+
+	protected void tearDown() throws Exception {
+		session.close();
+		factory.close();
+		super.tearDown();
+	}
+
+	public void testLookupAllocation() throws Exception {
+		final PersistenceContext context = ( ( SessionImplementor ) session ).getPersistenceContext();
+		final EntityPersister persister = factory.getEntityPersister( "Node" );
+		final CollectionPersister collectionPersister = factory.getCollectionPersister( "Node.children" );
+		final EntityMode entityMode = session.getEntityMode();
+		final Serializable[] ids = new Serializable[ENTITIES * 2];
+		for ( int i = 0; i < ids.length; i++ ) {
+			ids[i] = new Long( i );
+		}
+		// half of the lookups hit
+		for ( int i = 0; i < ENTITIES; i++ ) {
+			context.addEntity( new EntityKey( ids[i], persister, entityMode ), new HashMap() );
+		}
+
+		for ( int run = 0; run < 3; run++ ) {
+			long allocated = allocatedBytes();
+			long start = System.currentTimeMillis();
+			int found = 0;
+			for ( int i = 0; i < LOOKUPS; i++ ) {
+				Serializable id = ids[i % ids.length];
+				if ( context.getEntity( new EntityKey( id, persister, entityMode ) ) != null ) {
+					found++;
+				}
+				context.getCollection( new CollectionKey( collectionPersister, id, entityMode ) );
+			}
+			long keyTime = System.currentTimeMillis() - start;
+			long keyBytes = allocatedBytes() - allocated;
+			assertEquals( LOOKUPS / 2, found );
+
+			allocated = allocatedBytes();
+			start = System.currentTimeMillis();
+			found = 0;
+			for ( int i = 0; i < LOOKUPS; i++ ) {
+				Serializable id = ids[i % ids.length];
+				if ( context.getEntity( id, persister ) != null ) {
+					found++;
+				}
+				context.getCollection( collectionPersister, id );
+			}
+			long probeTime = System.currentTimeMillis() - start;
+			long probeBytes = allocatedBytes() - allocated;
+			assertEquals( LOOKUPS / 2, found );
+
+			System.out.println(
+					LOOKUPS + " entity and collection lookups: new keys " + keyTime + "ms, "
+							+ describe( keyBytes ) + "; probe keys " + probeTime + "ms, " + describe( probeBytes )
+			);
+		}
+	}
+
+	private static String describe(long bytes) {
+		return bytes < 0 ? "allocation not measured" : ( bytes / LOOKUPS ) + " bytes per lookup";
+	}
+
+	/**
+	 * The bytes allocated by the current thread, or a negative value if the JVM
+	 * does not measure them.
+	 */
+	private static long allocatedBytes() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		try {
+			Method method = bean.getClass().getMethod( "getThreadAllocatedBytes", new Class[] { long.class } );
+			method.setAccessible( true );
+			Long bytes = ( Long ) method.invoke( bean, new Object[] { new Long( Thread.currentThread().getId() ) } );
+			return bytes.longValue();
+		}
+		catch ( Exception e ) {
+			return -1;
+		}
+	}
+}
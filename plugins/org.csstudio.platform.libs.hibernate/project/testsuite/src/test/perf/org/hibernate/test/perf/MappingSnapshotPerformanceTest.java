@@ -0,0 +1,97 @@
+package org.hibernate.test.perf;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.MappingSnapshot;
+import org.hibernate.junit.UnitTestCase;
+
+/**
+ * Compares building the mappings of a large number of entities from their
+ * <tt>hbm.xml</tt> source and from a {@link MappingSnapshot}.
+ */
+public class MappingSnapshotPerformanceTest extends UnitTestCase {
+	private File mappingFile;
+	private File snapshotFile;
+
+	public MappingSnapshotPerformanceTest(String name) {
+		super( name );
+	}
+
+	public static Test suite() {
+		return new TestSuite( MappingSnapshotPerformanceTest.class );
+	}
+
+	public static void main(String[] args) throws Exception {
+		TestRunner.run( suite() );
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		mappingFile = File.createTempFile( "entities", ".hbm.xml" );
+		snapshotFile = File.createTempFile( "entities", ".snapshot" );
+		snapshotFile.delete();
+	}
+
+	protected void tearDown() throws Exception {
+		mappingFile.delete();
+		snapshotFile.delete();
+		super.tearDown();
+	}
+
+	public void testStartupTime() throws Exception {
+		final int entities = 1000;
+		writeMapping( entities );
+
+		long start = System.currentTimeMillis();
+		String checksum = MappingSnapshot.checksum( new File[] { mappingFile } );
+		Configuration source = new Configuration().addFile( mappingFile );
+		source.buildMappings();
+		long parsing = System.currentTimeMillis() - start;
+
+		source.writeMappingSnapshot( snapshotFile, checksum );
+
+		start = System.currentTimeMillis();
+		checksum = MappingSnapshot.checksum( new File[] { mappingFile } );
+		Configuration cfg = new Configuration();
+		assertTrue( cfg.addMappingSnapshot( snapshotFile, checksum ) );
+		cfg.buildMappings();
+		long snapshot = System.currentTimeMillis() - start;
+
+		assertNotNull( cfg.getClassMapping( "Entity" + ( entities - 1 ) ) );
+		System.out.println(
+				entities + " entities: mapping sources " + parsing + "ms, snapshot " + snapshot + "ms ("
+						+ snapshotFile.length() / 1024 + "KB)"
+		);
+	}
+
+	private void writeMapping(int entities) throws Exception {
+		Writer writer = new FileWriter( mappingFile );
+		try {
+			writer.write( "<?xml version=\"1.0\"?>\n" );
+			writer.write( "<!DOCTYPE hibernate-mapping PUBLIC \"-//Hibernate/Hibernate Mapping DTD 3.0//EN\"" );
+			writer.write( " \"http://hibernate.sourceforge.net/hibernate-mapping-3.0.dtd\">\n" );
+			writer.write( "<hibernate-mapping>\n" );
+			for ( int i = 0; i < entities; i++ ) {
+				writer.write( "<class entity-name=\"Entity" + i + "\" table=\"ENTITY_" + i + "\">\n" );
+				writer.write( "<id name=\"id\" type=\"long\"><generator class=\"native\"/></id>\n" );
+				writer.write( "<property name=\"name\" type=\"string\"/>\n" );
+				writer.write( "<property name=\"created\" type=\"timestamp\"/>\n" );
+				if ( i > 0 ) {
+					writer.write( "<many-to-one name=\"previous\" entity-name=\"Entity" + ( i - 1 ) + "\" column=\"PREVIOUS_ID\"/>\n" );
+				}
+				writer.write( "</class>\n" );
+			}
+			writer.write( "</hibernate-mapping>\n" );
+		}
+		finally {
+			writer.close();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package org.hibernate.test.perf;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.hibernate.bytecode.OrdinalAccessor;
+import org.hibernate.bytecode.javassist.OrdinalAccessorFactory;
+import org.hibernate.junit.UnitTestCase;
+import org.hibernate.property.BasicPropertyAccessor;
+import org.hibernate.property.Getter;
+import org.hibernate.property.Setter;
+import org.hibernate.test.bytecode.Bean;
+import org.hibernate.test.bytecode.BeanReflectionHelper;
+
+/**
+ * Measures reading and writing all the properties of an entity through the
+ * generated ordinal accessor, compared to the reflective getters and setters
+ * used by the tuplizer without it.
+ */
+public class OrdinalAccessorPerformanceTest extends UnitTestCase {
+
+	private static final String[] PROPERTIES = new String[] {
+			"someString", "someLong", "someInteger", "someDate", "somelong", "someint", "someObject"
+	};
+	private static final int ITERATIONS = 2000000;
+
+	public OrdinalAccessorPerformanceTest(String name) {
+		super( name );
+	}
+
+	public static Test suite() {
+		return new TestSuite( OrdinalAccessorPerformanceTest.class );
+	}
+
+	public static void main(String[] args) throws Exception {
+		TestRunner.run( suite() );
+	}
+
+	public void testAccess() throws Exception {
+		BasicPropertyAccessor propertyAccessor = new BasicPropertyAccessor();
+		Getter[] getters = new Getter[PROPERTIES.length];
+		Setter[] setters = new Setter[PROPERTIES.length];
+		for ( int i = 0; i < PROPERTIES.length; i++ ) {
+			getters[i] = propertyAccessor.getGetter( Bean.class, PROPERTIES[i] );
+			setters[i] = propertyAccessor.getSetter( Bean.class, PROPERTIES[i] );
+		}
+		OrdinalAccessor accessor = OrdinalAccessorFactory.create( Bean.class, getters, setters, null );
+		assertNotNull( accessor );
+
+		// warm up both first
+		run( getters, setters, null, false );
+		run( getters, setters, accessor, false );
+		run( getters, setters, null, true );
+		run( getters, setters, accessor, true );
+	}
+
+	private void run(Getter[] getters, Setter[] setters, OrdinalAccessor accessor, boolean report) {
+		Bean bean = new Bean();
+		Object[] values = BeanReflectionHelper.TEST_VALUES;
+		long start = System.currentTimeMillis();
+		for ( int n = 0; n < ITERATIONS; n++ ) {
+			if ( accessor == null ) {
+				for ( int i = 0; i < setters.length; i++ ) {
+					setters[i].set( bean, values[i], null );
+				}
+				for ( int i = 0; i < getters.length; i++ ) {
+					values[i] = getters[i].get( bean );
+				}
+			}
+			else {
+				accessor.setPropertyValues( bean, values );
+				values = accessor.getPropertyValues( bean );
+			}
+		}
+		long time = System.currentTimeMillis() - start;
+		if ( report ) {
+			System.out.println(
+					( accessor == null ? "reflection: " : "ordinal:    " )
+							+ ITERATIONS + " round trips, " + time + "ms, "
+							+ ( (long) ITERATIONS * 1000 / Math.max( time, 1 ) ) + " round trips/s"
+			);
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package org.hibernate.test.perf;
+
+import java.util.Comparator;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+import junit.textui.TestRunner;
+
+import org.hibernate.cache.Cache;
+import org.hibernate.cache.CacheConcurrencyStrategy;
+import org.hibernate.cache.HashtableCacheProvider;
+import org.hibernate.cache.ReadWriteCache;
+import org.hibernate.cache.access.SoftLock;
+import org.hibernate.junit.UnitTestCase;
+
+/**
+ * Measures the throughput of the read-write concurrency strategy under a
+ * read-mostly load spread over many keys, compared to a strategy serializing
+ * every operation on the strategy instance as it used to.
+ */
+public class ReadWriteCachePerformanceTest extends UnitTestCase {
+
+	private static final int KEYS = 10000;
+	private static final int OPERATIONS_PER_THREAD = 500000;
+	private static final int WRITE_PERCENTAGE = 5;
+
+	public ReadWriteCachePerformanceTest(String name) {
+		super( name );
+	}
+
+	public static Test suite() {
+		return new TestSuite( ReadWriteCachePerformanceTest.class );
+	}
+
+	public static void main(String[] args) throws Exception {
+		TestRunner.run( suite() );
+	}
+
+	public void testThroughput() throws Exception {
+		int cpus = Runtime.getRuntime().availableProcessors();
+		int[] threadCounts = new int[] { 1, 2, 4, cpus * 2 };
+		for ( int i = 0; i < threadCounts.length; i++ ) {
+			// warm up both strategies first
+			run( new SynchronizedReadWriteCache(), threadCounts[i], false );
+			run( new ReadWriteCache(), threadCounts[i], false );
+			run( new SynchronizedReadWriteCache(), threadCounts[i], true );
+			run( new ReadWriteCache(), threadCounts[i], true );
+		}
+	}
+
+	private void run(final CacheConcurrencyStrategy ccs, final int threadCount, boolean report) throws Exception {
+		final Cache cache = new HashtableCacheProvider().buildCache( "perf", System.getProperties() );
+		ccs.setCache( cache );
+		for ( int i = 0; i < KEYS; i++ ) {
+			ccs.put( new Integer( i ), "value" + i, cache.nextTimestamp(), null, null, false );
+		}
+		Thread.sleep( 15 );
+		final long txTimestamp = cache.nextTimestamp();
+
+		Thread[] threads = new Thread[threadCount];
+		for ( int t = 0; t < threadCount; t++ ) {
+			final int seed = t * 7919 + 1;
+			threads[t] = new Thread() {
+				public void run() {
+					int random = seed;
+					for ( int i = 0; i < OPERATIONS_PER_THREAD; i++ ) {
+						random ^= random << 13;
+						random ^= random >>> 17;
+						random ^= random << 5;
+						Integer key = new Integer( ( random & Integer.MAX_VALUE ) % KEYS );
+						if ( ( random >>> 24 & 0x7f ) % 100 < WRITE_PERCENTAGE ) {
+							SoftLock lock = ccs.lock( key, null );
+							ccs.afterUpdate( key, "updated", null, lock );
+						}
+						else {
+							ccs.get( key, txTimestamp );
+						}
+					}
+				}
+			};
+		}
+		long start = System.currentTimeMillis();
+		for ( int t = 0; t < threadCount; t++ ) {
+			threads[t].start();
+		}
+		for ( int t = 0; t < threadCount; t++ ) {
+			threads[t].join();
+		}
+		long time = System.currentTimeMillis() - start;
+		if ( report ) {
+			long operations = (long) OPERATIONS_PER_THREAD * threadCount;
+			System.out.println(
+					( ccs instanceof SynchronizedReadWriteCache ? "synchronized: " : "striped:      " )
+							+ threadCount + " threads, " + time + "ms, "
+							+ ( operations * 1000 / Math.max( time, 1 ) ) + " ops/s"
+			);
+		}
+	}
+
+	/**
+	 * Serializes every operation on the strategy instance.
+	 */
+	private static class SynchronizedReadWriteCache extends ReadWriteCache {
+		public synchronized Object get(Object key, long txTimestamp) {
+			return super.get( key, txTimestamp );
+		}
+
+		public synchronized SoftLock lock(Object key, Object version) {
+			return super.lock( key, version );
+		}
+
+		public synchronized boolean put(
+				Object key,
+				Object value,
+				long txTimestamp,
+				Object version,
+				Comparator versionComparator,
+				boolean minimalPut) {
+			return super.put( key, value, txTimestamp, version, versionComparator, minimalPut );
+		}
+
+		public synchronized void release(Object key, SoftLock clientLock) {
+			super.release( key, clientLock );
+		}
+
+		public synchronized boolean afterUpdate(Object key, Object value, Object version, SoftLock clientLock) {
+			return super.afterUpdate( key, value, version, clientLock );
+		}
+
+		public synchronized boolean afterInsert(Object key, Object value, Object version) {
+			return super.afterInsert( key, value, version );
+		}
+	}
+}